@@ -0,0 +1,54 @@
+package com.supermancell.benchmarks;
+
+import com.supermancell.common.model.Candle;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic test data shared by the benchmarks
+ */
+final class BenchmarkData {
+
+    static final String SYMBOL = "BTC-USDT-SWAP";
+    static final String INTERVAL = "1m";
+    static final long START_MILLIS = 1703505600000L;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Random-walk candles in chronological order, one minute apart
+     */
+    static List<Candle> candles(int count, long seed) {
+        Random random = new Random(seed);
+        List<Candle> candles = new ArrayList<>(count);
+        double close = 42000.0;
+        for (int i = 0; i < count; i++) {
+            double open = close;
+            close = Math.max(1.0, open + random.nextGaussian() * 25.0);
+            double high = Math.max(open, close) + random.nextDouble() * 15.0;
+            double low = Math.min(open, close) - random.nextDouble() * 15.0;
+            candles.add(candle(SYMBOL, INTERVAL, START_MILLIS + i * 60_000L, open, high, low, close,
+                    500.0 + random.nextDouble() * 1000.0));
+        }
+        return candles;
+    }
+
+    static Candle candle(String symbol, String interval, long timestampMillis,
+                         double open, double high, double low, double close, double volume) {
+        Candle candle = new Candle();
+        candle.setSymbol(symbol);
+        candle.setInterval(interval);
+        candle.setTimestamp(Instant.ofEpochMilli(timestampMillis));
+        candle.setOpen(open);
+        candle.setHigh(high);
+        candle.setLow(low);
+        candle.setClose(close);
+        candle.setVolume(volume);
+        candle.setConfirm("1");
+        return candle;
+    }
+}
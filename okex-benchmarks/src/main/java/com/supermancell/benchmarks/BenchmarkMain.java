@@ -0,0 +1,39 @@
+package com.supermancell.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar
+ * 
+ * Accepts the usual JMH command line (benchmark regex, -f, -wi, -i, -p ...), but
+ * always writes machine-readable JSON results so runs can be compared between
+ * commits. Default output is {@code jmh-result.json}; override with {@code -rff <file>}.
+ * 
+ * Example:
+ * <pre>
+ * java -jar okex-benchmarks/target/benchmarks.jar Calculator -rff results/$(git rev-parse --short HEAD).json
+ * </pre>
+ */
+public class BenchmarkMain {
+
+    private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams()
+                || commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+
+        OptionsBuilder options = new OptionsBuilder();
+        options.parent(commandLine);
+        options.resultFormat(commandLine.getResultFormat().orElse(ResultFormatType.JSON));
+        options.result(commandLine.getResult().orElse(DEFAULT_RESULT_FILE));
+
+        new Runner(options.build()).run();
+    }
+}
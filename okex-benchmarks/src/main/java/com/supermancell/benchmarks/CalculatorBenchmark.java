@@ -0,0 +1,101 @@
+package com.supermancell.benchmarks;
+
+import com.supermancell.common.model.Candle;
+import com.supermancell.common.model.IndicatorParams;
+import com.supermancell.common.model.IndicatorResult;
+import com.supermancell.common.model.IndicatorSeries;
+import com.supermancell.server.processor.BOLLCalculator;
+import com.supermancell.server.processor.MACDCalculator;
+import com.supermancell.server.processor.PinbarCalculator;
+import com.supermancell.server.processor.RSICalculator;
+import com.supermancell.server.service.IndicatorSpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Indicator calculators over candle windows of increasing size
+ * 
+ * Parameters are passed explicitly: the calculators' Spring defaults are not
+ * injected outside the application context.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CalculatorBenchmark {
+
+    @Param({"100", "1000", "100000"})
+    private int candleCount;
+
+    private final RSICalculator rsiCalculator = new RSICalculator();
+    private final BOLLCalculator bollCalculator = new BOLLCalculator();
+    private final MACDCalculator macdCalculator = new MACDCalculator();
+    private final PinbarCalculator pinbarCalculator = new PinbarCalculator();
+
+    private final IndicatorParams rsiParams = IndicatorSpec.rsi(14).getParams();
+    private final IndicatorParams bollParams = IndicatorSpec.boll(20, 2.0).getParams();
+    private final IndicatorParams macdParams = IndicatorSpec.macd(12, 26, 9).getParams();
+    private final IndicatorParams pinbarParams = IndicatorSpec.pinbar(0.2, 0.6).getParams();
+
+    private List<Candle> candles;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        candles = BenchmarkData.candles(candleCount, 42L);
+    }
+
+    @Benchmark
+    public IndicatorResult rsi() {
+        return rsiCalculator.calculate(candles, rsiParams);
+    }
+
+    @Benchmark
+    public IndicatorResult boll() {
+        return bollCalculator.calculate(candles, bollParams);
+    }
+
+    @Benchmark
+    public IndicatorResult macd() {
+        return macdCalculator.calculate(candles, macdParams);
+    }
+
+    @Benchmark
+    public IndicatorResult pinbar() {
+        return pinbarCalculator.calculate(candles, pinbarParams);
+    }
+
+    @Benchmark
+    public IndicatorSeries rsiSeries() {
+        return rsiCalculator.calculateSeries(candles, rsiParams);
+    }
+
+    @Benchmark
+    public IndicatorSeries bollSeries() {
+        return bollCalculator.calculateSeries(candles, bollParams);
+    }
+
+    @Benchmark
+    public IndicatorSeries macdSeries() {
+        return macdCalculator.calculateSeries(candles, macdParams);
+    }
+
+    @Benchmark
+    public PinbarCalculator.PinbarScan pinbarScan() {
+        return pinbarCalculator.scan(candles, pinbarParams);
+    }
+}
@@ -0,0 +1,93 @@
+package com.supermancell.benchmarks;
+
+import com.supermancell.common.model.Candle;
+import com.supermancell.server.websocket.CandleBatchWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CandleBatchWriter.addCandle with several WebSocket threads writing at once
+ * 
+ * Updates hit a bounded key space (symbols × recent timestamps), so most calls
+ * replace an existing buffered candle as they do between two flushes in production.
+ * The writer is never flushed: repository and metrics are not needed.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CandleBatchWriterBenchmark {
+
+    private static final String[] SYMBOLS = {
+            "BTC-USDT-SWAP", "ETH-USDT-SWAP", "SOL-USDT-SWAP", "XRP-USDT-SWAP",
+            "DOGE-USDT-SWAP", "ADA-USDT-SWAP", "AVAX-USDT-SWAP", "LINK-USDT-SWAP"
+    };
+    private static final String[] INTERVALS = {"1m", "1H"};
+    private static final int TIMESTAMPS = 16;
+
+    @State(Scope.Benchmark)
+    public static class WriterState {
+        CandleBatchWriter writer;
+        List<Candle> updates;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            writer = new CandleBatchWriter(null, null);
+            updates = new ArrayList<>();
+            for (String symbol : SYMBOLS) {
+                for (String interval : INTERVALS) {
+                    for (int t = 0; t < TIMESTAMPS; t++) {
+                        updates.add(BenchmarkData.candle(symbol, interval,
+                                BenchmarkData.START_MILLIS + t * 60_000L,
+                                100.0, 101.0, 99.0, 100.5, 10.0));
+                    }
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            writer = null;
+        }
+    }
+
+    private static void addRandom(WriterState state) {
+        int index = ThreadLocalRandom.current().nextInt(state.updates.size());
+        state.writer.addCandle(state.updates.get(index));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void addCandleSingleThread(WriterState state) {
+        addRandom(state);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void addCandle4Threads(WriterState state) {
+        addRandom(state);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void addCandle16Threads(WriterState state) {
+        addRandom(state);
+    }
+}
@@ -0,0 +1,122 @@
+package com.supermancell.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.supermancell.common.model.Candle;
+import com.supermancell.common.model.IndicatorResult;
+import com.supermancell.server.cache.CandleCacheService;
+import com.supermancell.server.processor.RSICalculator;
+import com.supermancell.server.service.IndicatorSpec;
+import com.supermancell.server.service.LatencyTracker;
+import com.supermancell.server.service.SystemMetricsService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CandleCacheService serialization round trips
+ * 
+ * Redis is replaced by an in-memory map so the numbers show the cost of the
+ * JSON encoding/decoding done on every cache access, not network latency.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CandleCacheServiceBenchmark {
+
+    private static final int EXPIRE_SECONDS = 300;
+
+    @Param({"300"})
+    private int candleCount;
+
+    private CandleCacheService cacheService;
+    private List<Candle> candles;
+    private IndicatorResult indicatorResult;
+    private String indicatorKey;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+
+        cacheService = new CandleCacheService(new InMemoryJedisPool(), objectMapper,
+                new SystemMetricsService(new SimpleMeterRegistry(), new LatencyTracker()));
+        setField(cacheService, "redisEnabled", true);
+        setField(cacheService, "indicatorCacheTTL", EXPIRE_SECONDS);
+
+        candles = BenchmarkData.candles(candleCount, 7L);
+        indicatorResult = new RSICalculator().calculate(candles, IndicatorSpec.rsi(14).getParams());
+        indicatorKey = "indicator:result:RSI:" + BenchmarkData.SYMBOL + ":" + BenchmarkData.INTERVAL;
+    }
+
+    @Benchmark
+    public List<Candle> candlesRoundTrip() {
+        cacheService.cacheCandles(BenchmarkData.SYMBOL, BenchmarkData.INTERVAL, candleCount, candles, EXPIRE_SECONDS);
+        return cacheService.getCachedCandles(BenchmarkData.SYMBOL, BenchmarkData.INTERVAL, candleCount);
+    }
+
+    @Benchmark
+    public IndicatorResult indicatorRoundTrip() {
+        cacheService.cacheIndicatorResult(indicatorKey, indicatorResult);
+        return cacheService.getIndicatorResult(indicatorKey);
+    }
+
+    private static void setField(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    /**
+     * Pool handing out a single map-backed Jedis; never opens a connection
+     */
+    static final class InMemoryJedisPool extends JedisPool {
+        private final Jedis jedis = new InMemoryJedis();
+
+        @Override
+        public Jedis getResource() {
+            return jedis;
+        }
+    }
+
+    static final class InMemoryJedis extends Jedis {
+        private final Map<String, String> values = new ConcurrentHashMap<>();
+
+        @Override
+        public String get(String key) {
+            return values.get(key);
+        }
+
+        @Override
+        public String setex(String key, long seconds, String value) {
+            values.put(key, value);
+            return "OK";
+        }
+
+        @Override
+        public void close() {
+            // Nothing to return to the pool
+        }
+    }
+}
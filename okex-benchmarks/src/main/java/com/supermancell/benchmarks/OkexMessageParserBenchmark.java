@@ -0,0 +1,58 @@
+package com.supermancell.benchmarks;
+
+import com.supermancell.common.model.Candle;
+import com.supermancell.server.websocket.OkexMessageParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OkexMessageParser.parseCandle on frames as sent by the OKX business WebSocket
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OkexMessageParserBenchmark {
+
+    /** Live update of the in-progress candle */
+    private static final String CANDLE_FRAME = "{\"arg\":{\"channel\":\"candle1m\",\"instId\":\"BTC-USDT-SWAP\"},"
+            + "\"data\":[[\"1703505600000\",\"42000.5\",\"42100.8\",\"41950.2\",\"42050.3\","
+            + "\"1250.8\",\"1250.8\",\"52650400.12\",\"0\"]]}";
+
+    /** Confirmed 1H candle */
+    private static final String CONFIRMED_FRAME = "{\"arg\":{\"channel\":\"candle1H\",\"instId\":\"ETH-USDT-SWAP\"},"
+            + "\"data\":[[\"1703505600000\",\"2250.31\",\"2262.9\",\"2241.05\",\"2259.47\","
+            + "\"18234.1\",\"182341\",\"41192837.55\",\"1\"]]}";
+
+    /** Subscription acknowledgement (not a candle) */
+    private static final String EVENT_FRAME = "{\"event\":\"subscribe\","
+            + "\"arg\":{\"channel\":\"candle1m\",\"instId\":\"BTC-USDT-SWAP\"},\"connId\":\"a4d3ae55\"}";
+
+    private final OkexMessageParser parser = new OkexMessageParser();
+
+    @Benchmark
+    public Candle parseCandleUpdate() {
+        return parser.parseCandle(CANDLE_FRAME);
+    }
+
+    @Benchmark
+    public Candle parseConfirmedCandle() {
+        return parser.parseCandle(CONFIRMED_FRAME);
+    }
+
+    @Benchmark
+    public Candle parseEventFrame() {
+        return parser.parseCandle(EVENT_FRAME);
+    }
+}
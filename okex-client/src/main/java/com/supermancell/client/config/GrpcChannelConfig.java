@@ -0,0 +1,107 @@
+package com.supermancell.client.config;
+
+import net.devh.boot.grpc.client.channelfactory.GrpcChannelConfigurer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Load balancing configuration for the okex-server channel
+ * 
+ * With several endpoints in the channel address (e.g.
+ * {@code static://10.0.0.1:50051,10.0.0.2:50051} or a {@code dns:///} name with
+ * several A records), calls are spread with the configured policy. Optionally:
+ * - Health checking: subchannels whose gRPC health service does not report
+ *   SERVING are taken out of rotation (round_robin only)
+ * - Outlier ejection: endpoints with a high RPC failure rate are ejected for a while
+ */
+@Configuration
+public class GrpcChannelConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(GrpcChannelConfig.class);
+
+    private static final String CHANNEL_NAME = "okex-server";
+
+    @Value("${indicator.client.load-balancing.policy:round_robin}")
+    private String policy;
+
+    @Value("${indicator.client.load-balancing.health-check.enabled:true}")
+    private boolean healthCheckEnabled;
+
+    @Value("${indicator.client.load-balancing.health-check.service-name:}")
+    private String healthServiceName;
+
+    @Value("${indicator.client.load-balancing.outlier-detection.enabled:true}")
+    private boolean outlierDetectionEnabled;
+
+    @Value("${indicator.client.load-balancing.outlier-detection.interval-seconds:10}")
+    private int outlierIntervalSeconds;
+
+    @Value("${indicator.client.load-balancing.outlier-detection.base-ejection-seconds:30}")
+    private int baseEjectionSeconds;
+
+    @Value("${indicator.client.load-balancing.outlier-detection.max-ejection-percent:50}")
+    private int maxEjectionPercent;
+
+    @Value("${indicator.client.load-balancing.outlier-detection.failure-percentage-threshold:50}")
+    private int failurePercentageThreshold;
+
+    @Value("${indicator.client.load-balancing.outlier-detection.minimum-hosts:2}")
+    private int minimumHosts;
+
+    @Value("${indicator.client.load-balancing.outlier-detection.request-volume:20}")
+    private int requestVolume;
+
+    @Bean
+    public GrpcChannelConfigurer loadBalancingChannelConfigurer() {
+        return (builder, name) -> {
+            if (!CHANNEL_NAME.equals(name)) {
+                return;
+            }
+            Map<String, ?> serviceConfig = buildServiceConfig();
+            log.info("Configuring gRPC channel '{}' with service config: {}", name, serviceConfig);
+            builder.defaultServiceConfig(serviceConfig);
+        };
+    }
+
+    /**
+     * Build the channel's default service config
+     * Numbers must be Doubles and durations strings, as if parsed from JSON.
+     */
+    Map<String, ?> buildServiceConfig() {
+        Map<String, Object> childPolicy = Collections.singletonMap(policy, Collections.emptyMap());
+        Map<String, Object> lbConfig = childPolicy;
+
+        if (outlierDetectionEnabled) {
+            Map<String, Object> failurePercentage = new HashMap<>();
+            failurePercentage.put("threshold", (double) failurePercentageThreshold);
+            failurePercentage.put("enforcementPercentage", 100.0);
+            failurePercentage.put("minimumHosts", (double) minimumHosts);
+            failurePercentage.put("requestVolume", (double) requestVolume);
+
+            Map<String, Object> outlier = new HashMap<>();
+            outlier.put("interval", outlierIntervalSeconds + "s");
+            outlier.put("baseEjectionTime", baseEjectionSeconds + "s");
+            outlier.put("maxEjectionPercent", (double) maxEjectionPercent);
+            outlier.put("failurePercentageEjection", failurePercentage);
+            outlier.put("childPolicy", Collections.singletonList(childPolicy));
+
+            lbConfig = Collections.singletonMap("outlier_detection_experimental", outlier);
+        }
+
+        List<Map<String, Object>> loadBalancingConfig = Collections.singletonList(lbConfig);
+        Map<String, Object> serviceConfig = new HashMap<>();
+        serviceConfig.put("loadBalancingConfig", loadBalancingConfig);
+        if (healthCheckEnabled) {
+            serviceConfig.put("healthCheckConfig", Collections.singletonMap("serviceName", healthServiceName));
+        }
+        return serviceConfig;
+    }
+}
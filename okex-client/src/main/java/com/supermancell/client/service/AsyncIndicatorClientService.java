@@ -0,0 +1,362 @@
+package com.supermancell.client.service;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.okex.common.proto.IndicatorServiceGrpc;
+import com.okex.common.proto.IndicatorServiceProto.*;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking gRPC Client Service for Technical Indicator Calculations
+ *
+ * Async counterpart of {@link IndicatorClientService}: unary calls return
+ * {@link CompletableFuture}s, batch and streaming calls return reactive-streams
+ * {@link Publisher}s with subscriber-driven flow control. No caller thread is
+ * blocked, so many requests can be pipelined over the same channel.
+ *
+ * Limits:
+ * - At most {@code indicator.client.max-in-flight} unary calls run at once;
+ *   further calls queue (up to {@code max-queued}) and start when a slot frees up
+ * - At most {@code indicator.client.max-streams} batch/stream calls are open at once;
+ *   subscribing beyond that fails the subscriber with {@link RejectedExecutionException}
+ *
+ * Like the blocking service, unary futures complete with an error response
+ * ({@code success=false}) instead of failing exceptionally.
+ */
+@Service
+public class AsyncIndicatorClientService {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncIndicatorClientService.class);
+
+    /**
+     * Future stub for unary calls
+     */
+    @GrpcClient("okex-server")
+    private IndicatorServiceGrpc.IndicatorServiceFutureStub futureStub;
+
+    /**
+     * Async stub for batch and streaming calls
+     */
+    @GrpcClient("okex-server")
+    private IndicatorServiceGrpc.IndicatorServiceStub asyncStub;
+
+    @Value("${indicator.client.max-in-flight:256}")
+    private int maxInFlight = 256;
+
+    @Value("${indicator.client.max-queued:10000}")
+    private int maxQueued = 10000;
+
+    @Value("${indicator.client.max-streams:64}")
+    private int maxStreams = 64;
+
+    @Value("${indicator.client.deadline-ms:30000}")
+    private long deadlineMs = 30000;
+
+    private InFlightLimiter limiter;
+    private Semaphore streamPermits;
+
+    @PostConstruct
+    public void init() {
+        limiter = new InFlightLimiter(maxInFlight, maxQueued);
+        streamPermits = new Semaphore(maxStreams);
+        log.info("Async indicator client initialized: maxInFlight={}, maxQueued={}, maxStreams={}, deadlineMs={}",
+                maxInFlight, maxQueued, maxStreams, deadlineMs);
+    }
+
+    // ==================== Unary Methods ====================
+
+    /**
+     * Calculate RSI asynchronously
+     *
+     * @param symbol Trading pair symbol (e.g., "BTC-USDT-SWAP")
+     * @param interval Candle interval (e.g., "1m", "1H")
+     * @param period RSI period (typically 14)
+     * @param limit Number of candles to fetch
+     * @return Future with the RSI response
+     */
+    public CompletableFuture<IndicatorResponse> calculateRSI(String symbol, String interval, int period, int limit) {
+        RSIRequest request = RSIRequest.newBuilder()
+                .setBase(buildBase(symbol, interval, limit))
+                .setPeriod(period)
+                .build();
+        return unary(() -> stub().calculateRSI(request),
+                message -> buildErrorResponse(message, IndicatorType.RSI));
+    }
+
+    /**
+     * Calculate Bollinger Bands asynchronously
+     *
+     * @param symbol Trading pair symbol
+     * @param interval Candle interval
+     * @param period BOLL period (typically 20)
+     * @param stdDev Standard deviation multiplier (typically 2.0)
+     * @param limit Number of candles to fetch
+     * @return Future with the BOLL response
+     */
+    public CompletableFuture<IndicatorResponse> calculateBOLL(String symbol, String interval, int period,
+                                                              double stdDev, int limit) {
+        BOLLRequest request = BOLLRequest.newBuilder()
+                .setBase(buildBase(symbol, interval, limit))
+                .setPeriod(period)
+                .setStdDev(stdDev)
+                .build();
+        return unary(() -> stub().calculateBOLL(request),
+                message -> buildErrorResponse(message, IndicatorType.BOLL));
+    }
+
+    /**
+     * Calculate MACD asynchronously
+     *
+     * @param symbol Trading pair symbol
+     * @param interval Candle interval
+     * @param fastPeriod Fast EMA period (typically 12)
+     * @param slowPeriod Slow EMA period (typically 26)
+     * @param signalPeriod Signal line period (typically 9)
+     * @param limit Number of candles to fetch
+     * @return Future with the MACD response
+     */
+    public CompletableFuture<IndicatorResponse> calculateMACD(String symbol, String interval, int fastPeriod,
+                                                              int slowPeriod, int signalPeriod, int limit) {
+        MACDRequest request = MACDRequest.newBuilder()
+                .setBase(buildBase(symbol, interval, limit))
+                .setFastPeriod(fastPeriod)
+                .setSlowPeriod(slowPeriod)
+                .setSignalPeriod(signalPeriod)
+                .build();
+        return unary(() -> stub().calculateMACD(request),
+                message -> buildErrorResponse(message, IndicatorType.MACD));
+    }
+
+    /**
+     * Detect Pinbar pattern asynchronously
+     *
+     * @param symbol Trading pair symbol
+     * @param interval Candle interval
+     * @param bodyRatioThreshold Maximum body/range ratio
+     * @param wickRatioThreshold Minimum wick/range ratio
+     * @param limit Number of candles to fetch
+     * @return Future with the Pinbar response
+     */
+    public CompletableFuture<IndicatorResponse> calculatePinbar(String symbol, String interval,
+                                                                double bodyRatioThreshold,
+                                                                double wickRatioThreshold, int limit) {
+        PinbarRequest request = PinbarRequest.newBuilder()
+                .setBase(buildBase(symbol, interval, limit))
+                .setBodyRatioThreshold(bodyRatioThreshold)
+                .setWickRatioThreshold(wickRatioThreshold)
+                .build();
+        return unary(() -> stub().calculatePinbar(request),
+                message -> buildErrorResponse(message, IndicatorType.PINBAR));
+    }
+
+    /**
+     * Calculate several indicators for the same symbol/interval asynchronously
+     *
+     * @param symbol Trading pair symbol
+     * @param interval Candle interval
+     * @param limit Number of candles to fetch
+     * @param queries Indicator queries (type + parameters)
+     * @return Future with one result per query, in query order
+     */
+    public CompletableFuture<MultiIndicatorResponse> calculateMulti(String symbol, String interval, int limit,
+                                                                    List<IndicatorQuery> queries) {
+        MultiIndicatorRequest request = MultiIndicatorRequest.newBuilder()
+                .setBase(buildBase(symbol, interval, limit))
+                .addAllQueries(queries)
+                .build();
+        return unary(() -> stub().calculateMulti(request),
+                message -> MultiIndicatorResponse.newBuilder()
+                        .setSuccess(false)
+                        .setErrorMessage(message)
+                        .setSymbol(symbol)
+                        .setInterval(interval)
+                        .build());
+    }
+
+    // ==================== Batch / Stream Methods ====================
+
+    /**
+     * Calculate RSI in batch as a reactive stream
+     * Responses arrive in completion order; use {@code request_index} to map them back.
+     *
+     * @param requests List of RSI requests
+     * @return Publisher of indicator responses, the call starts on subscribe
+     */
+    public Publisher<IndicatorResponse> calculateRSIBatch(List<RSIRequest> requests) {
+        BatchRSIRequest request = BatchRSIRequest.newBuilder().addAllRequests(requests).build();
+        return publisher("calculateRSIBatch", observer -> batchStub().calculateRSIBatch(request, observer));
+    }
+
+    /**
+     * Calculate Bollinger Bands in batch as a reactive stream
+     *
+     * @param requests List of BOLL requests
+     * @return Publisher of indicator responses, the call starts on subscribe
+     */
+    public Publisher<IndicatorResponse> calculateBOLLBatch(List<BOLLRequest> requests) {
+        BatchBOLLRequest request = BatchBOLLRequest.newBuilder().addAllRequests(requests).build();
+        return publisher("calculateBOLLBatch", observer -> batchStub().calculateBOLLBatch(request, observer));
+    }
+
+    /**
+     * Calculate MACD in batch as a reactive stream
+     *
+     * @param requests List of MACD requests
+     * @return Publisher of indicator responses, the call starts on subscribe
+     */
+    public Publisher<IndicatorResponse> calculateMACDBatch(List<MACDRequest> requests) {
+        BatchMACDRequest request = BatchMACDRequest.newBuilder().addAllRequests(requests).build();
+        return publisher("calculateMACDBatch", observer -> batchStub().calculateMACDBatch(request, observer));
+    }
+
+    /**
+     * Detect Pinbar patterns in batch as a reactive stream
+     *
+     * @param requests List of Pinbar requests
+     * @return Publisher of indicator responses, the call starts on subscribe
+     */
+    public Publisher<IndicatorResponse> calculatePinbarBatch(List<PinbarRequest> requests) {
+        BatchPinbarRequest request = BatchPinbarRequest.newBuilder().addAllRequests(requests).build();
+        return publisher("calculatePinbarBatch", observer -> batchStub().calculatePinbarBatch(request, observer));
+    }
+
+    /**
+     * Subscribe to live indicator values as a reactive stream
+     * The stream has no deadline; cancel the subscription to stop it.
+     *
+     * @param symbol Trading pair symbol
+     * @param interval Candle interval
+     * @param indicatorTypes Indicator types to receive
+     * @param includeUpdates true to also receive values for in-progress (unconfirmed) candles
+     * @return Publisher of indicator responses, the call starts on subscribe
+     */
+    public Publisher<IndicatorResponse> streamIndicators(String symbol, String interval,
+                                                         List<IndicatorType> indicatorTypes,
+                                                         boolean includeUpdates) {
+        StreamRequest request = StreamRequest.newBuilder()
+                .setSymbol(symbol)
+                .setInterval(interval)
+                .addAllIndicators(indicatorTypes)
+                .setIncludeUpdates(includeUpdates)
+                .build();
+        return publisher("streamIndicators", observer -> asyncStub.streamIndicators(request, observer));
+    }
+
+    /**
+     * Number of unary calls waiting for an in-flight slot
+     */
+    public int getQueuedCount() {
+        return limiter.getQueuedCount();
+    }
+
+    /**
+     * Number of unary calls currently in flight
+     */
+    public int getInFlightCount() {
+        return maxInFlight - limiter.getAvailablePermits();
+    }
+
+    /**
+     * Number of batch/stream calls currently open
+     */
+    public int getOpenStreamCount() {
+        return maxStreams - streamPermits.availablePermits();
+    }
+
+    // ==================== Helper Methods ====================
+
+    private IndicatorServiceGrpc.IndicatorServiceFutureStub stub() {
+        // Deadline starts when the call actually starts, not while it is queued
+        return futureStub.withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS);
+    }
+
+    private IndicatorServiceGrpc.IndicatorServiceStub batchStub() {
+        return asyncStub.withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Run a unary call through the in-flight limiter, mapping failures to error responses
+     */
+    private <T> CompletableFuture<T> unary(Supplier<ListenableFuture<T>> call, Function<String, T> errorResponse) {
+        CompletableFuture<T> future = limiter.submit(call);
+        CompletableFuture<T> result = future.handle((response, error) -> {
+            if (error == null) {
+                return response;
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            if (cause instanceof CancellationException) {
+                throw (CancellationException) cause;
+            }
+            if (cause instanceof RejectedExecutionException) {
+                log.warn("Async gRPC call rejected: {}", cause.getMessage());
+                return errorResponse.apply("Rejected: " + cause.getMessage());
+            }
+            log.error("Async gRPC call failed", cause);
+            return errorResponse.apply("gRPC error: " + Status.fromThrowable(cause).getDescription());
+        });
+        // Cancelling the returned future cancels the underlying call
+        result.whenComplete((response, error) -> {
+            if (result.isCancelled()) {
+                future.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Wrap a server-streaming call as a Publisher holding one stream permit while open
+     */
+    private <T> Publisher<T> publisher(String method, Consumer<StreamObserver<T>> call) {
+        AtomicBoolean acquired = new AtomicBoolean();
+        return new GrpcStreamPublisher<>(observer -> {
+            if (!streamPermits.tryAcquire()) {
+                throw new RejectedExecutionException(
+                        "Too many open streams: " + maxStreams + " already open");
+            }
+            acquired.set(true);
+            log.debug("Starting async gRPC {}", method);
+            call.accept(observer);
+        }, () -> {
+            if (acquired.compareAndSet(true, false)) {
+                streamPermits.release();
+            }
+        });
+    }
+
+    private BaseRequest buildBase(String symbol, String interval, int limit) {
+        return BaseRequest.newBuilder()
+                .setSymbol(symbol)
+                .setInterval(interval)
+                .setLimit(limit)
+                .build();
+    }
+
+    private IndicatorResponse buildErrorResponse(String errorMessage, IndicatorType type) {
+        return IndicatorResponse.newBuilder()
+                .setSuccess(false)
+                .setErrorMessage(errorMessage)
+                .setIndicatorType(type)
+                .setTimestamp(System.currentTimeMillis())
+                .build();
+    }
+}
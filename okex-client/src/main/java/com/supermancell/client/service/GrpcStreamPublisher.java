@@ -0,0 +1,231 @@
+package com.supermancell.client.service;
+
+import io.grpc.Status;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.StreamObserver;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Reactive-streams Publisher over a server-streaming gRPC call.
+ * 
+ * Inbound flow control is manual: the call starts with the demand signalled from
+ * {@code onSubscribe} (none by default) and every later {@code request(n)} is forwarded
+ * to {@code ClientCallStreamObserver.request(n)},
+ * so the server only sends what the subscriber is ready to consume.
+ * The call is started on subscribe; only one subscriber is allowed.
+ */
+public class GrpcStreamPublisher<T> implements Publisher<T> {
+
+    private final Consumer<StreamObserver<T>> callStarter;
+    private final Runnable onTerminate;
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+
+    /**
+     * @param callStarter Starts the call with the given response observer (e.g. {@code o -> asyncStub.x(request, o)})
+     * @param onTerminate Invoked once when the call ends for any reason
+     */
+    GrpcStreamPublisher(Consumer<StreamObserver<T>> callStarter, Runnable onTerminate) {
+        this.callStarter = callStarter;
+        this.onTerminate = onTerminate;
+    }
+
+    @Override
+    public void subscribe(Subscriber<? super T> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber");
+        }
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("GrpcStreamPublisher allows only one subscriber"));
+            return;
+        }
+
+        CallSubscription<T> subscription = new CallSubscription<>(subscriber, onTerminate);
+        subscriber.onSubscribe(subscription);
+        if (!subscription.isCancelled()) {
+            try {
+                callStarter.accept(subscription);
+                subscription.started();
+            } catch (RuntimeException e) {
+                subscription.onError(e);
+            }
+        } else {
+            subscription.terminate();
+        }
+    }
+
+    /**
+     * Bridges subscriber demand and gRPC inbound flow control
+     */
+    private static class CallSubscription<T> implements Subscription, ClientResponseObserver<Object, T> {
+        private final Subscriber<? super T> subscriber;
+        private final Runnable onTerminate;
+        private final AtomicBoolean terminated = new AtomicBoolean();
+        /** Set in beforeStart(); request() is only allowed once the call has started */
+        private ClientCallStreamObserver<Object> starting;
+        /** Set once the call has started */
+        private ClientCallStreamObserver<Object> call;
+        private long pendingDemand;
+        private boolean cancelled;
+        private boolean done;
+
+        CallSubscription(Subscriber<? super T> subscriber, Runnable onTerminate) {
+            this.subscriber = subscriber;
+            this.onTerminate = onTerminate;
+        }
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<Object> requestStream) {
+            long demand;
+            synchronized (this) {
+                starting = requestStream;
+                demand = pendingDemand;
+                pendingDemand = 0;
+            }
+            // Demand signalled so far becomes the initial request of the call
+            requestStream.disableAutoRequestWithInitial((int) Math.min(demand, Integer.MAX_VALUE));
+        }
+
+        /**
+         * Called once the call has started: forward demand signalled since beforeStart()
+         * and a cancel that arrived in between
+         */
+        void started() {
+            ClientCallStreamObserver<Object> target;
+            long demand;
+            boolean cancelNow;
+            synchronized (this) {
+                call = starting;
+                if (call == null || done) {
+                    return;
+                }
+                target = call;
+                demand = pendingDemand;
+                pendingDemand = 0;
+                cancelNow = cancelled;
+            }
+            if (cancelNow) {
+                target.cancel("Cancelled by subscriber", null);
+            } else {
+                forward(target, demand);
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                // Terminal state first: cancelling may deliver CANCELLED synchronously, which
+                // would otherwise be taken as a plain user cancel and hide this error
+                boolean signal;
+                synchronized (this) {
+                    signal = !done;
+                    done = true;
+                }
+                cancel();
+                if (signal) {
+                    terminate();
+                    subscriber.onError(new IllegalArgumentException("Rule 3.9: request must be positive, was " + n));
+                }
+                return;
+            }
+            ClientCallStreamObserver<Object> target;
+            synchronized (this) {
+                if (cancelled || done) {
+                    return;
+                }
+                target = call;
+                if (target == null) {
+                    pendingDemand = pendingDemand + n < 0 ? Long.MAX_VALUE : pendingDemand + n;
+                    return;
+                }
+            }
+            forward(target, n);
+        }
+
+        @Override
+        public void cancel() {
+            ClientCallStreamObserver<Object> target;
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                cancelled = true;
+                target = call;
+            }
+            if (target != null) {
+                target.cancel("Cancelled by subscriber", null);
+            }
+        }
+
+        @Override
+        public void onNext(T value) {
+            synchronized (this) {
+                if (cancelled || done) {
+                    return;
+                }
+            }
+            subscriber.onNext(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            boolean userCancel;
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                userCancel = cancelled && Status.fromThrowable(t).getCode() == Status.Code.CANCELLED;
+            }
+            terminate();
+            if (!userCancel) {
+                subscriber.onError(t);
+            }
+        }
+
+        @Override
+        public void onCompleted() {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+            }
+            terminate();
+            if (!isCancelled()) {
+                subscriber.onComplete();
+            }
+        }
+
+        synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        void terminate() {
+            if (terminated.compareAndSet(false, true)) {
+                onTerminate.run();
+            }
+        }
+
+        private static void forward(ClientCallStreamObserver<Object> target, long demand) {
+            if (demand > 0) {
+                // Demand beyond Integer.MAX_VALUE is treated as unbounded
+                target.request((int) Math.min(demand, Integer.MAX_VALUE));
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.supermancell.client.service;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking limiter for in-flight unary gRPC calls.
+ * 
+ * At most {@code maxInFlight} calls run at once. Further calls wait in a queue
+ * (bounded by {@code maxQueued}) and start as soon as a running call finishes,
+ * so callers never block a thread waiting for a permit.
+ */
+class InFlightLimiter {
+
+    private final Semaphore permits;
+    private final int maxQueued;
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    InFlightLimiter(int maxInFlight, int maxQueued) {
+        this.permits = new Semaphore(maxInFlight);
+        this.maxQueued = maxQueued;
+    }
+
+    /**
+     * Start the call now or once a permit is free
+     * 
+     * @param call Starts the gRPC call (invoked at most once)
+     * @return Future completed with the call result; cancelling it cancels the call
+     */
+    <T> CompletableFuture<T> submit(Supplier<ListenableFuture<T>> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        Runnable start = () -> {
+            if (result.isDone()) {
+                // Cancelled while queued
+                release();
+                return;
+            }
+            ListenableFuture<T> future;
+            try {
+                future = call.get();
+            } catch (RuntimeException e) {
+                release();
+                result.completeExceptionally(e);
+                return;
+            }
+            Futures.addCallback(future, new FutureCallback<T>() {
+                @Override
+                public void onSuccess(T value) {
+                    release();
+                    result.complete(value);
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    release();
+                    result.completeExceptionally(t);
+                }
+            }, MoreExecutors.directExecutor());
+            result.whenComplete((value, error) -> {
+                if (result.isCancelled()) {
+                    future.cancel(true);
+                }
+            });
+        };
+
+        if (permits.tryAcquire()) {
+            start.run();
+        } else if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            result.completeExceptionally(new RejectedExecutionException(
+                    "Too many pending calls: " + maxQueued + " already queued"));
+        } else {
+            waiting.add(start);
+            drain();
+        }
+        return result;
+    }
+
+    int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    int getQueuedCount() {
+        return queued.get();
+    }
+
+    private void release() {
+        permits.release();
+        drain();
+    }
+
+    private void drain() {
+        while (!waiting.isEmpty() && permits.tryAcquire()) {
+            Runnable next = waiting.poll();
+            if (next == null) {
+                permits.release();
+                return;
+            }
+            queued.decrementAndGet();
+            next.run();
+        }
+    }
+}
@@ -1,17 +1,23 @@
 package com.supermancell.client.service;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import com.okex.common.proto.IndicatorServiceGrpc;
 import com.okex.common.proto.IndicatorServiceProto.*;
+import io.grpc.Context;
 import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.client.inject.GrpcClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * gRPC Client Service for Technical Indicator Calculations
@@ -24,6 +30,7 @@ import java.util.concurrent.TimeUnit;
  * - Batch calculations with streaming responses
  * - Real-time indicator streaming
  * - Automatic connection management via Spring Boot gRPC starter
+ * - Optional client-side response cache and request hedging for unary calls
  */
 @Service
 public class IndicatorClientService {
@@ -37,6 +44,26 @@ public class IndicatorClientService {
     @GrpcClient("okex-server")
     private IndicatorServiceGrpc.IndicatorServiceBlockingStub blockingStub;
     
+    /**
+     * Async stub for long-lived streaming subscriptions
+     */
+    @GrpcClient("okex-server")
+    private IndicatorServiceGrpc.IndicatorServiceStub asyncStub;
+    
+    /**
+     * Future stub for hedged unary calls
+     */
+    @GrpcClient("okex-server")
+    private IndicatorServiceGrpc.IndicatorServiceFutureStub futureStub;
+    
+    private final ResponseCache responseCache;
+    private final RequestHedger requestHedger;
+    
+    public IndicatorClientService(ResponseCache responseCache, RequestHedger requestHedger) {
+        this.responseCache = responseCache;
+        this.requestHedger = requestHedger;
+    }
+    
     // ==================== RSI Methods ====================
     
     /**
@@ -60,7 +87,8 @@ public class IndicatorClientService {
                     .build();
             
             log.debug("Calling gRPC calculateRSI: symbol={}, interval={}, period={}", symbol, interval, period);
-            IndicatorResponse response = blockingStub.calculateRSI(request);
+            IndicatorResponse response = invoke(request, interval, blockingStub::calculateRSI, 
+                    futureStub::calculateRSI, IndicatorResponse::getSuccess);
             log.debug("Received RSI response: success={}, value={}", response.getSuccess(), response.getRsiValue());
             
             return response;
@@ -94,6 +122,9 @@ public class IndicatorClientService {
                 responses.add(iterator.next());
             }
             
+            // Server streams results in completion order; restore request order
+            responses.sort(Comparator.comparingInt(IndicatorResponse::getRequestIndex));
+            
             log.debug("Received {} RSI batch responses", responses.size());
             return responses;
             
@@ -131,7 +162,8 @@ public class IndicatorClientService {
             
             log.debug("Calling gRPC calculateBOLL: symbol={}, interval={}, period={}, stdDev={}", 
                     symbol, interval, period, stdDev);
-            IndicatorResponse response = blockingStub.calculateBOLL(request);
+            IndicatorResponse response = invoke(request, interval, blockingStub::calculateBOLL, 
+                    futureStub::calculateBOLL, IndicatorResponse::getSuccess);
             log.debug("Received BOLL response: success={}, upper={}, middle={}, lower={}", 
                     response.getSuccess(), response.getBollUpper(), 
                     response.getBollMiddle(), response.getBollLower());
@@ -164,6 +196,9 @@ public class IndicatorClientService {
                 responses.add(iterator.next());
             }
             
+            // Server streams results in completion order; restore request order
+            responses.sort(Comparator.comparingInt(IndicatorResponse::getRequestIndex));
+            
             log.debug("Received {} BOLL batch responses", responses.size());
             return responses;
             
@@ -204,7 +239,8 @@ public class IndicatorClientService {
             
             log.debug("Calling gRPC calculateMACD: symbol={}, interval={}, fast={}, slow={}, signal={}", 
                     symbol, interval, fastPeriod, slowPeriod, signalPeriod);
-            IndicatorResponse response = blockingStub.calculateMACD(request);
+            IndicatorResponse response = invoke(request, interval, blockingStub::calculateMACD, 
+                    futureStub::calculateMACD, IndicatorResponse::getSuccess);
             log.debug("Received MACD response: success={}, line={}, signal={}, histogram={}", 
                     response.getSuccess(), response.getMacdLine(), 
                     response.getMacdSignal(), response.getMacdHistogram());
@@ -237,6 +273,9 @@ public class IndicatorClientService {
                 responses.add(iterator.next());
             }
             
+            // Server streams results in completion order; restore request order
+            responses.sort(Comparator.comparingInt(IndicatorResponse::getRequestIndex));
+            
             log.debug("Received {} MACD batch responses", responses.size());
             return responses;
             
@@ -275,7 +314,8 @@ public class IndicatorClientService {
             
             log.debug("Calling gRPC calculatePinbar: symbol={}, interval={}, bodyRatio={}, wickRatio={}", 
                     symbol, interval, bodyRatioThreshold, wickRatioThreshold);
-            IndicatorResponse response = blockingStub.calculatePinbar(request);
+            IndicatorResponse response = invoke(request, interval, blockingStub::calculatePinbar, 
+                    futureStub::calculatePinbar, IndicatorResponse::getSuccess);
             log.debug("Received Pinbar response: success={}, isPinbar={}, isBullish={}", 
                     response.getSuccess(), response.getIsPinbar(), response.getIsBullish());
             
@@ -307,6 +347,9 @@ public class IndicatorClientService {
                 responses.add(iterator.next());
             }
             
+            // Server streams results in completion order; restore request order
+            responses.sort(Comparator.comparingInt(IndicatorResponse::getRequestIndex));
+            
             log.debug("Received {} Pinbar batch responses", responses.size());
             return responses;
             
@@ -321,7 +364,11 @@ public class IndicatorClientService {
     // ==================== Streaming Methods ====================
     
     /**
-     * Stream real-time indicators
+     * Fetch the current values of several indicators through the stream RPC
+     * 
+     * The server keeps StreamIndicators open and sends the current values first;
+     * this method takes one response per requested indicator and then cancels the call.
+     * Use {@link #subscribeIndicators} to keep receiving live updates.
      * 
      * @param symbol Trading pair symbol
      * @param interval Candle interval
@@ -329,41 +376,285 @@ public class IndicatorClientService {
      * @return List of indicator responses
      */
     public List<IndicatorResponse> streamIndicators(String symbol, String interval, List<IndicatorType> indicatorTypes) {
+        StreamRequest request = StreamRequest.newBuilder()
+                .setSymbol(symbol)
+                .setInterval(interval)
+                .addAllIndicators(indicatorTypes)
+                .build();
+        
+        log.debug("Calling gRPC streamIndicators: symbol={}, interval={}, indicators={}", 
+                symbol, interval, indicatorTypes);
+        
+        List<IndicatorResponse> responses = new ArrayList<>();
+        Context.CancellableContext context = Context.current().withCancellation();
         try {
-            StreamRequest request = StreamRequest.newBuilder()
+            context.run(() -> {
+                Iterator<IndicatorResponse> iterator = blockingStub
+                        .withDeadline(io.grpc.Deadline.after(60, TimeUnit.SECONDS))
+                        .streamIndicators(request);
+                
+                while (responses.size() < indicatorTypes.size() && iterator.hasNext()) {
+                    IndicatorResponse response = iterator.next();
+                    responses.add(response);
+                    log.debug("Received stream response: type={}, success={}", 
+                            response.getIndicatorType(), response.getSuccess());
+                }
+            });
+            
+            log.debug("Stream snapshot completed with {} responses", responses.size());
+            return responses;
+            
+        } catch (StatusRuntimeException e) {
+            log.error("gRPC call failed for streamIndicators", e);
+            List<IndicatorResponse> errorResponses = new ArrayList<>();
+            errorResponses.add(buildErrorResponse("Stream error: " + e.getStatus().getDescription(), IndicatorType.RSI));
+            return errorResponses;
+        } finally {
+            // Stop the server-side subscription
+            context.cancel(null);
+        }
+    }
+    
+    /**
+     * Subscribe to live indicator values
+     * 
+     * Responses are delivered to the observer on gRPC threads until the returned
+     * context is cancelled or the server ends the call.
+     * 
+     * @param symbol Trading pair symbol
+     * @param interval Candle interval
+     * @param indicatorTypes Indicator types to receive
+     * @param includeUpdates true to also receive values for in-progress (unconfirmed) candles
+     * @param observer Receiver of the streamed responses
+     * @return Context to cancel the subscription with {@code cancel(null)}
+     */
+    public Context.CancellableContext subscribeIndicators(String symbol, String interval, 
+                                                          List<IndicatorType> indicatorTypes,
+                                                          boolean includeUpdates,
+                                                          StreamObserver<IndicatorResponse> observer) {
+        StreamRequest request = StreamRequest.newBuilder()
+                .setSymbol(symbol)
+                .setInterval(interval)
+                .addAllIndicators(indicatorTypes)
+                .setIncludeUpdates(includeUpdates)
+                .build();
+        
+        log.debug("Subscribing to gRPC streamIndicators: symbol={}, interval={}, indicators={}, includeUpdates={}", 
+                symbol, interval, indicatorTypes, includeUpdates);
+        
+        Context.CancellableContext context = Context.current().withCancellation();
+        context.run(() -> asyncStub.streamIndicators(request, observer));
+        return context;
+    }
+    
+    /**
+     * Open a bidirectional subscription stream
+     * 
+     * Send {@link SubscriptionCommand}s (ADD/REMOVE) on the returned observer to change the
+     * watched series at any time; results of all series arrive on {@code responseObserver}.
+     * Call {@code onCompleted()} on the returned observer to end all subscriptions.
+     * 
+     * @param responseObserver Receiver of the multiplexed indicator responses
+     * @return Observer used to send subscription commands
+     */
+    public StreamObserver<SubscriptionCommand> openSubscriptionStream(StreamObserver<IndicatorResponse> responseObserver) {
+        log.debug("Opening gRPC subscribeIndicators stream");
+        return asyncStub.subscribeIndicators(responseObserver);
+    }
+    
+    // ==================== Multi-Indicator Methods ====================
+    
+    /**
+     * Calculate several indicators for the same symbol/interval in one call
+     * The server fetches the candles once and computes all indicators in a single pass.
+     * 
+     * @param symbol Trading pair symbol
+     * @param interval Candle interval
+     * @param limit Number of candles to fetch
+     * @param queries Indicator queries (type + parameters)
+     * @return MultiIndicatorResponse with one result per query, in query order
+     */
+    public MultiIndicatorResponse calculateMulti(String symbol, String interval, int limit, List<IndicatorQuery> queries) {
+        try {
+            MultiIndicatorRequest request = MultiIndicatorRequest.newBuilder()
+                    .setBase(BaseRequest.newBuilder()
+                            .setSymbol(symbol)
+                            .setInterval(interval)
+                            .setLimit(limit)
+                            .build())
+                    .addAllQueries(queries)
+                    .build();
+            
+            log.debug("Calling gRPC calculateMulti: symbol={}, interval={}, queries={}", 
+                    symbol, interval, queries.size());
+            MultiIndicatorResponse response = invoke(request, interval, blockingStub::calculateMulti, 
+                    futureStub::calculateMulti, MultiIndicatorResponse::getSuccess);
+            log.debug("Received multi response: success={}, results={}", 
+                    response.getSuccess(), response.getResultsCount());
+            
+            return response;
+            
+        } catch (StatusRuntimeException e) {
+            log.error("gRPC call failed for calculateMulti", e);
+            return MultiIndicatorResponse.newBuilder()
+                    .setSuccess(false)
+                    .setErrorMessage("gRPC error: " + e.getStatus().getDescription())
                     .setSymbol(symbol)
                     .setInterval(interval)
-                    .addAllIndicators(indicatorTypes)
                     .build();
+        }
+    }
+    
+    // ==================== Packed Batch Methods ====================
+    
+    /**
+     * Calculate a mixed batch returned as one compact message
+     * Results are v2 (oneof per indicator type) and reference symbols/intervals
+     * by index into the response dictionaries.
+     * 
+     * @param queries Queries, each with its own symbol/interval/limit and indicator parameters
+     * @return PackedBatchResponse with one result per query, in query order
+     */
+    public PackedBatchResponse calculatePacked(List<PackedQuery> queries) {
+        try {
+            PackedBatchRequest request = PackedBatchRequest.newBuilder()
+                    .addAllQueries(queries)
+                    .build();
+            
+            log.debug("Calling gRPC calculatePacked: {} queries", queries.size());
+            PackedBatchResponse response = blockingStub
+                    .withDeadline(io.grpc.Deadline.after(30, TimeUnit.SECONDS))
+                    .calculatePacked(request);
+            log.debug("Received packed response: success={}, results={}, symbols={}", 
+                    response.getSuccess(), response.getResultsCount(), response.getSymbolsCount());
             
-            log.debug("Calling gRPC streamIndicators: symbol={}, interval={}, indicators={}", 
-                    symbol, interval, indicatorTypes);
+            return response;
             
+        } catch (StatusRuntimeException e) {
+            log.error("gRPC call failed for calculatePacked", e);
+            return PackedBatchResponse.newBuilder()
+                    .setSuccess(false)
+                    .setErrorMessage("gRPC error: " + e.getStatus().getDescription())
+                    .build();
+        }
+    }
+    
+    // ==================== Screener Methods ====================
+    
+    /**
+     * Find every subscribed symbol/interval whose indicator satisfies a predicate
+     * e.g. RSI below 30: query type RSI, field "", operator LT, threshold 30
+     *
+     * @param request Indicator query, compared field, operator, threshold and optional filters
+     * @return One response per matching series (empty if none match)
+     */
+    public List<IndicatorResponse> screen(ScreenRequest request) {
+        try {
+            log.debug("Calling gRPC screen: type={}, field={}, operator={}, threshold={}",
+                    request.getQuery().getType(), request.getField(), request.getOperator(), request.getThreshold());
+    
             List<IndicatorResponse> responses = new ArrayList<>();
             Iterator<IndicatorResponse> iterator = blockingStub
-                    .withDeadline(io.grpc.Deadline.after(60, TimeUnit.SECONDS))
-                    .streamIndicators(request);
-            
+                    .withDeadline(io.grpc.Deadline.after(30, TimeUnit.SECONDS))
+                    .screen(request);
+    
             while (iterator.hasNext()) {
-                IndicatorResponse response = iterator.next();
-                responses.add(response);
-                log.debug("Received stream response: type={}, success={}", 
-                        response.getIndicatorType(), response.getSuccess());
+                responses.add(iterator.next());
             }
-            
-            log.debug("Stream completed with {} responses", responses.size());
+    
+            log.debug("Received {} screener matches", responses.size());
             return responses;
-            
+    
         } catch (StatusRuntimeException e) {
-            log.error("gRPC call failed for streamIndicators", e);
+            log.error("gRPC call failed for screen", e);
             List<IndicatorResponse> errorResponses = new ArrayList<>();
-            errorResponses.add(buildErrorResponse("Stream error: " + e.getStatus().getDescription(), IndicatorType.RSI));
+            errorResponses.add(buildErrorResponse("Screen error: " + e.getStatus().getDescription(),
+                    request.getQuery().getType()));
             return errorResponses;
         }
     }
     
+    // ==================== Series Methods ====================
+    
+    /**
+     * Calculate the full time series of one indicator
+     * 
+     * @param symbol Trading pair symbol
+     * @param interval Candle interval
+     * @param limit Maximum number of candles
+     * @param query Indicator query (RSI, BOLL or MACD)
+     * @param startTime Range start in epoch milliseconds, or 0 for the latest candles
+     * @param endTime Range end in epoch milliseconds, or 0 for now
+     * @return SeriesResponse with timestamps and one packed array per component
+     */
+    public SeriesResponse calculateSeries(String symbol, String interval, int limit, 
+                                          IndicatorQuery query, long startTime, long endTime) {
+        try {
+            SeriesRequest request = SeriesRequest.newBuilder()
+                    .setBase(BaseRequest.newBuilder()
+                            .setSymbol(symbol)
+                            .setInterval(interval)
+                            .setLimit(limit)
+                            .build())
+                    .setQuery(query)
+                    .setStartTime(startTime)
+                    .setEndTime(endTime)
+                    .build();
+            
+            log.debug("Calling gRPC calculateSeries: symbol={}, interval={}, type={}", 
+                    symbol, interval, query.getType());
+            SeriesResponse response = blockingStub
+                    .withDeadline(io.grpc.Deadline.after(30, TimeUnit.SECONDS))
+                    .calculateSeries(request);
+            log.debug("Received series response: success={}, points={}", 
+                    response.getSuccess(), response.getTimestampsCount());
+            
+            return response;
+            
+        } catch (StatusRuntimeException e) {
+            log.error("gRPC call failed for calculateSeries", e);
+            return SeriesResponse.newBuilder()
+                    .setSuccess(false)
+                    .setErrorMessage("gRPC error: " + e.getStatus().getDescription())
+                    .setSymbol(symbol)
+                    .setInterval(interval)
+                    .setIndicatorType(query.getType())
+                    .build();
+        }
+    }
+    
     // ==================== Helper Methods ====================
     
+    /**
+     * Run a unary call through the client cache and, if enabled, request hedging
+     * 
+     * @param request Request message, also used as the cache key
+     * @param interval Candle interval; cached responses expire at its next boundary
+     * @param blockingCall Plain blocking call
+     * @param futureCall Async call used for hedging
+     * @param cacheable Whether a response may be cached
+     * @return Cached or fresh response
+     */
+    private <Req, Resp> Resp invoke(Req request, String interval,
+                                    Function<Req, Resp> blockingCall,
+                                    Function<Req, ListenableFuture<Resp>> futureCall,
+                                    Predicate<Resp> cacheable) {
+        Resp cached = responseCache.get(request);
+        if (cached != null) {
+            log.debug("Client cache hit for {}", request.getClass().getSimpleName());
+            return cached;
+        }
+        
+        Resp response = requestHedger.isEnabled()
+                ? requestHedger.call(() -> futureCall.apply(request))
+                : blockingCall.apply(request);
+        
+        if (cacheable.test(response)) {
+            responseCache.put(request, interval, response);
+        }
+        return response;
+    }
+    
     /**
      * Build an error response
      */
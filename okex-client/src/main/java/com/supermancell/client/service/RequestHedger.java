@@ -0,0 +1,208 @@
+package com.supermancell.client.service;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Request hedging for idempotent unary calls
+ * 
+ * If a call has not completed after the configured latency percentile of recent
+ * calls, a second identical call is sent and the first successful response wins;
+ * the other call is cancelled. Hedges are capped at a fraction of all calls so a
+ * slow server is not flooded with duplicate work. Disabled by default.
+ */
+@Component
+public class RequestHedger {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestHedger.class);
+
+    /** Recompute the hedge delay after this many new samples */
+    private static final int RECOMPUTE_EVERY = 64;
+
+    @Value("${indicator.client.hedging.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${indicator.client.hedging.percentile:95}")
+    private double percentile = 95;
+
+    @Value("${indicator.client.hedging.min-delay-ms:5}")
+    private long minDelayMs = 5;
+
+    @Value("${indicator.client.hedging.window-size:1000}")
+    private int windowSize = 1000;
+
+    @Value("${indicator.client.hedging.min-samples:100}")
+    private int minSamples = 100;
+
+    @Value("${indicator.client.hedging.max-hedge-ratio:0.1}")
+    private double maxHedgeRatio = 0.1;
+
+    private long[] samples;
+    private int sampleCount;
+    private int nextSample;
+    private int samplesSinceRecompute;
+    private volatile long hedgeDelayNanos = -1;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong hedgeWins = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        samples = new long[windowSize];
+        if (enabled) {
+            log.info("Request hedging enabled: p{}, minDelayMs={}, window={}, maxHedgeRatio={}",
+                    percentile, minDelayMs, windowSize, maxHedgeRatio);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Run a call, hedging it if it is slower than the latency percentile
+     * 
+     * @param call Starts one attempt of the call; invoked once or twice
+     * @return First successful response
+     * @throws StatusRuntimeException if all attempts fail
+     */
+    public <T> T call(Supplier<ListenableFuture<T>> call) {
+        long start = System.nanoTime();
+        calls.incrementAndGet();
+        ListenableFuture<T> primary = call.get();
+        ListenableFuture<T> hedge = null;
+        try {
+            long delay = hedgeDelayNanos;
+            T result;
+            if (delay < 0) {
+                result = primary.get();
+            } else {
+                try {
+                    result = primary.get(delay, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    if (!tryStartHedge()) {
+                        result = primary.get();
+                    } else {
+                        hedge = call.get();
+                        result = firstSuccessful(primary, hedge).get();
+                    }
+                }
+            }
+            record(System.nanoTime() - start);
+            return result;
+        } catch (ExecutionException e) {
+            throw toStatusException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Status.CANCELLED.withDescription("Interrupted").withCause(e).asRuntimeException();
+        } finally {
+            // Cancel whichever attempt lost (no-op on completed futures)
+            primary.cancel(true);
+            if (hedge != null) {
+                hedge.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Current hedge delay in milliseconds, or -1 until enough samples are collected
+     */
+    public double getHedgeDelayMs() {
+        long delay = hedgeDelayNanos;
+        return delay < 0 ? -1 : delay / 1_000_000.0;
+    }
+
+    public long getCallCount() {
+        return calls.get();
+    }
+
+    public long getHedgeCount() {
+        return hedges.get();
+    }
+
+    public long getHedgeWinCount() {
+        return hedgeWins.get();
+    }
+
+    private boolean tryStartHedge() {
+        if (hedges.get() + 1 > calls.get() * maxHedgeRatio) {
+            return false;
+        }
+        hedges.incrementAndGet();
+        return true;
+    }
+
+    synchronized void record(long latencyNanos) {
+        samples[nextSample] = latencyNanos;
+        nextSample = (nextSample + 1) % samples.length;
+        if (sampleCount < samples.length) {
+            sampleCount++;
+        }
+        samplesSinceRecompute++;
+        if (sampleCount < minSamples || hedgeDelayNanos >= 0 && samplesSinceRecompute < RECOMPUTE_EVERY) {
+            return;
+        }
+        samplesSinceRecompute = 0;
+
+        long[] sorted = Arrays.copyOf(samples, sampleCount);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        long value = sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        hedgeDelayNanos = Math.max(value, TimeUnit.MILLISECONDS.toNanos(minDelayMs));
+    }
+
+    /**
+     * Future completed by the first successful attempt, or failed when both fail
+     */
+    private <T> ListenableFuture<T> firstSuccessful(ListenableFuture<T> primary, ListenableFuture<T> hedge) {
+        SettableFuture<T> result = SettableFuture.create();
+        AtomicInteger failures = new AtomicInteger();
+        Futures.addCallback(primary, completeWith(result, failures, false), MoreExecutors.directExecutor());
+        Futures.addCallback(hedge, completeWith(result, failures, true), MoreExecutors.directExecutor());
+        return result;
+    }
+
+    private <T> FutureCallback<T> completeWith(SettableFuture<T> result, AtomicInteger failures, boolean isHedge) {
+        return new FutureCallback<T>() {
+            @Override
+            public void onSuccess(T value) {
+                if (result.set(value) && isHedge) {
+                    hedgeWins.incrementAndGet();
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                if (failures.incrementAndGet() == 2) {
+                    result.setException(t);
+                }
+            }
+        };
+    }
+
+    private static StatusRuntimeException toStatusException(Throwable cause) {
+        if (cause instanceof StatusRuntimeException) {
+            return (StatusRuntimeException) cause;
+        }
+        return Status.fromThrowable(cause).asRuntimeException();
+    }
+}
@@ -0,0 +1,128 @@
+package com.supermancell.client.service;
+
+import com.supermancell.common.model.CandleInterval;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client-side cache of indicator responses
+ * 
+ * Entries are keyed by the full request message (protobuf messages have value
+ * equality) and expire at the start of the next candle of the request's interval,
+ * when the server would return a new value anyway. Only successful responses
+ * are cached. Disabled by default.
+ */
+@Component
+public class ResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCache.class);
+
+    @Value("${indicator.client.cache.enabled:false}")
+    private boolean enabled = false;
+
+    @Value("${indicator.client.cache.max-entries:10000}")
+    private int maxEntries = 10000;
+
+    private final Map<Object, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get a cached response
+     * 
+     * @param key Request message
+     * @return Cached response, or null if absent or expired
+     */
+    public <T> T get(Object key) {
+        return get(key, System.currentTimeMillis());
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T get(Object key, long now) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (entry.expiresAt <= now) {
+            entries.remove(key, entry);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return (T) entry.value;
+    }
+
+    /**
+     * Cache a response until the next boundary of the given interval
+     * 
+     * @param key Request message
+     * @param interval Candle interval of the request
+     * @param value Response to cache
+     */
+    public void put(Object key, String interval, Object value) {
+        put(key, interval, value, System.currentTimeMillis());
+    }
+
+    void put(Object key, String interval, Object value, long now) {
+        if (!enabled) {
+            return;
+        }
+        CandleInterval candleInterval = CandleInterval.parse(interval);
+        if (candleInterval == null) {
+            log.debug("Not caching response for unrecognized interval: {}", interval);
+            return;
+        }
+        long expiresAt = candleInterval.closeTime(now);
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            evictExpired(now);
+            if (entries.size() >= maxEntries) {
+                return;
+            }
+        }
+        entries.put(key, new Entry(value, expiresAt));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private void evictExpired(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long expiresAt;
+
+        private Entry(Object value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
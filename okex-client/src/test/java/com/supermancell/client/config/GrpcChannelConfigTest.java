@@ -0,0 +1,203 @@
+package com.supermancell.client.config;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.health.v1.HealthCheckRequest;
+import io.grpc.health.v1.HealthCheckResponse;
+import io.grpc.health.v1.HealthCheckResponse.ServingStatus;
+import io.grpc.health.v1.HealthGrpc;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests GrpcChannelConfig's service config on a real (in-process) channel
+ * 
+ * A service config gRPC cannot parse does not fail the channel, it silently falls
+ * back to pick_first. These tests therefore check behaviour only the configured
+ * policies produce: health checking takes a NOT_SERVING server out of rotation
+ * and outlier detection ejects a failing one, while pick_first does neither.
+ */
+class GrpcChannelConfigTest {
+
+    private static final String HEALTH_SERVICE = "indicator";
+
+    private GrpcChannelConfig config;
+    private FakeHealthService healthService;
+    private String serverName;
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        config = new GrpcChannelConfig();
+        ReflectionTestUtils.setField(config, "policy", "round_robin");
+        ReflectionTestUtils.setField(config, "healthCheckEnabled", true);
+        ReflectionTestUtils.setField(config, "healthServiceName", HEALTH_SERVICE);
+        ReflectionTestUtils.setField(config, "outlierDetectionEnabled", true);
+        ReflectionTestUtils.setField(config, "outlierIntervalSeconds", 10);
+        ReflectionTestUtils.setField(config, "baseEjectionSeconds", 30);
+        ReflectionTestUtils.setField(config, "maxEjectionPercent", 50);
+        ReflectionTestUtils.setField(config, "failurePercentageThreshold", 50);
+        ReflectionTestUtils.setField(config, "minimumHosts", 2);
+        ReflectionTestUtils.setField(config, "requestVolume", 20);
+
+        healthService = new FakeHealthService();
+        serverName = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(serverName)
+                .directExecutor()
+                .addService(healthService)
+                .build()
+                .start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (channel != null) {
+            channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testConfigurer_IgnoresOtherChannels() {
+        InProcessChannelBuilder builder = InProcessChannelBuilder.forName(serverName).directExecutor();
+        config.loadBalancingChannelConfigurer().accept(builder, "other");
+        channel = builder.build();
+        healthService.status = ServingStatus.NOT_SERVING;
+
+        assertEquals(ServingStatus.NOT_SERVING, check().getStatus());
+        assertEquals(0, healthService.watchCalls.get());
+    }
+
+    @Test
+    void testHealthCheck_NotServingServerTakenOutOfRotation() {
+        healthService.status = ServingStatus.NOT_SERVING;
+        channel = newChannel();
+
+        StatusRuntimeException error = assertThrows(StatusRuntimeException.class, this::check);
+        assertEquals(Status.Code.UNAVAILABLE, error.getStatus().getCode());
+        assertEquals(1, healthService.watchCalls.get());
+        assertEquals(HEALTH_SERVICE, healthService.watchedServices.get(0));
+        assertEquals(0, healthService.checkCalls.get(), "RPC never reached the unhealthy server");
+
+        healthService.setStatus(ServingStatus.SERVING);
+        assertEquals(ServingStatus.SERVING, awaitCheck().getStatus());
+    }
+
+    @Test
+    void testHealthCheck_PickFirstWouldIgnoreIt() {
+        // Control: the same setup under pick_first keeps using the unhealthy server
+        ReflectionTestUtils.setField(config, "policy", "pick_first");
+        ReflectionTestUtils.setField(config, "outlierDetectionEnabled", false);
+        healthService.status = ServingStatus.NOT_SERVING;
+        channel = newChannel();
+
+        assertEquals(ServingStatus.NOT_SERVING, check().getStatus());
+        assertEquals(0, healthService.watchCalls.get());
+    }
+
+    @Test
+    void testOutlierDetection_EjectsFailingServer() throws Exception {
+        ReflectionTestUtils.setField(config, "healthCheckEnabled", false);
+        ReflectionTestUtils.setField(config, "outlierIntervalSeconds", 1);
+        ReflectionTestUtils.setField(config, "maxEjectionPercent", 100);
+        ReflectionTestUtils.setField(config, "minimumHosts", 1);
+        ReflectionTestUtils.setField(config, "requestVolume", 5);
+        healthService.checkError = Status.INTERNAL;
+        channel = newChannel();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        Status.Code code = Status.Code.INTERNAL;
+        while (code == Status.Code.INTERNAL && System.nanoTime() < deadline) {
+            code = assertThrows(StatusRuntimeException.class, this::check).getStatus().getCode();
+            Thread.sleep(20);
+        }
+
+        // Ejected: the load balancer fails calls without reaching the server
+        assertEquals(Status.Code.UNAVAILABLE, code);
+        int served = healthService.checkCalls.get();
+        assertThrows(StatusRuntimeException.class, this::check);
+        assertEquals(served, healthService.checkCalls.get());
+    }
+
+    private ManagedChannel newChannel() {
+        InProcessChannelBuilder builder = InProcessChannelBuilder.forName(serverName).directExecutor();
+        config.loadBalancingChannelConfigurer().accept(builder, "okex-server");
+        return builder.build();
+    }
+
+    private HealthCheckResponse check() {
+        return HealthGrpc.newBlockingStub(channel)
+                .withDeadlineAfter(5, TimeUnit.SECONDS)
+                .check(HealthCheckRequest.newBuilder().setService(HEALTH_SERVICE).build());
+    }
+
+    private HealthCheckResponse awaitCheck() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (true) {
+            try {
+                return check();
+            } catch (StatusRuntimeException e) {
+                if (System.nanoTime() > deadline) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Health service serving both the health checks and, as the test RPC, Check
+     */
+    private static class FakeHealthService extends HealthGrpc.HealthImplBase {
+
+        private volatile ServingStatus status = ServingStatus.SERVING;
+        private volatile Status checkError;
+        private final AtomicInteger checkCalls = new AtomicInteger();
+        private final AtomicInteger watchCalls = new AtomicInteger();
+        private final List<String> watchedServices = new CopyOnWriteArrayList<>();
+        private final List<StreamObserver<HealthCheckResponse>> watchers = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void check(HealthCheckRequest request, StreamObserver<HealthCheckResponse> responseObserver) {
+            checkCalls.incrementAndGet();
+            if (checkError != null) {
+                responseObserver.onError(checkError.asRuntimeException());
+                return;
+            }
+            responseObserver.onNext(HealthCheckResponse.newBuilder().setStatus(status).build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void watch(HealthCheckRequest request, StreamObserver<HealthCheckResponse> responseObserver) {
+            watchCalls.incrementAndGet();
+            watchedServices.add(request.getService());
+            ((ServerCallStreamObserver<HealthCheckResponse>) responseObserver)
+                    .setOnCancelHandler(() -> watchers.remove(responseObserver));
+            watchers.add(responseObserver);
+            responseObserver.onNext(HealthCheckResponse.newBuilder().setStatus(status).build());
+        }
+
+        void setStatus(ServingStatus newStatus) {
+            status = newStatus;
+            for (StreamObserver<HealthCheckResponse> watcher : watchers) {
+                watcher.onNext(HealthCheckResponse.newBuilder().setStatus(newStatus).build());
+            }
+        }
+    }
+}
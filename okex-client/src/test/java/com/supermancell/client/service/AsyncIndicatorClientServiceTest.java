@@ -0,0 +1,271 @@
+package com.supermancell.client.service;
+
+import com.okex.common.proto.IndicatorServiceGrpc;
+import com.okex.common.proto.IndicatorServiceProto.IndicatorResponse;
+import com.okex.common.proto.IndicatorServiceProto.IndicatorType;
+import com.okex.common.proto.IndicatorServiceProto.RSIRequest;
+import com.okex.common.proto.IndicatorServiceProto.StreamRequest;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for AsyncIndicatorClientService against an in-process gRPC server
+ */
+class AsyncIndicatorClientServiceTest {
+
+    /** RSI period that makes the fake server hold the call until the test answers it */
+    private static final int HOLD = 99;
+    private static final int STREAM_SIZE = 10;
+
+    private final BlockingQueue<StreamObserver<IndicatorResponse>> heldCalls = new LinkedBlockingQueue<>();
+    private final CountDownLatch streamCancelled = new CountDownLatch(1);
+
+    private Server server;
+    private ManagedChannel channel;
+    private AsyncIndicatorClientService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name).directExecutor().addService(new FakeIndicatorService())
+                .build().start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+
+        service = new AsyncIndicatorClientService();
+        ReflectionTestUtils.setField(service, "futureStub", IndicatorServiceGrpc.newFutureStub(channel));
+        ReflectionTestUtils.setField(service, "asyncStub", IndicatorServiceGrpc.newStub(channel));
+        ReflectionTestUtils.setField(service, "maxInFlight", 1);
+        ReflectionTestUtils.setField(service, "maxQueued", 2);
+        ReflectionTestUtils.setField(service, "maxStreams", 1);
+        ReflectionTestUtils.setField(service, "deadlineMs", 5000L);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testUnary_ErrorBecomesResponseAndReleasesPermit() throws Exception {
+        IndicatorResponse response = service.calculateRSI("BTC-USDT-SWAP", "1m", -1, 100)
+                .get(5, TimeUnit.SECONDS);
+
+        assertFalse(response.getSuccess());
+        assertTrue(response.getErrorMessage().contains("period must be positive"));
+        assertEquals(0, service.getInFlightCount());
+        assertEquals(14.0, service.calculateRSI("BTC-USDT-SWAP", "1m", 14, 100)
+                .get(5, TimeUnit.SECONDS).getRsiValue());
+    }
+
+    @Test
+    void testUnary_QueuedCallsDrainAndOverflowIsRejected() throws Exception {
+        CompletableFuture<IndicatorResponse> held = service.calculateRSI("BTC-USDT-SWAP", "1m", HOLD, 100);
+        StreamObserver<IndicatorResponse> heldCall = heldCalls.poll(5, TimeUnit.SECONDS);
+        assertNotNull(heldCall);
+
+        CompletableFuture<IndicatorResponse> second = service.calculateRSI("ETH-USDT-SWAP", "1m", 14, 100);
+        CompletableFuture<IndicatorResponse> third = service.calculateRSI("SOL-USDT-SWAP", "1m", 21, 100);
+        IndicatorResponse rejected = service.calculateRSI("XRP-USDT-SWAP", "1m", 7, 100).get(5, TimeUnit.SECONDS);
+        assertEquals(1, service.getInFlightCount());
+        assertEquals(2, service.getQueuedCount());
+        assertFalse(rejected.getSuccess());
+        assertTrue(rejected.getErrorMessage().startsWith("Rejected"));
+
+        heldCall.onNext(rsi(HOLD));
+        heldCall.onCompleted();
+
+        assertEquals(99.0, held.get(5, TimeUnit.SECONDS).getRsiValue());
+        assertEquals(14.0, second.get(5, TimeUnit.SECONDS).getRsiValue());
+        assertEquals(21.0, third.get(5, TimeUnit.SECONDS).getRsiValue());
+        assertEquals(0, service.getInFlightCount());
+        assertEquals(0, service.getQueuedCount());
+    }
+
+    @Test
+    void testUnary_CancelReleasesPermit() throws Exception {
+        CompletableFuture<IndicatorResponse> held = service.calculateRSI("BTC-USDT-SWAP", "1m", HOLD, 100);
+        assertNotNull(heldCalls.poll(5, TimeUnit.SECONDS));
+        CompletableFuture<IndicatorResponse> queued = service.calculateRSI("ETH-USDT-SWAP", "1m", 14, 100);
+
+        held.cancel(true);
+
+        assertEquals(14.0, queued.get(5, TimeUnit.SECONDS).getRsiValue());
+        awaitTrue(() -> service.getInFlightCount() == 0);
+    }
+
+    @Test
+    void testStream_DemandForwardedToServer() throws Exception {
+        TestSubscriber subscriber = new TestSubscriber(2);
+        stream(false).subscribe(subscriber);
+
+        awaitTrue(() -> subscriber.items.size() == 2);
+        Thread.sleep(200);
+        assertEquals(2, subscriber.items.size(), "No more than requested may be delivered");
+        assertEquals(1, service.getOpenStreamCount());
+
+        subscriber.subscription.request(3);
+        awaitTrue(() -> subscriber.items.size() == 5);
+        Thread.sleep(200);
+        assertEquals(5, subscriber.items.size());
+
+        subscriber.subscription.request(STREAM_SIZE);
+        assertTrue(subscriber.terminated.await(5, TimeUnit.SECONDS));
+        assertTrue(subscriber.completed);
+        assertEquals(STREAM_SIZE, subscriber.items.size());
+        assertEquals(0, service.getOpenStreamCount());
+    }
+
+    @Test
+    void testStream_NonPositiveRequestSignalsErrorAndCancels() throws Exception {
+        TestSubscriber subscriber = new TestSubscriber(1);
+        stream(true).subscribe(subscriber);
+        awaitTrue(() -> subscriber.items.size() == 1);
+
+        subscriber.subscription.request(-1);
+
+        assertTrue(subscriber.terminated.await(5, TimeUnit.SECONDS));
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+        assertTrue(streamCancelled.await(5, TimeUnit.SECONDS), "Server call should be cancelled");
+        assertEquals(0, service.getOpenStreamCount());
+    }
+
+    @Test
+    void testStream_PermitLimitAndReleaseOnCancel() throws Exception {
+        TestSubscriber first = new TestSubscriber(0);
+        stream(true).subscribe(first);
+        assertEquals(1, service.getOpenStreamCount());
+
+        TestSubscriber second = new TestSubscriber(1);
+        stream(true).subscribe(second);
+        assertTrue(second.terminated.await(5, TimeUnit.SECONDS));
+        assertTrue(second.error instanceof RejectedExecutionException);
+
+        first.subscription.cancel();
+        assertTrue(streamCancelled.await(5, TimeUnit.SECONDS));
+        awaitTrue(() -> service.getOpenStreamCount() == 0);
+        assertNull(first.error, "Subscriber-initiated cancel is not reported as an error");
+    }
+
+    /**
+     * @param live true for a stream the server keeps open after the first STREAM_SIZE responses
+     */
+    private Publisher<IndicatorResponse> stream(boolean live) {
+        return service.streamIndicators("BTC-USDT-SWAP", "1m", Collections.singletonList(IndicatorType.RSI), live);
+    }
+
+    private static IndicatorResponse rsi(double value) {
+        return IndicatorResponse.newBuilder().setSuccess(true).setIndicatorType(IndicatorType.RSI)
+                .setRsiValue(value).build();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition not met within 5s");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * RSI answers with the period as value (held for {@link #HOLD}, an error if negative);
+     * streams send STREAM_SIZE responses at once and rely on gRPC flow control to pace them,
+     * then complete unless include_updates is set
+     */
+    private class FakeIndicatorService extends IndicatorServiceGrpc.IndicatorServiceImplBase {
+
+        @Override
+        public void calculateRSI(RSIRequest request, StreamObserver<IndicatorResponse> responseObserver) {
+            if (request.getPeriod() < 0) {
+                responseObserver.onError(Status.INVALID_ARGUMENT
+                        .withDescription("period must be positive").asRuntimeException());
+            } else if (request.getPeriod() == HOLD) {
+                heldCalls.add(responseObserver);
+            } else {
+                responseObserver.onNext(rsi(request.getPeriod()));
+                responseObserver.onCompleted();
+            }
+        }
+
+        @Override
+        public void streamIndicators(StreamRequest request, StreamObserver<IndicatorResponse> responseObserver) {
+            ((ServerCallStreamObserver<IndicatorResponse>) responseObserver)
+                    .setOnCancelHandler(streamCancelled::countDown);
+            for (int i = 0; i < STREAM_SIZE; i++) {
+                responseObserver.onNext(rsi(i));
+            }
+            if (!request.getIncludeUpdates()) {
+                responseObserver.onCompleted();
+            }
+        }
+    }
+
+    /**
+     * Records what it receives; requests {@code initialDemand} on subscribe
+     */
+    private static class TestSubscriber implements Subscriber<IndicatorResponse> {
+        private final long initialDemand;
+        private final List<IndicatorResponse> items = new CopyOnWriteArrayList<>();
+        private final CountDownLatch terminated = new CountDownLatch(1);
+        private volatile Subscription subscription;
+        private volatile Throwable error;
+        private volatile boolean completed;
+
+        TestSubscriber(long initialDemand) {
+            this.initialDemand = initialDemand;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            subscription = s;
+            if (initialDemand > 0) {
+                s.request(initialDemand);
+            }
+        }
+
+        @Override
+        public void onNext(IndicatorResponse response) {
+            items.add(response);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+            terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            terminated.countDown();
+        }
+    }
+}
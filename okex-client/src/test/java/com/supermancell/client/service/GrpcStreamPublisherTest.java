@@ -0,0 +1,151 @@
+package com.supermancell.client.service;
+
+import io.grpc.Status;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for GrpcStreamPublisher, with the call replaced by a mock ClientCallStreamObserver
+ */
+class GrpcStreamPublisherTest {
+
+    private ClientCallStreamObserver<Object> call;
+    private AtomicReference<StreamObserver<String>> responseObserver;
+    private AtomicInteger terminations;
+    private GrpcStreamPublisher<String> publisher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        call = mock(ClientCallStreamObserver.class);
+        responseObserver = new AtomicReference<>();
+        terminations = new AtomicInteger();
+        publisher = new GrpcStreamPublisher<>(observer -> {
+            responseObserver.set(observer);
+            ((ClientResponseObserver<Object, String>) observer).beforeStart(call);
+        }, terminations::incrementAndGet);
+    }
+
+    @Test
+    void testRequest_ForwardedToCall() {
+        Subscription subscription = subscribe(mockSubscriber(), 5);
+
+        // Demand signalled from onSubscribe becomes the initial request of the call
+        verify(call).disableAutoRequestWithInitial(5);
+        verify(call, never()).request(anyInt());
+
+        subscription.request(3);
+        verify(call).request(3);
+
+        subscription.request(Long.MAX_VALUE);
+        verify(call).request(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void testRequest_NonPositiveSignalsErrorAndCancels() {
+        Subscriber<String> subscriber = mockSubscriber();
+        Subscription subscription = subscribe(subscriber, 0);
+
+        subscription.request(0);
+
+        ArgumentCaptor<Throwable> error = ArgumentCaptor.forClass(Throwable.class);
+        verify(subscriber).onError(error.capture());
+        assertTrue(error.getValue() instanceof IllegalArgumentException);
+        assertTrue(error.getValue().getMessage().contains("3.9"));
+        verify(call).cancel(anyString(), isNull());
+        assertEquals(1, terminations.get());
+
+        // The call's own CANCELLED status is not reported a second time
+        responseObserver.get().onError(Status.CANCELLED.asRuntimeException());
+        verify(subscriber, times(1)).onError(any());
+        assertEquals(1, terminations.get());
+    }
+
+    @Test
+    void testCancel_CancelsCallWithoutSignallingSubscriber() {
+        Subscriber<String> subscriber = mockSubscriber();
+        Subscription subscription = subscribe(subscriber, 1);
+
+        subscription.cancel();
+        responseObserver.get().onNext("late");
+        responseObserver.get().onError(Status.CANCELLED.asRuntimeException());
+
+        verify(call).cancel(anyString(), isNull());
+        verify(subscriber, never()).onNext(anyString());
+        verify(subscriber, never()).onError(any());
+        assertEquals(1, terminations.get());
+    }
+
+    @Test
+    void testSubscribe_CompletesAndTerminatesOnce() {
+        Subscriber<String> subscriber = mockSubscriber();
+        subscribe(subscriber, 2);
+
+        responseObserver.get().onNext("a");
+        responseObserver.get().onCompleted();
+        responseObserver.get().onCompleted();
+
+        verify(subscriber).onNext("a");
+        verify(subscriber, times(1)).onComplete();
+        assertEquals(1, terminations.get());
+    }
+
+    @Test
+    void testSubscribe_SecondSubscriberRejected() {
+        subscribe(mockSubscriber(), 1);
+        Subscriber<String> second = mockSubscriber();
+
+        publisher.subscribe(second);
+
+        verify(second).onSubscribe(any());
+        verify(second).onError(any(IllegalStateException.class));
+    }
+
+    @Test
+    void testSubscribe_StartFailureSignalsError() {
+        GrpcStreamPublisher<String> failing = new GrpcStreamPublisher<>(observer -> {
+            throw new IllegalStateException("too many streams");
+        }, terminations::incrementAndGet);
+        Subscriber<String> subscriber = mockSubscriber();
+
+        failing.subscribe(subscriber);
+
+        verify(subscriber).onError(any(IllegalStateException.class));
+        assertEquals(1, terminations.get());
+    }
+
+    /**
+     * Subscribe, requesting {@code initialDemand} from onSubscribe (nothing if 0)
+     */
+    private Subscription subscribe(Subscriber<String> subscriber, long initialDemand) {
+        AtomicReference<Subscription> subscription = new AtomicReference<>();
+        doAnswer(invocation -> {
+            Subscription s = invocation.getArgument(0);
+            subscription.set(s);
+            if (initialDemand > 0) {
+                s.request(initialDemand);
+            }
+            return null;
+        }).when(subscriber).onSubscribe(any());
+        publisher.subscribe(subscriber);
+        return subscription.get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Subscriber<String> mockSubscriber() {
+        return mock(Subscriber.class);
+    }
+}
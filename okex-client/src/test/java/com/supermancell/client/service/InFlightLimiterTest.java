@@ -0,0 +1,119 @@
+package com.supermancell.client.service;
+
+import com.google.common.util.concurrent.SettableFuture;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for InFlightLimiter
+ */
+class InFlightLimiterTest {
+
+    @Test
+    void testSubmit_PermitReleasedOnSuccessAndFailure() throws Exception {
+        InFlightLimiter limiter = new InFlightLimiter(2, 10);
+        SettableFuture<String> ok = SettableFuture.create();
+        SettableFuture<String> failing = SettableFuture.create();
+
+        CompletableFuture<String> first = limiter.submit(() -> ok);
+        CompletableFuture<String> second = limiter.submit(() -> failing);
+        assertEquals(0, limiter.getAvailablePermits());
+
+        ok.set("done");
+        failing.setException(new IllegalStateException("boom"));
+
+        assertEquals("done", first.get());
+        ExecutionException error = assertThrows(ExecutionException.class, second::get);
+        assertTrue(error.getCause() instanceof IllegalStateException);
+        assertEquals(2, limiter.getAvailablePermits());
+    }
+
+    @Test
+    void testSubmit_PermitReleasedWhenCallFailsToStart() {
+        InFlightLimiter limiter = new InFlightLimiter(1, 10);
+
+        CompletableFuture<String> result = limiter.submit(() -> {
+            throw new IllegalStateException("channel shut down");
+        });
+
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(1, limiter.getAvailablePermits());
+    }
+
+    @Test
+    void testSubmit_QueuedCallsDrainInOrder() throws Exception {
+        InFlightLimiter limiter = new InFlightLimiter(1, 10);
+        List<SettableFuture<Integer>> calls = new ArrayList<>();
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            SettableFuture<Integer> call = SettableFuture.create();
+            calls.add(call);
+            results.add(limiter.submit(() -> call));
+        }
+        assertEquals(2, limiter.getQueuedCount());
+
+        for (int i = 0; i < 3; i++) {
+            calls.get(i).set(i);
+            assertEquals(i, results.get(i).get());
+        }
+        assertEquals(0, limiter.getQueuedCount());
+        assertEquals(1, limiter.getAvailablePermits());
+    }
+
+    @Test
+    void testSubmit_RejectsBeyondQueueCapacity() {
+        InFlightLimiter limiter = new InFlightLimiter(1, 1);
+        limiter.submit(SettableFuture::create);
+        limiter.submit(SettableFuture::create);
+
+        CompletableFuture<Object> rejected = limiter.submit(SettableFuture::create);
+
+        ExecutionException error = assertThrows(ExecutionException.class, rejected::get);
+        assertTrue(error.getCause() instanceof RejectedExecutionException);
+        assertEquals(1, limiter.getQueuedCount());
+    }
+
+    @Test
+    void testCancel_RunningCallCancelledAndPermitReleased() {
+        InFlightLimiter limiter = new InFlightLimiter(1, 10);
+        SettableFuture<String> call = SettableFuture.create();
+        SettableFuture<String> next = SettableFuture.create();
+        CompletableFuture<String> result = limiter.submit(() -> call);
+        CompletableFuture<String> queued = limiter.submit(() -> next);
+
+        result.cancel(true);
+
+        assertTrue(call.isCancelled(), "Cancelling the result cancels the underlying call");
+        assertEquals(0, limiter.getQueuedCount(), "The freed permit starts the queued call");
+        next.set("next");
+        assertEquals("next", queued.join());
+        assertEquals(1, limiter.getAvailablePermits());
+    }
+
+    @Test
+    void testCancel_QueuedCallNeverStarts() {
+        InFlightLimiter limiter = new InFlightLimiter(1, 10);
+        SettableFuture<String> running = SettableFuture.create();
+        AtomicInteger started = new AtomicInteger();
+        limiter.submit(() -> running);
+        CompletableFuture<String> queued = limiter.submit(() -> {
+            started.incrementAndGet();
+            return SettableFuture.create();
+        });
+
+        queued.cancel(true);
+        running.set("done");
+
+        assertEquals(0, started.get());
+        assertEquals(0, limiter.getQueuedCount());
+        assertEquals(1, limiter.getAvailablePermits());
+    }
+}
@@ -0,0 +1,182 @@
+package com.supermancell.client.service;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RequestHedger
+ */
+class RequestHedgerTest {
+
+    private static final long MS = 1_000_000L;
+
+    private RequestHedger hedger;
+    private ScheduledExecutorService scheduler;
+
+    @BeforeEach
+    void setUp() {
+        hedger = new RequestHedger();
+        ReflectionTestUtils.setField(hedger, "enabled", true);
+        ReflectionTestUtils.setField(hedger, "percentile", 90.0);
+        ReflectionTestUtils.setField(hedger, "minDelayMs", 0L);
+        ReflectionTestUtils.setField(hedger, "windowSize", 100);
+        ReflectionTestUtils.setField(hedger, "minSamples", 10);
+        ReflectionTestUtils.setField(hedger, "maxHedgeRatio", 0.1);
+        hedger.init();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void testHedgeDelay_IsLatencyPercentileOfRecentCalls() {
+        for (int i = 1; i <= 9; i++) {
+            hedger.record(i * MS);
+        }
+        assertEquals(-1, hedger.getHedgeDelayMs(), "No hedging before min-samples");
+
+        hedger.record(10 * MS);
+        assertEquals(9.0, hedger.getHedgeDelayMs(), 1e-9);
+
+        // Not recomputed on every sample, only after a batch of 64 new ones
+        for (int i = 11; i <= 73; i++) {
+            hedger.record(i * MS);
+        }
+        assertEquals(9.0, hedger.getHedgeDelayMs(), 1e-9);
+        hedger.record(74 * MS);
+        assertEquals(67.0, hedger.getHedgeDelayMs(), 1e-9);
+    }
+
+    @Test
+    void testHedgeDelay_NeverBelowMinDelay() {
+        ReflectionTestUtils.setField(hedger, "minDelayMs", 50L);
+        for (int i = 0; i < 10; i++) {
+            hedger.record(MS);
+        }
+
+        assertEquals(50.0, hedger.getHedgeDelayMs(), 1e-9);
+    }
+
+    @Test
+    void testCall_HedgeWinsAndPrimaryIsCancelled() {
+        seedDelay(10);
+        List<SettableFuture<String>> attempts = new ArrayList<>();
+        // The ratio cap allows the first hedge at the 10th call
+        for (int i = 0; i < 9; i++) {
+            hedger.call(() -> Futures.immediateFuture("fast"));
+        }
+
+        String result = hedger.call(() -> {
+            SettableFuture<String> attempt = SettableFuture.create();
+            attempts.add(attempt);
+            if (attempts.size() == 2) {
+                attempt.set("hedge");
+            }
+            return attempt;
+        });
+
+        assertEquals("hedge", result);
+        assertEquals(2, attempts.size());
+        assertTrue(attempts.get(0).isCancelled(), "Losing primary attempt is cancelled");
+        assertEquals(1, hedger.getHedgeCount());
+        assertEquals(1, hedger.getHedgeWinCount());
+    }
+
+    @Test
+    void testCall_PrimaryStillWinsWhenFasterThanHedge() {
+        seedDelay(10);
+        for (int i = 0; i < 9; i++) {
+            hedger.call(() -> Futures.immediateFuture("fast"));
+        }
+        List<SettableFuture<String>> attempts = new ArrayList<>();
+
+        String result = hedger.call(() -> {
+            SettableFuture<String> attempt = SettableFuture.create();
+            attempts.add(attempt);
+            if (attempts.size() == 1) {
+                scheduler.schedule(() -> attempt.set("primary"), 30, TimeUnit.MILLISECONDS);
+            }
+            return attempt;
+        });
+
+        assertEquals("primary", result);
+        assertTrue(attempts.get(1).isCancelled(), "Losing hedge attempt is cancelled");
+        assertEquals(1, hedger.getHedgeCount());
+        assertEquals(0, hedger.getHedgeWinCount());
+    }
+
+    @Test
+    void testCall_HedgesCappedByRatio() {
+        seedDelay(5);
+        AtomicInteger attempts = new AtomicInteger();
+
+        for (int i = 0; i < 20; i++) {
+            hedger.call(() -> {
+                attempts.incrementAndGet();
+                return delayed("slow", 20);
+            });
+        }
+
+        // At most 10% of 20 calls are hedged
+        assertEquals(2, hedger.getHedgeCount());
+        assertEquals(22, attempts.get());
+        assertEquals(20, hedger.getCallCount());
+    }
+
+    @Test
+    void testCall_FailsOnlyWhenBothAttemptsFail() {
+        seedDelay(10);
+        for (int i = 0; i < 9; i++) {
+            hedger.call(() -> Futures.immediateFuture("fast"));
+        }
+        AtomicInteger attempts = new AtomicInteger();
+
+        StatusRuntimeException error = assertThrows(StatusRuntimeException.class, () -> hedger.call(() -> {
+            SettableFuture<String> attempt = SettableFuture.create();
+            if (attempts.incrementAndGet() == 2) {
+                attempt.setException(Status.UNAVAILABLE.asRuntimeException());
+                scheduler.schedule(() -> attempt.setException(Status.UNAVAILABLE.asRuntimeException()), 0,
+                        TimeUnit.MILLISECONDS);
+            } else {
+                scheduler.schedule(() -> attempt.setException(Status.UNAVAILABLE.asRuntimeException()), 30,
+                        TimeUnit.MILLISECONDS);
+            }
+            return attempt;
+        }));
+
+        assertEquals(Status.Code.UNAVAILABLE, error.getStatus().getCode());
+        assertEquals(2, attempts.get());
+    }
+
+    private void seedDelay(long delayMs) {
+        for (int i = 0; i < 10; i++) {
+            hedger.record(delayMs * MS);
+        }
+        assertEquals(delayMs, hedger.getHedgeDelayMs(), 1e-9);
+    }
+
+    private ListenableFuture<String> delayed(String value, long delayMs) {
+        SettableFuture<String> future = SettableFuture.create();
+        scheduler.schedule(() -> future.set(value), delayMs, TimeUnit.MILLISECONDS);
+        return future;
+    }
+}
@@ -0,0 +1,98 @@
+package com.supermancell.client.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ResponseCache
+ */
+class ResponseCacheTest {
+
+    private static final long NOW = Instant.parse("2024-01-10T13:47:25.500Z").toEpochMilli();
+    private static final long NEXT_MINUTE = Instant.parse("2024-01-10T13:48:00Z").toEpochMilli();
+
+    private ResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ResponseCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+    }
+
+    @Test
+    void testGet_ExpiresAtTheNextCandle() {
+        cache.put("rsi-1m", "1m", "value", NOW);
+
+        assertEquals("value", cache.get("rsi-1m", NEXT_MINUTE - 1));
+        assertNull(cache.get("rsi-1m", NEXT_MINUTE));
+        assertEquals(0, cache.size(), "Expired entry is removed on read");
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void testGet_ExpiryFollowsTheRequestInterval() {
+        cache.put("rsi-1H", "1H", "hourly", NOW);
+        cache.put("rsi-1D", "1D", "daily", NOW);
+
+        long nextHour = Instant.parse("2024-01-10T14:00:00Z").toEpochMilli();
+        assertEquals("hourly", cache.get("rsi-1H", NEXT_MINUTE));
+        assertNull(cache.get("rsi-1H", nextHour));
+        // 1D closes at midnight Hong Kong time
+        assertEquals("daily", cache.get("rsi-1D", nextHour));
+        assertNull(cache.get("rsi-1D", Instant.parse("2024-01-10T16:00:00Z").toEpochMilli()));
+    }
+
+    @Test
+    void testGet_ExpiresOnOkxBarBoundaries() {
+        // Bars up to 4H close on UTC boundaries, longer bars on Hong Kong ones unless suffixed utc
+        assertExpiresAt("15m", "2024-01-10T14:00:00Z");
+        assertExpiresAt("1h", "2024-01-10T14:00:00Z");
+        assertExpiresAt("4H", "2024-01-10T16:00:00Z");
+        assertExpiresAt("6H", "2024-01-10T16:00:00Z");
+        assertExpiresAt("1Dutc", "2024-01-11T00:00:00Z");
+        assertExpiresAt("1W", "2024-01-14T16:00:00Z");
+        assertExpiresAt("1M", "2024-01-31T16:00:00Z");
+    }
+
+    @Test
+    void testPut_UnknownIntervalAndDisabledAreNotCached() {
+        cache.put("bad", "7Y", "value", NOW);
+        assertEquals(0, cache.size());
+
+        ReflectionTestUtils.setField(cache, "enabled", false);
+        cache.put("rsi-1m", "1m", "value", NOW);
+        assertEquals(0, cache.size());
+        assertNull(cache.get("rsi-1m", NOW));
+    }
+
+    @Test
+    void testPut_FullCacheEvictsExpiredEntriesFirst() {
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+        cache.put("a", "1m", "a", NOW);
+        cache.put("b", "1H", "b", NOW);
+
+        // Full, nothing expired: the new entry is dropped
+        cache.put("c", "1H", "c", NOW);
+        assertNull(cache.get("c", NOW));
+
+        // After the minute boundary "a" has expired and makes room
+        cache.put("d", "1H", "d", NEXT_MINUTE);
+        assertEquals("d", cache.get("d", NEXT_MINUTE));
+        assertEquals("b", cache.get("b", NEXT_MINUTE));
+        assertEquals(2, cache.size());
+    }
+
+    private void assertExpiresAt(String interval, String boundary) {
+        long expiresAt = Instant.parse(boundary).toEpochMilli();
+        cache.put(interval, interval, "value", NOW);
+
+        assertEquals("value", cache.get(interval, expiresAt - 1), interval);
+        assertNull(cache.get(interval, expiresAt), interval);
+    }
+}
@@ -1,5 +1,6 @@
 package com.supermancell.common.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.Instant;
 
@@ -33,6 +34,13 @@ public class Candle {
     
     @JsonProperty("created_at")
     private Instant createdAt;
+    
+    // Ingestion trace (System.nanoTime), never serialized; 0 when not received from the WebSocket feed
+    @JsonIgnore
+    private transient long receivedNanos;
+    
+    @JsonIgnore
+    private transient long parsedNanos;
 
     public Candle() {}
 
@@ -131,6 +139,30 @@ public class Candle {
         this.createdAt = createdAt;
     }
 
+    /**
+     * @return System.nanoTime() when the WebSocket frame carrying this candle arrived, 0 if unknown
+     */
+    @JsonIgnore
+    public long getReceivedNanos() {
+        return receivedNanos;
+    }
+
+    public void setReceivedNanos(long receivedNanos) {
+        this.receivedNanos = receivedNanos;
+    }
+
+    /**
+     * @return System.nanoTime() when the frame had been parsed into this candle, 0 if unknown
+     */
+    @JsonIgnore
+    public long getParsedNanos() {
+        return parsedNanos;
+    }
+
+    public void setParsedNanos(long parsedNanos) {
+        this.parsedNanos = parsedNanos;
+    }
+
     @Override
     public String toString() {
         return "Candle{" +
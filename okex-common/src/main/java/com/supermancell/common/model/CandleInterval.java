@@ -0,0 +1,242 @@
+package com.supermancell.common.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OKX bar (candle interval) such as 1s, 1m, 1H, 1D, 1Dutc, 1W or 1M
+ *
+ * Alignment follows OKX:
+ * - Second, minute and hour bars up to 4H are aligned to UTC
+ * - 6H and longer bars are aligned to Hong Kong time (UTC+8) unless the "utc" suffix is present
+ * - Weekly bars start on Monday, monthly bars on the first day of the month
+ *
+ * Each candle occupies one slot; slot numbers increase by one per candle, so the number of
+ * candles between two times is a subtraction even for calendar-month bars.
+ * Lower-case h, d and w are accepted and normalized (1h → 1H); "m" is always minutes.
+ */
+public final class CandleInterval {
+
+    public enum Unit {
+        SECOND('s', TimeUnit.SECONDS.toMillis(1)),
+        MINUTE('m', TimeUnit.MINUTES.toMillis(1)),
+        HOUR('H', TimeUnit.HOURS.toMillis(1)),
+        DAY('D', TimeUnit.DAYS.toMillis(1)),
+        WEEK('W', TimeUnit.DAYS.toMillis(7)),
+        MONTH('M', TimeUnit.DAYS.toMillis(30));
+
+        private final char symbol;
+        private final long millis;
+
+        Unit(char symbol, long millis) {
+            this.symbol = symbol;
+            this.millis = millis;
+        }
+    }
+
+    private static final long HK_OFFSET_MILLIS = TimeUnit.HOURS.toMillis(8);
+    /** 1970-01-01 was a Thursday: the first Monday is 4 days after the epoch */
+    private static final long MONDAY_SHIFT_MILLIS = TimeUnit.DAYS.toMillis(4);
+    private static final LocalDate EPOCH_MONTH = LocalDate.of(1970, 1, 1);
+
+    // Parsed bars by the string they were parsed from (only valid bars, bounded against arbitrary input)
+    private static final int MAX_PARSED = 256;
+    private static final Map<String, CandleInterval> PARSED = new ConcurrentHashMap<>();
+
+    private final String bar;
+    private final int amount;
+    private final Unit unit;
+    private final boolean utc;
+    private final long durationMillis;
+    private final long offsetMillis;
+    private final ZoneOffset zone;
+
+    private CandleInterval(int amount, Unit unit, boolean utc) {
+        this.amount = amount;
+        this.unit = unit;
+        this.utc = utc;
+        this.bar = amount + String.valueOf(unit.symbol) + (utc ? "utc" : "");
+        this.durationMillis = amount * unit.millis;
+
+        boolean hongKong = !utc && (unit == Unit.MONTH || durationMillis >= TimeUnit.HOURS.toMillis(6));
+        long offset = hongKong ? HK_OFFSET_MILLIS : 0;
+        if (unit == Unit.WEEK) {
+            offset -= MONDAY_SHIFT_MILLIS;
+        }
+        this.offsetMillis = offset;
+        this.zone = hongKong ? ZoneOffset.ofHours(8) : ZoneOffset.UTC;
+    }
+
+    /**
+     * @param bar OKX bar, e.g. 1s, 1m, 15m, 1H, 4H, 1D, 1Dutc, 1W, 1M, 3Mutc
+     * @return Parsed bar, or null if the bar is not supported
+     */
+    public static CandleInterval parse(String bar) {
+        if (bar == null) {
+            return null;
+        }
+        CandleInterval parsed = PARSED.get(bar);
+        if (parsed == null) {
+            parsed = doParse(bar);
+            if (parsed != null && PARSED.size() < MAX_PARSED) {
+                PARSED.put(bar, parsed);
+            }
+        }
+        return parsed;
+    }
+
+    private static CandleInterval doParse(String bar) {
+        boolean utc = bar.length() > 3 && bar.regionMatches(true, bar.length() - 3, "utc", 0, 3);
+        String spec = utc ? bar.substring(0, bar.length() - 3) : bar;
+        if (spec.length() < 2) {
+            return null;
+        }
+
+        int amount;
+        try {
+            amount = Integer.parseInt(spec.substring(0, spec.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (amount <= 0) {
+            return null;
+        }
+
+        Unit unit;
+        switch (spec.charAt(spec.length() - 1)) {
+            case 's':
+                unit = Unit.SECOND;
+                break;
+            case 'm':
+                unit = Unit.MINUTE;
+                break;
+            case 'H':
+            case 'h':
+                unit = Unit.HOUR;
+                break;
+            case 'D':
+            case 'd':
+                unit = Unit.DAY;
+                break;
+            case 'W':
+            case 'w':
+                unit = Unit.WEEK;
+                break;
+            case 'M':
+                unit = Unit.MONTH;
+                break;
+            default:
+                return null;
+        }
+        if (utc && (unit == Unit.SECOND || unit == Unit.MINUTE)) {
+            // Sub-hour bars are UTC-aligned already and have no utc variant
+            return null;
+        }
+        return new CandleInterval(amount, unit, utc);
+    }
+
+    /**
+     * Slot number of the candle containing the given time
+     */
+    public long slot(long timestampMillis) {
+        if (unit == Unit.MONTH) {
+            OffsetDateTime local = Instant.ofEpochMilli(timestampMillis).atOffset(zone);
+            long months = (local.getYear() - 1970) * 12L + local.getMonthValue() - 1;
+            return Math.floorDiv(months, amount);
+        }
+        return Math.floorDiv(timestampMillis + offsetMillis, durationMillis);
+    }
+
+    /**
+     * Open time of the candle in the given slot
+     */
+    public long slotOpenTime(long slot) {
+        if (unit == Unit.MONTH) {
+            return EPOCH_MONTH.plusMonths(slot * amount).atStartOfDay().toInstant(zone).toEpochMilli();
+        }
+        return slot * durationMillis - offsetMillis;
+    }
+
+    /**
+     * Open time of the candle containing the given time
+     */
+    public long openTime(long timestampMillis) {
+        return slotOpenTime(slot(timestampMillis));
+    }
+
+    /**
+     * Close time (exclusive) of the candle containing the given time, i.e. the next open time
+     */
+    public long closeTime(long timestampMillis) {
+        return slotOpenTime(slot(timestampMillis) + 1);
+    }
+
+    /**
+     * Number of candles opening within [fromMillis, toMillis]
+     */
+    public long expectedCount(long fromMillis, long toMillis) {
+        if (toMillis < fromMillis) {
+            return 0;
+        }
+        long first = slot(fromMillis);
+        if (slotOpenTime(first) < fromMillis) {
+            first++;
+        }
+        return Math.max(0, slot(toMillis) - first + 1);
+    }
+
+    /**
+     * @return Canonical OKX bar string, e.g. 1H for "1h"
+     */
+    public String getBar() {
+        return bar;
+    }
+
+    public int getAmount() {
+        return amount;
+    }
+
+    public Unit getUnit() {
+        return unit;
+    }
+
+    public boolean isUtc() {
+        return utc;
+    }
+
+    /**
+     * @return false for calendar-month bars, whose length varies
+     */
+    public boolean isFixedLength() {
+        return unit != Unit.MONTH;
+    }
+
+    /**
+     * Candle length; nominal (30 days per month) for calendar-month bars
+     */
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return bar.equals(((CandleInterval) o).bar);
+    }
+
+    @Override
+    public int hashCode() {
+        return bar.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return bar;
+    }
+}
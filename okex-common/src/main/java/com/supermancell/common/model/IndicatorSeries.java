@@ -0,0 +1,86 @@
+package com.supermancell.common.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Full indicator time series over a candle window
+ * 
+ * Stored column-wise: one epoch-millisecond timestamp per point plus one
+ * primitive array per component (e.g. "macd", "signal", "histogram").
+ * All component arrays have the same length as {@code timestamps}.
+ */
+public class IndicatorSeries {
+    private long[] timestamps = new long[0];
+    private Map<String, double[]> components = new LinkedHashMap<>();
+    private Integer dataPoints;
+    private String errorMessage;
+
+    public IndicatorSeries() {}
+
+    public static IndicatorSeries error(String errorMessage) {
+        IndicatorSeries series = new IndicatorSeries();
+        series.setErrorMessage(errorMessage);
+        series.setDataPoints(0);
+        return series;
+    }
+
+    public boolean isSuccess() {
+        return errorMessage == null;
+    }
+
+    public int size() {
+        return timestamps.length;
+    }
+
+    public void addComponent(String name, double[] values) {
+        components.put(name, values);
+    }
+
+    public double[] getComponent(String name) {
+        return components.get(name);
+    }
+
+    // Getters and Setters
+    public long[] getTimestamps() {
+        return timestamps;
+    }
+
+    public void setTimestamps(long[] timestamps) {
+        this.timestamps = timestamps;
+    }
+
+    public Map<String, double[]> getComponents() {
+        return components;
+    }
+
+    public void setComponents(Map<String, double[]> components) {
+        this.components = components;
+    }
+
+    public Integer getDataPoints() {
+        return dataPoints;
+    }
+
+    public void setDataPoints(Integer dataPoints) {
+        this.dataPoints = dataPoints;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    @Override
+    public String toString() {
+        return "IndicatorSeries{" +
+                "points=" + timestamps.length +
+                ", components=" + components.keySet() +
+                ", dataPoints=" + dataPoints +
+                ", errorMessage='" + errorMessage + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,85 @@
+package com.supermancell.common.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CandleInterval
+ */
+class CandleIntervalTest {
+
+    private static long millis(String instant) {
+        return Instant.parse(instant).toEpochMilli();
+    }
+
+    @Test
+    void testParse_AllOkxBars() {
+        String[] bars = {"1s", "1m", "3m", "5m", "15m", "30m", "1H", "2H", "4H", "6H", "12H", "1D", "2D", "3D",
+                "1W", "1M", "3M", "6Hutc", "12Hutc", "1Dutc", "2Dutc", "3Dutc", "1Wutc", "1Mutc", "3Mutc"};
+        for (String bar : bars) {
+            CandleInterval interval = CandleInterval.parse(bar);
+            assertNotNull(interval, bar);
+            assertEquals(bar, interval.getBar());
+        }
+    }
+
+    @Test
+    void testParse_NormalizesAndRejects() {
+        assertEquals("1H", CandleInterval.parse("1h").getBar());
+        assertEquals("1Dutc", CandleInterval.parse("1dUTC").getBar());
+        assertEquals(CandleInterval.Unit.MINUTE, CandleInterval.parse("1m").getUnit());
+        assertEquals(CandleInterval.Unit.MONTH, CandleInterval.parse("1M").getUnit());
+
+        assertNull(CandleInterval.parse(null));
+        assertNull(CandleInterval.parse("H"));
+        assertNull(CandleInterval.parse("0m"));
+        assertNull(CandleInterval.parse("1x"));
+        assertNull(CandleInterval.parse("1mutc"));
+    }
+
+    @Test
+    void testOpenTime_Alignment() {
+        long t = millis("2024-03-13T05:17:42Z"); // Wednesday
+
+        assertEquals(millis("2024-03-13T05:15:00Z"), CandleInterval.parse("15m").openTime(t));
+        assertEquals(millis("2024-03-13T04:00:00Z"), CandleInterval.parse("4H").openTime(t));
+        // Hong Kong alignment: 6H bars open at 00/06/12/18 HKT = 16/22/04/10 UTC
+        assertEquals(millis("2024-03-13T04:00:00Z"), CandleInterval.parse("6H").openTime(t));
+        assertEquals(millis("2024-03-13T00:00:00Z"), CandleInterval.parse("6Hutc").openTime(t));
+        assertEquals(millis("2024-03-12T16:00:00Z"), CandleInterval.parse("1D").openTime(t));
+        assertEquals(millis("2024-03-13T00:00:00Z"), CandleInterval.parse("1Dutc").openTime(t));
+        assertEquals(millis("2024-03-11T00:00:00Z"), CandleInterval.parse("1Wutc").openTime(t));
+        assertEquals(millis("2024-03-10T16:00:00Z"), CandleInterval.parse("1W").openTime(t));
+        assertEquals(millis("2024-02-29T16:00:00Z"), CandleInterval.parse("1M").openTime(t));
+        assertEquals(millis("2024-01-01T00:00:00Z"), CandleInterval.parse("3Mutc").openTime(t));
+    }
+
+    @Test
+    void testSlots_ConsecutiveAcrossCalendarMonths() {
+        CandleInterval month = CandleInterval.parse("1Mutc");
+        long jan = millis("2024-01-01T00:00:00Z");
+        long feb = millis("2024-02-01T00:00:00Z");
+        long mar = millis("2024-03-01T00:00:00Z");
+
+        assertEquals(month.slot(jan) + 1, month.slot(feb));
+        assertEquals(feb, month.closeTime(jan));
+        assertEquals(mar, month.closeTime(feb));
+        assertFalse(month.isFixedLength());
+    }
+
+    @Test
+    void testExpectedCount() {
+        CandleInterval minute = CandleInterval.parse("1m");
+        long start = millis("2024-03-13T05:00:00Z");
+
+        assertEquals(60, minute.expectedCount(start, start + 59 * 60_000L));
+        // A range starting mid-candle excludes that candle
+        assertEquals(59, minute.expectedCount(start + 1, start + 59 * 60_000L));
+        assertEquals(0, minute.expectedCount(start + 1, start));
+        assertEquals(3, CandleInterval.parse("1Mutc").expectedCount(
+                millis("2024-01-01T00:00:00Z"), millis("2024-03-31T00:00:00Z")));
+    }
+}
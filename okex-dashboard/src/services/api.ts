@@ -10,10 +10,11 @@ import type {
 
 class ApiService {
   private api: AxiosInstance
+  readonly baseURL: string = import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080/api'
 
   constructor() {
     this.api = axios.create({
-      baseURL: import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080/api',
+      baseURL: this.baseURL,
       timeout: 10000,
       headers: {
         'Content-Type': 'application/json'
@@ -79,6 +80,12 @@ class ApiService {
     })
   }
 
+  // Server-Sent Events URL of live candles for a symbol and interval (snapshot of `limit`, max 300)
+  candleStreamUrl(symbol: string, interval: string, limit = 300): string {
+    const params = new URLSearchParams({ symbol, interval, limit: String(limit) })
+    return `${this.baseURL}/candles/stream?${params}`
+  }
+
   // Get recent candles for a symbol and interval (default last 300)
   async getCandles(symbol: string, interval: string, limit = 300): Promise<ApiResponse<Candle[]>> {
     return this.api.get('/candles', {
@@ -120,22 +120,85 @@ export const useWebSocketStore = defineStore('websocket', () => {
     }
   }
 
-  // Auto-refresh data
-  let refreshInterval: number | null = null
-
-  function startAutoRefresh(intervalMs = 5000) {
-    stopAutoRefresh()
-    refreshInterval = window.setInterval(() => {
-      fetchConnectionStatus()
-      fetchSystemMetrics()
-      fetchSubscriptions()
-    }, intervalMs)
+  // Live updates over Server-Sent Events (GET /api/dashboard/stream).
+  // The server sends a full snapshot on connect, then only changed fields;
+  // EventSource reconnects by itself and the next snapshot resyncs the state.
+  let eventSource: EventSource | null = null
+
+  function parse<T>(event: MessageEvent): T | null {
+    try {
+      return JSON.parse(event.data) as T
+    } catch (err) {
+      console.error('Invalid dashboard event:', event.type, err)
+      return null
+    }
+  }
+
+  function subscriptionKey(s: Pick<SubscriptionInfo, 'symbol' | 'interval'>) {
+    return `${s.symbol}|${s.interval}`
+  }
+
+  function connectStream() {
+    disconnectStream()
+    eventSource = new EventSource(`${apiService.baseURL}/dashboard/stream`)
+
+    eventSource.addEventListener('snapshot', (event) => {
+      const snapshot = parse<{
+        connection: ConnectionInfo
+        metrics: SystemMetrics
+        subscriptions: SubscriptionInfo[]
+      }>(event as MessageEvent)
+      if (snapshot) {
+        connectionInfo.value = snapshot.connection
+        systemMetrics.value = snapshot.metrics
+        subscriptions.value = snapshot.subscriptions
+        error.value = null
+      }
+    })
+
+    eventSource.addEventListener('connection', (event) => {
+      const delta = parse<Partial<ConnectionInfo>>(event as MessageEvent)
+      if (delta) {
+        connectionInfo.value = { ...connectionInfo.value, ...delta }
+      }
+    })
+
+    eventSource.addEventListener('metrics', (event) => {
+      const delta = parse<Partial<SystemMetrics>>(event as MessageEvent)
+      if (delta) {
+        systemMetrics.value = { ...systemMetrics.value, ...delta }
+      }
+    })
+
+    eventSource.addEventListener('subscriptions', (event) => {
+      const delta = parse<{ added: SubscriptionInfo[]; removed: SubscriptionInfo[] }>(
+        event as MessageEvent
+      )
+      if (delta) {
+        const removed = new Set(delta.removed.map(subscriptionKey))
+        subscriptions.value = subscriptions.value
+          .filter((s) => !removed.has(subscriptionKey(s)))
+          .concat(delta.added)
+      }
+    })
+
+    eventSource.addEventListener('reconnection', (event) => {
+      const record = parse<ReconnectionRecord>(event as MessageEvent)
+      if (record) {
+        // Same cap as the server-side history
+        reconnectionHistory.value = [record, ...reconnectionHistory.value].slice(0, 1000)
+      }
+    })
+
+    eventSource.onerror = () => {
+      error.value = 'Live update stream interrupted, reconnecting...'
+    }
   }
 
-  function stopAutoRefresh() {
-    if (refreshInterval) {
-      clearInterval(refreshInterval)
-      refreshInterval = null
+  function disconnectStream() {
+    if (eventSource) {
+      eventSource.close()
+      eventSource = null
     }
   }
 
@@ -158,7 +221,7 @@ export const useWebSocketStore = defineStore('websocket', () => {
     triggerReconnect,
     addSubscription,
     removeSubscription,
-    startAutoRefresh,
-    stopAutoRefresh
+    connectStream,
+    disconnectStream
   }
 })
@@ -1,9 +1,13 @@
 package com.supermancell.server.aspect;
 
 import com.supermancell.common.model.Candle;
+import com.supermancell.common.model.CandleInterval;
 import com.supermancell.server.cache.CandleCacheService;
+import com.supermancell.server.cache.CandleGapIndex;
 import com.supermancell.server.client.OkexRestClient;
 import com.supermancell.server.repository.CandleRepository;
+import com.supermancell.server.service.CandleGapRepairWorker;
+import com.supermancell.server.service.RequestDeadline;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
@@ -12,14 +16,20 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * AOP Aspect for checking and ensuring candle data integrity
  * Intercepts technical indicator calculation methods to validate data completeness and continuity
+ *
+ * Series covered by CandleGapIndex are checked with one index lookup. Gaps found there are
+ * repaired inline in strict mode (the caller gets the repaired window), otherwise by
+ * CandleGapRepairWorker in the background instead of blocking the caller.
+ * Series the index does not cover yet fall back to scanning the fetched candles.
  */
 @Aspect
 @Component
@@ -30,6 +40,8 @@ public class CandleDataIntegrityAspect {
     private final OkexRestClient okexRestClient;
     private final CandleRepository candleRepository;
     private final CandleCacheService candleCacheService;
+    private final CandleGapIndex candleGapIndex;
+    private final CandleGapRepairWorker candleGapRepairWorker;
     
     @Value("${candle.integrity.check.enabled:true}")
     private boolean integrityCheckEnabled;
@@ -43,21 +55,16 @@ public class CandleDataIntegrityAspect {
     @Value("${candle.integrity.cache.expire-seconds:0}")
     private int cacheExpireSeconds;
     
-    // Time interval to expected gap in seconds
-    private static final Map<String, Long> INTERVAL_GAPS = new HashMap<>();
-    
-    //系统只会订阅1m和1H两，其它时间维度后期可以通过聚合算法合成
-    static {
-        INTERVAL_GAPS.put("1m", 60L);
-        INTERVAL_GAPS.put("1H", 3600L);
-    }
-    
     public CandleDataIntegrityAspect(OkexRestClient okexRestClient, 
                                      CandleRepository candleRepository,
-                                     CandleCacheService candleCacheService) {
+                                     CandleCacheService candleCacheService,
+                                     CandleGapIndex candleGapIndex,
+                                     CandleGapRepairWorker candleGapRepairWorker) {
         this.okexRestClient = okexRestClient;
         this.candleRepository = candleRepository;
         this.candleCacheService = candleCacheService;
+        this.candleGapIndex = candleGapIndex;
+        this.candleGapRepairWorker = candleGapRepairWorker;
     }
     
     /**
@@ -94,16 +101,38 @@ public class CandleDataIntegrityAspect {
         @SuppressWarnings("unchecked")
         List<Candle> candles = (List<Candle>) joinPoint.proceed();
         
-        // Step 3: Validate data completeness and continuity
+        // Step 3: Look up the gap index
+        CandleGapIndex.Status indexStatus = candleGapIndex.check(symbol, interval, limit);
+        if (indexStatus == CandleGapIndex.Status.COMPLETE) {
+            log.debug("Gap index reports no gaps in the last {} slots", limit);
+            if (cacheExpireSeconds > 0) {
+                candleCacheService.cacheCandles(symbol, interval, limit, candles, cacheTtlSeconds(interval));
+            }
+            return candles;
+        }
+        if (indexStatus == CandleGapIndex.Status.GAPS) {
+            log.warn("Gap index reports {} missing candles for {}:{}",
+                    candleGapIndex.getMissing(symbol, interval, limit).size(), symbol, interval);
+            if (strictMode) {
+                return repairInline(symbol, interval, limit, candles);
+            }
+            // Known gaps: repair in the background, never cache partial data
+            candleGapRepairWorker.submit(symbol, interval, limit);
+            return candles;
+        }
+        
+        // Step 4: Index does not cover the window yet - learn from this result and scan it
+        candleGapIndex.observe(symbol, interval, candles);
+        
         boolean isComplete = checkDataCompleteness(candles, limit);
         boolean isContinuous = checkTimeContinuity(candles, interval);
         
         if (isComplete && isContinuous) {
             log.debug("Candle data is complete and continuous");
             
-            // Step 4: Cache validated data if caching is enabled (N > 0)
+            // Step 5: Cache validated data if caching is enabled (N > 0)
             if (cacheExpireSeconds > 0) {
-                candleCacheService.cacheCandles(symbol, interval, limit, candles, cacheExpireSeconds);
+                candleCacheService.cacheCandles(symbol, interval, limit, candles, cacheTtlSeconds(interval));
             }
             
             return candles;
@@ -114,21 +143,38 @@ public class CandleDataIntegrityAspect {
                 isComplete, isContinuous);
         
         if (strictMode) {
-            log.info("Strict mode enabled, fetching complete data from OKEx REST API");
-            List<Candle> completeCandles = fetchCompleteDataFromApi(symbol, interval, limit);
-            
-            // Cache the complete data fetched from API
-            if (!completeCandles.isEmpty() && cacheExpireSeconds > 0) {
-                candleCacheService.cacheCandles(symbol, interval, limit, completeCandles, cacheExpireSeconds);
-            }
-            
-            return completeCandles;
+            return repairInline(symbol, interval, limit, candles);
         } else {
             log.warn("Non-strict mode, returning potentially incomplete data");
             return candles;
         }
     }
     
+    /**
+     * Strict mode: repair the window before returning it - targeted repair first, full
+     * refetch from the OKEx REST API if that is not possible
+     */
+    private List<Candle> repairInline(String symbol, String interval, int limit, List<Candle> candles) {
+        // Do not start a synchronous REST call for a request that is already abandoned
+        RequestDeadline.check("OKX REST fetch");
+        
+        // Targeted repair: fetch only the missing candles and merge them in memory
+        List<Candle> repaired = repairMissingCandles(symbol, interval, limit, candles);
+        if (repaired != null) {
+            return repaired;
+        }
+        
+        log.info("Strict mode enabled, fetching complete data from OKEx REST API");
+        List<Candle> completeCandles = fetchCompleteDataFromApi(symbol, interval, limit);
+        
+        // Cache the complete data fetched from API
+        if (!completeCandles.isEmpty() && cacheExpireSeconds > 0) {
+            candleCacheService.cacheCandles(symbol, interval, limit, completeCandles, cacheTtlSeconds(interval));
+        }
+        
+        return completeCandles;
+    }
+    
     /**
      * Check if data quantity meets requirements
      * 
@@ -163,7 +209,7 @@ public class CandleDataIntegrityAspect {
      * Check if timestamps are continuous based on interval
      * 
      * @param candles List of candles to check
-     * @param interval Time interval (e.g., 1m, 1H)
+     * @param interval Time interval, any OKX bar (e.g., 1m, 1H, 1Dutc, 1M)
      * @return true if timestamps are continuous, false otherwise
      */
     private boolean checkTimeContinuity(List<Candle> candles, String interval) {
@@ -172,13 +218,13 @@ public class CandleDataIntegrityAspect {
             return true;
         }
         
-        Long expectedGapSeconds = INTERVAL_GAPS.get(interval);
-        if (expectedGapSeconds == null) {
+        CandleInterval candleInterval = CandleInterval.parse(interval);
+        if (candleInterval == null) {
             log.warn("Unknown interval: {}, skipping continuity check", interval);
             return true;
         }
         
-        // Check gaps between consecutive candles
+        // Consecutive candles must occupy consecutive slots
         int gapCount = 0;
         int totalChecks = 0;
         
@@ -190,16 +236,12 @@ public class CandleDataIntegrityAspect {
                 continue;
             }
             
-            long actualGapSeconds = Duration.between(prev.getTimestamp(), curr.getTimestamp()).getSeconds();
-            
-            // Allow some tolerance (±10 seconds) for timestamp variations
-            long tolerance = 10L;
-            long minGap = expectedGapSeconds - tolerance;
-            long maxGap = expectedGapSeconds + tolerance;
+            long slotDistance = candleInterval.slot(curr.getTimestamp().toEpochMilli())
+                    - candleInterval.slot(prev.getTimestamp().toEpochMilli());
             
-            if (actualGapSeconds < minGap || actualGapSeconds > maxGap) {
-                log.debug("Time gap anomaly detected: expected={}s, actual={}s, between {} and {}", 
-                        expectedGapSeconds, actualGapSeconds, prev.getTimestamp(), curr.getTimestamp());
+            if (slotDistance != 1) {
+                log.debug("Time gap anomaly detected: {} slots of {} between {} and {}", 
+                        slotDistance, interval, prev.getTimestamp(), curr.getTimestamp());
                 gapCount++;
             }
             
@@ -220,6 +262,90 @@ public class CandleDataIntegrityAspect {
         return isContinuous;
     }
     
+    /**
+     * Fetch just the candles missing from the latest {@code limit} slots and merge them into the
+     * stored ones; the fetched candles are written to MongoDB in the background
+     * 
+     * @return Merged window, or null if a full refetch is needed (no stored data, gaps too
+     *         fragmented, or the targeted fetch returned nothing)
+     */
+    private List<Candle> repairMissingCandles(String symbol, String interval, int limit, List<Candle> candles) {
+        CandleInterval candleInterval = CandleInterval.parse(interval);
+        if (candleInterval == null || candles == null || candles.isEmpty()) {
+            return null;
+        }
+        
+        List<Long> missing = missingOpenTimes(candleInterval, candles, limit, System.currentTimeMillis());
+        if (missing.isEmpty()) {
+            return candles;
+        }
+        
+        List<Candle> fetched = candleGapRepairWorker.fetchMissing(symbol, interval, missing);
+        if (fetched == null || fetched.isEmpty()) {
+            return null;
+        }
+        log.info("Fetched {} of {} missing candles for {}:{} from OKEx REST API", 
+                fetched.size(), missing.size(), symbol, interval);
+        
+        candleGapRepairWorker.persistAsync(symbol, interval, missing, fetched);
+        
+        TreeMap<Long, Candle> bySlot = new TreeMap<>();
+        for (Candle candle : candles) {
+            bySlot.put(candleInterval.slot(candle.getTimestamp().toEpochMilli()), candle);
+        }
+        for (Candle candle : fetched) {
+            bySlot.putIfAbsent(candleInterval.slot(candle.getTimestamp().toEpochMilli()), candle);
+        }
+        List<Candle> merged = new ArrayList<>(bySlot.values());
+        if (merged.size() > limit) {
+            merged = new ArrayList<>(merged.subList(merged.size() - limit, merged.size()));
+        }
+        
+        if (fetched.size() >= missing.size() && cacheExpireSeconds > 0) {
+            candleCacheService.cacheCandles(symbol, interval, limit, merged, cacheTtlSeconds(interval));
+        }
+        return merged;
+    }
+    
+    /**
+     * Open times of the candles missing from the latest {@code limit} slots, oldest first.
+     * The window ends at the last closed candle, or at the newest stored one if that is later.
+     */
+    static List<Long> missingOpenTimes(CandleInterval interval, List<Candle> candles, int limit, long nowMillis) {
+        Set<Long> stored = new HashSet<>();
+        long newest = Long.MIN_VALUE;
+        for (Candle candle : candles) {
+            if (candle.getTimestamp() != null) {
+                long slot = interval.slot(candle.getTimestamp().toEpochMilli());
+                stored.add(slot);
+                newest = Math.max(newest, slot);
+            }
+        }
+        
+        long end = Math.max(interval.slot(nowMillis) - 1, newest);
+        List<Long> missing = new ArrayList<>();
+        for (long slot = end - limit + 1; slot <= end; slot++) {
+            if (!stored.contains(slot)) {
+                missing.add(interval.slotOpenTime(slot));
+            }
+        }
+        return missing;
+    }
+    
+    /**
+     * Cache TTL for a latest-N result: the configured expiry, but never past the close of the
+     * current candle (a new candle makes the cached list stale)
+     */
+    int cacheTtlSeconds(String interval) {
+        CandleInterval candleInterval = CandleInterval.parse(interval);
+        if (candleInterval == null) {
+            return cacheExpireSeconds;
+        }
+        long now = System.currentTimeMillis();
+        long untilCloseSeconds = (candleInterval.closeTime(now) - now + 999) / 1000;
+        return (int) Math.max(1, Math.min(cacheExpireSeconds, untilCloseSeconds));
+    }
+    
     /**
      * Fetch complete data from OKEx REST API and update MongoDB
      * 
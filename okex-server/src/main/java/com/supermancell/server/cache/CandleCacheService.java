@@ -4,6 +4,8 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.supermancell.common.model.Candle;
 import com.supermancell.common.model.IndicatorResult;
+import com.supermancell.server.service.SystemMetricsService;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -28,6 +30,7 @@ public class CandleCacheService {
     
     private final JedisPool jedisPool;
     private final ObjectMapper objectMapper;
+    private final SystemMetricsService metricsService;
     
     @Value("${redis.enabled:true}")
     private boolean redisEnabled;
@@ -35,9 +38,11 @@ public class CandleCacheService {
     @Value("${indicator.cache.ttl:300}")
     private int indicatorCacheTTL;
     
-    public CandleCacheService(JedisPool jedisPool, ObjectMapper objectMapper) {
+    public CandleCacheService(JedisPool jedisPool, ObjectMapper objectMapper,
+                              SystemMetricsService metricsService) {
         this.jedisPool = jedisPool;
         this.objectMapper = objectMapper;
+        this.metricsService = metricsService;
     }
     
     /**
@@ -61,6 +66,7 @@ public class CandleCacheService {
      * @param limit Number of candles
      * @return List of cached candles, or null if cache miss
      */
+    @Timed(value = "okex.redis", extraTags = {"operation", "get_candles"})
     public List<Candle> getCachedCandles(String symbol, String interval, int limit) {
         if (!redisEnabled) {
             log.debug("Redis is disabled, skipping cache lookup");
@@ -74,6 +80,7 @@ public class CandleCacheService {
             
             if (cachedJson == null) {
                 log.debug("Cache miss for key: {}", cacheKey);
+                metricsService.recordCacheAccess(SystemMetricsService.CACHE_CANDLE, false);
                 return null;
             }
             
@@ -82,6 +89,7 @@ public class CandleCacheService {
                     new TypeReference<List<Candle>>() {}
             );
             
+            metricsService.recordCacheAccess(SystemMetricsService.CACHE_CANDLE, true);
             log.info("Cache hit for key: {}, returned {} candles", cacheKey, candles.size());
             return candles;
             
@@ -100,6 +108,7 @@ public class CandleCacheService {
      * @param candles List of validated candles
      * @param expireSeconds Cache expiration time in seconds (0 = don't cache)
      */
+    @Timed(value = "okex.redis", extraTags = {"operation", "cache_candles"})
     public void cacheCandles(String symbol, String interval, int limit, 
                             List<Candle> candles, int expireSeconds) {
         if (!redisEnabled) {
@@ -209,6 +218,7 @@ public class CandleCacheService {
      * @param cacheKey Cache key for the indicator result
      * @return Cached IndicatorResult, or null if cache miss
      */
+    @Timed(value = "okex.redis", extraTags = {"operation", "get_indicator"})
     public IndicatorResult getIndicatorResult(String cacheKey) {
         if (!redisEnabled) {
             log.debug("Redis is disabled, skipping indicator cache lookup");
@@ -220,10 +230,12 @@ public class CandleCacheService {
             
             if (cachedJson == null) {
                 log.debug("Indicator cache miss for key: {}", cacheKey);
+                metricsService.recordCacheAccess(SystemMetricsService.CACHE_INDICATOR, false);
                 return null;
             }
             
             IndicatorResult result = objectMapper.readValue(cachedJson, IndicatorResult.class);
+            metricsService.recordCacheAccess(SystemMetricsService.CACHE_INDICATOR, true);
             log.debug("Indicator cache hit for key: {}", cacheKey);
             return result;
             
@@ -239,6 +251,7 @@ public class CandleCacheService {
      * @param cacheKey Cache key for the indicator result
      * @param result IndicatorResult to cache
      */
+    @Timed(value = "okex.redis", extraTags = {"operation", "cache_indicator"})
     public void cacheIndicatorResult(String cacheKey, IndicatorResult result) {
         if (!redisEnabled) {
             log.debug("Redis is disabled, skipping indicator cache save");
@@ -0,0 +1,250 @@
+package com.supermancell.server.cache;
+
+import com.supermancell.common.model.Candle;
+import com.supermancell.common.model.CandleInterval;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Incremental index of missing candle slots per (symbol, interval), as stored in MongoDB.
+ *
+ * A slot is one candle period as numbered by CandleInterval. For each series the index
+ * knows a covered range [coveredFrom, latest] and the set of slots missing inside it:
+ * - Every successful repository write records its slots (ingestion keeps the index current)
+ * - A newer slot than the latest one marks the skipped slots as missing
+ * - A latest-N query result from MongoDB extends the coverage backwards
+ *
+ * check() answers "any gap in the last N slots" with one lookup in the missing set,
+ * so integrity checks no longer scan the fetched candles. UNKNOWN means the index does not
+ * cover the requested window yet (e.g. right after startup).
+ */
+@Component
+public class CandleGapIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CandleGapIndex.class);
+
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+    @Value("${candle.integrity.index.max-slots:10000}")
+    private int maxSlots = 10000;
+
+    public enum Status {
+        /** No missing slot in the requested window */
+        COMPLETE,
+        /** At least one missing slot in the requested window */
+        GAPS,
+        /** The index does not cover the whole window */
+        UNKNOWN
+    }
+
+    /**
+     * Record candles persisted to MongoDB
+     */
+    public void record(List<Candle> candles) {
+        if (candles == null) {
+            return;
+        }
+        for (Candle candle : candles) {
+            record(candle);
+        }
+    }
+
+    /**
+     * Record one candle persisted to MongoDB
+     */
+    public void record(Candle candle) {
+        if (candle == null || candle.getTimestamp() == null) {
+            return;
+        }
+        Series s = seriesFor(candle.getSymbol(), candle.getInterval());
+        if (s != null) {
+            s.record(s.slot(candle.getTimestamp().toEpochMilli()), maxSlots);
+        }
+    }
+
+    /**
+     * Learn from a latest-N query result (chronological): every slot between the first
+     * and last returned candle that is absent from the list is missing in MongoDB.
+     */
+    public void observe(String symbol, String interval, List<Candle> latest) {
+        if (latest == null || latest.isEmpty()) {
+            return;
+        }
+        Series s = seriesFor(symbol, interval);
+        if (s == null) {
+            return;
+        }
+        List<Long> slots = new ArrayList<>(latest.size());
+        for (Candle candle : latest) {
+            if (candle.getTimestamp() != null) {
+                slots.add(s.slot(candle.getTimestamp().toEpochMilli()));
+            }
+        }
+        if (!slots.isEmpty()) {
+            s.observe(slots, maxSlots);
+            log.debug("Gap index observed {}:{} - {} candles, {} missing slots", symbol, interval,
+                    slots.size(), s.missingCount());
+        }
+    }
+
+    /**
+     * Check the last {@code slots} slots of a series (counted back from the latest stored candle)
+     */
+    public Status check(String symbol, String interval, int slots) {
+        Series s = series.get(seriesKey(symbol, interval));
+        return s != null ? s.check(slots) : Status.UNKNOWN;
+    }
+
+    /**
+     * @return Open times (epoch ms) of missing slots within the last {@code slots} slots, oldest first
+     */
+    public List<Long> getMissing(String symbol, String interval, int slots) {
+        Series s = series.get(seriesKey(symbol, interval));
+        return s != null ? s.missing(slots) : new ArrayList<>();
+    }
+
+    /**
+     * Forget missing slots in [fromMillis, toMillis] after a repair attempt covered that range:
+     * slots still absent have no candle on the exchange either (e.g. no trades).
+     */
+    public void resolve(String symbol, String interval, long fromMillis, long toMillis) {
+        Series s = series.get(seriesKey(symbol, interval));
+        if (s != null) {
+            s.resolve(s.slot(fromMillis), s.slot(toMillis));
+        }
+    }
+
+    /**
+     * @return Number of missing slots tracked for the series
+     */
+    public int getMissingCount(String symbol, String interval) {
+        Series s = series.get(seriesKey(symbol, interval));
+        return s != null ? s.missingCount() : 0;
+    }
+
+    private Series seriesFor(String symbol, String interval) {
+        CandleInterval candleInterval = CandleInterval.parse(interval);
+        if (candleInterval == null) {
+            return null;
+        }
+        return series.computeIfAbsent(seriesKey(symbol, interval), key -> new Series(candleInterval));
+    }
+
+    private static String seriesKey(String symbol, String interval) {
+        return symbol + ":" + interval;
+    }
+
+    /**
+     * Covered slot range and missing slots of one series
+     */
+    private static class Series {
+        private final CandleInterval interval;
+        private final TreeSet<Long> missing = new TreeSet<>();
+        private long coveredFrom;
+        private long latest;
+        private boolean empty = true;
+
+        Series(CandleInterval interval) {
+            this.interval = interval;
+        }
+
+        long slot(long epochMillis) {
+            return interval.slot(epochMillis);
+        }
+
+        synchronized void record(long slot, int maxSlots) {
+            if (empty) {
+                coveredFrom = slot;
+                latest = slot;
+                empty = false;
+                return;
+            }
+            if (slot > latest) {
+                // Everything skipped between the previous latest and this slot is missing
+                for (long s = Math.max(latest + 1, slot - maxSlots + 1); s < slot; s++) {
+                    missing.add(s);
+                }
+                latest = slot;
+                trim(maxSlots);
+            } else if (slot >= coveredFrom) {
+                missing.remove(slot);
+            }
+            // Writes older than the covered range say nothing about the slots in between
+        }
+
+        synchronized void observe(List<Long> slots, int maxSlots) {
+            long first = slots.get(0);
+            long last = slots.get(slots.size() - 1);
+            NavigableSet<Long> present = new TreeSet<>(slots);
+
+            if (empty) {
+                coveredFrom = first;
+                latest = last;
+                empty = false;
+                addMissing(first, last, present);
+            } else if (first < coveredFrom && last >= coveredFrom - 1) {
+                // The result reaches the covered range: extend it backwards without a hole
+                addMissing(first, coveredFrom - 1, present);
+                coveredFrom = first;
+            }
+            trim(maxSlots);
+        }
+
+        private void addMissing(long from, long to, NavigableSet<Long> present) {
+            for (long s = from; s <= to; s++) {
+                if (!present.contains(s)) {
+                    missing.add(s);
+                }
+            }
+        }
+
+        synchronized Status check(int slots) {
+            if (empty || slots <= 0) {
+                return Status.UNKNOWN;
+            }
+            long from = latest - slots + 1;
+            if (from < coveredFrom) {
+                return Status.UNKNOWN;
+            }
+            return missing.ceiling(from) != null ? Status.GAPS : Status.COMPLETE;
+        }
+
+        synchronized List<Long> missing(int slots) {
+            List<Long> result = new ArrayList<>();
+            if (empty) {
+                return result;
+            }
+            for (Long s : missing.tailSet(latest - slots + 1, true)) {
+                result.add(interval.slotOpenTime(s));
+            }
+            return result;
+        }
+
+        synchronized void resolve(long fromSlot, long toSlot) {
+            if (fromSlot <= toSlot) {
+                missing.subSet(fromSlot, true, toSlot, true).clear();
+            }
+        }
+
+        synchronized int missingCount() {
+            return missing.size();
+        }
+
+        private void trim(int maxSlots) {
+            long minSlot = latest - maxSlots + 1;
+            if (coveredFrom < minSlot) {
+                coveredFrom = minSlot;
+                missing.headSet(minSlot).clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.supermancell.server.cache;
+
+import com.supermancell.common.model.IndicatorResult;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory table of precomputed indicator results, keyed by indicator cache key.
+ *
+ * Key features:
+ * - Filled in the background when a candle closes (IndicatorSnapshotService) and at warm-up
+ * - Read by CalculationEngine before the Redis indicator cache
+ * - Each snapshot is only valid until the next candle of its series closes, and at most for
+ *   the indicator cache TTL, so it is never staler than the Redis result it stands in for
+ */
+@Component
+public class IndicatorSnapshotStore {
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * Store a snapshot
+     *
+     * @param validUntilMillis Epoch ms after which the snapshot is no longer served
+     */
+    public void put(String cacheKey, IndicatorResult result, long validUntilMillis) {
+        if (result == null || result.getValue() == null) {
+            return;
+        }
+        snapshots.put(cacheKey, new Snapshot(result, validUntilMillis));
+    }
+
+    /**
+     * @return The snapshot result, or null if absent or expired
+     */
+    public IndicatorResult get(String cacheKey) {
+        Snapshot snapshot = snapshots.get(cacheKey);
+        if (snapshot == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() >= snapshot.validUntilMillis) {
+            snapshots.remove(cacheKey, snapshot);
+            return null;
+        }
+        return snapshot.result;
+    }
+
+    /**
+     * Drop expired snapshots
+     *
+     * @return Number of snapshots removed
+     */
+    public int evictExpired() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        for (Iterator<Snapshot> it = snapshots.values().iterator(); it.hasNext(); ) {
+            if (now >= it.next().validUntilMillis) {
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * @return Number of snapshots held (including expired ones not yet evicted)
+     */
+    public int size() {
+        return snapshots.size();
+    }
+
+    private static final class Snapshot {
+        private final IndicatorResult result;
+        private final long validUntilMillis;
+
+        private Snapshot(IndicatorResult result, long validUntilMillis) {
+            this.result = result;
+            this.validUntilMillis = validUntilMillis;
+        }
+    }
+}
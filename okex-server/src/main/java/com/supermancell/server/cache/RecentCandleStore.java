@@ -0,0 +1,158 @@
+package com.supermancell.server.cache;
+
+import com.supermancell.common.model.Candle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory window of the most recent candles per (symbol, interval).
+ * 
+ * Key features:
+ * - Fed by every candle coming from the WebSocket ingestion path
+ * - Keeps at most candle.recent.capacity candles per series, oldest evicted first
+ * - Updates of the still-open candle replace the previous version in place
+ * - Can be seeded with history loaded from the repository
+ * - Each series carries a version number that increases on every change
+ */
+@Component
+public class RecentCandleStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RecentCandleStore.class);
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    @Value("${candle.recent.capacity:500}")
+    private int capacity = 500;
+
+    /**
+     * Add or replace a candle in its series window.
+     * Candles older than the window start are ignored.
+     */
+    public void append(Candle candle) {
+        if (candle == null || candle.getTimestamp() == null) {
+            return;
+        }
+        windows.computeIfAbsent(seriesKey(candle.getSymbol(), candle.getInterval()), key -> new Window())
+                .append(candle, capacity);
+    }
+
+    /**
+     * Merge historical candles into a series window (existing live candles win on equal timestamps).
+     */
+    public void seed(String symbol, String interval, List<Candle> candles) {
+        if (candles == null || candles.isEmpty()) {
+            return;
+        }
+        windows.computeIfAbsent(seriesKey(symbol, interval), key -> new Window())
+                .seed(candles, capacity);
+        log.debug("Seeded recent candles: {}:{} with {} candles", symbol, interval, candles.size());
+    }
+
+    /**
+     * @return Copy of the latest {@code limit} candles in chronological order (empty if the series is unknown)
+     */
+    public List<Candle> getRecent(String symbol, String interval, int limit) {
+        Window window = windows.get(seriesKey(symbol, interval));
+        return window != null ? window.latest(limit) : Collections.<Candle>emptyList();
+    }
+
+    /**
+     * @return Number of candles held for the series
+     */
+    public int size(String symbol, String interval) {
+        Window window = windows.get(seriesKey(symbol, interval));
+        return window != null ? window.size() : 0;
+    }
+
+    /**
+     * @return Version of the series window, 0 if the series is unknown
+     */
+    public long getVersion(String symbol, String interval) {
+        Window window = windows.get(seriesKey(symbol, interval));
+        return window != null ? window.version() : 0L;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private static String seriesKey(String symbol, String interval) {
+        return symbol + ":" + interval;
+    }
+
+    /**
+     * Chronologically ordered candle window of one series
+     */
+    private static class Window {
+        private final List<Candle> candles = new ArrayList<>();
+        private long version;
+
+        synchronized void append(Candle candle, int capacity) {
+            int last = candles.size() - 1;
+            if (last >= 0) {
+                int compare = candle.getTimestamp().compareTo(candles.get(last).getTimestamp());
+                if (compare == 0) {
+                    candles.set(last, candle);
+                    version++;
+                    return;
+                }
+                if (compare < 0) {
+                    // Late update of an older candle: replace it if still in the window
+                    for (int i = last - 1; i >= 0; i--) {
+                        if (candles.get(i).getTimestamp().equals(candle.getTimestamp())) {
+                            candles.set(i, candle);
+                            version++;
+                            return;
+                        }
+                    }
+                    return;
+                }
+            }
+            candles.add(candle);
+            if (candles.size() > capacity) {
+                candles.subList(0, candles.size() - capacity).clear();
+            }
+            version++;
+        }
+
+        synchronized void seed(List<Candle> history, int capacity) {
+            TreeMap<Long, Candle> merged = new TreeMap<>();
+            for (Candle candle : history) {
+                if (candle.getTimestamp() != null) {
+                    merged.put(candle.getTimestamp().toEpochMilli(), candle);
+                }
+            }
+            for (Candle candle : candles) {
+                merged.put(candle.getTimestamp().toEpochMilli(), candle);
+            }
+            candles.clear();
+            candles.addAll(merged.values());
+            if (candles.size() > capacity) {
+                candles.subList(0, candles.size() - capacity).clear();
+            }
+            version++;
+        }
+
+        synchronized List<Candle> latest(int limit) {
+            int from = Math.max(0, candles.size() - limit);
+            return new ArrayList<>(candles.subList(from, candles.size()));
+        }
+
+        synchronized int size() {
+            return candles.size();
+        }
+
+        synchronized long version() {
+            return version;
+        }
+    }
+}
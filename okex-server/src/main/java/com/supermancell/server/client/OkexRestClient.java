@@ -3,6 +3,8 @@ package com.supermancell.server.client;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.supermancell.common.model.Candle;
+import com.supermancell.common.model.CandleInterval;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,17 +16,23 @@ import java.net.HttpURLConnection;
 import java.net.URL;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * OKEx REST API client for fetching candle data
- * API Endpoint: GET /api/v5/market/candles
+ * API Endpoints: GET /api/v5/market/candles (latest 1440 bars), GET /api/v5/market/history-candles
  */
 @Component
 public class OkexRestClient {
     
     private static final Logger log = LoggerFactory.getLogger(OkexRestClient.class);
     
+    /** Bars served by /api/v5/market/candles; older ones need history-candles */
+    private static final int RECENT_BARS = 1440;
+    private static final int MAX_PAGE_SIZE = 300;
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    
     private final ObjectMapper objectMapper;
     
     @Value("${okex.rest.api.url:https://www.okx.com}")
@@ -33,6 +41,9 @@ public class OkexRestClient {
     @Value("${okex.rest.api.timeout:10000}")
     private int connectionTimeout;
     
+    @Value("${okex.rest.api.max-range-pages:20}")
+    private int maxRangePages = 20;
+    
     public OkexRestClient(ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
     }
@@ -45,25 +56,112 @@ public class OkexRestClient {
      * @param limit Number of candles to fetch (max 300)
      * @return List of candles in chronological order (oldest first)
      */
+    @Timed(value = "okex.rest.backfill", description = "OKX REST candle fetch duration")
     public List<Candle> getCandles(String symbol, String interval, int limit) {
+        return fetchCandles(symbol, interval, limit, null);
+    }
+    
+    /**
+     * Fetch the candles opening within [fromMillis, toMillis] from OKEx REST API
+     * 
+     * Ranges longer than one request are paged backwards with the "after" cursor, at most
+     * max-range-pages requests per call. Pages older than the latest 1440 bars are read from
+     * /api/v5/market/history-candles, which is the only endpoint serving them.
+     * 
+     * @param symbol Trading pair (e.g., BTC-USDT-SWAP)
+     * @param interval Time interval (e.g., 1m, 1H)
+     * @param fromMillis Open time of the first candle (inclusive)
+     * @param toMillis Open time of the last candle (inclusive)
+     * @return Candles in chronological order (oldest first) and the part of the range they cover
+     */
+    @Timed(value = "okex.rest.backfill", description = "OKX REST candle fetch duration")
+    public CandleRange getCandlesInRange(String symbol, String interval, long fromMillis, long toMillis) {
+        CandleInterval candleInterval = CandleInterval.parse(interval);
+        List<Candle> candles = new ArrayList<>();
+        long coveredFrom = toMillis + 1;
+        long cursor = toMillis + 1;
+        
+        for (int page = 0; page < maxRangePages && coveredFrom > fromMillis; page++) {
+            int limit = candleInterval != null
+                    ? (int) Math.max(1, Math.min(MAX_PAGE_SIZE, candleInterval.expectedCount(fromMillis, cursor - 1)))
+                    : MAX_PAGE_SIZE;
+            // Use the recent endpoint only when the whole page lies within its latest bars;
+            // otherwise a page cut short by that limit would look like the start of the listing
+            boolean history = candleInterval != null
+                    && candleInterval.slot(System.currentTimeMillis()) - candleInterval.slot(cursor) + limit >= RECENT_BARS;
+            if (history) {
+                limit = Math.min(limit, MAX_HISTORY_PAGE_SIZE);
+            }
+            
+            // "after" returns candles strictly older than the given open time
+            List<Candle> fetched = fetchPage(symbol, interval, history, limit, cursor);
+            if (fetched == null) {
+                break;
+            }
+            
+            long oldest = fetched.isEmpty() ? Long.MIN_VALUE : fetched.get(0).getTimestamp().toEpochMilli();
+            // Exchange holes inside the range let older candles in; drop them
+            for (int i = fetched.size() - 1; i >= 0; i--) {
+                if (fetched.get(i).getTimestamp().toEpochMilli() >= fromMillis) {
+                    candles.add(fetched.get(i));
+                }
+            }
+            
+            if (fetched.size() < limit || oldest <= fromMillis) {
+                // A short page means the exchange has nothing older; a candle at or before
+                // fromMillis means the whole range has been read
+                coveredFrom = fromMillis;
+            } else if (oldest >= cursor) {
+                break;
+            } else {
+                coveredFrom = oldest;
+                cursor = oldest;
+            }
+        }
+        
+        Collections.reverse(candles);
+        return new CandleRange(candles, coveredFrom);
+    }
+    
+    /**
+     * @param afterMillis Only return candles opening before this time, or null for the latest ones
+     */
+    private List<Candle> fetchCandles(String symbol, String interval, int limit, Long afterMillis) {
+        List<Candle> candles = fetchPage(symbol, interval, false, limit, afterMillis);
+        return candles != null ? candles : new ArrayList<>();
+    }
+    
+    /**
+     * One candles request
+     * 
+     * @param history true for /api/v5/market/history-candles, false for /api/v5/market/candles
+     * @param afterMillis Only return candles opening before this time, or null for the latest ones
+     * @return Candles in chronological order, or null if the request failed
+     */
+    List<Candle> fetchPage(String symbol, String interval, boolean history, int limit, Long afterMillis) {
         List<Candle> candles = new ArrayList<>();
+        String endpoint = history ? "history-candles" : "candles";
+        int maxLimit = history ? MAX_HISTORY_PAGE_SIZE : MAX_PAGE_SIZE;
         
         try {
             // Validate and limit parameters
-            if (limit > 300) {
-                log.warn("Limit {} exceeds maximum 300, using 300 instead", limit);
-                limit = 300;
+            if (limit > maxLimit) {
+                log.warn("Limit {} exceeds maximum {}, using {} instead", limit, maxLimit, maxLimit);
+                limit = maxLimit;
             }
             
             // Convert interval to OKEx bar format
             String bar = convertIntervalToBar(interval);
             
             // Build request URL
-            String urlStr = String.format("%s/api/v5/market/candles?instId=%s&bar=%s&limit=%d",
-                    okexRestApiUrl, symbol, bar, limit);
+            String urlStr = String.format("%s/api/v5/market/%s?instId=%s&bar=%s&limit=%d",
+                    okexRestApiUrl, endpoint, symbol, bar, limit);
+            if (afterMillis != null) {
+                urlStr += "&after=" + afterMillis;
+            }
             
-            log.info("Fetching candles from OKEx REST API: symbol={}, interval={}, limit={}", 
-                    symbol, interval, limit);
+            log.info("Fetching candles from OKEx REST API: endpoint={}, symbol={}, interval={}, limit={}, after={}", 
+                    endpoint, symbol, interval, limit, afterMillis);
             
             URL url = new URL(urlStr);
             HttpURLConnection conn = (HttpURLConnection) url.openConnection();
@@ -75,7 +173,7 @@ public class OkexRestClient {
             int responseCode = conn.getResponseCode();
             if (responseCode != 200) {
                 log.error("OKEx REST API returned error code: {}", responseCode);
-                return candles;
+                return null;
             }
             
             // Read response
@@ -94,7 +192,7 @@ public class OkexRestClient {
             if (!"0".equals(code)) {
                 String msg = root.path("msg").asText();
                 log.error("OKEx REST API returned error: code={}, msg={}", code, msg);
-                return candles;
+                return null;
             }
             
             // Parse candle data
@@ -116,6 +214,7 @@ public class OkexRestClient {
             
         } catch (Exception e) {
             log.error("Failed to fetch candles from OKEx REST API", e);
+            return null;
         }
         
         return candles;
@@ -174,15 +273,50 @@ public class OkexRestClient {
     
     /**
      * Convert system interval format to OKEx bar format
-     * System format: 1m, 5m, 15m, 1H, 4H, 1D
-     * OKEx format: 1m, 5m, 15m, 1H, 4H, 1D (same format)
+     * Any bar CandleInterval understands is sent in canonical form (e.g. 1h → 1H, 1dutc → 1Dutc);
+     * unknown values are passed through and left for OKEx to reject
      * 
      * @param interval System interval
      * @return OKEx bar format
      */
     private String convertIntervalToBar(String interval) {
-        // Currently, our system interval format matches OKEx bar format
-        // This method exists for future compatibility if formats diverge
-        return interval;
+        CandleInterval candleInterval = CandleInterval.parse(interval);
+        if (candleInterval == null) {
+            log.warn("Unknown interval {}, passing it to OKEx unchanged", interval);
+            return interval;
+        }
+        return candleInterval.getBar();
+    }
+    
+    /**
+     * Result of a range fetch
+     * 
+     * Every slot from coveredFrom to the end of the requested range has been read: slots in
+     * that part without a candle do not exist on the exchange. Slots before coveredFrom were
+     * not read (request failure or page limit) and may still exist.
+     */
+    public static final class CandleRange {
+        
+        private final List<Candle> candles;
+        private final long coveredFrom;
+        
+        public CandleRange(List<Candle> candles, long coveredFrom) {
+            this.candles = candles;
+            this.coveredFrom = coveredFrom;
+        }
+        
+        /**
+         * @return Fetched candles in chronological order (oldest first)
+         */
+        public List<Candle> getCandles() {
+            return candles;
+        }
+        
+        /**
+         * @return Open time from which the range has been read completely
+         */
+        public long getCoveredFrom() {
+            return coveredFrom;
+        }
     }
 }
@@ -0,0 +1,118 @@
+package com.supermancell.server.config;
+
+import com.supermancell.server.grpc.QueueWaitStreamTracer;
+import com.supermancell.server.grpc.RequestLatencyStreamTracer;
+import com.supermancell.server.service.LatencyTracker;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * gRPC server tuning
+ * 
+ * Keepalive and inbound message/metadata limits use the starter's own
+ * {@code grpc.server.*} properties. This class adds what the starter does not expose:
+ * - A bounded call executor instead of the default unbounded cached pool
+ *   (indicator.grpc.server.executor.type: fork-join or fixed)
+ * - Per-connection concurrent call cap and HTTP/2 flow-control window
+ * - Response compression (indicator.grpc.server.compression)
+ * - Per-method executor queue wait metric (grpc.server.queue.wait)
+ */
+@Configuration
+public class GrpcServerConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(GrpcServerConfig.class);
+
+    @Value("${indicator.grpc.server.executor.type:fork-join}")
+    private String executorType;
+
+    @Value("${indicator.grpc.server.executor.threads:0}")
+    private int executorThreads;
+
+    @Value("${indicator.grpc.server.max-concurrent-calls-per-connection:1000}")
+    private int maxConcurrentCallsPerConnection;
+
+    @Value("${indicator.grpc.server.flow-control-window:1048576}")
+    private int flowControlWindow;
+
+    @Value("${indicator.grpc.server.compression:}")
+    private String compression;
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService grpcServerExecutor() {
+        int threads = executorThreads > 0 ? executorThreads : Runtime.getRuntime().availableProcessors() * 2;
+        if ("fixed".equalsIgnoreCase(executorType)) {
+            AtomicInteger counter = new AtomicInteger();
+            ThreadFactory threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, "grpc-server-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            log.info("gRPC server executor: fixed pool with {} threads", threads);
+            return Executors.newFixedThreadPool(threads, threadFactory);
+        }
+        log.info("gRPC server executor: work-stealing pool with parallelism {}", threads);
+        return new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("grpc-server-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, true);
+    }
+
+    @Bean
+    public GrpcServerConfigurer grpcServerTuningConfigurer(ExecutorService grpcServerExecutor,
+                                                           MeterRegistry meterRegistry,
+                                                           LatencyTracker latencyTracker) {
+        return serverBuilder -> {
+            serverBuilder.executor(grpcServerExecutor);
+            serverBuilder.addStreamTracerFactory(new QueueWaitStreamTracer.Factory(meterRegistry));
+            serverBuilder.addStreamTracerFactory(new RequestLatencyStreamTracer.Factory(latencyTracker));
+
+            if (serverBuilder instanceof NettyServerBuilder) {
+                NettyServerBuilder nettyBuilder = (NettyServerBuilder) serverBuilder;
+                nettyBuilder.maxConcurrentCallsPerConnection(maxConcurrentCallsPerConnection);
+                nettyBuilder.flowControlWindow(flowControlWindow);
+            }
+            log.info("gRPC server tuned: maxConcurrentCallsPerConnection={}, flowControlWindow={}, compression={}",
+                    maxConcurrentCallsPerConnection, flowControlWindow, compression.isEmpty() ? "none" : compression);
+        };
+    }
+
+    /**
+     * Compress responses with the configured codec ("gzip"); disabled when empty.
+     * Clients that do not accept the codec get uncompressed responses.
+     */
+    @Bean
+    @GrpcGlobalServerInterceptor
+    public ServerInterceptor compressionServerInterceptor() {
+        return new ServerInterceptor() {
+            @Override
+            public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call,
+                                                                         Metadata headers,
+                                                                         ServerCallHandler<ReqT, RespT> next) {
+                if (!compression.isEmpty()) {
+                    call.setCompression(compression);
+                }
+                return next.startCall(call, headers);
+            }
+        };
+    }
+}
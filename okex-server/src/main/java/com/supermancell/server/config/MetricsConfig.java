@@ -0,0 +1,41 @@
+package com.supermancell.server.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import redis.clients.jedis.JedisPool;
+
+/**
+ * Micrometer wiring
+ * 
+ * - TimedAspect so @Timed works on Spring beans (Redis ops, REST backfills, indicator calculations)
+ * - Jedis pool gauges (okex.redis.pool.active / idle / waiters)
+ * 
+ * MongoDB command and connection pool metrics are registered on the client in MongoConfig.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public MeterBinder jedisPoolMetrics(JedisPool jedisPool) {
+        return registry -> {
+            Gauge.builder("okex.redis.pool.active", jedisPool, JedisPool::getNumActive)
+                    .description("Redis connections currently borrowed from the pool")
+                    .register(registry);
+            Gauge.builder("okex.redis.pool.idle", jedisPool, JedisPool::getNumIdle)
+                    .description("Idle Redis connections in the pool")
+                    .register(registry);
+            Gauge.builder("okex.redis.pool.waiters", jedisPool, JedisPool::getNumWaiters)
+                    .description("Threads blocked waiting for a Redis connection")
+                    .register(registry);
+        };
+    }
+}
@@ -4,6 +4,9 @@ import com.mongodb.ConnectionString;
 import com.mongodb.MongoClientSettings;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsCommandListener;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsConnectionPoolListener;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -30,10 +33,14 @@ public class MongoConfig {
     private int redisPort;
 
     @Bean
-    public MongoClient mongoClient() {
+    public MongoClient mongoClient(MeterRegistry meterRegistry) {
         String connectionString = String.format("mongodb://%s:%d", host, port);
         MongoClientSettings settings = MongoClientSettings.builder()
                 .applyConnectionString(new ConnectionString(connectionString))
+                // mongodb.driver.commands timers and mongodb.driver.pool.* gauges
+                .addCommandListener(new MongoMetricsCommandListener(meterRegistry))
+                .applyToConnectionPoolSettings(pool -> pool.addConnectionPoolListener(
+                        new MongoMetricsConnectionPoolListener(meterRegistry)))
                 .build();
         return MongoClients.create(settings);
     }
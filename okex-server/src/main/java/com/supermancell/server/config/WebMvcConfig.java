@@ -0,0 +1,20 @@
+package com.supermancell.server.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.protobuf.ProtobufHttpMessageConverter;
+
+/**
+ * Extra HTTP message converters
+ * 
+ * Protobuf messages (e.g. CandleColumns from /api/candles) are written as
+ * application/x-protobuf when the client asks for it.
+ */
+@Configuration
+public class WebMvcConfig {
+
+    @Bean
+    public ProtobufHttpMessageConverter protobufHttpMessageConverter() {
+        return new ProtobufHttpMessageConverter();
+    }
+}
@@ -1,15 +1,24 @@
 package com.supermancell.server.controller;
 
+import com.okex.common.proto.IndicatorServiceProto.CandleColumns;
 import com.supermancell.common.model.Candle;
 import com.supermancell.server.dto.ApiResponse;
+import com.supermancell.server.dto.CandleColumnsDTO;
 import com.supermancell.server.repository.CandleRepository;
+import com.supermancell.server.service.CandleStreamService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -24,6 +33,13 @@ import java.util.List;
  * That aspect performs data integrity checks and uses Redis via
  * {@link com.supermancell.server.cache.CandleCacheService}, so this API shares
  * the same Redis caching mechanism as the AOP integrity checks.
+ * <p>
+ * Open charts use {@code /api/candles/stream} instead of refetching: it is served from
+ * the in-memory recent candle window via {@link CandleStreamService}.
+ * <p>
+ * Representations are negotiated through the {@code Accept} header: JSON list of candles
+ * (default), columnar JSON ({@code application/vnd.okex.candles.columnar+json}) or protobuf
+ * ({@code application/x-protobuf}, {@code CandleColumns} in indicator.proto).
  */
 @RestController
 @RequestMapping("/api/candles")
@@ -32,9 +48,11 @@ public class CandleController {
     private static final Logger log = LoggerFactory.getLogger(CandleController.class);
 
     private final CandleRepository candleRepository;
+    private final CandleStreamService candleStreamService;
 
-    public CandleController(CandleRepository candleRepository) {
+    public CandleController(CandleRepository candleRepository, CandleStreamService candleStreamService) {
         this.candleRepository = candleRepository;
+        this.candleStreamService = candleStreamService;
     }
 
     /**
@@ -42,6 +60,9 @@ public class CandleController {
      *
      * <p>HTTP: GET /api/candles?symbol=BTC-USDT-SWAP&interval=1m&limit=300</p>
      *
+     * <p>Responses carry {@code ETag} and {@code Last-Modified}; a conditional request
+     * whose validators still match gets {@code 304 Not Modified} without a body.</p>
+     *
      * @param symbol   Trading pair (e.g. BTC-USDT-SWAP)
      * @param interval Time interval (e.g. 1m, 1H)
      * @param limit    Optional number of records to return (default 300, max 300)
@@ -52,43 +73,147 @@ public class CandleController {
     public ApiResponse<List<Candle>> getCandles(
             @RequestParam("symbol") String symbol,
             @RequestParam("interval") String interval,
-            @RequestParam(name = "limit", defaultValue = "300") int limit
+            @RequestParam(name = "limit", defaultValue = "300") int limit,
+            ServletWebRequest webRequest
     ) {
         try {
-            // Basic validation
-            if (symbol == null || symbol.trim().isEmpty()) {
-                return ApiResponse.error("Parameter 'symbol' must not be empty");
+            String validationError = validate(symbol, interval, limit);
+            if (validationError != null) {
+                return ApiResponse.error(validationError);
             }
-            if (interval == null || interval.trim().isEmpty()) {
-                return ApiResponse.error("Parameter 'interval' must not be empty");
+
+            List<Candle> candles = fetchCandles(symbol.trim(), interval.trim(), limit);
+            if (CandleResponses.checkNotModified(webRequest, candles, "json")) {
+                return null;
             }
-            if (limit <= 0) {
-                return ApiResponse.error("Parameter 'limit' must be greater than 0");
+            return ApiResponse.success(candles);
+        } catch (Exception e) {
+            log.error("Failed to fetch candles", e);
+            return ApiResponse.error("Failed to fetch candles: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get recent candle data in columnar JSON (one array per field).
+     *
+     * <p>HTTP: GET /api/candles?symbol=BTC-USDT-SWAP&interval=1m&limit=300<br>
+     * Accept: application/vnd.okex.candles.columnar+json</p>
+     *
+     * @return ApiResponse wrapping {@link CandleColumnsDTO}
+     */
+    @GetMapping(produces = CandleResponses.COLUMNAR_JSON_VALUE)
+    public ApiResponse<CandleColumnsDTO> getCandleColumns(
+            @RequestParam("symbol") String symbol,
+            @RequestParam("interval") String interval,
+            @RequestParam(name = "limit", defaultValue = "300") int limit,
+            ServletWebRequest webRequest
+    ) {
+        try {
+            String validationError = validate(symbol, interval, limit);
+            if (validationError != null) {
+                return ApiResponse.error(validationError);
             }
 
-            // Enforce maximum of 300, as documented
-            if (limit > 300) {
-                log.debug("Requested limit {} exceeds maximum 300, capping to 300", limit);
-                limit = 300;
+            List<Candle> candles = fetchCandles(symbol.trim(), interval.trim(), limit);
+            if (CandleResponses.checkNotModified(webRequest, candles, "columnar")) {
+                return null;
             }
+            return ApiResponse.success(CandleResponses.toColumns(symbol.trim(), interval.trim(), candles));
+        } catch (Exception e) {
+            log.error("Failed to fetch candles", e);
+            return ApiResponse.error("Failed to fetch candles: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Get recent candle data as a protobuf CandleColumns message.
+     *
+     * <p>HTTP: GET /api/candles?symbol=BTC-USDT-SWAP&interval=1m&limit=300<br>
+     * Accept: application/x-protobuf</p>
+     *
+     * <p>Errors are reported with HTTP status codes (400 for invalid parameters).</p>
+     *
+     * @return CandleColumns message
+     */
+    @GetMapping(produces = CandleResponses.PROTOBUF_VALUE)
+    public CandleColumns getCandleColumnsProto(
+            @RequestParam("symbol") String symbol,
+            @RequestParam("interval") String interval,
+            @RequestParam(name = "limit", defaultValue = "300") int limit,
+            ServletWebRequest webRequest
+    ) {
+        String validationError = validate(symbol, interval, limit);
+        if (validationError != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, validationError);
+        }
 
-            String trimmedSymbol = symbol.trim();
-            String trimmedInterval = interval.trim();
+        List<Candle> candles = fetchCandles(symbol.trim(), interval.trim(), limit);
+        if (CandleResponses.checkNotModified(webRequest, candles, "protobuf")) {
+            return null;
+        }
+        return CandleResponses.toProto(symbol.trim(), interval.trim(), candles);
+    }
 
-            log.debug("Fetching candles for symbol={}, interval={}, limit={}",
-                    trimmedSymbol, trimmedInterval, limit);
+    /**
+     * @return Error message, or null if the parameters are valid
+     */
+    private String validate(String symbol, String interval, int limit) {
+        if (symbol == null || symbol.trim().isEmpty()) {
+            return "Parameter 'symbol' must not be empty";
+        }
+        if (interval == null || interval.trim().isEmpty()) {
+            return "Parameter 'interval' must not be empty";
+        }
+        if (limit <= 0) {
+            return "Parameter 'limit' must be greater than 0";
+        }
+        return null;
+    }
 
-            // This call is intercepted by CandleDataIntegrityAspect, which will
-            // perform data integrity checks and use Redis cache (CandleCacheService).
-            List<Candle> candles = candleRepository.findCandles(trimmedSymbol, trimmedInterval, limit);
+    private List<Candle> fetchCandles(String symbol, String interval, int limit) {
+        // Enforce maximum of 300, as documented
+        if (limit > 300) {
+            log.debug("Requested limit {} exceeds maximum 300, capping to 300", limit);
+            limit = 300;
+        }
 
-            log.debug("Fetched {} candles for symbol={}, interval={}",
-                    candles != null ? candles.size() : 0, trimmedSymbol, trimmedInterval);
+        log.debug("Fetching candles for symbol={}, interval={}, limit={}", symbol, interval, limit);
 
-            return ApiResponse.success(candles);
-        } catch (Exception e) {
-            log.error("Failed to fetch candles", e);
-            return ApiResponse.error("Failed to fetch candles: " + e.getMessage());
+        // This call is intercepted by CandleDataIntegrityAspect, which will
+        // perform data integrity checks and use Redis cache (CandleCacheService).
+        List<Candle> candles = candleRepository.findCandles(symbol, interval, limit);
+
+        log.debug("Fetched {} candles for symbol={}, interval={}",
+                candles != null ? candles.size() : 0, symbol, interval);
+        return candles != null ? candles : Collections.<Candle>emptyList();
+    }
+
+    /**
+     * Stream live candles of a given symbol and interval as Server-Sent Events.
+     *
+     * <p>HTTP: GET /api/candles/stream?symbol=BTC-USDT-SWAP&interval=1m&limit=300</p>
+     *
+     * <p>Sends a "snapshot" event with the latest {@code limit} candles, then a "candle"
+     * event for every in-progress revision and confirmation ingested from the WebSocket.</p>
+     *
+     * @param symbol   Trading pair (e.g. BTC-USDT-SWAP)
+     * @param interval Time interval (e.g. 1m, 1H)
+     * @param limit    Optional snapshot size (default 300, max 300)
+     * @return SSE stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCandles(
+            @RequestParam("symbol") String symbol,
+            @RequestParam("interval") String interval,
+            @RequestParam(name = "limit", defaultValue = "300") int limit
+    ) {
+        if (symbol.trim().isEmpty() || interval.trim().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Parameters 'symbol' and 'interval' must not be empty");
         }
+        int snapshotSize = Math.max(1, Math.min(limit, 300));
+        log.debug("Opening candle stream for symbol={}, interval={}, limit={}",
+                symbol.trim(), interval.trim(), snapshotSize);
+        return candleStreamService.subscribe(symbol.trim(), interval.trim(), snapshotSize);
     }
 }
@@ -0,0 +1,111 @@
+package com.supermancell.server.controller;
+
+import com.okex.common.proto.IndicatorServiceProto.CandleColumns;
+import com.supermancell.common.model.Candle;
+import com.supermancell.server.dto.CandleColumnsDTO;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.servlet.http.HttpServletResponse;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Representations and HTTP validators of /api/candles responses
+ * 
+ * - ETag: weak hash of every returned candle (timestamp, OHLCV, confirm) plus the representation,
+ *   so in-progress revisions and repaired gaps change it. Weak so Tomcat still compresses the body.
+ * - Last-Modified: latest created_at of the returned candles (the time each version was received)
+ */
+final class CandleResponses {
+    
+    static final String COLUMNAR_JSON_VALUE = "application/vnd.okex.candles.columnar+json";
+    static final String PROTOBUF_VALUE = "application/x-protobuf";
+    
+    private CandleResponses() {
+    }
+    
+    /**
+     * Set validators on the response and check them against the request's conditional headers
+     * 
+     * @param variant Representation name, part of the ETag
+     * @return true if the client copy is current (the response was set to 304 Not Modified)
+     */
+    static boolean checkNotModified(ServletWebRequest request, List<Candle> candles, String variant) {
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            // Always revalidate: the open candle changes several times per second
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        
+        String etag = etag(candles, variant);
+        long lastModified = lastModified(candles);
+        return lastModified > 0 ? request.checkNotModified(etag, lastModified) : request.checkNotModified(etag);
+    }
+    
+    static String etag(List<Candle> candles, String variant) {
+        long hash = 1125899906842597L;
+        if (candles != null) {
+            for (Candle candle : candles) {
+                hash = 31 * hash + (candle.getTimestamp() != null ? candle.getTimestamp().toEpochMilli() : 0L);
+                hash = 31 * hash + Double.doubleToLongBits(candle.getOpen());
+                hash = 31 * hash + Double.doubleToLongBits(candle.getHigh());
+                hash = 31 * hash + Double.doubleToLongBits(candle.getLow());
+                hash = 31 * hash + Double.doubleToLongBits(candle.getClose());
+                hash = 31 * hash + Double.doubleToLongBits(candle.getVolume());
+                hash = 31 * hash + (candle.getConfirm() != null ? candle.getConfirm().hashCode() : 0);
+            }
+        }
+        return "W/\"" + Long.toHexString(hash) + "-" + (candles != null ? candles.size() : 0) + "-" + variant + "\"";
+    }
+    
+    /**
+     * @return Latest created_at in epoch milliseconds, -1 if any candle lacks it
+     */
+    static long lastModified(List<Candle> candles) {
+        if (candles == null || candles.isEmpty()) {
+            return -1;
+        }
+        long latest = -1;
+        for (Candle candle : candles) {
+            Instant createdAt = candle.getCreatedAt();
+            if (createdAt == null) {
+                return -1;
+            }
+            latest = Math.max(latest, createdAt.toEpochMilli());
+        }
+        return latest;
+    }
+    
+    static CandleColumnsDTO toColumns(String symbol, String interval, List<Candle> candles) {
+        CandleColumnsDTO columns = new CandleColumnsDTO(symbol, interval, candles.size());
+        for (int i = 0; i < candles.size(); i++) {
+            Candle candle = candles.get(i);
+            columns.getTimestamps()[i] = candle.getTimestamp().toEpochMilli();
+            columns.getOpen()[i] = candle.getOpen();
+            columns.getHigh()[i] = candle.getHigh();
+            columns.getLow()[i] = candle.getLow();
+            columns.getClose()[i] = candle.getClose();
+            columns.getVolume()[i] = candle.getVolume();
+            columns.getConfirmed()[i] = "1".equals(candle.getConfirm());
+        }
+        return columns;
+    }
+    
+    static CandleColumns toProto(String symbol, String interval, List<Candle> candles) {
+        CandleColumns.Builder builder = CandleColumns.newBuilder()
+                .setSymbol(symbol)
+                .setInterval(interval);
+        for (Candle candle : candles) {
+            builder.addTimestamps(candle.getTimestamp().toEpochMilli())
+                    .addOpen(candle.getOpen())
+                    .addHigh(candle.getHigh())
+                    .addLow(candle.getLow())
+                    .addClose(candle.getClose())
+                    .addVolume(candle.getVolume())
+                    .addConfirmed("1".equals(candle.getConfirm()));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.supermancell.server.controller;
+
+import com.supermancell.server.service.DashboardStreamService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST controller for the dashboard push feed
+ */
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+    
+    private final DashboardStreamService streamService;
+    
+    public DashboardController(DashboardStreamService streamService) {
+        this.streamService = streamService;
+    }
+    
+    /**
+     * Stream connection status, metrics and subscription changes as Server-Sent Events
+     * 
+     * GET /api/dashboard/stream
+     * 
+     * Starts with a "snapshot" event, then sends only changed fields
+     * ("connection", "metrics", "subscriptions", "reconnection").
+     * 
+     * @return SSE stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return streamService.subscribe();
+    }
+}
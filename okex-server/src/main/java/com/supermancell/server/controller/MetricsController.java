@@ -1,12 +1,15 @@
 package com.supermancell.server.controller;
 
 import com.supermancell.server.dto.ApiResponse;
+import com.supermancell.server.dto.LatencyStatsDTO;
 import com.supermancell.server.dto.SystemMetricsDTO;
 import com.supermancell.server.service.SystemMetricsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 /**
  * REST controller for system metrics monitoring
  */
@@ -112,11 +115,32 @@ public class MetricsController {
         }
     }
     
+    /**
+     * Get end-to-end latency distributions per stage
+     * 
+     * GET /api/metrics/latency
+     * 
+     * @return Stage (exchange_to_receive, receive_to_parsed, parsed_to_persisted,
+     *         receive_to_stream, request_to_response) to count, mean and percentiles in ms
+     */
+    @GetMapping("/latency")
+    public ApiResponse<Map<String, LatencyStatsDTO>> getLatencyMetrics() {
+        try {
+            return ApiResponse.success(metricsService.getLatencySnapshot());
+        } catch (Exception e) {
+            log.error("Failed to get latency metrics", e);
+            return ApiResponse.error("Failed to retrieve latency metrics: " + e.getMessage());
+        }
+    }
+    
     /**
      * Reset all metrics (for testing/maintenance)
      * 
      * POST /api/metrics/reset
      * 
+     * Only rebases the /api/metrics view; Micrometer counters exported on
+     * /actuator/prometheus stay monotonic.
+     * 
      * @return Success response
      */
     @PostMapping("/reset")
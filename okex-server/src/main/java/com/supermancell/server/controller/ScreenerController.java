@@ -0,0 +1,117 @@
+package com.supermancell.server.controller;
+
+import com.supermancell.server.dto.ApiResponse;
+import com.supermancell.server.dto.ScreenerResultDTO;
+import com.supermancell.server.service.IndicatorScreener;
+import com.supermancell.server.service.IndicatorSpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * REST controller for the indicator screener.
+ * <p>
+ * Evaluates one indicator predicate across every subscribed symbol/interval from the
+ * in-memory candle windows (see {@link IndicatorScreener}) and returns only the matches.
+ * The gRPC {@code Screen} RPC offers the same scan as a stream.
+ */
+@RestController
+@RequestMapping("/api/screener")
+public class ScreenerController {
+
+    private static final Logger log = LoggerFactory.getLogger(ScreenerController.class);
+
+    private final IndicatorScreener screener;
+
+    public ScreenerController(IndicatorScreener screener) {
+        this.screener = screener;
+    }
+
+    /**
+     * Run a screener scan.
+     *
+     * <p>HTTP: GET /api/screener?indicator=RSI&amp;period=14&amp;op=lt&amp;value=30<br>
+     * GET /api/screener?indicator=PINBAR&amp;field=is_bullish&amp;op=eq&amp;value=1&amp;intervals=1H,4H</p>
+     *
+     * <p>Indicator parameters left at 0 use the server defaults.</p>
+     *
+     * @param indicator RSI, BOLL, MACD or PINBAR
+     * @param field     Result field compared (e.g. histogram, percent_b, is_bullish); empty for the primary value
+     * @param op        lt, lte, gt, gte or eq
+     * @param value     Threshold
+     * @param symbols   Optional comma-separated symbols (default: all subscribed)
+     * @param intervals Optional comma-separated intervals (default: all subscribed)
+     * @param includeUpdates true to evaluate the still-open candle, false for the last closed one
+     * @return ApiResponse wrapping {@link ScreenerResultDTO}
+     */
+    @GetMapping
+    public ApiResponse<ScreenerResultDTO> screen(
+            @RequestParam("indicator") String indicator,
+            @RequestParam(name = "field", defaultValue = "") String field,
+            @RequestParam("op") String op,
+            @RequestParam("value") double value,
+            @RequestParam(name = "period", defaultValue = "0") int period,
+            @RequestParam(name = "stdDev", defaultValue = "0") double stdDev,
+            @RequestParam(name = "fastPeriod", defaultValue = "0") int fastPeriod,
+            @RequestParam(name = "slowPeriod", defaultValue = "0") int slowPeriod,
+            @RequestParam(name = "signalPeriod", defaultValue = "0") int signalPeriod,
+            @RequestParam(name = "bodyRatio", defaultValue = "0") double bodyRatio,
+            @RequestParam(name = "wickRatio", defaultValue = "0") double wickRatio,
+            @RequestParam(name = "symbols", required = false) List<String> symbols,
+            @RequestParam(name = "intervals", required = false) List<String> intervals,
+            @RequestParam(name = "includeUpdates", defaultValue = "false") boolean includeUpdates
+    ) {
+        IndicatorSpec spec;
+        IndicatorScreener.Operator operator;
+        try {
+            spec = toSpec(indicator, period, stdDev, fastPeriod, slowPeriod, signalPeriod, bodyRatio, wickRatio);
+            operator = IndicatorScreener.Operator.valueOf(op.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error("Invalid screener request: indicator must be RSI, BOLL, MACD or PINBAR "
+                    + "and op one of lt, lte, gt, gte, eq");
+        }
+
+        try {
+            ScreenerResultDTO result = new ScreenerResultDTO();
+            IndicatorScreener.Summary summary = screener.screen(
+                    new IndicatorScreener.Query(spec, field.trim(), operator, value, symbols, intervals, includeUpdates),
+                    match -> result.getMatches().add(new ScreenerResultDTO.Match(
+                            match.getSymbol(), match.getInterval(), match.getCandleTimestamp(),
+                            match.getValue(), match.getResult().getValues())));
+
+            result.setScanned(summary.getScanned());
+            result.setMatched(summary.getMatched());
+            result.setSkipped(summary.getSkipped());
+            result.setElapsedMicros(summary.getElapsedMicros());
+            return ApiResponse.success(result);
+        } catch (TimeoutException e) {
+            return ApiResponse.error("Screener scan timed out");
+        } catch (Exception e) {
+            log.error("Failed to run screener", e);
+            return ApiResponse.error("Failed to run screener: " + e.getMessage());
+        }
+    }
+
+    private static IndicatorSpec toSpec(String indicator, int period, double stdDev, int fastPeriod,
+                                        int slowPeriod, int signalPeriod, double bodyRatio, double wickRatio) {
+        switch (indicator.trim().toUpperCase(Locale.ROOT)) {
+            case "RSI":
+                return IndicatorSpec.rsi(period);
+            case "BOLL":
+                return IndicatorSpec.boll(period, stdDev);
+            case "MACD":
+                return IndicatorSpec.macd(fastPeriod, slowPeriod, signalPeriod);
+            case "PINBAR":
+                return IndicatorSpec.pinbar(bodyRatio, wickRatio);
+            default:
+                throw new IllegalArgumentException("Unsupported indicator: " + indicator);
+        }
+    }
+}
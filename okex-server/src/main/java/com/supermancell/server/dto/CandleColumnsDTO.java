@@ -0,0 +1,62 @@
+package com.supermancell.server.dto;
+
+/**
+ * Columnar candle data (one array per field, same index = same candle, oldest first)
+ * 
+ * Returned by /api/candles for Accept: application/vnd.okex.candles.columnar+json.
+ * Field names and repeated symbol/interval are not repeated per candle, which roughly
+ * halves the payload of chart views compared to a list of Candle objects.
+ */
+public class CandleColumnsDTO {
+    
+    private String symbol;
+    private String interval;
+    private long[] timestamps;
+    private double[] open;
+    private double[] high;
+    private double[] low;
+    private double[] close;
+    private double[] volume;
+    private boolean[] confirmed;
+    
+    public CandleColumnsDTO() {}
+    
+    public CandleColumnsDTO(String symbol, String interval, int size) {
+        this.symbol = symbol;
+        this.interval = interval;
+        this.timestamps = new long[size];
+        this.open = new double[size];
+        this.high = new double[size];
+        this.low = new double[size];
+        this.close = new double[size];
+        this.volume = new double[size];
+        this.confirmed = new boolean[size];
+    }
+    
+    public String getSymbol() { return symbol; }
+    public void setSymbol(String symbol) { this.symbol = symbol; }
+    
+    public String getInterval() { return interval; }
+    public void setInterval(String interval) { this.interval = interval; }
+    
+    public long[] getTimestamps() { return timestamps; }
+    public void setTimestamps(long[] timestamps) { this.timestamps = timestamps; }
+    
+    public double[] getOpen() { return open; }
+    public void setOpen(double[] open) { this.open = open; }
+    
+    public double[] getHigh() { return high; }
+    public void setHigh(double[] high) { this.high = high; }
+    
+    public double[] getLow() { return low; }
+    public void setLow(double[] low) { this.low = low; }
+    
+    public double[] getClose() { return close; }
+    public void setClose(double[] close) { this.close = close; }
+    
+    public double[] getVolume() { return volume; }
+    public void setVolume(double[] volume) { this.volume = volume; }
+    
+    public boolean[] getConfirmed() { return confirmed; }
+    public void setConfirmed(boolean[] confirmed) { this.confirmed = confirmed; }
+}
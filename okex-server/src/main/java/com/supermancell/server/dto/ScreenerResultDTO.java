@@ -0,0 +1,71 @@
+package com.supermancell.server.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Screener scan result: matching series only, plus scan counters
+ */
+public class ScreenerResultDTO {
+
+    private int scanned;
+    private int matched;
+    private int skipped;      // series without enough in-memory candles or without the compared field
+    private long elapsedMicros;
+    private List<Match> matches = new ArrayList<>();
+
+    public ScreenerResultDTO() {}
+
+    public int getScanned() { return scanned; }
+    public void setScanned(int scanned) { this.scanned = scanned; }
+
+    public int getMatched() { return matched; }
+    public void setMatched(int matched) { this.matched = matched; }
+
+    public int getSkipped() { return skipped; }
+    public void setSkipped(int skipped) { this.skipped = skipped; }
+
+    public long getElapsedMicros() { return elapsedMicros; }
+    public void setElapsedMicros(long elapsedMicros) { this.elapsedMicros = elapsedMicros; }
+
+    public List<Match> getMatches() { return matches; }
+    public void setMatches(List<Match> matches) { this.matches = matches; }
+
+    /**
+     * One matching series
+     */
+    public static class Match {
+
+        private String symbol;
+        private String interval;
+        private long candleTimestamp;  // open time (ms) of the candle the indicator was evaluated on
+        private double value;          // value of the compared field
+        private Map<String, Double> values;
+
+        public Match() {}
+
+        public Match(String symbol, String interval, long candleTimestamp, double value, Map<String, Double> values) {
+            this.symbol = symbol;
+            this.interval = interval;
+            this.candleTimestamp = candleTimestamp;
+            this.value = value;
+            this.values = values;
+        }
+
+        public String getSymbol() { return symbol; }
+        public void setSymbol(String symbol) { this.symbol = symbol; }
+
+        public String getInterval() { return interval; }
+        public void setInterval(String interval) { this.interval = interval; }
+
+        public long getCandleTimestamp() { return candleTimestamp; }
+        public void setCandleTimestamp(long candleTimestamp) { this.candleTimestamp = candleTimestamp; }
+
+        public double getValue() { return value; }
+        public void setValue(double value) { this.value = value; }
+
+        public Map<String, Double> getValues() { return values; }
+        public void setValues(Map<String, Double> values) { this.values = values; }
+    }
+}
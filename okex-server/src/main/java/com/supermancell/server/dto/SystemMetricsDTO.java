@@ -1,5 +1,7 @@
 package com.supermancell.server.dto;
 
+import java.util.Map;
+
 /**
  * System metrics data transfer object
  */
@@ -13,6 +15,7 @@ public class SystemMetricsDTO {
     private int redisConnections;
     private double memoryUsage;  // 0.0 to 1.0
     private double cpuUsage;     // 0.0 to 1.0
+    private Map<String, LatencyStatsDTO> latency;  // stage -> distribution (ms)
     
     // Constructors
     public SystemMetricsDTO() {}
@@ -26,6 +29,7 @@ public class SystemMetricsDTO {
         this.redisConnections = builder.redisConnections;
         this.memoryUsage = builder.memoryUsage;
         this.cpuUsage = builder.cpuUsage;
+        this.latency = builder.latency;
     }
     
     // Getters and Setters
@@ -53,6 +57,9 @@ public class SystemMetricsDTO {
     public double getCpuUsage() { return cpuUsage; }
     public void setCpuUsage(double cpuUsage) { this.cpuUsage = cpuUsage; }
     
+    public Map<String, LatencyStatsDTO> getLatency() { return latency; }
+    public void setLatency(Map<String, LatencyStatsDTO> latency) { this.latency = latency; }
+    
     // Builder
     public static Builder builder() {
         return new Builder();
@@ -67,6 +74,7 @@ public class SystemMetricsDTO {
         private int redisConnections;
         private double memoryUsage;
         private double cpuUsage;
+        private Map<String, LatencyStatsDTO> latency;
         
         public Builder messagesReceived(long messagesReceived) {
             this.messagesReceived = messagesReceived;
@@ -108,6 +116,11 @@ public class SystemMetricsDTO {
             return this;
         }
         
+        public Builder latency(Map<String, LatencyStatsDTO> latency) {
+            this.latency = latency;
+            return this;
+        }
+        
         public SystemMetricsDTO build() {
             return new SystemMetricsDTO(this);
         }
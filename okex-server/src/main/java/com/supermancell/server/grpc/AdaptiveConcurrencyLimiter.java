@@ -0,0 +1,355 @@
+package com.supermancell.server.grpc;
+
+import com.okex.common.proto.IndicatorServiceGrpc;
+import com.okex.common.proto.IndicatorServiceProto.BatchBOLLRequest;
+import com.okex.common.proto.IndicatorServiceProto.BatchMACDRequest;
+import com.okex.common.proto.IndicatorServiceProto.BatchPinbarRequest;
+import com.okex.common.proto.IndicatorServiceProto.BatchRSIRequest;
+import com.okex.common.proto.IndicatorServiceProto.MultiIndicatorRequest;
+import com.okex.common.proto.IndicatorServiceProto.PackedBatchRequest;
+import com.okex.common.proto.IndicatorServiceProto.SeriesResponse;
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Deadline;
+import io.grpc.ForwardingServerCall;
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+
+import javax.annotation.PostConstruct;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Adaptive concurrency limit (AIMD) for IndicatorService calls.
+ *
+ * Calls beyond the current limit are rejected immediately with RESOURCE_EXHAUSTED
+ * instead of queueing on the executor and piling onto Mongo. The limit adapts:
+ * - Additive increase: +1 when a call completes quickly while at least half the limit is in use
+ * - Multiplicative decrease: × backoff-ratio when a call is slower than latency-threshold-ms
+ *   per work item, or runs past its deadline (closed with DEADLINE_EXCEEDED or cancelled by
+ *   the server when the deadline expired)
+ *
+ * A slot is held until the call has ended and its handler has returned, so a cancelled call
+ * still counts while its handler is running.
+ *
+ * A work item is one query of a batch, packed or multi request, one streamed response, or
+ * series-points-per-item points of a series, so a large batch is not mistaken for overload.
+ *
+ * Long-lived streaming subscriptions are not limited (they would hold a slot for their whole life).
+ * Screen is not limited either: its scan runs on the screener's own pool, bounded by
+ * indicator.screener.timeout-ms, and returns the gRPC executor thread immediately.
+ */
+@GrpcGlobalServerInterceptor
+public class AdaptiveConcurrencyLimiter implements ServerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveConcurrencyLimiter.class);
+
+    private static final Set<String> UNLIMITED_METHODS = new HashSet<>(Arrays.asList(
+            IndicatorServiceGrpc.getStreamIndicatorsMethod().getFullMethodName(),
+            IndicatorServiceGrpc.getSubscribeIndicatorsMethod().getFullMethodName(),
+            IndicatorServiceGrpc.getScreenMethod().getFullMethodName()));
+
+    @Value("${indicator.grpc.limiter.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${indicator.grpc.limiter.initial-limit:100}")
+    private int initialLimit = 100;
+
+    @Value("${indicator.grpc.limiter.min-limit:10}")
+    private int minLimit = 10;
+
+    @Value("${indicator.grpc.limiter.max-limit:1000}")
+    private int maxLimit = 1000;
+
+    @Value("${indicator.grpc.limiter.backoff-ratio:0.9}")
+    private double backoffRatio = 0.9;
+
+    @Value("${indicator.grpc.limiter.latency-threshold-ms:1000}")
+    private long latencyThresholdMs = 1000;
+
+    @Value("${indicator.grpc.limiter.series-points-per-item:500}")
+    private int seriesPointsPerItem = 500;
+
+    private double limit;
+    private int inFlight;
+    private final AtomicLong rejected = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        limit = initialLimit;
+        log.info("AdaptiveConcurrencyLimiter initialized: enabled={}, limit={} [{}, {}], backoffRatio={}, latencyThresholdMs={}, seriesPointsPerItem={}",
+                enabled, initialLimit, minLimit, maxLimit, backoffRatio, latencyThresholdMs, seriesPointsPerItem);
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call,
+                                                                 Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        String method = call.getMethodDescriptor().getFullMethodName();
+        if (!enabled
+                || !IndicatorServiceGrpc.SERVICE_NAME.equals(call.getMethodDescriptor().getServiceName())
+                || UNLIMITED_METHODS.contains(method)) {
+            return next.startCall(call, headers);
+        }
+
+        if (!tryAcquire()) {
+            rejected.incrementAndGet();
+            log.debug("Rejected {}: concurrency limit {} reached", method, getLimit());
+            call.close(Status.RESOURCE_EXHAUSTED.withDescription(
+                    "Server overloaded: concurrency limit " + getLimit() + " reached"), new Metadata());
+            return new ServerCall.Listener<ReqT>() {
+            };
+        }
+
+        CallTracker tracker = new CallTracker(System.nanoTime(), Context.current());
+        ServerCall<ReqT, RespT> tracked = new ForwardingServerCall.SimpleForwardingServerCall<ReqT, RespT>(call) {
+            @Override
+            public void sendMessage(RespT message) {
+                tracker.responseItems.addAndGet(responseItems(message));
+                super.sendMessage(message);
+            }
+
+            @Override
+            public void close(Status status, Metadata trailers) {
+                tracker.end(status.getCode() == Status.Code.DEADLINE_EXCEEDED);
+                super.close(status, trailers);
+            }
+        };
+
+        ServerCall.Listener<ReqT> delegate;
+        tracker.enter();
+        try {
+            delegate = next.startCall(tracked, headers);
+        } catch (RuntimeException e) {
+            tracker.abort();
+            throw e;
+        } finally {
+            tracker.exit();
+        }
+
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT>(delegate) {
+            @Override
+            public void onMessage(ReqT message) {
+                tracker.requestItems.set(requestItems(message));
+                tracker.enter();
+                try {
+                    super.onMessage(message);
+                } finally {
+                    tracker.exit();
+                }
+            }
+
+            @Override
+            public void onHalfClose() {
+                tracker.enter();
+                try {
+                    super.onHalfClose();
+                } finally {
+                    tracker.exit();
+                }
+            }
+
+            @Override
+            public void onReady() {
+                tracker.enter();
+                try {
+                    super.onReady();
+                } finally {
+                    tracker.exit();
+                }
+            }
+
+            @Override
+            public void onCancel() {
+                tracker.end(false);
+                super.onCancel();
+            }
+        };
+    }
+
+    /**
+     * Take a slot if the current limit allows
+     */
+    synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Number of work items in a request (1 for single-indicator requests)
+     */
+    static int requestItems(Object request) {
+        int items = 1;
+        if (request instanceof BatchRSIRequest) {
+            items = ((BatchRSIRequest) request).getRequestsCount();
+        } else if (request instanceof BatchBOLLRequest) {
+            items = ((BatchBOLLRequest) request).getRequestsCount();
+        } else if (request instanceof BatchMACDRequest) {
+            items = ((BatchMACDRequest) request).getRequestsCount();
+        } else if (request instanceof BatchPinbarRequest) {
+            items = ((BatchPinbarRequest) request).getRequestsCount();
+        } else if (request instanceof PackedBatchRequest) {
+            items = ((PackedBatchRequest) request).getQueriesCount();
+        } else if (request instanceof MultiIndicatorRequest) {
+            items = ((MultiIndicatorRequest) request).getQueriesCount();
+        }
+        return Math.max(1, items);
+    }
+
+    /**
+     * Number of work items in a response: series count by points, anything else as one
+     */
+    int responseItems(Object response) {
+        if (response instanceof SeriesResponse) {
+            int points = ((SeriesResponse) response).getTimestampsCount();
+            return Math.max(1, (points + seriesPointsPerItem - 1) / seriesPointsPerItem);
+        }
+        return 1;
+    }
+
+    /**
+     * Free a slot and adapt the limit to the outcome of a single-item call
+     */
+    void release(long latencyNanos, boolean timedOut) {
+        release(latencyNanos, timedOut, 1);
+    }
+
+    /**
+     * Free a slot and adapt the limit to the call's outcome
+     *
+     * @param latencyNanos Call duration
+     * @param timedOut true if the call ended with DEADLINE_EXCEEDED
+     * @param items Work items of the call; latency is compared per item
+     */
+    synchronized void release(long latencyNanos, boolean timedOut, int items) {
+        boolean utilized = inFlight * 2 >= (int) limit;
+        inFlight--;
+        long latencyPerItem = latencyNanos / Math.max(1, items);
+        if (timedOut || latencyPerItem > TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs)) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (utilized) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+    }
+
+    synchronized void releaseWithoutSample() {
+        inFlight--;
+    }
+
+    /**
+     * Slot of one admitted call. The slot is freed once the call has ended (closed or cancelled)
+     * and no listener callback is still running, so a cancelled call keeps its slot while its
+     * handler is still executing.
+     *
+     * A server-side deadline expiry cancels the call's Context rather than closing the call with
+     * DEADLINE_EXCEEDED, and the handler may still close it normally afterwards, so the outcome
+     * is read from the Context: expired deadline = timeout sample, other cancellation (client
+     * went away) = no sample.
+     */
+    private final class CallTracker {
+        private final long start;
+        private final Context context;
+        private final AtomicInteger requestItems = new AtomicInteger(1);
+        private final AtomicInteger responseItems = new AtomicInteger();
+        private int activeCallbacks;
+        private boolean ended;
+        private boolean sample;
+        private boolean timedOut;
+        private long latencyNanos;
+        private boolean released;
+
+        private CallTracker(long start, Context context) {
+            this.start = start;
+            this.context = context;
+        }
+
+        synchronized void enter() {
+            activeCallbacks++;
+        }
+
+        void exit() {
+            synchronized (this) {
+                activeCallbacks--;
+            }
+            releaseIfDone();
+        }
+
+        /**
+         * @param deadlineStatus true if the call was closed with DEADLINE_EXCEEDED
+         */
+        void end(boolean deadlineStatus) {
+            boolean cancelled = context.isCancelled();
+            boolean deadlineExceeded = deadlineStatus || cancelled && deadlineExpired();
+            // A client that went away says nothing about server latency
+            finish(!cancelled || deadlineExceeded, deadlineExceeded);
+        }
+
+        /**
+         * The call failed to start: free the slot without a sample
+         */
+        void abort() {
+            finish(false, false);
+        }
+
+        private void finish(boolean withSample, boolean deadlineExceeded) {
+            synchronized (this) {
+                if (ended) {
+                    return;
+                }
+                ended = true;
+                sample = withSample;
+                timedOut = deadlineExceeded;
+                latencyNanos = System.nanoTime() - start;
+            }
+            releaseIfDone();
+        }
+
+        private boolean deadlineExpired() {
+            Deadline deadline = context.getDeadline();
+            Status status = Contexts.statusFromCancelled(context);
+            return deadline != null && deadline.isExpired()
+                    || status != null && status.getCode() == Status.Code.DEADLINE_EXCEEDED;
+        }
+
+        private void releaseIfDone() {
+            synchronized (this) {
+                if (!ended || activeCallbacks > 0 || released) {
+                    return;
+                }
+                released = true;
+            }
+            if (sample) {
+                release(latencyNanos, timedOut, Math.max(requestItems.get(), responseItems.get()));
+            } else {
+                releaseWithoutSample();
+            }
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+}
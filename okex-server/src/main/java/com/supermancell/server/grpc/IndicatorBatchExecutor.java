@@ -0,0 +1,277 @@
+package com.supermancell.server.grpc;
+
+import com.okex.common.proto.IndicatorServiceProto.IndicatorResponse;
+import io.grpc.Context;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Concurrent executor for gRPC batch RPCs.
+ * 
+ * Key features:
+ * - Runs batch items on a bounded pool shared by all batch calls
+ *   (indicator.grpc.batch.parallelism threads, indicator.grpc.batch.queue-capacity queued items)
+ * - Streams each response as soon as its item completes, tagged with request_index
+ * - Per-item deadline (indicator.grpc.batch.item-timeout-ms) answered with an error response;
+ *   it starts when the item starts running, so time spent queued behind other batches does not
+ *   count (the caller's gRPC deadline still bounds the whole call)
+ * - Items rejected by a full queue are answered with an error response instead of blocking the gRPC thread
+ * - Items run in the caller's gRPC Context, so calculation stages see its deadline and cancellation
+ */
+@Component
+public class IndicatorBatchExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(IndicatorBatchExecutor.class);
+
+    @Value("${indicator.grpc.batch.parallelism:16}")
+    private int parallelism = 16;
+
+    @Value("${indicator.grpc.batch.queue-capacity:1000}")
+    private int queueCapacity = 1000;
+
+    @Value("${indicator.grpc.batch.item-timeout-ms:5000}")
+    private long itemTimeoutMs = 5000;
+
+    private ThreadPoolExecutor executor;
+    private ScheduledThreadPoolExecutor timeoutScheduler;
+
+    @PostConstruct
+    public void init() {
+        executor = new ThreadPoolExecutor(
+                parallelism,
+                parallelism,
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                namedThreadFactory("grpc-batch-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+
+        timeoutScheduler = new ScheduledThreadPoolExecutor(1, namedThreadFactory("grpc-batch-timeout-"));
+        timeoutScheduler.setRemoveOnCancelPolicy(true);
+
+        log.info("IndicatorBatchExecutor initialized: parallelism={}, queueCapacity={}, itemTimeoutMs={}",
+                parallelism, queueCapacity, itemTimeoutMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("Shutting down IndicatorBatchExecutor...");
+        executor.shutdown();
+        timeoutScheduler.shutdownNow();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Execute all batch items concurrently and stream their responses.
+     * The observer is completed once every item has produced a response (result, error or timeout).
+     * 
+     * @param items Batch items in request order
+     * @param task Computes the response for one item
+     * @param errorResponse Builds an error response from a message (used for failures, timeouts and rejections)
+     * @param responseObserver Observer of the batch RPC
+     */
+    public <T> void execute(List<T> items,
+                            Function<T, IndicatorResponse> task,
+                            Function<String, IndicatorResponse> errorResponse,
+                            StreamObserver<IndicatorResponse> responseObserver) {
+        if (items.isEmpty()) {
+            responseObserver.onCompleted();
+            return;
+        }
+
+        BatchCall call = new BatchCall(items.size(), responseObserver);
+        // Carry the caller's deadline and cancellation onto the pool threads
+        Context context = Context.current();
+
+        for (int i = 0; i < items.size(); i++) {
+            final int index = i;
+            final T item = items.get(i);
+
+            try {
+                submitTimed(context, () -> {
+                    if (call.isCancelled()) {
+                        call.complete(index, errorResponse.apply("Cancelled"));
+                        return null;
+                    }
+                    IndicatorResponse response;
+                    try {
+                        response = task.apply(item);
+                    } catch (Exception e) {
+                        log.error("Batch item {} failed", index, e);
+                        response = errorResponse.apply("Failed: " + e.getMessage());
+                    }
+                    call.complete(index, response);
+                    return null;
+                }, future -> {
+                    if (call.complete(index, errorResponse.apply(
+                            "Deadline exceeded after " + itemTimeoutMs + "ms"))) {
+                        log.warn("Batch item {} timed out after {}ms", index, itemTimeoutMs);
+                        future.cancel(true);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                log.warn("Batch item {} rejected: queue is full", index);
+                call.complete(index, errorResponse.apply("Server busy: batch queue is full"));
+            }
+        }
+    }
+
+    /**
+     * Run items on the batch pool and wait until all of them have a result.
+     * Used by unary RPCs that return the whole batch in one message.
+     * 
+     * @param items Batch items in request order
+     * @param task Computes the result for one item
+     * @param errorResult Builds an error result for an item from a message (failures, timeouts and rejections)
+     * @return Results in item order
+     */
+    public <T, R> List<R> invokeAll(List<T> items,
+                                    Function<T, R> task,
+                                    BiFunction<T, String, R> errorResult) {
+        List<R> results = new ArrayList<>(Collections.nCopies(items.size(), (R) null));
+        List<Future<R>> futures = new ArrayList<>(items.size());
+        Context context = Context.current();
+
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            try {
+                // A timed-out item is cancelled, which ends the wait below
+                futures.add(submitTimed(context, () -> task.apply(item), future -> future.cancel(true)));
+            } catch (RejectedExecutionException e) {
+                log.warn("Batch item {} rejected: queue is full", i);
+                futures.add(null);
+                results.set(i, errorResult.apply(item, "Server busy: batch queue is full"));
+            }
+        }
+
+        for (int i = 0; i < items.size(); i++) {
+            Future<R> future = futures.get(i);
+            if (future == null) {
+                continue;
+            }
+            T item = items.get(i);
+            try {
+                results.set(i, future.get());
+            } catch (CancellationException e) {
+                log.warn("Batch item {} timed out after {}ms", i, itemTimeoutMs);
+                results.set(i, errorResult.apply(item, "Deadline exceeded after " + itemTimeoutMs + "ms"));
+            } catch (ExecutionException e) {
+                log.error("Batch item {} failed", i, e.getCause());
+                results.set(i, errorResult.apply(item, "Failed: " + e.getCause().getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                results.set(i, errorResult.apply(item, "Cancelled"));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Submit a task to the batch pool with a timeout that starts when the task starts running
+     * 
+     * @param onTimeout Called with the task's future if it runs longer than item-timeout-ms
+     */
+    private <R> Future<R> submitTimed(Context context, Callable<R> task, Consumer<Future<R>> onTimeout) {
+        AtomicReference<Future<R>> self = new AtomicReference<>();
+        FutureTask<R> future = new FutureTask<>(context.wrap(() -> {
+            ScheduledFuture<?> timeout = timeoutScheduler.schedule(
+                    () -> onTimeout.accept(self.get()), itemTimeoutMs, TimeUnit.MILLISECONDS);
+            try {
+                return task.call();
+            } finally {
+                timeout.cancel(false);
+            }
+        }));
+        self.set(future);
+        executor.execute(future);
+        return future;
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * State of one batch RPC. StreamObserver is not thread-safe, so every
+     * onNext/onCompleted is serialized through this object's monitor.
+     */
+    private static class BatchCall {
+        private final StreamObserver<IndicatorResponse> observer;
+        private final boolean[] completed;
+        private int remaining;
+
+        BatchCall(int size, StreamObserver<IndicatorResponse> observer) {
+            this.observer = observer;
+            this.completed = new boolean[size];
+            this.remaining = size;
+        }
+
+        boolean isCancelled() {
+            return observer instanceof ServerCallStreamObserver
+                    && ((ServerCallStreamObserver<IndicatorResponse>) observer).isCancelled();
+        }
+
+        /**
+         * @return true if this response was the first one for the item
+         */
+        synchronized boolean complete(int index, IndicatorResponse response) {
+            if (completed[index]) {
+                return false;
+            }
+            completed[index] = true;
+            remaining--;
+
+            if (!isCancelled()) {
+                try {
+                    observer.onNext(response.toBuilder().setRequestIndex(index).build());
+                    if (remaining == 0) {
+                        observer.onCompleted();
+                    }
+                } catch (Exception e) {
+                    log.debug("Failed to deliver batch response {}: {}", index, e.getMessage());
+                }
+            }
+            return true;
+        }
+    }
+}
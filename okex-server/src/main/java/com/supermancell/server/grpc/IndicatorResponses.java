@@ -0,0 +1,174 @@
+package com.supermancell.server.grpc;
+
+import com.okex.common.proto.IndicatorServiceProto.BOLLValue;
+import com.okex.common.proto.IndicatorServiceProto.BaseRequest;
+import com.okex.common.proto.IndicatorServiceProto.IndicatorResponse;
+import com.okex.common.proto.IndicatorServiceProto.IndicatorResultV2;
+import com.okex.common.proto.IndicatorServiceProto.IndicatorType;
+import com.okex.common.proto.IndicatorServiceProto.MACDValue;
+import com.okex.common.proto.IndicatorServiceProto.PinbarValue;
+import com.okex.common.proto.IndicatorServiceProto.RSIValue;
+import com.supermancell.common.model.IndicatorResult;
+
+import java.time.Instant;
+
+/**
+ * Converts calculator results into gRPC IndicatorResponse messages.
+ * Shared by the unary, batch and streaming RPCs.
+ * Also builds the compact v2 results (IndicatorResultV2) of the packed batch RPC.
+ */
+final class IndicatorResponses {
+    
+    private IndicatorResponses() {
+    }
+    
+    static IndicatorResponse of(IndicatorType type, BaseRequest base, IndicatorResult result) {
+        switch (type) {
+            case RSI:
+                return rsi(base, result);
+            case BOLL:
+                return boll(base, result);
+            case MACD:
+                return macd(base, result);
+            case PINBAR:
+                return pinbar(base, result);
+            default:
+                return error("Unsupported indicator type: " + type, type);
+        }
+    }
+    
+    static IndicatorResponse rsi(BaseRequest base, IndicatorResult result) {
+        IndicatorResponse.Builder builder = IndicatorResponse.newBuilder()
+                .setSuccess(result.getValue() != null)
+                .setSymbol(base.getSymbol())
+                .setIndicatorType(IndicatorType.RSI)
+                .setInterval(base.getInterval())
+                .setTimestamp(Instant.now().toEpochMilli())
+                .setDataPoints(result.getDataPoints() != null ? result.getDataPoints() : 0)
+                .setFromCache(false); // TODO: Get from result
+        
+        if (result.getValue() != null) {
+            builder.setRsiValue(result.getValue());
+        } else {
+            builder.setErrorMessage("Calculation failed");
+        }
+        
+        return builder.build();
+    }
+    
+    static IndicatorResponse boll(BaseRequest base, IndicatorResult result) {
+        IndicatorResponse.Builder builder = IndicatorResponse.newBuilder()
+                .setSuccess(result.getValue() != null)
+                .setSymbol(base.getSymbol())
+                .setIndicatorType(IndicatorType.BOLL)
+                .setInterval(base.getInterval())
+                .setTimestamp(Instant.now().toEpochMilli())
+                .setDataPoints(result.getDataPoints() != null ? result.getDataPoints() : 0)
+                .setFromCache(false);
+        
+        if (result.getValue() != null && result.getValues() != null) {
+            builder.setBollUpper(result.getValues().getOrDefault("upper", 0.0));
+            builder.setBollMiddle(result.getValue());
+            builder.setBollLower(result.getValues().getOrDefault("lower", 0.0));
+        } else {
+            builder.setErrorMessage("Calculation failed");
+        }
+        
+        return builder.build();
+    }
+    
+    static IndicatorResponse macd(BaseRequest base, IndicatorResult result) {
+        IndicatorResponse.Builder builder = IndicatorResponse.newBuilder()
+                .setSuccess(result.getValue() != null)
+                .setSymbol(base.getSymbol())
+                .setIndicatorType(IndicatorType.MACD)
+                .setInterval(base.getInterval())
+                .setTimestamp(Instant.now().toEpochMilli())
+                .setDataPoints(result.getDataPoints() != null ? result.getDataPoints() : 0)
+                .setFromCache(false);
+        
+        if (result.getValue() != null && result.getValues() != null) {
+            builder.setMacdLine(result.getValue());
+            builder.setMacdSignal(result.getValues().getOrDefault("signal", 0.0));
+            builder.setMacdHistogram(result.getValues().getOrDefault("histogram", 0.0));
+        } else {
+            builder.setErrorMessage("Calculation failed");
+        }
+        
+        return builder.build();
+    }
+    
+    static IndicatorResponse pinbar(BaseRequest base, IndicatorResult result) {
+        IndicatorResponse.Builder builder = IndicatorResponse.newBuilder()
+                .setSuccess(result.getValue() != null)
+                .setSymbol(base.getSymbol())
+                .setIndicatorType(IndicatorType.PINBAR)
+                .setInterval(base.getInterval())
+                .setTimestamp(Instant.now().toEpochMilli())
+                .setDataPoints(result.getDataPoints() != null ? result.getDataPoints() : 0)
+                .setFromCache(false);
+        
+        if (result.getValue() != null && result.getValues() != null) {
+            builder.setIsPinbar(result.getValue() == 1.0);
+            builder.setIsBullish(result.getValues().getOrDefault("is_bullish", 0.0) == 1.0);
+            builder.setBodyRatio(result.getValues().getOrDefault("body_ratio", 0.0));
+            builder.setUpperWickRatio(result.getValues().getOrDefault("upper_wick_ratio", 0.0));
+            builder.setLowerWickRatio(result.getValues().getOrDefault("lower_wick_ratio", 0.0));
+        } else {
+            builder.setErrorMessage("Calculation failed");
+        }
+        
+        return builder.build();
+    }
+    
+    static IndicatorResponse error(String errorMessage, IndicatorType type) {
+        return IndicatorResponse.newBuilder()
+                .setSuccess(false)
+                .setErrorMessage(errorMessage)
+                .setIndicatorType(type)
+                .setTimestamp(Instant.now().toEpochMilli())
+                .setDataPoints(0)
+                .setFromCache(false)
+                .build();
+    }
+    
+    /**
+     * Build a v2 result; symbol_id/interval_id are left for the caller to set
+     */
+    static IndicatorResultV2.Builder v2(IndicatorType type, IndicatorResult result) {
+        IndicatorResultV2.Builder builder = IndicatorResultV2.newBuilder()
+                .setDataPoints(result.getDataPoints() != null ? result.getDataPoints() : 0);
+        
+        if (result.getValue() == null || (type != IndicatorType.RSI && result.getValues() == null)) {
+            return builder.setErrorMessage("Calculation failed");
+        }
+        
+        switch (type) {
+            case RSI:
+                return builder.setRsi(RSIValue.newBuilder().setValue(result.getValue()));
+            case BOLL:
+                return builder.setBoll(BOLLValue.newBuilder()
+                        .setUpper(result.getValues().getOrDefault("upper", 0.0))
+                        .setMiddle(result.getValue())
+                        .setLower(result.getValues().getOrDefault("lower", 0.0)));
+            case MACD:
+                return builder.setMacd(MACDValue.newBuilder()
+                        .setLine(result.getValue())
+                        .setSignal(result.getValues().getOrDefault("signal", 0.0))
+                        .setHistogram(result.getValues().getOrDefault("histogram", 0.0)));
+            case PINBAR:
+                return builder.setPinbar(PinbarValue.newBuilder()
+                        .setIsPinbar(result.getValue() == 1.0)
+                        .setIsBullish(result.getValues().getOrDefault("is_bullish", 0.0) == 1.0)
+                        .setBodyRatio(result.getValues().getOrDefault("body_ratio", 0.0))
+                        .setUpperWickRatio(result.getValues().getOrDefault("upper_wick_ratio", 0.0))
+                        .setLowerWickRatio(result.getValues().getOrDefault("lower_wick_ratio", 0.0)));
+            default:
+                return builder.setErrorMessage("Unsupported indicator type: " + type);
+        }
+    }
+    
+    static IndicatorResultV2.Builder v2Error(String errorMessage) {
+        return IndicatorResultV2.newBuilder().setErrorMessage(errorMessage);
+    }
+}
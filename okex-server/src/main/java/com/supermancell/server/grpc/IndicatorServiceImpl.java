@@ -3,28 +3,48 @@ package com.supermancell.server.grpc;
 import com.okex.common.proto.IndicatorServiceGrpc;
 import com.okex.common.proto.IndicatorServiceProto.*;
 import com.supermancell.common.model.IndicatorResult;
+import com.supermancell.common.model.IndicatorSeries;
 import com.supermancell.server.service.CalculationEngine;
+import com.supermancell.server.service.IndicatorScreener;
+import com.supermancell.server.service.IndicatorSpec;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.server.service.GrpcService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
 
 /**
  * gRPC Service Implementation for Technical Indicator Calculations
  * 
- * Provides 9 RPC methods:
+ * Provides 14 RPC methods:
  * 1. calculateRSI - Single RSI calculation
- * 2. calculateRSIBatch - Batch RSI calculation with streaming
+ * 2. calculateRSIBatch - Batch RSI calculation, concurrent and streamed as completed
  * 3. calculateBOLL - Single Bollinger Bands calculation
- * 4. calculateBOLLBatch - Batch BOLL calculation with streaming
+ * 4. calculateBOLLBatch - Batch BOLL calculation, concurrent and streamed as completed
  * 5. calculateMACD - Single MACD calculation
- * 6. calculateMACDBatch - Batch MACD calculation with streaming
+ * 6. calculateMACDBatch - Batch MACD calculation, concurrent and streamed as completed
  * 7. calculatePinbar - Single Pinbar pattern detection
- * 8. calculatePinbarBatch - Batch Pinbar detection with streaming
- * 9. streamIndicators - Real-time indicator streaming
+ * 8. calculatePinbarBatch - Batch Pinbar detection, concurrent and streamed as completed
+ * 9. streamIndicators - Continuous indicator stream driven by live candles
+ * 10. calculateMulti - Several indicators over one candle fetch
+ * 11. calculateSeries - Full indicator time series as packed arrays
+ * 12. subscribeIndicators - Bidirectional stream with dynamic add/remove subscriptions
+ * 13. calculatePacked - Mixed batch returned as one message of compact v2 results
+ * 14. screen - One indicator predicate over all subscribed series, streaming only the matches
  */
 @GrpcService
 public class IndicatorServiceImpl extends IndicatorServiceGrpc.IndicatorServiceImplBase {
@@ -32,10 +52,22 @@ public class IndicatorServiceImpl extends IndicatorServiceGrpc.IndicatorServiceI
     private static final Logger log = LoggerFactory.getLogger(IndicatorServiceImpl.class);
     
     private final CalculationEngine calculationEngine;
+    private final IndicatorBatchExecutor batchExecutor;
+    private final IndicatorStreamHub streamHub;
+    private final IndicatorScreener screener;
+    
+    @Value("${indicator.stream.max-subscriptions-per-call:5000}")
+    private int maxSubscriptionsPerCall = 5000;
     
     @Autowired
-    public IndicatorServiceImpl(CalculationEngine calculationEngine) {
+    public IndicatorServiceImpl(CalculationEngine calculationEngine, 
+                                IndicatorBatchExecutor batchExecutor,
+                                IndicatorStreamHub streamHub,
+                                IndicatorScreener screener) {
         this.calculationEngine = calculationEngine;
+        this.batchExecutor = batchExecutor;
+        this.streamHub = streamHub;
+        this.screener = screener;
     }
     
     /**
@@ -49,7 +81,7 @@ public class IndicatorServiceImpl extends IndicatorServiceGrpc.IndicatorServiceI
             
             // Validate request
             if (!request.hasBase() || request.getBase().getSymbol().isEmpty()) {
-                responseObserver.onNext(buildErrorResponse("Invalid request: symbol is required", IndicatorType.RSI));
+                responseObserver.onNext(IndicatorResponses.error("Invalid request: symbol is required", IndicatorType.RSI));
                 responseObserver.onCompleted();
                 return;
             }
@@ -63,7 +95,7 @@ public class IndicatorServiceImpl extends IndicatorServiceGrpc.IndicatorServiceI
             );
             
             // Build response
-            IndicatorResponse response = buildRSIResponse(request.getBase(), result);
+            IndicatorResponse response = IndicatorResponses.rsi(request.getBase(), result);
             responseObserver.onNext(response);
             responseObserver.onCompleted();
             
@@ -83,25 +115,18 @@ public class IndicatorServiceImpl extends IndicatorServiceGrpc.IndicatorServiceI
         try {
             log.debug("gRPC calculateRSIBatch: {} requests", request.getRequestsCount());
             
-            for (RSIRequest rsiRequest : request.getRequestsList()) {
-                try {
-                    IndicatorResult result = calculationEngine.calculateRSI(
+            // Items run concurrently; responses stream back in completion order with request_index set
+            batchExecutor.execute(
+                    request.getRequestsList(),
+                    rsiRequest -> IndicatorResponses.rsi(rsiRequest.getBase(), calculationEngine.calculateRSI(
                             rsiRequest.getBase().getSymbol(),
                             rsiRequest.getBase().getInterval(),
                             rsiRequest.getPeriod(),
                             rsiRequest.getBase().getLimit()
-                    );
-                    
-                    responseObserver.onNext(buildRSIResponse(rsiRequest.getBase(), result));
-                    
-                } catch (Exception e) {
-                    log.error("Failed to calculate RSI for symbol: {}", rsiRequest.getBase().getSymbol(), e);
-                    responseObserver.onNext(buildErrorResponse(
-                            "Failed: " + e.getMessage(), IndicatorType.RSI));
-                }
-            }
-            
-            responseObserver.onCompleted();
+                    )),
+                    message -> IndicatorResponses.error(message, IndicatorType.RSI),
+                    responseObserver
+            );
             
         } catch (Exception e) {
             log.error("Failed to calculate RSI batch", e);
@@ -122,7 +147,7 @@ public class IndicatorServiceImpl extends IndicatorServiceGrpc.IndicatorServiceI
                     request.getPeriod(), request.getStdDev());
             
             if (!request.hasBase() || request.getBase().getSymbol().isEmpty()) {
-                responseObserver.onNext(buildErrorResponse("Invalid request: symbol is required", IndicatorType.BOLL));
+                responseObserver.onNext(IndicatorResponses.error("Invalid request: symbol is required", IndicatorType.BOLL));
                 responseObserver.onCompleted();
                 return;
             }
@@ -135,7 +160,7 @@ public class IndicatorServiceImpl extends IndicatorServiceGrpc.IndicatorServiceI
                     request.getBase().getLimit()
             );
             
-            responseObserver.onNext(buildBOLLResponse(request.getBase(), result));
+            responseObserver.onNext(IndicatorResponses.boll(request.getBase(), result));
             responseObserver.onCompleted();
             
         } catch (Exception e) {
@@ -154,26 +179,19 @@ public class IndicatorServiceImpl extends IndicatorServiceGrpc.IndicatorServiceI
         try {
             log.debug("gRPC calculateBOLLBatch: {} requests", request.getRequestsCount());
             
-            for (BOLLRequest bollRequest : request.getRequestsList()) {
-                try {
-                    IndicatorResult result = calculationEngine.calculateBOLL(
+            // Items run concurrently; responses stream back in completion order with request_index set
+            batchExecutor.execute(
+                    request.getRequestsList(),
+                    bollRequest -> IndicatorResponses.boll(bollRequest.getBase(), calculationEngine.calculateBOLL(
                             bollRequest.getBase().getSymbol(),
                             bollRequest.getBase().getInterval(),
                             bollRequest.getPeriod(),
                             bollRequest.getStdDev(),
                             bollRequest.getBase().getLimit()
-                    );
-                    
-                    responseObserver.onNext(buildBOLLResponse(bollRequest.getBase(), result));
-                    
-                } catch (Exception e) {
-                    log.error("Failed to calculate BOLL for symbol: {}", bollRequest.getBase().getSymbol(), e);
-                    responseObserver.onNext(buildErrorResponse(
-                            "Failed: " + e.getMessage(), IndicatorType.BOLL));
-                }
-            }
-            
-            responseObserver.onCompleted();
+                    )),
+                    message -> IndicatorResponses.error(message, IndicatorType.BOLL),
+                    responseObserver
+            );
             
         } catch (Exception e) {
             log.error("Failed to calculate BOLL batch", e);
@@ -194,7 +212,7 @@ public class IndicatorServiceImpl extends IndicatorServiceGrpc.IndicatorServiceI
                     request.getFastPeriod(), request.getSlowPeriod(), request.getSignalPeriod());
             
             if (!request.hasBase() || request.getBase().getSymbol().isEmpty()) {
-                responseObserver.onNext(buildErrorResponse("Invalid request: symbol is required", IndicatorType.MACD));
+                responseObserver.onNext(IndicatorResponses.error("Invalid request: symbol is required", IndicatorType.MACD));
                 responseObserver.onCompleted();
                 return;
             }
@@ -208,7 +226,7 @@ public class IndicatorServiceImpl extends IndicatorServiceGrpc.IndicatorServiceI
                     request.getBase().getLimit()
             );
             
-            responseObserver.onNext(buildMACDResponse(request.getBase(), result));
+            responseObserver.onNext(IndicatorResponses.macd(request.getBase(), result));
             responseObserver.onCompleted();
             
         } catch (Exception e) {
@@ -227,27 +245,20 @@ public class IndicatorServiceImpl extends IndicatorServiceGrpc.IndicatorServiceI
         try {
             log.debug("gRPC calculateMACDBatch: {} requests", request.getRequestsCount());
             
-            for (MACDRequest macdRequest : request.getRequestsList()) {
-                try {
-                    IndicatorResult result = calculationEngine.calculateMACD(
+            // Items run concurrently; responses stream back in completion order with request_index set
+            batchExecutor.execute(
+                    request.getRequestsList(),
+                    macdRequest -> IndicatorResponses.macd(macdRequest.getBase(), calculationEngine.calculateMACD(
                             macdRequest.getBase().getSymbol(),
                             macdRequest.getBase().getInterval(),
                             macdRequest.getFastPeriod(),
                             macdRequest.getSlowPeriod(),
                             macdRequest.getSignalPeriod(),
                             macdRequest.getBase().getLimit()
-                    );
-                    
-                    responseObserver.onNext(buildMACDResponse(macdRequest.getBase(), result));
-                    
-                } catch (Exception e) {
-                    log.error("Failed to calculate MACD for symbol: {}", macdRequest.getBase().getSymbol(), e);
-                    responseObserver.onNext(buildErrorResponse(
-                            "Failed: " + e.getMessage(), IndicatorType.MACD));
-                }
-            }
-            
-            responseObserver.onCompleted();
+                    )),
+                    message -> IndicatorResponses.error(message, IndicatorType.MACD),
+                    responseObserver
+            );
             
         } catch (Exception e) {
             log.error("Failed to calculate MACD batch", e);
@@ -268,7 +279,7 @@ public class IndicatorServiceImpl extends IndicatorServiceGrpc.IndicatorServiceI
                     request.getBodyRatioThreshold(), request.getWickRatioThreshold());
             
             if (!request.hasBase() || request.getBase().getSymbol().isEmpty()) {
-                responseObserver.onNext(buildErrorResponse("Invalid request: symbol is required", IndicatorType.PINBAR));
+                responseObserver.onNext(IndicatorResponses.error("Invalid request: symbol is required", IndicatorType.PINBAR));
                 responseObserver.onCompleted();
                 return;
             }
@@ -281,7 +292,7 @@ public class IndicatorServiceImpl extends IndicatorServiceGrpc.IndicatorServiceI
                     request.getBase().getLimit()
             );
             
-            responseObserver.onNext(buildPinbarResponse(request.getBase(), result));
+            responseObserver.onNext(IndicatorResponses.pinbar(request.getBase(), result));
             responseObserver.onCompleted();
             
         } catch (Exception e) {
@@ -300,26 +311,19 @@ public class IndicatorServiceImpl extends IndicatorServiceGrpc.IndicatorServiceI
         try {
             log.debug("gRPC calculatePinbarBatch: {} requests", request.getRequestsCount());
             
-            for (PinbarRequest pinbarRequest : request.getRequestsList()) {
-                try {
-                    IndicatorResult result = calculationEngine.calculatePinbar(
+            // Items run concurrently; responses stream back in completion order with request_index set
+            batchExecutor.execute(
+                    request.getRequestsList(),
+                    pinbarRequest -> IndicatorResponses.pinbar(pinbarRequest.getBase(), calculationEngine.calculatePinbar(
                             pinbarRequest.getBase().getSymbol(),
                             pinbarRequest.getBase().getInterval(),
                             pinbarRequest.getBodyRatioThreshold(),
                             pinbarRequest.getWickRatioThreshold(),
                             pinbarRequest.getBase().getLimit()
-                    );
-                    
-                    responseObserver.onNext(buildPinbarResponse(pinbarRequest.getBase(), result));
-                    
-                } catch (Exception e) {
-                    log.error("Failed to calculate Pinbar for symbol: {}", pinbarRequest.getBase().getSymbol(), e);
-                    responseObserver.onNext(buildErrorResponse(
-                            "Failed: " + e.getMessage(), IndicatorType.PINBAR));
-                }
-            }
-            
-            responseObserver.onCompleted();
+                    )),
+                    message -> IndicatorResponses.error(message, IndicatorType.PINBAR),
+                    responseObserver
+            );
             
         } catch (Exception e) {
             log.error("Failed to calculate Pinbar batch", e);
@@ -331,185 +335,458 @@ public class IndicatorServiceImpl extends IndicatorServiceGrpc.IndicatorServiceI
     
     /**
      * Stream real-time indicators
-     * Note: This is a placeholder implementation. In production, this would connect
-     * to a real-time data stream and calculate indicators continuously.
+     * 
+     * The call stays open until the client cancels it. The current values are sent first,
+     * then every confirmed candle (and every in-progress update when include_updates is set)
+     * of the requested series pushes fresh values. Slow consumers receive conflated values.
      */
     @Override
     public void streamIndicators(StreamRequest request, StreamObserver<IndicatorResponse> responseObserver) {
         try {
-            log.debug("gRPC streamIndicators: symbol={}, interval={}, indicators={}", 
-                    request.getSymbol(), request.getInterval(), request.getIndicatorsList());
+            log.debug("gRPC streamIndicators: symbol={}, interval={}, indicators={}, includeUpdates={}", 
+                    request.getSymbol(), request.getInterval(), request.getIndicatorsList(), 
+                    request.getIncludeUpdates());
             
-            // For now, calculate once for each requested indicator type
-            // In production, this would be a continuous stream
-            for (IndicatorType indicatorType : request.getIndicatorsList()) {
+            if (request.getSymbol().isEmpty() || request.getInterval().isEmpty() 
+                    || request.getIndicatorsCount() == 0) {
+                responseObserver.onNext(IndicatorResponses.error(
+                        "Invalid request: symbol, interval and indicators are required", IndicatorType.RSI));
+                responseObserver.onCompleted();
+                return;
+            }
+            
+            ServerCallStreamObserver<IndicatorResponse> serverObserver = 
+                    (ServerCallStreamObserver<IndicatorResponse>) responseObserver;
+            StreamSink sink = new StreamSink(serverObserver);
+            IndicatorStreamHub.Subscription subscription = streamHub.subscribe(
+                    request.getSymbol(), request.getInterval(), request.getIndicatorsList(),
+                    request.getIncludeUpdates(), sink);
+            
+            serverObserver.setOnCancelHandler(() -> {
+                sink.close();
+                streamHub.unsubscribe(subscription);
+            });
+            
+        } catch (Exception e) {
+            log.error("Failed to stream indicators", e);
+            responseObserver.onError(io.grpc.Status.INTERNAL
+                    .withDescription("Stream error: " + e.getMessage())
+                    .asRuntimeException());
+        }
+    }
+    
+    /**
+     * Bidirectional indicator subscriptions over one long-lived stream
+     * 
+     * The client sends ADD/REMOVE commands; results of all subscribed series are
+     * multiplexed back through a single flow-controlled, conflating sink.
+     * Half-closing the request stream ends all subscriptions and completes the call.
+     */
+    @Override
+    public StreamObserver<SubscriptionCommand> subscribeIndicators(StreamObserver<IndicatorResponse> responseObserver) {
+        ServerCallStreamObserver<IndicatorResponse> serverObserver = 
+                (ServerCallStreamObserver<IndicatorResponse>) responseObserver;
+        StreamSink sink = new StreamSink(serverObserver);
+        Map<String, IndicatorStreamHub.Subscription> subscriptions = new ConcurrentHashMap<>();
+        
+        Runnable unsubscribeAll = () -> {
+            for (IndicatorStreamHub.Subscription subscription : subscriptions.values()) {
+                streamHub.unsubscribe(subscription);
+            }
+            subscriptions.clear();
+        };
+        serverObserver.setOnCancelHandler(() -> {
+            sink.close();
+            unsubscribeAll.run();
+        });
+        
+        return new StreamObserver<SubscriptionCommand>() {
+            @Override
+            public void onNext(SubscriptionCommand command) {
+                String seriesKey = command.getSymbol() + ":" + command.getInterval();
                 try {
-                    IndicatorResult result = null;
+                    if (command.getSymbol().isEmpty() || command.getInterval().isEmpty()) {
+                        sink.offer("error:" + seriesKey, IndicatorResponses.error(
+                                "Invalid command: symbol and interval are required", IndicatorType.RSI));
+                        return;
+                    }
+                    
+                    IndicatorStreamHub.Subscription previous = subscriptions.remove(seriesKey);
+                    if (previous != null) {
+                        streamHub.unsubscribe(previous);
+                        sink.discard(seriesKey + ":");
+                    }
                     
-                    switch (indicatorType) {
-                        case RSI:
-                            result = calculationEngine.calculateRSI(
-                                    request.getSymbol(), request.getInterval(), 14, 100);
-                            responseObserver.onNext(buildRSIResponse(
-                                    BaseRequest.newBuilder()
-                                            .setSymbol(request.getSymbol())
-                                            .setInterval(request.getInterval())
-                                            .setLimit(100)
-                                            .build(),
-                                    result));
-                            break;
-                            
-                        case BOLL:
-                            result = calculationEngine.calculateBOLL(
-                                    request.getSymbol(), request.getInterval(), 20, 2.0, 100);
-                            responseObserver.onNext(buildBOLLResponse(
-                                    BaseRequest.newBuilder()
-                                            .setSymbol(request.getSymbol())
-                                            .setInterval(request.getInterval())
-                                            .setLimit(100)
-                                            .build(),
-                                    result));
-                            break;
-                            
-                        case MACD:
-                            result = calculationEngine.calculateMACD(
-                                    request.getSymbol(), request.getInterval(), 12, 26, 9, 100);
-                            responseObserver.onNext(buildMACDResponse(
-                                    BaseRequest.newBuilder()
-                                            .setSymbol(request.getSymbol())
-                                            .setInterval(request.getInterval())
-                                            .setLimit(100)
-                                            .build(),
-                                    result));
-                            break;
-                            
-                        case PINBAR:
-                            result = calculationEngine.calculatePinbar(
-                                    request.getSymbol(), request.getInterval(), 0.2, 0.6, 10);
-                            responseObserver.onNext(buildPinbarResponse(
-                                    BaseRequest.newBuilder()
-                                            .setSymbol(request.getSymbol())
-                                            .setInterval(request.getInterval())
-                                            .setLimit(10)
-                                            .build(),
-                                    result));
-                            break;
-                            
-                        default:
-                            log.warn("Unknown indicator type: {}", indicatorType);
+                    if (command.getAction() == SubscriptionCommand.Action.ADD) {
+                        if (command.getIndicatorsCount() == 0) {
+                            sink.offer("error:" + seriesKey, IndicatorResponses.error(
+                                    "Invalid command: indicators are required", IndicatorType.RSI));
+                            return;
+                        }
+                        if (subscriptions.size() >= maxSubscriptionsPerCall) {
+                            sink.offer("error:" + seriesKey, IndicatorResponses.error(
+                                    "Subscription limit reached: " + maxSubscriptionsPerCall, 
+                                    command.getIndicators(0)));
+                            return;
+                        }
+                        subscriptions.put(seriesKey, streamHub.subscribe(
+                                command.getSymbol(), command.getInterval(), command.getIndicatorsList(),
+                                command.getIncludeUpdates(), sink));
                     }
                     
+                    log.debug("gRPC subscribeIndicators: action={}, series={}, active={}", 
+                            command.getAction(), seriesKey, subscriptions.size());
+                    
                 } catch (Exception e) {
-                    log.error("Failed to calculate indicator: {}", indicatorType, e);
-                    responseObserver.onNext(buildErrorResponse(
-                            "Failed: " + e.getMessage(), indicatorType));
+                    log.error("Failed to apply subscription command for {}", seriesKey, e);
+                    sink.offer("error:" + seriesKey, IndicatorResponses.error(
+                            "Failed: " + e.getMessage(), IndicatorType.RSI));
+                }
+            }
+            
+            @Override
+            public void onError(Throwable t) {
+                log.debug("subscribeIndicators stream error: {}", t.getMessage());
+                sink.close();
+                unsubscribeAll.run();
+            }
+            
+            @Override
+            public void onCompleted() {
+                unsubscribeAll.run();
+                sink.complete();
+            }
+        };
+    }
+    
+    /**
+     * Calculate several indicators for one symbol/interval
+     * The candles are fetched once and all indicators are computed in a single pass.
+     */
+    @Override
+    public void calculateMulti(MultiIndicatorRequest request, StreamObserver<MultiIndicatorResponse> responseObserver) {
+        try {
+            log.debug("gRPC calculateMulti: symbol={}, interval={}, queries={}", 
+                    request.getBase().getSymbol(), request.getBase().getInterval(), request.getQueriesCount());
+            
+            if (!request.hasBase() || request.getBase().getSymbol().isEmpty()) {
+                responseObserver.onNext(MultiIndicatorResponse.newBuilder()
+                        .setSuccess(false)
+                        .setErrorMessage("Invalid request: symbol is required")
+                        .build());
+                responseObserver.onCompleted();
+                return;
+            }
+            
+            for (IndicatorQuery query : request.getQueriesList()) {
+                if (!isSupported(query.getType())) {
+                    responseObserver.onNext(MultiIndicatorResponse.newBuilder()
+                            .setSuccess(false)
+                            .setErrorMessage("Invalid request: unsupported indicator type " + query.getType())
+                            .build());
+                    responseObserver.onCompleted();
+                    return;
                 }
             }
             
+            List<IndicatorSpec> specs = new ArrayList<>(request.getQueriesCount());
+            for (IndicatorQuery query : request.getQueriesList()) {
+                specs.add(toIndicatorSpec(query));
+            }
+            
+            List<IndicatorResult> results = calculationEngine.calculateMulti(
+                    request.getBase().getSymbol(),
+                    request.getBase().getInterval(),
+                    request.getBase().getLimit(),
+                    specs
+            );
+            
+            MultiIndicatorResponse.Builder builder = MultiIndicatorResponse.newBuilder()
+                    .setSuccess(true)
+                    .setSymbol(request.getBase().getSymbol())
+                    .setInterval(request.getBase().getInterval());
+            
+            for (int i = 0; i < results.size(); i++) {
+                IndicatorResponse response = IndicatorResponses.of(
+                        request.getQueries(i).getType(), request.getBase(), results.get(i));
+                builder.addResults(response);
+                if (!response.getSuccess()) {
+                    builder.setSuccess(false);
+                }
+            }
+            
+            responseObserver.onNext(builder.build());
             responseObserver.onCompleted();
             
         } catch (Exception e) {
-            log.error("Failed to stream indicators", e);
+            log.error("Failed to calculate multi indicators", e);
             responseObserver.onError(io.grpc.Status.INTERNAL
-                    .withDescription("Stream error: " + e.getMessage())
+                    .withDescription("Internal error: " + e.getMessage())
                     .asRuntimeException());
         }
     }
     
-    // ==================== Response Builders ====================
+    /**
+     * Calculate the full time series of one indicator
+     * Values are returned column-wise as packed repeated doubles.
+     */
+    @Override
+    public void calculateSeries(SeriesRequest request, StreamObserver<SeriesResponse> responseObserver) {
+        try {
+            log.debug("gRPC calculateSeries: symbol={}, interval={}, type={}, start={}, end={}", 
+                    request.getBase().getSymbol(), request.getBase().getInterval(), 
+                    request.getQuery().getType(), request.getStartTime(), request.getEndTime());
+            
+            if (!request.hasBase() || request.getBase().getSymbol().isEmpty()) {
+                responseObserver.onNext(SeriesResponse.newBuilder()
+                        .setSuccess(false)
+                        .setErrorMessage("Invalid request: symbol is required")
+                        .setIndicatorTypeValue(request.getQuery().getTypeValue())
+                        .build());
+                responseObserver.onCompleted();
+                return;
+            }
+            
+            if (!isSupported(request.getQuery().getType())) {
+                responseObserver.onNext(SeriesResponse.newBuilder()
+                        .setSuccess(false)
+                        .setErrorMessage("Invalid request: unsupported indicator type " + request.getQuery().getType())
+                        .setIndicatorTypeValue(request.getQuery().getTypeValue())
+                        .build());
+                responseObserver.onCompleted();
+                return;
+            }
+            
+            IndicatorSeries series = calculationEngine.calculateSeries(
+                    toIndicatorSpec(request.getQuery()),
+                    request.getBase().getSymbol(),
+                    request.getBase().getInterval(),
+                    request.getBase().getLimit(),
+                    request.getStartTime() > 0 ? Instant.ofEpochMilli(request.getStartTime()) : null,
+                    request.getEndTime() > 0 ? Instant.ofEpochMilli(request.getEndTime()) : null
+            );
+            
+            responseObserver.onNext(buildSeriesResponse(request, series));
+            responseObserver.onCompleted();
+            
+        } catch (Exception e) {
+            log.error("Failed to calculate series", e);
+            responseObserver.onError(io.grpc.Status.INTERNAL
+                    .withDescription("Internal error: " + e.getMessage())
+                    .asRuntimeException());
+        }
+    }
     
-    private IndicatorResponse buildRSIResponse(BaseRequest base, IndicatorResult result) {
-        IndicatorResponse.Builder builder = IndicatorResponse.newBuilder()
-                .setSuccess(result.getValue() != null)
-                .setSymbol(base.getSymbol())
-                .setIndicatorType(IndicatorType.RSI)
-                .setInterval(base.getInterval())
-                .setTimestamp(Instant.now().toEpochMilli())
-                .setDataPoints(result.getDataPoints() != null ? result.getDataPoints() : 0)
-                .setFromCache(false); // TODO: Get from result
-        
-        if (result.getValue() != null) {
-            builder.setRsiValue(result.getValue());
-        } else {
-            builder.setErrorMessage("Calculation failed");
+    /**
+     * Calculate a mixed batch and return all results in one compact message
+     * Queries of the same symbol/interval/limit are grouped and fused into one
+     * calculateMulti call; groups run concurrently on the batch executor.
+     */
+    @Override
+    public void calculatePacked(PackedBatchRequest request, StreamObserver<PackedBatchResponse> responseObserver) {
+        try {
+            log.debug("gRPC calculatePacked: {} queries", request.getQueriesCount());
+            
+            Map<String, Integer> symbolIds = new LinkedHashMap<>();
+            Map<String, Integer> intervalIds = new LinkedHashMap<>();
+            Map<List<Object>, List<Integer>> groups = new LinkedHashMap<>();
+            IndicatorResultV2[] results = new IndicatorResultV2[request.getQueriesCount()];
+            
+            for (int i = 0; i < request.getQueriesCount(); i++) {
+                PackedQuery query = request.getQueries(i);
+                BaseRequest base = query.getBase();
+                int symbolId = symbolIds.computeIfAbsent(base.getSymbol(), k -> symbolIds.size());
+                int intervalId = intervalIds.computeIfAbsent(base.getInterval(), k -> intervalIds.size());
+                
+                if (base.getSymbol().isEmpty()) {
+                    results[i] = IndicatorResponses.v2Error("Invalid request: symbol is required")
+                            .setSymbolId(symbolId).setIntervalId(intervalId).build();
+                } else if (!isSupported(query.getQuery().getType())) {
+                    results[i] = IndicatorResponses.v2Error("Unsupported indicator type: " + query.getQuery().getType())
+                            .setSymbolId(symbolId).setIntervalId(intervalId).build();
+                } else {
+                    groups.computeIfAbsent(Arrays.<Object>asList(base.getSymbol(), base.getInterval(), base.getLimit()),
+                            k -> new ArrayList<>()).add(i);
+                }
+            }
+            
+            List<List<Integer>> groupIndices = new ArrayList<>(groups.values());
+            List<List<IndicatorResultV2.Builder>> groupResults = batchExecutor.invokeAll(
+                    groupIndices,
+                    indices -> calculatePackedGroup(request, indices),
+                    (indices, message) -> Collections.nCopies(indices.size(), IndicatorResponses.v2Error(message)));
+            
+            for (int g = 0; g < groupIndices.size(); g++) {
+                List<Integer> indices = groupIndices.get(g);
+                for (int j = 0; j < indices.size(); j++) {
+                    int index = indices.get(j);
+                    BaseRequest base = request.getQueries(index).getBase();
+                    results[index] = groupResults.get(g).get(j).clone()
+                            .setSymbolId(symbolIds.get(base.getSymbol()))
+                            .setIntervalId(intervalIds.get(base.getInterval()))
+                            .build();
+                }
+            }
+            
+            PackedBatchResponse.Builder builder = PackedBatchResponse.newBuilder()
+                    .setSuccess(true)
+                    .addAllSymbols(symbolIds.keySet())
+                    .addAllIntervals(intervalIds.keySet())
+                    .setTimestamp(Instant.now().toEpochMilli());
+            for (IndicatorResultV2 result : results) {
+                builder.addResults(result);
+                if (result.getValueCase() == IndicatorResultV2.ValueCase.VALUE_NOT_SET) {
+                    builder.setSuccess(false);
+                }
+            }
+            
+            responseObserver.onNext(builder.build());
+            responseObserver.onCompleted();
+            
+        } catch (Exception e) {
+            log.error("Failed to calculate packed batch", e);
+            responseObserver.onError(io.grpc.Status.INTERNAL
+                    .withDescription("Internal error: " + e.getMessage())
+                    .asRuntimeException());
         }
-        
-        return builder.build();
     }
     
-    private IndicatorResponse buildBOLLResponse(BaseRequest base, IndicatorResult result) {
-        IndicatorResponse.Builder builder = IndicatorResponse.newBuilder()
-                .setSuccess(result.getValue() != null)
-                .setSymbol(base.getSymbol())
-                .setIndicatorType(IndicatorType.BOLL)
-                .setInterval(base.getInterval())
-                .setTimestamp(Instant.now().toEpochMilli())
-                .setDataPoints(result.getDataPoints() != null ? result.getDataPoints() : 0)
-                .setFromCache(false);
-        
-        if (result.getValue() != null && result.getValues() != null) {
-            builder.setBollUpper(result.getValues().getOrDefault("upper", 0.0));
-            builder.setBollMiddle(result.getValue());
-            builder.setBollLower(result.getValues().getOrDefault("lower", 0.0));
-        } else {
-            builder.setErrorMessage("Calculation failed");
+    /**
+     * Evaluate one indicator predicate over every subscribed symbol/interval
+     * Series are computed in parallel from in-memory candles; only matches are streamed back,
+     * in the order they are found, through a flow-controlled sink. The scan runs on the
+     * screener's own pool, so the gRPC executor thread is released immediately.
+     */
+    @Override
+    public void screen(ScreenRequest request, StreamObserver<IndicatorResponse> responseObserver) {
+        IndicatorType type = request.getQuery().getType();
+        try {
+            log.debug("gRPC screen: type={}, field={}, operator={}, threshold={}, symbols={}, intervals={}", 
+                    type, request.getField(), request.getOperator(), request.getThreshold(),
+                    request.getSymbolsCount(), request.getIntervalsCount());
+            
+            if (!isSupported(type) || request.getOperator() == ScreenOperator.UNRECOGNIZED) {
+                responseObserver.onNext(IndicatorResponses.error(
+                        "Invalid request: unsupported indicator type or operator", type));
+                responseObserver.onCompleted();
+                return;
+            }
+            
+            IndicatorScreener.Query query = new IndicatorScreener.Query(
+                    toIndicatorSpec(request.getQuery()),
+                    request.getField(),
+                    IndicatorScreener.Operator.valueOf(request.getOperator().name()),
+                    request.getThreshold(),
+                    request.getSymbolsList(),
+                    request.getIntervalsList(),
+                    request.getIncludeUpdates());
+            
+            // Matches arrive on screener worker threads; the sink serializes them and
+            // honours transport flow control, and the handler returns without waiting
+            ServerCallStreamObserver<IndicatorResponse> serverObserver = 
+                    (ServerCallStreamObserver<IndicatorResponse>) responseObserver;
+            StreamSink sink = new StreamSink(serverObserver);
+            CompletableFuture<IndicatorScreener.Summary> scan = screener.screenAsync(query, match -> {
+                BaseRequest base = BaseRequest.newBuilder()
+                        .setSymbol(match.getSymbol())
+                        .setInterval(match.getInterval())
+                        .build();
+                sink.offer(match.getSymbol() + ":" + match.getInterval(),
+                        IndicatorResponses.of(type, base, match.getResult()));
+            });
+            serverObserver.setOnCancelHandler(() -> {
+                sink.close();
+                scan.cancel(false);
+            });
+            
+            scan.whenComplete((summary, error) -> {
+                if (error == null) {
+                    log.debug("gRPC screen finished: {}", summary);
+                    sink.complete();
+                } else if (error instanceof TimeoutException) {
+                    log.warn("Screener scan for {} timed out", type);
+                    sink.fail(io.grpc.Status.DEADLINE_EXCEEDED
+                            .withDescription("Screener scan timed out")
+                            .asRuntimeException());
+                } else if (!(error instanceof CancellationException)) {
+                    log.error("Failed to run screener", error);
+                    sink.fail(io.grpc.Status.INTERNAL
+                            .withDescription("Internal error: " + error.getMessage())
+                            .asRuntimeException());
+                }
+            });
+            
+        } catch (Exception e) {
+            log.error("Failed to run screener", e);
+            responseObserver.onError(io.grpc.Status.INTERNAL
+                    .withDescription("Internal error: " + e.getMessage())
+                    .asRuntimeException());
         }
-        
-        return builder.build();
     }
     
-    private IndicatorResponse buildMACDResponse(BaseRequest base, IndicatorResult result) {
-        IndicatorResponse.Builder builder = IndicatorResponse.newBuilder()
-                .setSuccess(result.getValue() != null)
-                .setSymbol(base.getSymbol())
-                .setIndicatorType(IndicatorType.MACD)
-                .setInterval(base.getInterval())
-                .setTimestamp(Instant.now().toEpochMilli())
-                .setDataPoints(result.getDataPoints() != null ? result.getDataPoints() : 0)
-                .setFromCache(false);
-        
-        if (result.getValue() != null && result.getValues() != null) {
-            builder.setMacdLine(result.getValue());
-            builder.setMacdSignal(result.getValues().getOrDefault("signal", 0.0));
-            builder.setMacdHistogram(result.getValues().getOrDefault("histogram", 0.0));
-        } else {
-            builder.setErrorMessage("Calculation failed");
+    private List<IndicatorResultV2.Builder> calculatePackedGroup(PackedBatchRequest request, List<Integer> indices) {
+        BaseRequest base = request.getQueries(indices.get(0)).getBase();
+        List<IndicatorSpec> specs = new ArrayList<>(indices.size());
+        for (int index : indices) {
+            specs.add(toIndicatorSpec(request.getQueries(index).getQuery()));
         }
         
-        return builder.build();
+        List<IndicatorResult> results = calculationEngine.calculateMulti(
+                base.getSymbol(), base.getInterval(), base.getLimit(), specs);
+        
+        List<IndicatorResultV2.Builder> builders = new ArrayList<>(indices.size());
+        for (int j = 0; j < indices.size(); j++) {
+            IndicatorType type = request.getQueries(indices.get(j)).getQuery().getType();
+            builders.add(IndicatorResponses.v2(type, results.get(j)));
+        }
+        return builders;
+    }
+    
+    private static boolean isSupported(IndicatorType type) {
+        return type == IndicatorType.RSI || type == IndicatorType.BOLL
+                || type == IndicatorType.MACD || type == IndicatorType.PINBAR;
     }
     
-    private IndicatorResponse buildPinbarResponse(BaseRequest base, IndicatorResult result) {
-        IndicatorResponse.Builder builder = IndicatorResponse.newBuilder()
-                .setSuccess(result.getValue() != null)
-                .setSymbol(base.getSymbol())
-                .setIndicatorType(IndicatorType.PINBAR)
-                .setInterval(base.getInterval())
-                .setTimestamp(Instant.now().toEpochMilli())
-                .setDataPoints(result.getDataPoints() != null ? result.getDataPoints() : 0)
-                .setFromCache(false);
+    private IndicatorSpec toIndicatorSpec(IndicatorQuery query) {
+        switch (query.getType()) {
+            case RSI:
+                return IndicatorSpec.rsi(query.getPeriod());
+            case BOLL:
+                return IndicatorSpec.boll(query.getPeriod(), query.getStdDev());
+            case MACD:
+                return IndicatorSpec.macd(query.getFastPeriod(), query.getSlowPeriod(), query.getSignalPeriod());
+            case PINBAR:
+                return IndicatorSpec.pinbar(query.getBodyRatioThreshold(), query.getWickRatioThreshold());
+            default:
+                throw new IllegalArgumentException("Unsupported indicator type: " + query.getType());
+        }
+    }
+    
+    // ==================== Response Builders ====================
+    
+    private SeriesResponse buildSeriesResponse(SeriesRequest request, IndicatorSeries series) {
+        SeriesResponse.Builder builder = SeriesResponse.newBuilder()
+                .setSuccess(series.isSuccess())
+                .setSymbol(request.getBase().getSymbol())
+                .setInterval(request.getBase().getInterval())
+                .setIndicatorType(request.getQuery().getType())
+                .setDataPoints(series.getDataPoints() != null ? series.getDataPoints() : 0);
         
-        if (result.getValue() != null && result.getValues() != null) {
-            builder.setIsPinbar(result.getValue() == 1.0);
-            builder.setIsBullish(result.getValues().getOrDefault("is_bullish", 0.0) == 1.0);
-            builder.setBodyRatio(result.getValues().getOrDefault("body_ratio", 0.0));
-            builder.setUpperWickRatio(result.getValues().getOrDefault("upper_wick_ratio", 0.0));
-            builder.setLowerWickRatio(result.getValues().getOrDefault("lower_wick_ratio", 0.0));
-        } else {
-            builder.setErrorMessage("Calculation failed");
+        if (!series.isSuccess()) {
+            return builder.setErrorMessage(series.getErrorMessage()).build();
+        }
+        
+        for (long timestamp : series.getTimestamps()) {
+            builder.addTimestamps(timestamp);
+        }
+        for (Map.Entry<String, double[]> entry : series.getComponents().entrySet()) {
+            SeriesComponent.Builder component = SeriesComponent.newBuilder().setName(entry.getKey());
+            for (double value : entry.getValue()) {
+                component.addValues(value);
+            }
+            builder.addComponents(component);
         }
         
         return builder.build();
     }
-    
-    private IndicatorResponse buildErrorResponse(String errorMessage, IndicatorType type) {
-        return IndicatorResponse.newBuilder()
-                .setSuccess(false)
-                .setErrorMessage(errorMessage)
-                .setIndicatorType(type)
-                .setTimestamp(Instant.now().toEpochMilli())
-                .setDataPoints(0)
-                .setFromCache(false)
-                .build();
-    }
 }
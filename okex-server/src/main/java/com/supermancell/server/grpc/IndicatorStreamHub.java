@@ -0,0 +1,328 @@
+package com.supermancell.server.grpc;
+
+import com.okex.common.proto.IndicatorServiceProto.BaseRequest;
+import com.okex.common.proto.IndicatorServiceProto.IndicatorResponse;
+import com.okex.common.proto.IndicatorServiceProto.IndicatorType;
+import com.supermancell.common.model.Candle;
+import com.supermancell.common.model.IndicatorResult;
+import com.supermancell.server.cache.RecentCandleStore;
+import com.supermancell.server.repository.CandleRepository;
+import com.supermancell.server.service.CalculationEngine;
+import com.supermancell.server.service.IndicatorSpec;
+import com.supermancell.server.service.LatencyStage;
+import com.supermancell.server.service.SystemMetricsService;
+import com.supermancell.server.websocket.CandleEventDispatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Live indicator fan-out for streaming RPCs.
+ * 
+ * Flow:
+ * WebSocket candle → CandleEventDispatcher → IndicatorStreamHub.onCandle()
+ * → [stream thread] one calculation per series for the union of subscribed indicators
+ * → StreamSink of every subscriber (flow control + conflation)
+ * 
+ * Key features:
+ * - Computation is shared by all subscribers of the same (symbol, interval)
+ * - Confirmed candles are always published; in-progress updates only reach subscribers
+ *   that asked for them, and consecutive updates of a series are coalesced
+ * - The candle window comes from RecentCandleStore, seeded from the repository on first use
+ * - Indicators use the calculators' configured default parameters
+ * - Receive → publish latency of live candles is recorded as LatencyStage.RECEIVE_TO_STREAM
+ */
+@Component
+public class IndicatorStreamHub {
+
+    private static final Logger log = LoggerFactory.getLogger(IndicatorStreamHub.class);
+
+    private final CalculationEngine calculationEngine;
+    private final CandleRepository candleRepository;
+    private final RecentCandleStore recentCandleStore;
+    private final CandleEventDispatcher candleEventDispatcher;
+    private final SystemMetricsService metricsService;
+    private final Map<String, SeriesSubscriptions> series = new ConcurrentHashMap<>();
+    private final CandleEventDispatcher.CandleListener listener = this::onCandle;
+    private final ExecutorService executor;
+
+    @Value("${indicator.stream.window-size:300}")
+    private int windowSize = 300;
+
+    public IndicatorStreamHub(CalculationEngine calculationEngine,
+                              CandleRepository candleRepository,
+                              RecentCandleStore recentCandleStore,
+                              CandleEventDispatcher candleEventDispatcher,
+                              SystemMetricsService metricsService) {
+        this.calculationEngine = calculationEngine;
+        this.candleRepository = candleRepository;
+        this.recentCandleStore = recentCandleStore;
+        this.candleEventDispatcher = candleEventDispatcher;
+        this.metricsService = metricsService;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "indicator-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void init() {
+        candleEventDispatcher.addListener(listener);
+        log.info("IndicatorStreamHub initialized with window size: {}", windowSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        candleEventDispatcher.removeListener(listener);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Subscribe a sink to live indicators of one series.
+     * The current values are published to the new subscriber right away.
+     */
+    public Subscription subscribe(String symbol, String interval, Collection<IndicatorType> types,
+                                  boolean includeUpdates, StreamSink sink) {
+        Subscription subscription = new Subscription(symbol, interval, types, includeUpdates, sink);
+        series.compute(seriesKey(symbol, interval), (key, existing) -> {
+            SeriesSubscriptions subscriptions = existing != null ? existing : new SeriesSubscriptions(symbol, interval);
+            subscriptions.subscribers.add(subscription);
+            return subscriptions;
+        });
+
+        // Seed the live window with history so the first values are meaningful
+        if (recentCandleStore.size(symbol, interval) < windowSize) {
+            // Note: This call is intercepted by CandleDataIntegrityAspect
+            recentCandleStore.seed(symbol, interval, candleRepository.findCandles(symbol, interval, windowSize));
+        }
+
+        List<Candle> window = recentCandleStore.getRecent(symbol, interval, windowSize);
+        if (!window.isEmpty()) {
+            executor.execute(() -> publish(symbol, interval, Collections.singletonList(subscription), window, 0L));
+        }
+
+        log.info("Stream subscribed: {}:{} types={} includeUpdates={}", symbol, interval, types, includeUpdates);
+        return subscription;
+    }
+
+    public void unsubscribe(Subscription subscription) {
+        series.computeIfPresent(seriesKey(subscription.symbol, subscription.interval), (key, existing) -> {
+            existing.subscribers.remove(subscription);
+            return existing.subscribers.isEmpty() ? null : existing;
+        });
+        log.info("Stream unsubscribed: {}:{}", subscription.symbol, subscription.interval);
+    }
+
+    /**
+     * @return Number of series with at least one subscriber
+     */
+    public int getActiveSeriesCount() {
+        return series.size();
+    }
+
+    /**
+     * Called on the WebSocket thread for every ingested candle
+     */
+    void onCandle(Candle candle) {
+        SeriesSubscriptions subscriptions = series.get(seriesKey(candle.getSymbol(), candle.getInterval()));
+        if (subscriptions == null) {
+            return;
+        }
+
+        boolean confirmed = CandleEventDispatcher.isConfirmed(candle);
+        if (!confirmed && !subscriptions.hasUpdateSubscribers()) {
+            return;
+        }
+
+        // Snapshot the window now so later candles do not leak into this event
+        List<Candle> window = windowUpTo(
+                recentCandleStore.getRecent(candle.getSymbol(), candle.getInterval(), windowSize), candle);
+        if (window.isEmpty()) {
+            return;
+        }
+
+        if (confirmed) {
+            executor.execute(() -> publish(subscriptions.symbol, subscriptions.interval,
+                    subscriptions.subscribers, window, candle.getReceivedNanos()));
+        } else if (subscriptions.pendingUpdate.getAndSet(window) == null) {
+            executor.execute(() -> {
+                List<Candle> latest = subscriptions.pendingUpdate.getAndSet(null);
+                if (latest != null) {
+                    publish(subscriptions.symbol, subscriptions.interval,
+                            subscriptions.updateSubscribers(), latest,
+                            latest.get(latest.size() - 1).getReceivedNanos());
+                }
+            });
+        }
+    }
+
+    /**
+     * Calculate the union of requested indicators once and hand each subscriber its share
+     * 
+     * @param receivedNanos Receive stamp of the triggering candle, 0 for the initial snapshot
+     */
+    private void publish(String symbol, String interval, List<Subscription> recipients, List<Candle> window,
+                         long receivedNanos) {
+        if (recipients.isEmpty()) {
+            return;
+        }
+        try {
+            Set<IndicatorType> types = EnumSet.noneOf(IndicatorType.class);
+            for (Subscription subscription : recipients) {
+                types.addAll(subscription.types);
+            }
+
+            List<IndicatorType> orderedTypes = new ArrayList<>(types);
+            List<IndicatorSpec> specs = new ArrayList<>(orderedTypes.size());
+            for (IndicatorType type : orderedTypes) {
+                specs.add(defaultSpec(type));
+            }
+            List<IndicatorResult> results = calculationEngine.calculateOnCandles(window, specs);
+
+            BaseRequest base = BaseRequest.newBuilder()
+                    .setSymbol(symbol)
+                    .setInterval(interval)
+                    .setLimit(window.size())
+                    .build();
+            long candleTimestamp = window.get(window.size() - 1).getTimestamp().toEpochMilli();
+
+            Map<IndicatorType, IndicatorResponse> responses = new EnumMap<>(IndicatorType.class);
+            for (int i = 0; i < orderedTypes.size(); i++) {
+                responses.put(orderedTypes.get(i), IndicatorResponses.of(orderedTypes.get(i), base, results.get(i))
+                        .toBuilder()
+                        .setTimestamp(candleTimestamp)
+                        .build());
+            }
+
+            for (Subscription subscription : recipients) {
+                for (IndicatorType type : subscription.types) {
+                    subscription.sink.offer(conflationKey(symbol, interval, type), responses.get(type));
+                }
+            }
+            metricsService.recordLatencySince(LatencyStage.RECEIVE_TO_STREAM, receivedNanos);
+        } catch (Exception e) {
+            log.error("Failed to publish stream indicators for {}:{}", symbol, interval, e);
+        }
+    }
+
+    private static List<Candle> windowUpTo(List<Candle> window, Candle candle) {
+        int end = window.size();
+        while (end > 0 && window.get(end - 1).getTimestamp().isAfter(candle.getTimestamp())) {
+            end--;
+        }
+        return end == window.size() ? window : new ArrayList<>(window.subList(0, end));
+    }
+
+    private static IndicatorSpec defaultSpec(IndicatorType type) {
+        switch (type) {
+            case RSI:
+                return IndicatorSpec.rsi(0);
+            case BOLL:
+                return IndicatorSpec.boll(0, 0);
+            case MACD:
+                return IndicatorSpec.macd(0, 0, 0);
+            case PINBAR:
+                return IndicatorSpec.pinbar(0, 0);
+            default:
+                throw new IllegalArgumentException("Unsupported indicator type: " + type);
+        }
+    }
+
+    static String conflationKey(String symbol, String interval, IndicatorType type) {
+        return symbol + ":" + interval + ":" + type.name();
+    }
+
+    private static String seriesKey(String symbol, String interval) {
+        return symbol + ":" + interval;
+    }
+
+    /**
+     * One subscriber's interest in one series
+     */
+    public static final class Subscription {
+        private final String symbol;
+        private final String interval;
+        private final Set<IndicatorType> types;
+        private final boolean includeUpdates;
+        private final StreamSink sink;
+
+        Subscription(String symbol, String interval, Collection<IndicatorType> types,
+                     boolean includeUpdates, StreamSink sink) {
+            this.symbol = symbol;
+            this.interval = interval;
+            this.types = types.isEmpty() ? EnumSet.noneOf(IndicatorType.class) : EnumSet.copyOf(types);
+            this.types.remove(IndicatorType.UNRECOGNIZED);
+            this.includeUpdates = includeUpdates;
+            this.sink = sink;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        public String getInterval() {
+            return interval;
+        }
+    }
+
+    /**
+     * All subscribers of one series plus the coalesced in-progress update
+     */
+    private static class SeriesSubscriptions {
+        private final String symbol;
+        private final String interval;
+        private final List<Subscription> subscribers = new CopyOnWriteArrayList<>();
+        private final AtomicReference<List<Candle>> pendingUpdate = new AtomicReference<>();
+
+        SeriesSubscriptions(String symbol, String interval) {
+            this.symbol = symbol;
+            this.interval = interval;
+        }
+
+        boolean hasUpdateSubscribers() {
+            for (Subscription subscription : subscribers) {
+                if (subscription.includeUpdates) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        List<Subscription> updateSubscribers() {
+            List<Subscription> result = new ArrayList<>();
+            for (Subscription subscription : subscribers) {
+                if (subscription.includeUpdates) {
+                    result.add(subscription);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.supermancell.server.grpc;
+
+import io.grpc.Metadata;
+import io.grpc.ServerStreamTracer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long each incoming call waits for a server executor thread.
+ * 
+ * The tracer is created on the transport thread when the stream arrives, and
+ * {@code serverCallStarted} runs once the call has been dispatched to the executor,
+ * so the difference is the executor queue wait. It is exported per method as the
+ * {@code grpc.server.queue.wait} timer; a rising value means the executor is
+ * saturated before calls start timing out.
+ */
+public class QueueWaitStreamTracer extends ServerStreamTracer {
+
+    public static final String METRIC_NAME = "grpc.server.queue.wait";
+
+    private final Factory factory;
+    private final String fullMethodName;
+    private final long createdNanos = System.nanoTime();
+
+    private QueueWaitStreamTracer(Factory factory, String fullMethodName) {
+        this.factory = factory;
+        this.fullMethodName = fullMethodName;
+    }
+
+    @Override
+    public void serverCallStarted(ServerCallInfo<?, ?> callInfo) {
+        factory.timer(fullMethodName).record(System.nanoTime() - createdNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Factory registered on the server builder; caches one timer per method
+     */
+    public static class Factory extends ServerStreamTracer.Factory {
+
+        private final MeterRegistry meterRegistry;
+        private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+        public Factory(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        public ServerStreamTracer newServerStreamTracer(String fullMethodName, Metadata headers) {
+            return new QueueWaitStreamTracer(this, fullMethodName);
+        }
+
+        Timer timer(String fullMethodName) {
+            return timers.computeIfAbsent(fullMethodName, method -> Timer.builder(METRIC_NAME)
+                    .description("Time a gRPC call waits for a server executor thread")
+                    .tag("method", method)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.supermancell.server.grpc;
+
+import com.okex.common.proto.IndicatorServiceGrpc;
+import com.supermancell.server.service.LatencyStage;
+import com.supermancell.server.service.LatencyTracker;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerStreamTracer;
+import io.grpc.Status;
+
+/**
+ * Records request → response latency of unary IndicatorService calls.
+ * 
+ * Measured from stream creation on the transport thread (request headers received,
+ * so executor queue wait is included) until the stream is closed. Streaming calls
+ * are skipped: their duration is the subscription lifetime, not a latency.
+ */
+public class RequestLatencyStreamTracer extends ServerStreamTracer {
+
+    private static final ServerStreamTracer NOOP = new ServerStreamTracer() {
+    };
+
+    private final LatencyTracker latencyTracker;
+    private final long createdNanos = System.nanoTime();
+    private volatile boolean unary;
+
+    private RequestLatencyStreamTracer(LatencyTracker latencyTracker) {
+        this.latencyTracker = latencyTracker;
+    }
+
+    @Override
+    public void serverCallStarted(ServerCallInfo<?, ?> callInfo) {
+        unary = callInfo.getMethodDescriptor().getType() == MethodDescriptor.MethodType.UNARY;
+    }
+
+    @Override
+    public void streamClosed(Status status) {
+        if (unary) {
+            latencyTracker.record(LatencyStage.REQUEST_TO_RESPONSE, System.nanoTime() - createdNanos);
+        }
+    }
+
+    /**
+     * Factory registered on the server builder
+     */
+    public static class Factory extends ServerStreamTracer.Factory {
+
+        private final LatencyTracker latencyTracker;
+
+        public Factory(LatencyTracker latencyTracker) {
+            this.latencyTracker = latencyTracker;
+        }
+
+        @Override
+        public ServerStreamTracer newServerStreamTracer(String fullMethodName, Metadata headers) {
+            if (!IndicatorServiceGrpc.SERVICE_NAME.equals(MethodDescriptor.extractFullServiceName(fullMethodName))) {
+                return NOOP;
+            }
+            return new RequestLatencyStreamTracer(latencyTracker);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.supermancell.server.grpc;
+
+import com.okex.common.proto.IndicatorServiceProto.IndicatorResponse;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Flow-controlled, conflating writer for one server-streaming call.
+ * 
+ * Responses are queued per conflation key (series + indicator type). When the
+ * transport is not ready (ServerCallStreamObserver.isReady() == false) a newer
+ * response for the same key replaces the queued one, so a slow consumer receives
+ * the latest values instead of an ever-growing backlog. The queue is drained from
+ * the gRPC onReady callback once the client catches up.
+ */
+class StreamSink {
+
+    private static final Logger log = LoggerFactory.getLogger(StreamSink.class);
+
+    private final ServerCallStreamObserver<IndicatorResponse> observer;
+    private final Map<String, IndicatorResponse> pending = new LinkedHashMap<>();
+    private long conflatedCount;
+    private boolean completing;
+    private boolean closed;
+
+    /**
+     * Must be created on the RPC handler thread, before the handler returns,
+     * so the onReady handler is registered in time.
+     */
+    StreamSink(ServerCallStreamObserver<IndicatorResponse> observer) {
+        this.observer = observer;
+        observer.setOnReadyHandler(this::drain);
+    }
+
+    /**
+     * Queue a response and send as much as the transport accepts.
+     */
+    void offer(String conflationKey, IndicatorResponse response) {
+        synchronized (this) {
+            if (closed || completing) {
+                return;
+            }
+            if (pending.put(conflationKey, response) != null) {
+                conflatedCount++;
+            }
+        }
+        drain();
+    }
+
+    synchronized void drain() {
+        Iterator<IndicatorResponse> iterator = pending.values().iterator();
+        while (!closed && iterator.hasNext()) {
+            if (observer.isCancelled()) {
+                closed = true;
+                break;
+            }
+            if (!observer.isReady()) {
+                break;
+            }
+            IndicatorResponse response = iterator.next();
+            iterator.remove();
+            try {
+                observer.onNext(response);
+            } catch (Exception e) {
+                log.debug("Stream closed while sending: {}", e.getMessage());
+                closed = true;
+            }
+        }
+        if (closed) {
+            pending.clear();
+        } else if (completing && pending.isEmpty()) {
+            closed = true;
+            try {
+                observer.onCompleted();
+            } catch (Exception e) {
+                log.debug("Failed to complete stream: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Drop queued responses whose conflation key starts with the prefix (e.g. a removed series).
+     */
+    synchronized void discard(String keyPrefix) {
+        pending.keySet().removeIf(key -> key.startsWith(keyPrefix));
+    }
+
+    /**
+     * Complete the call normally (used when the client half-closes a bidi stream).
+     * Responses already queued are sent first; if the transport is not ready the call
+     * is completed from the onReady callback once they have been flushed.
+     */
+    synchronized void complete() {
+        if (closed || completing) {
+            return;
+        }
+        completing = true;
+        drain();
+    }
+
+    /**
+     * Fail the call with an error status; responses still queued are dropped.
+     */
+    synchronized void fail(Throwable error) {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        pending.clear();
+        try {
+            observer.onError(error);
+        } catch (Exception e) {
+            log.debug("Failed to fail stream: {}", e.getMessage());
+        }
+    }
+
+    synchronized void close() {
+        closed = true;
+        pending.clear();
+    }
+
+    synchronized boolean isClosed() {
+        return closed;
+    }
+
+    synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    synchronized long getConflatedCount() {
+        return conflatedCount;
+    }
+}
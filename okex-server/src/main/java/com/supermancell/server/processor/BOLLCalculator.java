@@ -4,6 +4,8 @@ import com.supermancell.common.indicator.TechnicalIndicator;
 import com.supermancell.common.model.Candle;
 import com.supermancell.common.model.IndicatorParams;
 import com.supermancell.common.model.IndicatorResult;
+import com.supermancell.common.model.IndicatorSeries;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -47,6 +49,7 @@ public class BOLLCalculator implements TechnicalIndicator {
     }
     
     @Override
+    @Timed(value = "okex.indicator.calculation", extraTags = {"indicator", "BOLL", "mode", "latest"})
     public IndicatorResult calculate(List<Candle> candles, IndicatorParams params) {
         // Validate input
         if (candles == null || candles.isEmpty()) {
@@ -55,24 +58,8 @@ public class BOLLCalculator implements TechnicalIndicator {
         }
         
         // Get parameters
-        int period = defaultPeriod;
-        double stdDevMultiplier = defaultStdDev;
-        
-        if (params != null) {
-            if (params.hasParameter(PARAM_PERIOD)) {
-                Integer paramPeriod = params.getParameter(PARAM_PERIOD, Integer.class);
-                if (paramPeriod != null && paramPeriod > 0) {
-                    period = paramPeriod;
-                }
-            }
-            
-            if (params.hasParameter(PARAM_STD_DEV)) {
-                Double paramStdDev = params.getParameter(PARAM_STD_DEV, Double.class);
-                if (paramStdDev != null && paramStdDev > 0) {
-                    stdDevMultiplier = paramStdDev;
-                }
-            }
-        }
+        int period = resolvePeriod(params);
+        double stdDevMultiplier = resolveStdDev(params);
         
         // Check if we have enough data points
         if (candles.size() < period) {
@@ -118,6 +105,107 @@ public class BOLLCalculator implements TechnicalIndicator {
         }
     }
     
+    /**
+     * Calculate the full Bollinger Bands series in one pass
+     * 
+     * The window sum and sum of squares are rolled forward one candle at a time
+     * (relative to the first close to limit cancellation) and re-anchored from the
+     * window every {@code period} candles so floating-point drift stays bounded.
+     * 
+     * @param candles Candles in chronological order
+     * @param params Calculation parameters (period, stdDev)
+     * @return IndicatorSeries with components "upper", "middle", "lower"
+     */
+    @Timed(value = "okex.indicator.calculation", extraTags = {"indicator", "BOLL", "mode", "series"})
+    public IndicatorSeries calculateSeries(List<Candle> candles, IndicatorParams params) {
+        if (candles == null || candles.isEmpty()) {
+            log.warn("BOLL series calculation failed: candles list is null or empty");
+            return IndicatorSeries.error("Candles list is null or empty");
+        }
+        
+        int period = resolvePeriod(params);
+        double stdDevMultiplier = resolveStdDev(params);
+        
+        if (candles.size() < period) {
+            return IndicatorSeries.error(String.format(
+                    "Insufficient data points. Required: %d, Actual: %d", period, candles.size()));
+        }
+        
+        int size = candles.size() - period + 1;
+        long[] timestamps = new long[size];
+        double[] upper = new double[size];
+        double[] middle = new double[size];
+        double[] lower = new double[size];
+        
+        double reference = candles.get(0).getClose();
+        double sum = 0;
+        double sumSquares = 0;
+        
+        for (int i = 0; i < candles.size(); i++) {
+            double shifted = candles.get(i).getClose() - reference;
+            sum += shifted;
+            sumSquares += shifted * shifted;
+            
+            if (i >= period) {
+                double dropped = candles.get(i - period).getClose() - reference;
+                sum -= dropped;
+                sumSquares -= dropped * dropped;
+                
+                if ((i - period) % period == period - 1) {
+                    // Re-anchor the rolling sums from the current window
+                    sum = 0;
+                    sumSquares = 0;
+                    for (int j = i - period + 1; j <= i; j++) {
+                        double value = candles.get(j).getClose() - reference;
+                        sum += value;
+                        sumSquares += value * value;
+                    }
+                }
+            }
+            
+            if (i >= period - 1) {
+                double mean = sum / period;
+                double variance = Math.max(0, sumSquares / period - mean * mean);
+                double stdDev = Math.sqrt(variance);
+                double sma = mean + reference;
+                
+                int index = i - period + 1;
+                timestamps[index] = candles.get(i).getTimestamp().toEpochMilli();
+                upper[index] = Math.round((sma + stdDev * stdDevMultiplier) * 100.0) / 100.0;
+                middle[index] = Math.round(sma * 100.0) / 100.0;
+                lower[index] = Math.round((sma - stdDev * stdDevMultiplier) * 100.0) / 100.0;
+            }
+        }
+        
+        IndicatorSeries series = new IndicatorSeries();
+        series.setTimestamps(timestamps);
+        series.addComponent("upper", upper);
+        series.addComponent("middle", middle);
+        series.addComponent("lower", lower);
+        series.setDataPoints(candles.size());
+        return series;
+    }
+    
+    private int resolvePeriod(IndicatorParams params) {
+        if (params != null && params.hasParameter(PARAM_PERIOD)) {
+            Integer paramPeriod = params.getParameter(PARAM_PERIOD, Integer.class);
+            if (paramPeriod != null && paramPeriod > 0) {
+                return paramPeriod;
+            }
+        }
+        return defaultPeriod;
+    }
+    
+    private double resolveStdDev(IndicatorParams params) {
+        if (params != null && params.hasParameter(PARAM_STD_DEV)) {
+            Double paramStdDev = params.getParameter(PARAM_STD_DEV, Double.class);
+            if (paramStdDev != null && paramStdDev > 0) {
+                return paramStdDev;
+            }
+        }
+        return defaultStdDev;
+    }
+    
     /**
      * Calculate Bollinger Bands
      */
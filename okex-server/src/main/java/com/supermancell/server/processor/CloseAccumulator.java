@@ -0,0 +1,18 @@
+package com.supermancell.server.processor;
+
+/**
+ * Streaming indicator state that consumes closing prices one at a time
+ * 
+ * Closes must be supplied in chronological order (oldest first). Keeping the
+ * state outside of the candle loop lets several indicators share a single pass
+ * over the same candle window.
+ */
+public interface CloseAccumulator {
+    
+    /**
+     * Consume the next closing price
+     * 
+     * @param close Closing price of the next candle
+     */
+    void accept(double close);
+}
@@ -4,6 +4,8 @@ import com.supermancell.common.indicator.TechnicalIndicator;
 import com.supermancell.common.model.Candle;
 import com.supermancell.common.model.IndicatorParams;
 import com.supermancell.common.model.IndicatorResult;
+import com.supermancell.common.model.IndicatorSeries;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -51,6 +53,7 @@ public class MACDCalculator implements TechnicalIndicator {
     }
     
     @Override
+    @Timed(value = "okex.indicator.calculation", extraTags = {"indicator", "MACD", "mode", "latest"})
     public IndicatorResult calculate(List<Candle> candles, IndicatorParams params) {
         // Validate input
         if (candles == null || candles.isEmpty()) {
@@ -58,6 +61,80 @@ public class MACDCalculator implements TechnicalIndicator {
             return createErrorResult("Candles list is null or empty");
         }
         
+        MACDState state = newState(params);
+        if (state.isValid()) {
+            for (Candle candle : candles) {
+                state.accept(candle.getClose());
+            }
+        }
+        
+        return buildResult(candles, state);
+    }
+    
+    /**
+     * Calculate the full MACD series in one pass
+     * 
+     * One point is emitted for every candle once slowPeriod + signalPeriod closes have
+     * been consumed; the last point equals {@link #calculate(List, IndicatorParams)}.
+     * 
+     * @param candles Candles in chronological order
+     * @param params Calculation parameters (fastPeriod, slowPeriod, signalPeriod)
+     * @return IndicatorSeries with components "macd", "signal", "histogram"
+     */
+    @Timed(value = "okex.indicator.calculation", extraTags = {"indicator", "MACD", "mode", "series"})
+    public IndicatorSeries calculateSeries(List<Candle> candles, IndicatorParams params) {
+        if (candles == null || candles.isEmpty()) {
+            log.warn("MACD series calculation failed: candles list is null or empty");
+            return IndicatorSeries.error("Candles list is null or empty");
+        }
+        
+        MACDState state = newState(params);
+        if (!state.isValid()) {
+            return IndicatorSeries.error("Fast period must be less than slow period");
+        }
+        
+        int minRequired = state.getSlowPeriod() + state.getSignalPeriod();
+        if (candles.size() < minRequired) {
+            return IndicatorSeries.error(String.format(
+                    "Insufficient data points. Required: %d, Actual: %d", minRequired, candles.size()));
+        }
+        
+        int size = candles.size() - minRequired + 1;
+        long[] timestamps = new long[size];
+        double[] macd = new double[size];
+        double[] signal = new double[size];
+        double[] histogram = new double[size];
+        int index = 0;
+        
+        for (Candle candle : candles) {
+            state.accept(candle.getClose());
+            if (state.isReady()) {
+                double macdLine = state.macdLine();
+                double signalLine = state.signalLine();
+                timestamps[index] = candle.getTimestamp().toEpochMilli();
+                macd[index] = Math.round(macdLine * 100.0) / 100.0;
+                signal[index] = Math.round(signalLine * 100.0) / 100.0;
+                histogram[index] = Math.round((macdLine - signalLine) * 100.0) / 100.0;
+                index++;
+            }
+        }
+        
+        IndicatorSeries series = new IndicatorSeries();
+        series.setTimestamps(timestamps);
+        series.addComponent("macd", macd);
+        series.addComponent("signal", signal);
+        series.addComponent("histogram", histogram);
+        series.setDataPoints(candles.size());
+        return series;
+    }
+    
+    /**
+     * Create a streaming MACD state, resolving periods from params or the configured defaults
+     * 
+     * @param params Calculation parameters (may be null)
+     * @return Empty MACD state ready to consume closes
+     */
+    public MACDState newState(IndicatorParams params) {
         // Get parameters
         int fastPeriod = defaultFastPeriod;
         int slowPeriod = defaultSlowPeriod;
@@ -86,8 +163,23 @@ public class MACDCalculator implements TechnicalIndicator {
             }
         }
         
+        return new MACDState(fastPeriod, slowPeriod, signalPeriod);
+    }
+    
+    /**
+     * Build the MACD result from a state that has consumed every close of the given candles
+     * 
+     * @param candles Candles fed into the state (chronological order)
+     * @param state MACD state after the last close
+     * @return IndicatorResult containing MACD line, signal line, histogram
+     */
+    public IndicatorResult buildResult(List<Candle> candles, MACDState state) {
+        int fastPeriod = state.getFastPeriod();
+        int slowPeriod = state.getSlowPeriod();
+        int signalPeriod = state.getSignalPeriod();
+        
         // Validate periods
-        if (fastPeriod >= slowPeriod) {
+        if (!state.isValid()) {
             log.warn("MACD calculation failed: fast period must be less than slow period");
             return createErrorResult("Fast period must be less than slow period");
         }
@@ -103,8 +195,15 @@ public class MACDCalculator implements TechnicalIndicator {
         }
         
         try {
-            // Calculate MACD
-            MACDValues macdValues = calculateMACD(candles, fastPeriod, slowPeriod, signalPeriod);
+            // Round values
+            double macdLine = state.macdLine();
+            double signalLine = state.signalLine();
+            double histogram = macdLine - signalLine;
+            
+            MACDValues macdValues = new MACDValues();
+            macdValues.macdLine = Math.round(macdLine * 100.0) / 100.0;
+            macdValues.signalLine = Math.round(signalLine * 100.0) / 100.0;
+            macdValues.histogram = Math.round(histogram * 100.0) / 100.0;
             
             // Create result
             IndicatorResult result = new IndicatorResult();
@@ -137,130 +236,140 @@ public class MACDCalculator implements TechnicalIndicator {
     }
     
     /**
-     * Calculate MACD values
+     * Create an error result
+     */
+    private IndicatorResult createErrorResult(String errorMessage) {
+        IndicatorResult result = new IndicatorResult();
+        result.setValue(null);
+        Map<String, Double> values = new HashMap<>();
+        values.put("error", -1.0);
+        result.setValues(values);
+        result.setTimestamp(null);
+        result.setDataPoints(0);
+        log.error("MACD Error: {}", errorMessage);
+        return result;
+    }
+    
+    /**
+     * Internal class to hold MACD values
+     */
+    private static class MACDValues {
+        double macdLine;
+        double signalLine;
+        double histogram;
+    }
+    
+    /**
+     * Streaming MACD state
+     * 
+     * Fast and slow EMAs are seeded with the SMA of their first {@code period} closes.
+     * The MACD history feeding the signal EMA starts once {@code slowPeriod + 1} closes
+     * have been consumed, so every close is visited exactly once instead of
+     * recomputing both EMAs for each prefix of the window.
      */
-    private MACDValues calculateMACD(List<Candle> candles, int fastPeriod, int slowPeriod, int signalPeriod) {
-        // Calculate fast EMA
-        double fastEMA = calculateEMA(candles, fastPeriod);
+    public static final class MACDState implements CloseAccumulator {
         
-        // Calculate slow EMA
-        double slowEMA = calculateEMA(candles, slowPeriod);
+        private final int fastPeriod;
+        private final int slowPeriod;
+        private final int signalPeriod;
+        private final Ema fastEma;
+        private final Ema slowEma;
+        private final Ema signalEma;
+        private int count;
         
-        // Calculate MACD line (fast EMA - slow EMA)
-        double macdLine = fastEMA - slowEMA;
+        MACDState(int fastPeriod, int slowPeriod, int signalPeriod) {
+            this.fastPeriod = fastPeriod;
+            this.slowPeriod = slowPeriod;
+            this.signalPeriod = signalPeriod;
+            this.fastEma = new Ema(fastPeriod);
+            this.slowEma = new Ema(slowPeriod);
+            this.signalEma = new Ema(signalPeriod);
+        }
         
-        // Calculate signal line (EMA of MACD line)
-        // For simplicity, we'll use a simplified signal calculation
-        // In production, you'd maintain a history of MACD values
-        double signalLine = calculateMACDSignal(candles, fastPeriod, slowPeriod, signalPeriod);
+        @Override
+        public void accept(double close) {
+            fastEma.accept(close);
+            slowEma.accept(close);
+            count++;
+            
+            if (count > slowPeriod) {
+                signalEma.accept(fastEma.value() - slowEma.value());
+            }
+        }
         
-        // Calculate histogram (MACD - Signal)
-        double histogram = macdLine - signalLine;
+        /**
+         * @return true when fast period is less than slow period
+         */
+        public boolean isValid() {
+            return fastPeriod < slowPeriod;
+        }
         
-        // Round values
-        MACDValues values = new MACDValues();
-        values.macdLine = Math.round(macdLine * 100.0) / 100.0;
-        values.signalLine = Math.round(signalLine * 100.0) / 100.0;
-        values.histogram = Math.round(histogram * 100.0) / 100.0;
+        /**
+         * @return true once slowPeriod + signalPeriod closes have been consumed
+         */
+        public boolean isReady() {
+            return isValid() && count >= slowPeriod + signalPeriod;
+        }
         
-        return values;
-    }
-    
-    /**
-     * Calculate Exponential Moving Average (EMA)
-     * 
-     * @param candles List of candles
-     * @param period EMA period
-     * @return EMA value
-     */
-    private double calculateEMA(List<Candle> candles, int period) {
-        if (candles.size() < period) {
-            throw new IllegalArgumentException("Not enough data for EMA calculation");
+        /**
+         * @return Unrounded MACD line (fast EMA - slow EMA)
+         */
+        public double macdLine() {
+            return fastEma.value() - slowEma.value();
         }
         
-        // Calculate initial SMA
-        double sum = 0;
-        for (int i = 0; i < period; i++) {
-            sum += candles.get(i).getClose();
+        /**
+         * @return Unrounded signal line (EMA of MACD line)
+         */
+        public double signalLine() {
+            return signalEma.value();
         }
-        double ema = sum / period;
         
-        // Calculate multiplier
-        double multiplier = 2.0 / (period + 1);
+        public int getFastPeriod() {
+            return fastPeriod;
+        }
         
-        // Calculate EMA for remaining periods
-        for (int i = period; i < candles.size(); i++) {
-            double closePrice = candles.get(i).getClose();
-            ema = ((closePrice - ema) * multiplier) + ema;
+        public int getSlowPeriod() {
+            return slowPeriod;
         }
         
-        return ema;
+        public int getSignalPeriod() {
+            return signalPeriod;
+        }
     }
     
     /**
-     * Calculate MACD signal line
-     * This is a simplified version that calculates signal based on recent MACD values
+     * Exponential Moving Average seeded with the SMA of the first {@code period} values
+     * 
+     * Until {@code period} values are seen, the simple average is reported.
      */
-    private double calculateMACDSignal(List<Candle> candles, int fastPeriod, int slowPeriod, int signalPeriod) {
-        // Calculate MACD values for recent periods
-        int requiredPoints = Math.max(slowPeriod + signalPeriod, candles.size());
-        int startPoint = Math.max(slowPeriod, candles.size() - requiredPoints);
+    private static final class Ema {
         
-        double[] macdHistory = new double[candles.size() - startPoint];
+        private final int period;
+        private final double multiplier;
+        private int count;
+        private double sum;
+        private double ema;
         
-        for (int i = startPoint; i < candles.size(); i++) {
-            List<Candle> subset = candles.subList(0, i + 1);
-            double fastEMA = calculateEMA(subset, fastPeriod);
-            double slowEMA = calculateEMA(subset, slowPeriod);
-            macdHistory[i - startPoint] = fastEMA - slowEMA;
+        Ema(int period) {
+            this.period = period;
+            this.multiplier = 2.0 / (period + 1);
         }
         
-        // Calculate EMA of MACD values (signal line)
-        if (macdHistory.length < signalPeriod) {
-            // Not enough history, return simple average
-            double sum = 0;
-            for (double value : macdHistory) {
+        void accept(double value) {
+            count++;
+            if (count <= period) {
                 sum += value;
+                if (count == period) {
+                    ema = sum / period;
+                }
+            } else {
+                ema = ((value - ema) * multiplier) + ema;
             }
-            return sum / macdHistory.length;
-        }
-        
-        // Calculate signal EMA
-        double sum = 0;
-        for (int i = 0; i < signalPeriod; i++) {
-            sum += macdHistory[i];
         }
-        double signal = sum / signalPeriod;
         
-        double multiplier = 2.0 / (signalPeriod + 1);
-        for (int i = signalPeriod; i < macdHistory.length; i++) {
-            signal = ((macdHistory[i] - signal) * multiplier) + signal;
+        double value() {
+            return count >= period ? ema : sum / count;
         }
-        
-        return signal;
-    }
-    
-    /**
-     * Create an error result
-     */
-    private IndicatorResult createErrorResult(String errorMessage) {
-        IndicatorResult result = new IndicatorResult();
-        result.setValue(null);
-        Map<String, Double> values = new HashMap<>();
-        values.put("error", -1.0);
-        result.setValues(values);
-        result.setTimestamp(null);
-        result.setDataPoints(0);
-        log.error("MACD Error: {}", errorMessage);
-        return result;
-    }
-    
-    /**
-     * Internal class to hold MACD values
-     */
-    private static class MACDValues {
-        double macdLine;
-        double signalLine;
-        double histogram;
     }
 }
@@ -4,12 +4,15 @@ import com.supermancell.common.indicator.TechnicalIndicator;
 import com.supermancell.common.model.Candle;
 import com.supermancell.common.model.IndicatorParams;
 import com.supermancell.common.model.IndicatorResult;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -31,6 +34,9 @@ import java.util.Map;
  * - Body Ratio = |Close - Open| / (High - Low)
  * - Upper Wick Ratio = (High - Max(Open, Close)) / (High - Low)
  * - Lower Wick Ratio = (Min(Open, Close) - Low) / (High - Low)
+ * 
+ * {@link #calculate} reports the pattern of the latest candle; the {@code scan} methods
+ * classify every candle of a window (or of several series) and return the hits as bitsets.
  */
 @Component
 public class PinbarCalculator implements TechnicalIndicator {
@@ -40,6 +46,9 @@ public class PinbarCalculator implements TechnicalIndicator {
     private static final String PARAM_BODY_RATIO_THRESHOLD = "bodyRatioThreshold";
     private static final String PARAM_WICK_RATIO_THRESHOLD = "wickRatioThreshold";
     
+    private static final int BULLISH = 1;
+    private static final int BEARISH = 2;
+    
     @Value("${indicator.pinbar.default-body-ratio:0.2}")
     private double defaultBodyRatioThreshold;
     
@@ -52,6 +61,7 @@ public class PinbarCalculator implements TechnicalIndicator {
     }
     
     @Override
+    @Timed(value = "okex.indicator.calculation", extraTags = {"indicator", "PINBAR", "mode", "latest"})
     public IndicatorResult calculate(List<Candle> candles, IndicatorParams params) {
         // Validate input
         if (candles == null || candles.isEmpty()) {
@@ -59,25 +69,8 @@ public class PinbarCalculator implements TechnicalIndicator {
             return createErrorResult("Candles list is null or empty");
         }
         
-        // Get parameters
-        double bodyRatioThreshold = defaultBodyRatioThreshold;
-        double wickRatioThreshold = defaultWickRatioThreshold;
-        
-        if (params != null) {
-            if (params.hasParameter(PARAM_BODY_RATIO_THRESHOLD)) {
-                Double param = params.getParameter(PARAM_BODY_RATIO_THRESHOLD, Double.class);
-                if (param != null && param > 0 && param < 1) {
-                    bodyRatioThreshold = param;
-                }
-            }
-            
-            if (params.hasParameter(PARAM_WICK_RATIO_THRESHOLD)) {
-                Double param = params.getParameter(PARAM_WICK_RATIO_THRESHOLD, Double.class);
-                if (param != null && param > 0 && param < 1) {
-                    wickRatioThreshold = param;
-                }
-            }
-        }
+        double bodyRatioThreshold = resolveBodyRatioThreshold(params);
+        double wickRatioThreshold = resolveWickRatioThreshold(params);
         
         try {
             // Analyze the most recent candle for pinbar pattern
@@ -120,6 +113,157 @@ public class PinbarCalculator implements TechnicalIndicator {
         }
     }
     
+    /**
+     * Classify every candle of a window in one pass
+     * 
+     * Bit {@code i} of the returned bitsets corresponds to {@code candles.get(i)}.
+     * 
+     * @param candles Candles in chronological order
+     * @param params Calculation parameters (bodyRatioThreshold, wickRatioThreshold)
+     * @return PinbarScan covering every candle (empty when candles is null or empty)
+     * @see #scan(double[], double[], double[], double[], int, int, IndicatorParams)
+     */
+    @Timed(value = "okex.indicator.calculation", extraTags = {"indicator", "PINBAR", "mode", "batch"})
+    public PinbarScan scan(List<Candle> candles, IndicatorParams params) {
+        if (candles == null || candles.isEmpty()) {
+            log.warn("Pinbar scan skipped: candles list is null or empty");
+            return new PinbarScan(0, 0, new BitSet(), new BitSet());
+        }
+        return scanCandles(candles, resolveBodyRatioThreshold(params), resolveWickRatioThreshold(params));
+    }
+    
+    /**
+     * Classify the candles {@code [from, to)} of primitive OHLC columns in one pass
+     * 
+     * Bit {@code i} of the returned bitsets corresponds to array index {@code i}, so a
+     * sub-range scan can be mapped back to timestamps without an offset.
+     * 
+     * Unlike {@link #calculate}, ratios are compared unrounded (as {@code wick >= threshold * range}),
+     * so a candle whose ratio lies within 0.00005 of a threshold may be classified differently.
+     * 
+     * @param open Open prices
+     * @param high High prices
+     * @param low Low prices
+     * @param close Close prices
+     * @param from First index scanned (inclusive)
+     * @param to Last index scanned (exclusive)
+     * @param params Calculation parameters (bodyRatioThreshold, wickRatioThreshold)
+     * @return PinbarScan over {@code [from, to)}
+     * @throws IllegalArgumentException if the range does not fit every array
+     */
+    @Timed(value = "okex.indicator.calculation", extraTags = {"indicator", "PINBAR", "mode", "batch"})
+    public PinbarScan scan(double[] open, double[] high, double[] low, double[] close,
+                           int from, int to, IndicatorParams params) {
+        int length = Math.min(Math.min(open.length, high.length), Math.min(low.length, close.length));
+        if (from < 0 || from > to || to > length) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid scan range [%d, %d) for %d candles", from, to, length));
+        }
+        
+        double bodyRatioThreshold = resolveBodyRatioThreshold(params);
+        double wickRatioThreshold = resolveWickRatioThreshold(params);
+        BitSet bullish = new BitSet(to);
+        BitSet bearish = new BitSet(to);
+        
+        for (int i = from; i < to; i++) {
+            int type = classify(open[i], high[i], low[i], close[i], bodyRatioThreshold, wickRatioThreshold);
+            if (type == BULLISH) {
+                bullish.set(i);
+            } else if (type == BEARISH) {
+                bearish.set(i);
+            }
+        }
+        return new PinbarScan(from, to, bullish, bearish);
+    }
+    
+    /**
+     * Classify every candle of several series with the same thresholds
+     * 
+     * @param series Candles per key (e.g. symbol or symbol:interval), chronological order
+     * @param params Calculation parameters (bodyRatioThreshold, wickRatioThreshold)
+     * @return PinbarScan per key, in the iteration order of {@code series}
+     */
+    @Timed(value = "okex.indicator.calculation", extraTags = {"indicator", "PINBAR", "mode", "batch"})
+    public <K> Map<K, PinbarScan> scanAll(Map<K, List<Candle>> series, IndicatorParams params) {
+        double bodyRatioThreshold = resolveBodyRatioThreshold(params);
+        double wickRatioThreshold = resolveWickRatioThreshold(params);
+        
+        Map<K, PinbarScan> scans = new LinkedHashMap<>();
+        for (Map.Entry<K, List<Candle>> entry : series.entrySet()) {
+            List<Candle> candles = entry.getValue();
+            scans.put(entry.getKey(), candles == null
+                    ? new PinbarScan(0, 0, new BitSet(), new BitSet())
+                    : scanCandles(candles, bodyRatioThreshold, wickRatioThreshold));
+        }
+        return scans;
+    }
+    
+    private PinbarScan scanCandles(List<Candle> candles, double bodyRatioThreshold, double wickRatioThreshold) {
+        int size = candles.size();
+        BitSet bullish = new BitSet(size);
+        BitSet bearish = new BitSet(size);
+        
+        for (int i = 0; i < size; i++) {
+            Candle candle = candles.get(i);
+            int type = classify(candle.getOpen(), candle.getHigh(), candle.getLow(), candle.getClose(),
+                    bodyRatioThreshold, wickRatioThreshold);
+            if (type == BULLISH) {
+                bullish.set(i);
+            } else if (type == BEARISH) {
+                bearish.set(i);
+            }
+        }
+        return new PinbarScan(0, size, bullish, bearish);
+    }
+    
+    /**
+     * Classify one candle without divisions or rounding
+     * 
+     * Same rules as {@link #analyzePinbarPattern}, with every ratio test multiplied through
+     * by the range. Conditions are combined with non-short-circuit {@code &} so the loop has
+     * no data-dependent branches until the result is stored.
+     * 
+     * @return BULLISH, BEARISH or 0
+     */
+    private static int classify(double open, double high, double low, double close,
+                                double bodyRatioThreshold, double wickRatioThreshold) {
+        double range = high - low;
+        double bodyTop = Math.max(open, close);
+        double bodyBottom = Math.min(open, close);
+        double upperWick = high - bodyTop;
+        double lowerWick = bodyBottom - low;
+        double bodyLimit = bodyRatioThreshold * range;
+        double wickLimit = wickRatioThreshold * range;
+        
+        // range > 0 also rejects doji candles (zero range) and NaN prices
+        boolean smallBody = range > 0 & bodyTop - bodyBottom <= bodyLimit;
+        boolean bullish = smallBody & lowerWick >= wickLimit & upperWick < bodyLimit;
+        boolean bearish = smallBody & upperWick >= wickLimit & lowerWick < bodyLimit;
+        
+        // Bullish takes precedence, as in analyzePinbarPattern
+        return (bullish ? BULLISH : 0) | (bearish & !bullish ? BEARISH : 0);
+    }
+    
+    private double resolveBodyRatioThreshold(IndicatorParams params) {
+        if (params != null && params.hasParameter(PARAM_BODY_RATIO_THRESHOLD)) {
+            Double param = params.getParameter(PARAM_BODY_RATIO_THRESHOLD, Double.class);
+            if (param != null && param > 0 && param < 1) {
+                return param;
+            }
+        }
+        return defaultBodyRatioThreshold;
+    }
+    
+    private double resolveWickRatioThreshold(IndicatorParams params) {
+        if (params != null && params.hasParameter(PARAM_WICK_RATIO_THRESHOLD)) {
+            Double param = params.getParameter(PARAM_WICK_RATIO_THRESHOLD, Double.class);
+            if (param != null && param > 0 && param < 1) {
+                return param;
+            }
+        }
+        return defaultWickRatioThreshold;
+    }
+    
     /**
      * Analyze a candle for pinbar pattern
      */
@@ -219,4 +363,71 @@ public class PinbarCalculator implements TechnicalIndicator {
         double upperWickRatio = 0.0;
         double lowerWickRatio = 0.0;
     }
+    
+    /**
+     * Result of a batch pinbar scan over the candles {@code [from, to)}
+     * 
+     * Bit indices are candle indices in the scanned list or arrays; the bitsets are
+     * exposed directly and must not be modified by callers.
+     */
+    public static final class PinbarScan {
+        
+        private final int from;
+        private final int to;
+        private final BitSet bullish;
+        private final BitSet bearish;
+        
+        PinbarScan(int from, int to, BitSet bullish, BitSet bearish) {
+            this.from = from;
+            this.to = to;
+            this.bullish = bullish;
+            this.bearish = bearish;
+        }
+        
+        /**
+         * @return Indices of bullish pinbars (hammers)
+         */
+        public BitSet getBullish() {
+            return bullish;
+        }
+        
+        /**
+         * @return Indices of bearish pinbars (shooting stars)
+         */
+        public BitSet getBearish() {
+            return bearish;
+        }
+        
+        /**
+         * @return New bitset with the indices of all pinbars
+         */
+        public BitSet pinbars() {
+            BitSet all = (BitSet) bullish.clone();
+            all.or(bearish);
+            return all;
+        }
+        
+        /**
+         * @return Ascending indices of all pinbars
+         */
+        public int[] indices() {
+            return pinbars().stream().toArray();
+        }
+        
+        public boolean isPinbar(int index) {
+            return bullish.get(index) || bearish.get(index);
+        }
+        
+        public int count() {
+            return bullish.cardinality() + bearish.cardinality();
+        }
+        
+        public int getFrom() {
+            return from;
+        }
+        
+        public int getTo() {
+            return to;
+        }
+    }
 }
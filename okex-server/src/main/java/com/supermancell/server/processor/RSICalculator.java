@@ -4,6 +4,8 @@ import com.supermancell.common.indicator.TechnicalIndicator;
 import com.supermancell.common.model.Candle;
 import com.supermancell.common.model.IndicatorParams;
 import com.supermancell.common.model.IndicatorResult;
+import com.supermancell.common.model.IndicatorSeries;
+import io.micrometer.core.annotation.Timed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -42,6 +44,7 @@ public class RSICalculator implements TechnicalIndicator {
     }
     
     @Override
+    @Timed(value = "okex.indicator.calculation", extraTags = {"indicator", "RSI", "mode", "latest"})
     public IndicatorResult calculate(List<Candle> candles, IndicatorParams params) {
         // Validate input
         if (candles == null || candles.isEmpty()) {
@@ -49,7 +52,67 @@ public class RSICalculator implements TechnicalIndicator {
             return createErrorResult("Candles list is null or empty");
         }
         
-        // Get period parameter
+        // Feed every close through Wilder's smoothing
+        RSIState state = newState(params);
+        for (Candle candle : candles) {
+            state.accept(candle.getClose());
+        }
+        
+        return buildResult(candles, state);
+    }
+    
+    /**
+     * Calculate the full RSI series in one pass
+     * 
+     * One point is emitted for every candle from index {@code period} on; the last
+     * point equals {@link #calculate(List, IndicatorParams)} over the same candles.
+     * 
+     * @param candles Candles in chronological order
+     * @param params Calculation parameters (period)
+     * @return IndicatorSeries with component "rsi"
+     */
+    @Timed(value = "okex.indicator.calculation", extraTags = {"indicator", "RSI", "mode", "series"})
+    public IndicatorSeries calculateSeries(List<Candle> candles, IndicatorParams params) {
+        if (candles == null || candles.isEmpty()) {
+            log.warn("RSI series calculation failed: candles list is null or empty");
+            return IndicatorSeries.error("Candles list is null or empty");
+        }
+        
+        RSIState state = newState(params);
+        int period = state.getPeriod();
+        if (candles.size() < period + 1) {
+            return IndicatorSeries.error(String.format(
+                    "Insufficient data points. Required: %d, Actual: %d", period + 1, candles.size()));
+        }
+        
+        int size = candles.size() - period;
+        long[] timestamps = new long[size];
+        double[] rsi = new double[size];
+        int index = 0;
+        
+        for (Candle candle : candles) {
+            state.accept(candle.getClose());
+            if (state.isReady()) {
+                timestamps[index] = candle.getTimestamp().toEpochMilli();
+                rsi[index] = state.value();
+                index++;
+            }
+        }
+        
+        IndicatorSeries series = new IndicatorSeries();
+        series.setTimestamps(timestamps);
+        series.addComponent("rsi", rsi);
+        series.setDataPoints(candles.size());
+        return series;
+    }
+    
+    /**
+     * Create a streaming RSI state, resolving the period from params or the configured default
+     * 
+     * @param params Calculation parameters (may be null)
+     * @return Empty RSI state ready to consume closes
+     */
+    public RSIState newState(IndicatorParams params) {
         int period = defaultPeriod;
         if (params != null && params.hasParameter(PARAM_PERIOD)) {
             Integer paramPeriod = params.getParameter(PARAM_PERIOD, Integer.class);
@@ -57,6 +120,18 @@ public class RSICalculator implements TechnicalIndicator {
                 period = paramPeriod;
             }
         }
+        return new RSIState(period);
+    }
+    
+    /**
+     * Build the RSI result from a state that has consumed every close of the given candles
+     * 
+     * @param candles Candles fed into the state (chronological order)
+     * @param state RSI state after the last close
+     * @return IndicatorResult containing RSI value
+     */
+    public IndicatorResult buildResult(List<Candle> candles, RSIState state) {
+        int period = state.getPeriod();
         
         // Check if we have enough data points
         if (candles.size() < period + 1) {
@@ -68,8 +143,7 @@ public class RSICalculator implements TechnicalIndicator {
         }
         
         try {
-            // Calculate RSI
-            double rsiValue = calculateRSI(candles, period);
+            double rsiValue = state.value();
             
             // Create result
             IndicatorResult result = new IndicatorResult();
@@ -97,65 +171,6 @@ public class RSICalculator implements TechnicalIndicator {
         }
     }
     
-    /**
-     * Calculate RSI using Wilder's smoothing method
-     * 
-     * @param candles List of candles (must be sorted by timestamp ascending)
-     * @param period RSI period (typically 14)
-     * @return RSI value (0-100)
-     */
-    private double calculateRSI(List<Candle> candles, int period) {
-        // Calculate price changes
-        double[] changes = new double[candles.size() - 1];
-        for (int i = 1; i < candles.size(); i++) {
-            changes[i - 1] = candles.get(i).getClose() - candles.get(i - 1).getClose();
-        }
-        
-        // Separate gains and losses
-        double[] gains = new double[changes.length];
-        double[] losses = new double[changes.length];
-        
-        for (int i = 0; i < changes.length; i++) {
-            if (changes[i] > 0) {
-                gains[i] = changes[i];
-                losses[i] = 0;
-            } else {
-                gains[i] = 0;
-                losses[i] = Math.abs(changes[i]);
-            }
-        }
-        
-        // Calculate initial average gain and loss (simple average for first period)
-        double avgGain = 0;
-        double avgLoss = 0;
-        
-        for (int i = 0; i < period; i++) {
-            avgGain += gains[i];
-            avgLoss += losses[i];
-        }
-        
-        avgGain /= period;
-        avgLoss /= period;
-        
-        // Apply Wilder's smoothing for subsequent periods
-        for (int i = period; i < changes.length; i++) {
-            avgGain = ((avgGain * (period - 1)) + gains[i]) / period;
-            avgLoss = ((avgLoss * (period - 1)) + losses[i]) / period;
-        }
-        
-        // Calculate RS and RSI
-        if (avgLoss == 0) {
-            // No losses means RSI = 100
-            return 100.0;
-        }
-        
-        double rs = avgGain / avgLoss;
-        double rsi = 100.0 - (100.0 / (1.0 + rs));
-        
-        // Round to 2 decimal places
-        return Math.round(rsi * 100.0) / 100.0;
-    }
-    
     /**
      * Create an error result
      */
@@ -170,4 +185,76 @@ public class RSICalculator implements TechnicalIndicator {
         log.error("RSI Error: {}", errorMessage);
         return result;
     }
+    
+    /**
+     * Streaming RSI using Wilder's smoothing method
+     * 
+     * The first {@code period} price changes are averaged, every later change is
+     * smoothed in as {@code avg = (avg * (period - 1) + change) / period}.
+     */
+    public static final class RSIState implements CloseAccumulator {
+        
+        private final int period;
+        private int count;
+        private double previousClose;
+        private double avgGain;
+        private double avgLoss;
+        
+        RSIState(int period) {
+            this.period = period;
+        }
+        
+        @Override
+        public void accept(double close) {
+            if (count > 0) {
+                double change = close - previousClose;
+                double gain = change > 0 ? change : 0;
+                double loss = change > 0 ? 0 : Math.abs(change);
+                int changeIndex = count - 1;
+                
+                if (changeIndex < period) {
+                    // Initial average gain and loss (simple average for first period)
+                    avgGain += gain;
+                    avgLoss += loss;
+                    if (changeIndex == period - 1) {
+                        avgGain /= period;
+                        avgLoss /= period;
+                    }
+                } else {
+                    // Apply Wilder's smoothing for subsequent periods
+                    avgGain = ((avgGain * (period - 1)) + gain) / period;
+                    avgLoss = ((avgLoss * (period - 1)) + loss) / period;
+                }
+            }
+            previousClose = close;
+            count++;
+        }
+        
+        /**
+         * @return true once period + 1 closes have been consumed
+         */
+        public boolean isReady() {
+            return count > period;
+        }
+        
+        /**
+         * @return Current RSI value (0-100), rounded to 2 decimal places
+         */
+        public double value() {
+            if (avgLoss == 0) {
+                // No losses means RSI = 100
+                return 100.0;
+            }
+            
+            double rs = avgGain / avgLoss;
+            double rsi = 100.0 - (100.0 / (1.0 + rs));
+            
+            // Round to 2 decimal places
+            return Math.round(rsi * 100.0) / 100.0;
+        }
+        
+        public int getPeriod() {
+            return period;
+        }
+    }
 }
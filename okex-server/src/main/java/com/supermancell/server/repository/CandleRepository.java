@@ -1,10 +1,14 @@
 package com.supermancell.server.repository;
 
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.IndexOptions;
 import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.InsertManyOptions;
 import com.supermancell.common.model.Candle;
+import com.supermancell.server.cache.CandleGapIndex;
 import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,7 +18,10 @@ import org.springframework.stereotype.Repository;
 import javax.annotation.PostConstruct;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Repository
 public class CandleRepository {
@@ -23,9 +30,11 @@ public class CandleRepository {
     private static final String COLLECTION_NAME = "candles";
 
     private final MongoTemplate mongoTemplate;
+    private final CandleGapIndex candleGapIndex;
 
-    public CandleRepository(MongoTemplate mongoTemplate) {
+    public CandleRepository(MongoTemplate mongoTemplate, CandleGapIndex candleGapIndex) {
         this.mongoTemplate = mongoTemplate;
+        this.candleGapIndex = candleGapIndex;
     }
 
     @PostConstruct
@@ -72,10 +81,12 @@ public class CandleRepository {
                     .append("created_at", candle.getCreatedAt() != null ? candle.getCreatedAt() : Instant.now());
 
             mongoTemplate.getCollection(COLLECTION_NAME).insertOne(doc);
+            candleGapIndex.record(candle);
             log.debug("Saved candle: {} {} at {}", candle.getSymbol(), candle.getInterval(), candle.getTimestamp());
         } catch (com.mongodb.MongoWriteException e) {
             // Ignore duplicate key errors (11000)
             if (e.getCode() == 11000) {
+                candleGapIndex.record(candle);
                 log.trace("Duplicate candle ignored: {} {} at {}", 
                         candle.getSymbol(), candle.getInterval(), candle.getTimestamp());
             } else {
@@ -108,11 +119,28 @@ public class CandleRepository {
         }
 
         try {
-            mongoTemplate.getCollection(COLLECTION_NAME).insertMany(documents);
+            // Unordered: a duplicate must not abort the remaining inserts (repairs fill gaps between stored candles)
+            mongoTemplate.getCollection(COLLECTION_NAME).insertMany(documents, new InsertManyOptions().ordered(false));
+            candleGapIndex.record(candles);
             log.info("Saved {} candles in batch", documents.size());
-        } catch (com.mongodb.MongoBulkWriteException e) {
-            log.warn("Batch insert completed with {} duplicates ignored", 
-                    e.getWriteErrors().size());
+        } catch (MongoBulkWriteException e) {
+            // Duplicates are already stored; only other failures leave a slot empty
+            Set<Integer> failed = new HashSet<>();
+            for (BulkWriteError error : e.getWriteErrors()) {
+                if (error.getCode() != 11000) {
+                    failed.add(error.getIndex());
+                }
+            }
+            for (int i = 0; i < candles.size(); i++) {
+                if (!failed.contains(i)) {
+                    candleGapIndex.record(candles.get(i));
+                }
+            }
+            if (failed.isEmpty()) {
+                log.warn("Batch insert completed with {} duplicates ignored", e.getWriteErrors().size());
+            } else {
+                log.error("Batch insert failed for {} of {} candles", failed.size(), candles.size());
+            }
         } catch (Exception e) {
             log.error("Failed to save candles in batch", e);
         }
@@ -131,20 +159,7 @@ public class CandleRepository {
                     .find(filter)
                     .sort(sort)
                     .limit(limit)
-                    .forEach(doc -> {
-                        Candle candle = new Candle();
-                        candle.setSymbol(doc.getString("symbol"));
-                        candle.setTimestamp(doc.get("timestamp", Instant.class));
-                        candle.setInterval(doc.getString("interval"));
-                        candle.setOpen(doc.getDouble("open"));
-                        candle.setHigh(doc.getDouble("high"));
-                        candle.setLow(doc.getDouble("low"));
-                        candle.setClose(doc.getDouble("close"));
-                        candle.setVolume(doc.getDouble("volume"));
-                        candle.setConfirm(doc.getString("confirm"));
-                        candle.setCreatedAt(doc.get("created_at", Instant.class));
-                        candles.add(candle);
-                    });
+                    .forEach(doc -> candles.add(toCandle(doc)));
 
             // Reverse to get chronological order (oldest first)
             java.util.Collections.reverse(candles);
@@ -154,4 +169,69 @@ public class CandleRepository {
         }
         return candles;
     }
+
+    /**
+     * Find candles with from <= timestamp <= to in chronological order (oldest first)
+     *
+     * @param limit Maximum number of candles returned (the oldest ones in the range)
+     */
+    public List<Candle> findCandlesBetween(String symbol, String interval, Instant from, Instant to, int limit) {
+        List<Candle> candles = new ArrayList<>();
+        try {
+            Document filter = new Document()
+                    .append("symbol", symbol)
+                    .append("interval", interval)
+                    .append("timestamp", new Document("$gte", Date.from(from)).append("$lte", Date.from(to)));
+
+            mongoTemplate.getCollection(COLLECTION_NAME)
+                    .find(filter)
+                    .sort(new Document("timestamp", 1))
+                    .limit(limit)
+                    .forEach(doc -> candles.add(toCandle(doc)));
+
+        } catch (Exception e) {
+            log.error("Failed to query candles between {} and {}", from, to, e);
+        }
+        return candles;
+    }
+
+    /**
+     * Find the latest candles strictly before the given time in chronological order (oldest first)
+     */
+    public List<Candle> findCandlesBefore(String symbol, String interval, Instant before, int limit) {
+        List<Candle> candles = new ArrayList<>();
+        try {
+            Document filter = new Document()
+                    .append("symbol", symbol)
+                    .append("interval", interval)
+                    .append("timestamp", new Document("$lt", Date.from(before)));
+
+            mongoTemplate.getCollection(COLLECTION_NAME)
+                    .find(filter)
+                    .sort(new Document("timestamp", -1))
+                    .limit(limit)
+                    .forEach(doc -> candles.add(toCandle(doc)));
+
+            java.util.Collections.reverse(candles);
+
+        } catch (Exception e) {
+            log.error("Failed to query candles before {}", before, e);
+        }
+        return candles;
+    }
+
+    private Candle toCandle(Document doc) {
+        Candle candle = new Candle();
+        candle.setSymbol(doc.getString("symbol"));
+        candle.setTimestamp(doc.get("timestamp", Instant.class));
+        candle.setInterval(doc.getString("interval"));
+        candle.setOpen(doc.getDouble("open"));
+        candle.setHigh(doc.getDouble("high"));
+        candle.setLow(doc.getDouble("low"));
+        candle.setClose(doc.getDouble("close"));
+        candle.setVolume(doc.getDouble("volume"));
+        candle.setConfirm(doc.getString("confirm"));
+        candle.setCreatedAt(doc.get("created_at", Instant.class));
+        return candle;
+    }
 }
@@ -0,0 +1,54 @@
+package com.supermancell.server.repository;
+
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import com.supermancell.common.model.IndicatorResult;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+
+/**
+ * Latest candle-close indicator snapshot per (indicator, symbol, interval, parameters).
+ *
+ * One document per indicator cache key (used as _id), replaced on every candle close,
+ * so the collection stays as small as the configured snapshot table.
+ */
+@Repository
+public class IndicatorSnapshotRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(IndicatorSnapshotRepository.class);
+    private static final String COLLECTION_NAME = "indicator_snapshots";
+
+    private final MongoTemplate mongoTemplate;
+
+    public IndicatorSnapshotRepository(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void save(String cacheKey, String symbol, String interval, Instant candleTimestamp,
+                     IndicatorResult result) {
+        try {
+            Document doc = new Document("_id", cacheKey)
+                    .append("symbol", symbol)
+                    .append("interval", interval)
+                    .append("candle_timestamp", candleTimestamp)
+                    .append("value", result.getValue())
+                    .append("values", result.getValues() != null ? new Document(
+                            new LinkedHashMap<String, Object>(result.getValues())) : null)
+                    .append("timestamp", result.getTimestamp())
+                    .append("data_points", result.getDataPoints())
+                    .append("updated_at", Instant.now());
+
+            mongoTemplate.getCollection(COLLECTION_NAME)
+                    .replaceOne(Filters.eq("_id", cacheKey), doc, new ReplaceOptions().upsert(true));
+            log.trace("Saved indicator snapshot: {}", cacheKey);
+        } catch (Exception e) {
+            log.error("Failed to save indicator snapshot: {}", cacheKey, e);
+        }
+    }
+}
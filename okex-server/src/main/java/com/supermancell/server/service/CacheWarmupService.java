@@ -0,0 +1,175 @@
+package com.supermancell.server.service;
+
+import com.supermancell.common.model.Candle;
+import com.supermancell.common.model.IndicatorResult;
+import com.supermancell.server.cache.RecentCandleStore;
+import com.supermancell.server.repository.CandleRepository;
+import com.supermancell.server.websocket.CandleEventDispatcher;
+import com.supermancell.server.websocket.SubscriptionConfig;
+import com.supermancell.server.websocket.SubscriptionConfigLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Startup warm-up of the candle and indicator caches.
+ *
+ * Spring Boot reports readiness (ReadinessState.ACCEPTING_TRAFFIC, /actuator/health/readiness)
+ * only after all ApplicationRunners have returned, so running the warm-up here keeps a
+ * restarted instance out of the load balancer until its caches are filled.
+ *
+ * For every subscribed (symbol, interval), in parallel:
+ * 1. Load the latest candle-limit candles through CandleRepository.findCandles()
+ *    (intercepted by CandleDataIntegrityAspect: seeds the gap index, repairs gaps in strict
+ *    mode and fills the Redis candle cache when enabled)
+ * 2. Seed RecentCandleStore, the in-process window used by live streams
+ * 3. Optionally publish the standard indicator snapshot (IndicatorSnapshotService), filling
+ *    the snapshot table and the Redis indicator cache
+ *
+ * The warm-up is bounded by timeout-ms; series not done by then are left to the first request.
+ */
+@Service
+public class CacheWarmupService implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmupService.class);
+
+    private final SubscriptionConfigLoader configLoader;
+    private final CandleRepository candleRepository;
+    private final RecentCandleStore recentCandleStore;
+    private final IndicatorSnapshotService indicatorSnapshotService;
+
+    private volatile boolean complete;
+
+    @Value("${warmup.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${warmup.parallelism:4}")
+    private int parallelism = 4;
+
+    @Value("${warmup.candle-limit:301}")
+    private int candleLimit = 301;
+
+    @Value("${warmup.precompute-indicators:true}")
+    private boolean precomputeIndicators = true;
+
+    @Value("${warmup.timeout-ms:60000}")
+    private long timeoutMs = 60_000L;
+
+    public CacheWarmupService(SubscriptionConfigLoader configLoader,
+                              CandleRepository candleRepository,
+                              RecentCandleStore recentCandleStore,
+                              IndicatorSnapshotService indicatorSnapshotService) {
+        this.configLoader = configLoader;
+        this.candleRepository = candleRepository;
+        this.recentCandleStore = recentCandleStore;
+        this.indicatorSnapshotService = indicatorSnapshotService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            log.info("Cache warm-up is disabled");
+            complete = true;
+            return;
+        }
+        warmUp();
+    }
+
+    /**
+     * Warm every subscribed series, returning when all are done or timeout-ms has passed
+     */
+    void warmUp() {
+        SubscriptionConfig config = configLoader.loadCurrentConfig();
+        if (config == null || config.getSymbols().isEmpty() || config.getIntervals().isEmpty()) {
+            log.info("No subscriptions configured, nothing to warm up");
+            complete = true;
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        AtomicInteger warmed = new AtomicInteger();
+        AtomicInteger candleCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "cache-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        int total = 0;
+        for (String symbol : config.getSymbols()) {
+            for (String interval : config.getIntervals()) {
+                executor.execute(() -> {
+                    candleCount.addAndGet(warmSeries(symbol, interval));
+                    warmed.incrementAndGet();
+                });
+                total++;
+            }
+        }
+        executor.shutdown();
+
+        try {
+            if (!executor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS)) {
+                log.warn("Cache warm-up timed out after {}ms: {}/{} series warmed, reporting ready anyway",
+                        timeoutMs, warmed.get(), total);
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        complete = true;
+        log.info("Cache warm-up finished: {}/{} series, {} candles loaded in {}ms (indicators precomputed: {})",
+                warmed.get(), total, candleCount.get(), System.currentTimeMillis() - start,
+                precomputeIndicators);
+    }
+
+    /**
+     * @return Number of candles loaded for the series
+     */
+    int warmSeries(String symbol, String interval) {
+        try {
+            // Note: This call is intercepted by CandleDataIntegrityAspect
+            List<Candle> candles = candleRepository.findCandles(symbol, interval, candleLimit);
+            if (candles.isEmpty()) {
+                log.debug("No stored candles to warm up for {}:{}", symbol, interval);
+                return 0;
+            }
+
+            recentCandleStore.seed(symbol, interval, candles);
+
+            if (precomputeIndicators) {
+                // Snapshots of a still-open candle would freeze its partial values until it closes
+                int confirmed = candles.size();
+                while (confirmed > 0 && !CandleEventDispatcher.isConfirmed(candles.get(confirmed - 1))) {
+                    confirmed--;
+                }
+                if (confirmed > 0) {
+                    List<IndicatorResult> results = indicatorSnapshotService.publish(
+                            symbol, interval, candles.subList(0, confirmed));
+                    log.debug("Precomputed {} indicators for {}:{}", results.size(), symbol, interval);
+                }
+            }
+            return candles.size();
+        } catch (Exception e) {
+            log.warn("Cache warm-up of {}:{} failed, leaving it to the first request", symbol, interval, e);
+            return 0;
+        }
+    }
+
+    /**
+     * @return true once the warm-up has finished (or was skipped)
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+}
@@ -2,21 +2,30 @@ package com.supermancell.server.service;
 
 import com.supermancell.common.indicator.TechnicalIndicator;
 import com.supermancell.common.model.Candle;
+import com.supermancell.common.model.CandleInterval;
 import com.supermancell.common.model.IndicatorParams;
 import com.supermancell.common.model.IndicatorResult;
+import com.supermancell.common.model.IndicatorSeries;
 import com.supermancell.server.cache.CandleCacheService;
+import com.supermancell.server.cache.IndicatorSnapshotStore;
 import com.supermancell.server.processor.BOLLCalculator;
 import com.supermancell.server.processor.MACDCalculator;
 import com.supermancell.server.processor.PinbarCalculator;
 import com.supermancell.server.processor.RSICalculator;
 import com.supermancell.server.repository.CandleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * CalculationEngine - Strategy pattern coordinator for technical indicator calculations
@@ -25,7 +34,8 @@ import java.util.Map;
  * 1. Provides a unified interface for all technical indicator calculations
  * 2. Manages calculator instances using strategy pattern
  * 3. Integrates with CandleRepository (which is intercepted by AOP for data integrity)
- * 4. Supports caching of calculation results in Redis
+ * 4. Supports caching of calculation results in Redis, answering standard parameter sets
+ *    from the candle-close snapshot table (IndicatorSnapshotStore) first
  * 5. Handles parameter validation and error handling
  * 
  * Flow:
@@ -40,7 +50,18 @@ public class CalculationEngine {
     
     private final CandleRepository candleRepository;
     private final CandleCacheService candleCacheService;
+    private final IndicatorSnapshotStore snapshotStore;
     private final Map<IndicatorType, TechnicalIndicator> calculators;
+    private final MultiIndicatorCalculator multiIndicatorCalculator;
+    private final RSICalculator rsiCalculator;
+    private final BOLLCalculator bollCalculator;
+    private final MACDCalculator macdCalculator;
+    
+    @Value("${indicator.series.max-points:10000}")
+    private int seriesMaxPoints = 10000;
+    
+    @Value("${indicator.cache.ttl:300}")
+    private long indicatorCacheTtlSeconds = 300;
     
     /**
      * Constructor with dependency injection
@@ -48,13 +69,16 @@ public class CalculationEngine {
     public CalculationEngine(
             CandleRepository candleRepository,
             CandleCacheService candleCacheService,
+            IndicatorSnapshotStore snapshotStore,
             RSICalculator rsiCalculator,
             BOLLCalculator bollCalculator,
             MACDCalculator macdCalculator,
-            PinbarCalculator pinbarCalculator) {
+            PinbarCalculator pinbarCalculator,
+            MeterRegistry meterRegistry) {
         
         this.candleRepository = candleRepository;
         this.candleCacheService = candleCacheService;
+        this.snapshotStore = snapshotStore;
         
         // Initialize calculator registry using strategy pattern
         this.calculators = new HashMap<>();
@@ -62,6 +86,11 @@ public class CalculationEngine {
         this.calculators.put(IndicatorType.BOLL, bollCalculator);
         this.calculators.put(IndicatorType.MACD, macdCalculator);
         this.calculators.put(IndicatorType.PINBAR, pinbarCalculator);
+        this.multiIndicatorCalculator = new MultiIndicatorCalculator(
+                rsiCalculator, macdCalculator, calculators, meterRegistry);
+        this.rsiCalculator = rsiCalculator;
+        this.bollCalculator = bollCalculator;
+        this.macdCalculator = macdCalculator;
         
         log.info("CalculationEngine initialized with {} calculators", calculators.size());
     }
@@ -79,10 +108,7 @@ public class CalculationEngine {
         log.debug("Calculating RSI: symbol={}, interval={}, period={}, limit={}", 
                 symbol, interval, period, limit);
         
-        IndicatorParams params = new IndicatorParams();
-        params.addParameter("period", period);
-        
-        return calculate(IndicatorType.RSI, symbol, interval, limit, params);
+        return calculate(IndicatorSpec.rsi(period), symbol, interval, limit);
     }
     
     /**
@@ -99,11 +125,7 @@ public class CalculationEngine {
         log.debug("Calculating BOLL: symbol={}, interval={}, period={}, stdDev={}, limit={}", 
                 symbol, interval, period, stdDev, limit);
         
-        IndicatorParams params = new IndicatorParams();
-        params.addParameter("period", period);
-        params.addParameter("stdDev", stdDev);
-        
-        return calculate(IndicatorType.BOLL, symbol, interval, limit, params);
+        return calculate(IndicatorSpec.boll(period, stdDev), symbol, interval, limit);
     }
     
     /**
@@ -122,12 +144,7 @@ public class CalculationEngine {
         log.debug("Calculating MACD: symbol={}, interval={}, fast={}, slow={}, signal={}, limit={}", 
                 symbol, interval, fastPeriod, slowPeriod, signalPeriod, limit);
         
-        IndicatorParams params = new IndicatorParams();
-        params.addParameter("fastPeriod", fastPeriod);
-        params.addParameter("slowPeriod", slowPeriod);
-        params.addParameter("signalPeriod", signalPeriod);
-        
-        return calculate(IndicatorType.MACD, symbol, interval, limit, params);
+        return calculate(IndicatorSpec.macd(fastPeriod, slowPeriod, signalPeriod), symbol, interval, limit);
     }
     
     /**
@@ -145,25 +162,279 @@ public class CalculationEngine {
         log.debug("Calculating Pinbar: symbol={}, interval={}, bodyRatio={}, wickRatio={}, limit={}", 
                 symbol, interval, bodyRatioThreshold, wickRatioThreshold, limit);
         
-        IndicatorParams params = new IndicatorParams();
-        params.addParameter("bodyRatioThreshold", bodyRatioThreshold);
-        params.addParameter("wickRatioThreshold", wickRatioThreshold);
+        return calculate(IndicatorSpec.pinbar(bodyRatioThreshold, wickRatioThreshold), symbol, interval, limit);
+    }
+    
+    /**
+     * Calculate several indicators for the same symbol/interval over one candle fetch
+     * 
+     * Each spec is looked up in the Redis indicator cache first. The remaining specs share
+     * a single findCandles() call (window = max(limit, longest required window)) and a
+     * single pass over the closes. Fresh results are cached under the same keys used by
+     * the single-indicator methods.
+     * 
+     * @param symbol Trading symbol
+     * @param interval Time interval
+     * @param limit Number of candles to fetch
+     * @param specs Requested indicators
+     * @return Results in the same order as specs
+     */
+    public List<IndicatorResult> calculateMulti(String symbol, String interval, int limit, List<IndicatorSpec> specs) {
+        log.debug("Calculating multi: symbol={}, interval={}, limit={}, specs={}", 
+                symbol, interval, limit, specs);
+        
+        List<IndicatorResult> results = new ArrayList<>(specs.size());
+        List<String> cacheKeys = new ArrayList<>(specs.size());
+        List<Integer> missIndexes = new ArrayList<>();
+        List<IndicatorSpec> missSpecs = new ArrayList<>();
+        int window = limit;
         
-        return calculate(IndicatorType.PINBAR, symbol, interval, limit, params);
+        try {
+            // Step 1: Check the snapshot table, then Redis cache, for each indicator result
+            RequestDeadline.check("indicator cache lookup");
+            for (int i = 0; i < specs.size(); i++) {
+                IndicatorSpec spec = specs.get(i);
+                String cacheKey = buildIndicatorCacheKey(spec.getType(), symbol, interval, spec.getParams());
+                cacheKeys.add(cacheKey);
+                
+                IndicatorResult cachedResult = lookupCached(cacheKey);
+                if (cachedResult != null) {
+                    log.debug("Indicator result cache hit: {}", cacheKey);
+                    results.add(cachedResult);
+                } else {
+                    results.add(null);
+                    missIndexes.add(i);
+                    missSpecs.add(spec);
+                    window = Math.max(window, spec.getRequiredDataPoints());
+                }
+            }
+            
+            if (missSpecs.isEmpty()) {
+                return results;
+            }
+            
+            // Step 2: Fetch the longest required window once
+            // Note: This call is intercepted by CandleDataIntegrityAspect
+            RequestDeadline.check("candle fetch");
+            List<Candle> candles = candleRepository.findCandles(symbol, interval, window);
+            
+            if (candles == null || candles.isEmpty()) {
+                log.warn("No candles available for calculation: symbol={}, interval={}", symbol, interval);
+                for (Integer index : missIndexes) {
+                    results.set(index, createErrorResult("No candle data available"));
+                }
+                return results;
+            }
+            
+            // Step 3: Calculate all missing indicators in one pass
+            RequestDeadline.check("calculation");
+            List<IndicatorResult> calculated = multiIndicatorCalculator.calculate(candles, missSpecs);
+            
+            // Step 4: Cache the results that succeeded
+            for (int i = 0; i < missIndexes.size(); i++) {
+                int index = missIndexes.get(i);
+                IndicatorResult result = calculated.get(i);
+                results.set(index, result);
+                
+                if (result != null && result.getValue() != null) {
+                    candleCacheService.cacheIndicatorResult(cacheKeys.get(index), result);
+                    log.debug("Cached indicator result: {}", cacheKeys.get(index));
+                }
+            }
+            
+            return results;
+            
+        } catch (Exception e) {
+            if (RequestDeadline.isAbort(e)) {
+                log.debug("Multi calculation abandoned: symbol={}, interval={}: {}", symbol, interval, e.getMessage());
+            } else {
+                log.error("Multi calculation error: symbol={}, interval={}", symbol, interval, e);
+            }
+            for (int i = 0; i < specs.size(); i++) {
+                if (i >= results.size()) {
+                    results.add(createErrorResult("Calculation error: " + e.getMessage()));
+                } else if (results.get(i) == null) {
+                    results.set(i, createErrorResult("Calculation error: " + e.getMessage()));
+                }
+            }
+            return results;
+        }
+    }
+    
+    /**
+     * Calculate several indicators over candles the caller already holds
+     * 
+     * No repository fetch and no indicator cache: used by live streams that keep
+     * their own candle window and need values for the latest (possibly unconfirmed) candle.
+     * 
+     * @param candles Candles in chronological order (must not be empty)
+     * @param specs Requested indicators
+     * @return Results in the same order as specs
+     */
+    public List<IndicatorResult> calculateOnCandles(List<Candle> candles, List<IndicatorSpec> specs) {
+        return multiIndicatorCalculator.calculate(candles, specs);
+    }
+    
+    /**
+     * Calculate several indicators over candles the caller already holds and store the
+     * successful results in the snapshot table and the Redis indicator cache, under the keys
+     * read by the other methods
+     * 
+     * Used to fill the caches ahead of requests (candle-close snapshots, startup warm-up).
+     * Snapshots stay valid until the candle after the last given one closes, or until the
+     * last candle itself closes if it is still updating, but never longer than the indicator
+     * cache TTL: the request path includes the in-progress candle, so a snapshot of the last
+     * close must not hide it for a whole day or week.
+     * 
+     * @param candles Candles of the series in chronological order (must not be empty)
+     * @param specs Indicators to precompute
+     * @return Results in the same order as specs
+     */
+    public List<IndicatorResult> precompute(String symbol, String interval, List<Candle> candles,
+                                            List<IndicatorSpec> specs) {
+        List<IndicatorResult> results = multiIndicatorCalculator.calculate(candles, specs);
+        long validUntil = snapshotValidUntil(interval, candles.get(candles.size() - 1),
+                System.currentTimeMillis());
+        for (int i = 0; i < specs.size(); i++) {
+            IndicatorResult result = results.get(i);
+            if (result != null && result.getValue() != null) {
+                IndicatorSpec spec = specs.get(i);
+                String cacheKey = buildIndicatorCacheKey(spec.getType(), symbol, interval, spec.getParams());
+                if (validUntil > 0) {
+                    snapshotStore.put(cacheKey, result, validUntil);
+                }
+                candleCacheService.cacheIndicatorResult(cacheKey, result);
+            }
+        }
+        return results;
+    }
+    
+    long snapshotValidUntil(String interval, Candle last, long nowMillis) {
+        CandleInterval candleInterval = CandleInterval.parse(interval);
+        if (candleInterval == null || last.getTimestamp() == null) {
+            return 0L;
+        }
+        long close = candleInterval.closeTime(last.getTimestamp().toEpochMilli());
+        long validUntil = "1".equals(last.getConfirm()) ? candleInterval.closeTime(close) : close;
+        return Math.min(validUntil, nowMillis + TimeUnit.SECONDS.toMillis(indicatorCacheTtlSeconds));
+    }
+    
+    /**
+     * Calculate the full indicator series in one linear pass
+     * 
+     * Without a range the latest {@code limit} candles are used (through the integrity-checked
+     * findCandles()). With a range, candles in [from, to] are loaded together with enough
+     * preceding candles to warm the indicator up, and only points inside the range are returned.
+     * Series results are not cached.
+     * 
+     * @param spec Indicator type and parameters (RSI, BOLL or MACD)
+     * @param symbol Trading symbol
+     * @param interval Time interval
+     * @param limit Number of candles to fetch (capped at indicator.series.max-points)
+     * @param from Range start (inclusive), or null for the latest {@code limit} candles
+     * @param to Range end (inclusive), or null for now
+     * @return IndicatorSeries with one point per candle that has a value
+     */
+    public IndicatorSeries calculateSeries(IndicatorSpec spec, String symbol, String interval,
+                                           int limit, Instant from, Instant to) {
+        log.debug("Calculating series: spec={}, symbol={}, interval={}, limit={}, from={}, to={}", 
+                spec, symbol, interval, limit, from, to);
+        
+        IndicatorType type = spec.getType();
+        if (type == IndicatorType.PINBAR) {
+            return IndicatorSeries.error("Series mode is not supported for " + type);
+        }
+        
+        try {
+            int maxPoints = limit > 0 ? Math.min(limit, seriesMaxPoints) : seriesMaxPoints;
+            List<Candle> candles;
+            
+            RequestDeadline.check("candle fetch");
+            if (from == null) {
+                // Note: This call is intercepted by CandleDataIntegrityAspect
+                candles = candleRepository.findCandles(symbol, interval, 
+                        Math.max(maxPoints, spec.getRequiredDataPoints()));
+            } else {
+                Instant end = to != null ? to : Instant.now();
+                List<Candle> range = candleRepository.findCandlesBetween(symbol, interval, from, end, maxPoints);
+                if (range.isEmpty()) {
+                    candles = range;
+                } else {
+                    candles = new ArrayList<>(candleRepository.findCandlesBefore(
+                            symbol, interval, from, spec.getRequiredDataPoints() - 1));
+                    candles.addAll(range);
+                }
+            }
+            
+            if (candles == null || candles.isEmpty()) {
+                log.warn("No candles available for series: symbol={}, interval={}", symbol, interval);
+                return IndicatorSeries.error("No candle data available");
+            }
+            
+            RequestDeadline.check("calculation");
+            IndicatorSeries series;
+            switch (type) {
+                case RSI:
+                    series = rsiCalculator.calculateSeries(candles, spec.getParams());
+                    break;
+                case BOLL:
+                    series = bollCalculator.calculateSeries(candles, spec.getParams());
+                    break;
+                case MACD:
+                    series = macdCalculator.calculateSeries(candles, spec.getParams());
+                    break;
+                default:
+                    return IndicatorSeries.error("Unsupported indicator type: " + type);
+            }
+            
+            return from != null && series.isSuccess() ? trimBefore(series, from.toEpochMilli()) : series;
+            
+        } catch (Exception e) {
+            if (RequestDeadline.isAbort(e)) {
+                log.debug("Series calculation abandoned for {}: symbol={}, interval={}: {}", 
+                        type, symbol, interval, e.getMessage());
+                return IndicatorSeries.error(e.getMessage());
+            }
+            log.error("Series calculation error for {}: symbol={}, interval={}", type, symbol, interval, e);
+            return IndicatorSeries.error("Calculation error: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Drop warm-up points that fall before the requested range start
+     */
+    private IndicatorSeries trimBefore(IndicatorSeries series, long fromMillis) {
+        long[] timestamps = series.getTimestamps();
+        int start = 0;
+        while (start < timestamps.length && timestamps[start] < fromMillis) {
+            start++;
+        }
+        if (start == 0) {
+            return series;
+        }
+        
+        IndicatorSeries trimmed = new IndicatorSeries();
+        trimmed.setTimestamps(Arrays.copyOfRange(timestamps, start, timestamps.length));
+        for (Map.Entry<String, double[]> component : series.getComponents().entrySet()) {
+            double[] values = component.getValue();
+            trimmed.addComponent(component.getKey(), Arrays.copyOfRange(values, start, values.length));
+        }
+        trimmed.setDataPoints(series.getDataPoints());
+        return trimmed;
     }
     
     /**
      * Generic calculation method using strategy pattern
      * 
-     * @param type Indicator type
+     * @param spec Indicator type and calculation parameters
      * @param symbol Trading symbol
      * @param interval Time interval
      * @param limit Number of candles
-     * @param params Calculation parameters
      * @return IndicatorResult
      */
-    private IndicatorResult calculate(IndicatorType type, String symbol, String interval, 
-                                      int limit, IndicatorParams params) {
+    private IndicatorResult calculate(IndicatorSpec spec, String symbol, String interval, int limit) {
+        IndicatorType type = spec.getType();
+        IndicatorParams params = spec.getParams();
         try {
             // Step 1: Get calculator for the indicator type
             TechnicalIndicator calculator = calculators.get(type);
@@ -172,9 +443,10 @@ public class CalculationEngine {
                 return createErrorResult("Unsupported indicator type: " + type);
             }
             
-            // Step 2: Check Redis cache for indicator result
+            // Step 2: Check the snapshot table, then Redis cache, for indicator result
+            RequestDeadline.check("indicator cache lookup");
             String cacheKey = buildIndicatorCacheKey(type, symbol, interval, params);
-            IndicatorResult cachedResult = candleCacheService.getIndicatorResult(cacheKey);
+            IndicatorResult cachedResult = lookupCached(cacheKey);
             if (cachedResult != null) {
                 log.debug("Indicator result cache hit: {}", cacheKey);
                 return cachedResult;
@@ -183,6 +455,7 @@ public class CalculationEngine {
             // Step 3: Fetch candles from repository
             // Note: This call is intercepted by CandleDataIntegrityAspect
             // The aspect will check Redis cache, validate data, and fetch from OKEx API if needed
+            RequestDeadline.check("candle fetch");
             List<Candle> candles = candleRepository.findCandles(symbol, interval, limit);
             
             if (candles == null || candles.isEmpty()) {
@@ -191,6 +464,7 @@ public class CalculationEngine {
             }
             
             // Step 4: Calculate indicator
+            RequestDeadline.check("calculation");
             IndicatorResult result = calculator.calculate(candles, params);
             
             // Step 5: Cache the result if calculation succeeded
@@ -202,15 +476,29 @@ public class CalculationEngine {
             return result;
             
         } catch (Exception e) {
+            if (RequestDeadline.isAbort(e)) {
+                log.debug("Calculation abandoned for {}: symbol={}, interval={}: {}", 
+                        type, symbol, interval, e.getMessage());
+                return createErrorResult(e.getMessage());
+            }
             log.error("Calculation error for {}: symbol={}, interval={}", type, symbol, interval, e);
             return createErrorResult("Calculation error: " + e.getMessage());
         }
     }
     
+    private IndicatorResult lookupCached(String cacheKey) {
+        IndicatorResult snapshot = snapshotStore.get(cacheKey);
+        if (snapshot != null) {
+            log.debug("Indicator snapshot hit: {}", cacheKey);
+            return snapshot;
+        }
+        return candleCacheService.getIndicatorResult(cacheKey);
+    }
+    
     /**
      * Build cache key for indicator result
      */
-    private String buildIndicatorCacheKey(IndicatorType type, String symbol, String interval, IndicatorParams params) {
+    String buildIndicatorCacheKey(IndicatorType type, String symbol, String interval, IndicatorParams params) {
         StringBuilder keyBuilder = new StringBuilder();
         keyBuilder.append("indicator:").append(type.name().toLowerCase())
                   .append(":").append(symbol)
@@ -0,0 +1,294 @@
+package com.supermancell.server.service;
+
+import com.supermancell.common.model.Candle;
+import com.supermancell.common.model.CandleInterval;
+import com.supermancell.server.cache.CandleGapIndex;
+import com.supermancell.server.client.OkexRestClient;
+import com.supermancell.server.repository.CandleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Targeted repair of candle gaps.
+ *
+ * Missing candles are grouped into contiguous ranges (CandleInterval slots) and only those
+ * ranges are fetched from the OKX REST API, one small request per range, so a one-candle
+ * hole costs a one-candle request instead of a full window refetch.
+ *
+ * Two ways in:
+ * - submit(): background repair of gaps reported by CandleGapIndex; the caller returns
+ *   immediately with the data it has
+ * - fetchMissing() + persistAsync(): the caller needs the candles now (strict mode), merges
+ *   them into its result and leaves the MongoDB write to the repair thread
+ *
+ * Stored candles update the gap index. Slots the exchange has no candle for are marked resolved,
+ * but only within the part of a range that was actually read: long ranges are paged by
+ * OkexRestClient and may come back partially, leaving the older slots for the next repair.
+ *
+ * Key features:
+ * - At most one pending repair per (symbol, interval)
+ * - The same series is repaired at most once per min-interval-ms
+ * - Single repair thread, so REST usage and writes stay bounded whatever the query load
+ */
+@Service
+public class CandleGapRepairWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(CandleGapRepairWorker.class);
+
+    private final OkexRestClient okexRestClient;
+    private final CandleRepository candleRepository;
+    private final CandleGapIndex candleGapIndex;
+    private final ExecutorService executor;
+
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> lastRepairMillis = new ConcurrentHashMap<>();
+
+    private final Counter repairedCounter;
+    private final Counter failedCounter;
+
+    @Value("${candle.integrity.repair.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${candle.integrity.repair.min-interval-ms:60000}")
+    private long minIntervalMs = 60_000L;
+
+    @Value("${candle.integrity.repair.max-ranges:5}")
+    private int maxRanges = 5;
+
+    public CandleGapRepairWorker(OkexRestClient okexRestClient,
+                                 CandleRepository candleRepository,
+                                 CandleGapIndex candleGapIndex,
+                                 MeterRegistry meterRegistry) {
+        this.okexRestClient = okexRestClient;
+        this.candleRepository = candleRepository;
+        this.candleGapIndex = candleGapIndex;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "candle-gap-repair");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.repairedCounter = Counter.builder("okex.candle.gap.repairs")
+                .description("Background candle gap repairs")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("okex.candle.gap.repairs")
+                .description("Background candle gap repairs")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        log.info("CandleGapRepairWorker initialized: enabled={}, minIntervalMs={}, maxRanges={}",
+                enabled, minIntervalMs, maxRanges);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Schedule a repair of the latest {@code limit} candles of a series
+     *
+     * @return true if a repair was scheduled, false if disabled, already pending or repaired recently
+     */
+    public boolean submit(String symbol, String interval, int limit) {
+        if (!enabled) {
+            return false;
+        }
+        String key = symbol + ":" + interval;
+        Long last = lastRepairMillis.get(key);
+        if (last != null && System.currentTimeMillis() - last < minIntervalMs) {
+            return false;
+        }
+        if (!pending.add(key)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    repair(symbol, interval, limit);
+                } finally {
+                    lastRepairMillis.put(key, System.currentTimeMillis());
+                    pending.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(key);
+            return false;
+        }
+        log.debug("Scheduled gap repair for {}", key);
+        return true;
+    }
+
+    /**
+     * Fetch only the missing candles of a series on the caller's thread
+     *
+     * @param missingOpenTimes Open times (epoch ms) of missing candles, oldest first
+     * @return Fetched candles in chronological order, or null if the interval is unknown or the
+     *         gaps form more than max-ranges ranges (a full refetch is cheaper then)
+     */
+    public List<Candle> fetchMissing(String symbol, String interval, List<Long> missingOpenTimes) {
+        CandleInterval candleInterval = CandleInterval.parse(interval);
+        if (candleInterval == null) {
+            return null;
+        }
+        List<long[]> ranges = toRanges(candleInterval, missingOpenTimes);
+        if (ranges.size() > maxRanges) {
+            log.debug("{} missing candles of {}:{} form {} ranges, too many for a targeted fetch",
+                    missingOpenTimes.size(), symbol, interval, ranges.size());
+            return null;
+        }
+        List<Candle> candles = new ArrayList<>();
+        for (OkexRestClient.CandleRange fetched : fetchRanges(symbol, interval, ranges)) {
+            candles.addAll(fetched.getCandles());
+        }
+        return candles;
+    }
+
+    /**
+     * Store candles fetched by fetchMissing() on the repair thread
+     *
+     * Only the part of each requested range from its oldest fetched candle on is resolved in the
+     * gap index: fetchMissing() does not report how much of a range the exchange answered.
+     *
+     * @param missingOpenTimes The open times that were requested
+     */
+    public void persistAsync(String symbol, String interval, List<Long> missingOpenTimes, List<Candle> fetched) {
+        CandleInterval candleInterval = CandleInterval.parse(interval);
+        if (candleInterval == null || fetched.isEmpty()) {
+            return;
+        }
+        List<long[]> resolved = new ArrayList<>();
+        for (long[] range : toRanges(candleInterval, missingOpenTimes)) {
+            for (Candle candle : fetched) {
+                long openTime = candle.getTimestamp().toEpochMilli();
+                if (openTime >= range[0] && openTime <= range[1]) {
+                    // fetched is chronological, so this is the oldest candle of the range
+                    resolved.add(new long[]{openTime, range[1]});
+                    break;
+                }
+            }
+        }
+        try {
+            executor.execute(() -> store(symbol, interval, fetched, resolved));
+        } catch (RejectedExecutionException e) {
+            log.warn("Repair thread is shut down, {} fetched candles of {}:{} not stored",
+                    fetched.size(), symbol, interval);
+        }
+    }
+
+    /**
+     * Get number of repairs waiting or running
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    void repair(String symbol, String interval, int limit) {
+        CandleInterval candleInterval = CandleInterval.parse(interval);
+        List<Long> missing = candleGapIndex.getMissing(symbol, interval, limit);
+        if (candleInterval == null || missing.isEmpty()) {
+            log.debug("No missing candles left for {}:{}, skipping repair", symbol, interval);
+            return;
+        }
+
+        // Newest gaps first; older ones are left for the next repair
+        List<long[]> ranges = toRanges(candleInterval, missing);
+        if (ranges.size() > maxRanges) {
+            ranges = ranges.subList(ranges.size() - maxRanges, ranges.size());
+        }
+        try {
+            List<Candle> candles = new ArrayList<>();
+            List<long[]> resolved = new ArrayList<>();
+            List<OkexRestClient.CandleRange> fetched = fetchRanges(symbol, interval, ranges);
+            for (int i = 0; i < ranges.size(); i++) {
+                candles.addAll(fetched.get(i).getCandles());
+                long coveredFrom = Math.max(ranges.get(i)[0], fetched.get(i).getCoveredFrom());
+                if (coveredFrom <= ranges.get(i)[1]) {
+                    resolved.add(new long[]{coveredFrom, ranges.get(i)[1]});
+                }
+            }
+            if (resolved.isEmpty()) {
+                log.warn("Gap repair of {}:{} could not read any range from REST API", symbol, interval);
+                failedCounter.increment();
+                return;
+            }
+            store(symbol, interval, candles, resolved);
+            repairedCounter.increment();
+            log.info("Repaired {} candle gap ranges of {}:{} with {} candles from REST API",
+                    ranges.size(), symbol, interval, candles.size());
+        } catch (Exception e) {
+            failedCounter.increment();
+            log.error("Gap repair of {}:{} failed", symbol, interval, e);
+        }
+    }
+
+    private List<OkexRestClient.CandleRange> fetchRanges(String symbol, String interval, List<long[]> ranges) {
+        List<OkexRestClient.CandleRange> fetched = new ArrayList<>();
+        for (long[] range : ranges) {
+            fetched.add(okexRestClient.getCandlesInRange(symbol, interval, range[0], range[1]));
+        }
+        return fetched;
+    }
+
+    /**
+     * @param resolved [from, to] open-time ranges that were read completely
+     */
+    private void store(String symbol, String interval, List<Candle> candles, List<long[]> resolved) {
+        if (!candles.isEmpty()) {
+            candleRepository.saveBatch(candles);
+        }
+        // Anything still missing inside a completely read range does not exist on the exchange
+        for (long[] range : resolved) {
+            candleGapIndex.resolve(symbol, interval, range[0], range[1]);
+        }
+    }
+
+    /**
+     * Group open times into contiguous [first, last] open-time ranges
+     *
+     * @param openTimes Open times in ascending order
+     */
+    static List<long[]> toRanges(CandleInterval interval, List<Long> openTimes) {
+        List<long[]> ranges = new ArrayList<>();
+        long[] current = null;
+        long lastSlot = 0;
+        for (Long openTime : openTimes) {
+            long slot = interval.slot(openTime);
+            if (current != null && slot == lastSlot + 1) {
+                current[1] = openTime;
+            } else {
+                current = new long[]{openTime, openTime};
+                ranges.add(current);
+            }
+            lastSlot = slot;
+        }
+        return ranges;
+    }
+}
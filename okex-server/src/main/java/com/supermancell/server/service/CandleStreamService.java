@@ -0,0 +1,228 @@
+package com.supermancell.server.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.supermancell.common.model.Candle;
+import com.supermancell.server.cache.RecentCandleStore;
+import com.supermancell.server.repository.CandleRepository;
+import com.supermancell.server.websocket.CandleEventDispatcher;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live candle feed (Server-Sent Events) for the dashboard chart.
+ *
+ * Flow:
+ * WebSocket candle → CandleEventDispatcher → CandleStreamService.onCandle()
+ * → [candle-stream thread] serialize once → every viewer of the same (symbol, interval)
+ *
+ * Events (data is JSON):
+ * - snapshot  Latest candles of the series in chronological order, sent once on connect
+ * - candle    One candle; a revision of the still-open candle replaces the one with the
+ *             same timestamp, confirm = "1" marks it closed
+ *
+ * Key features:
+ * - Snapshots come from RecentCandleStore; a series is seeded from the repository at most
+ *   once, so open charts do not read MongoDB or Redis afterwards
+ * - In-progress revisions of a series are coalesced while the stream thread is busy;
+ *   confirmed candles are never dropped
+ * - Nothing is serialized for series without viewers
+ */
+@Service
+public class CandleStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(CandleStreamService.class);
+
+    private final RecentCandleStore recentCandleStore;
+    private final CandleRepository candleRepository;
+    private final CandleEventDispatcher candleEventDispatcher;
+    private final ObjectMapper objectMapper;
+    private final CandleEventDispatcher.CandleListener listener = this::onCandle;
+    private final ExecutorService executor;
+
+    private final Map<String, List<SseEmitter>> viewers = new ConcurrentHashMap<>();
+    private final Map<String, Candle> pendingUpdates = new ConcurrentHashMap<>();
+    private final Set<String> seededSeries = ConcurrentHashMap.newKeySet();
+
+    @Value("${candle.stream.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs = 1_800_000L;
+
+    public CandleStreamService(RecentCandleStore recentCandleStore,
+                               CandleRepository candleRepository,
+                               CandleEventDispatcher candleEventDispatcher,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry) {
+        this.recentCandleStore = recentCandleStore;
+        this.candleRepository = candleRepository;
+        this.candleEventDispatcher = candleEventDispatcher;
+        this.objectMapper = objectMapper;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "candle-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("okex.candle.stream.viewers", this, CandleStreamService::getViewerCount)
+                .description("Open candle chart SSE connections")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        candleEventDispatcher.addListener(listener);
+        log.info("CandleStreamService initialized with emitter timeout: {}ms", emitterTimeoutMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        candleEventDispatcher.removeListener(listener);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        for (List<SseEmitter> emitters : viewers.values()) {
+            for (SseEmitter emitter : emitters) {
+                emitter.complete();
+            }
+        }
+        viewers.clear();
+    }
+
+    /**
+     * Open a live stream of one series.
+     * The snapshot is sent on the stream thread, so no candle ingested in between is lost.
+     *
+     * @param limit Number of candles in the initial snapshot (capped by the recent store capacity)
+     */
+    public SseEmitter subscribe(String symbol, String interval, int limit) {
+        String key = seriesKey(symbol, interval);
+        int snapshotSize = Math.min(limit, recentCandleStore.getCapacity());
+
+        // Seed once per series; later viewers are served from memory
+        if (recentCandleStore.size(symbol, interval) < snapshotSize && seededSeries.add(key)) {
+            try {
+                // Note: This call is intercepted by CandleDataIntegrityAspect
+                recentCandleStore.seed(symbol, interval,
+                        candleRepository.findCandles(symbol, interval, recentCandleStore.getCapacity()));
+            } catch (Exception e) {
+                seededSeries.remove(key);
+                log.warn("Failed to seed candle stream {}:{}, starting with live candles only", symbol, interval, e);
+            }
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Runnable remove = () -> removeViewer(key, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        executor.execute(() -> {
+            try {
+                List<Candle> snapshot = recentCandleStore.getRecent(symbol, interval, snapshotSize);
+                emitter.send(SseEmitter.event().name("snapshot")
+                        .data(objectMapper.writeValueAsString(snapshot), MediaType.APPLICATION_JSON));
+                viewers.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(emitter);
+                log.debug("Candle stream opened: {} ({} candles in snapshot)", key, snapshot.size());
+            } catch (Exception e) {
+                log.debug("Candle stream viewer of {} gone before snapshot: {}", key, e.getMessage());
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    /**
+     * Dispatcher callback (WebSocket thread): hand the candle to the stream thread
+     */
+    void onCandle(Candle candle) {
+        String key = seriesKey(candle.getSymbol(), candle.getInterval());
+        if (!viewers.containsKey(key)) {
+            return;
+        }
+
+        if (CandleEventDispatcher.isConfirmed(candle)) {
+            // A confirmation supersedes any pending revision of the same series
+            pendingUpdates.remove(key);
+            executor.execute(() -> broadcast(key, candle));
+            return;
+        }
+
+        // Coalesce revisions: only schedule a send if none is pending for this series
+        if (pendingUpdates.put(key, candle) == null) {
+            executor.execute(() -> {
+                Candle latest = pendingUpdates.remove(key);
+                if (latest != null) {
+                    broadcast(key, latest);
+                }
+            });
+        }
+    }
+
+    /**
+     * Get number of open viewer streams across all series
+     */
+    public int getViewerCount() {
+        int count = 0;
+        for (List<SseEmitter> emitters : viewers.values()) {
+            count += emitters.size();
+        }
+        return count;
+    }
+
+    private void broadcast(String key, Candle candle) {
+        List<SseEmitter> emitters = viewers.get(key);
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(candle);
+        } catch (IOException e) {
+            log.error("Failed to serialize candle for stream {}", key, e);
+            return;
+        }
+
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().name("candle").data(json, MediaType.APPLICATION_JSON));
+            } catch (Exception e) {
+                log.debug("Dropping candle stream viewer of {}: {}", key, e.getMessage());
+                removeViewer(key, emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private void removeViewer(String key, SseEmitter emitter) {
+        viewers.computeIfPresent(key, (k, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private static String seriesKey(String symbol, String interval) {
+        return symbol + ":" + interval;
+    }
+}
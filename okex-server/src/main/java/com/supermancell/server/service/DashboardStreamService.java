@@ -0,0 +1,386 @@
+package com.supermancell.server.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.supermancell.server.dto.ConnectionStatusDTO;
+import com.supermancell.server.dto.ReconnectionRecordDTO;
+import com.supermancell.server.dto.SubscriptionDTO;
+import com.supermancell.server.websocket.OkexWebSocketClient;
+import com.supermancell.server.websocket.SubscriptionConfig;
+import com.supermancell.server.websocket.SubscriptionConfigLoader;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Server-Sent Events feed for the monitoring dashboard.
+ *
+ * Replaces per-tab polling of /api/websocket/status, /api/metrics and /api/subscriptions.
+ * Each state is built and serialized once per change, then written to every open emitter,
+ * so the cost of an extra viewer is one socket write per event.
+ *
+ * Events (data is JSON):
+ * - snapshot      Full state, sent once when a viewer connects
+ *                 {connection, metrics, subscriptions}
+ * - connection    Changed fields of ConnectionStatusDTO (pushed on status change,
+ *                 lastMessageTime is picked up by the periodic tick)
+ * - metrics       Changed fields of SystemMetricsDTO, checked every push-interval-ms
+ * - subscriptions {added: [...], removed: [...]} when the applied subscriptions change
+ * - reconnection  A new ReconnectionRecordDTO
+ *
+ * Nothing is built while no viewer is connected.
+ *
+ * Listener callbacks arrive on the OKX WebSocket thread, so they only record the change;
+ * all state and every emitter write live on the dashboard-stream thread, where a slow
+ * viewer cannot stall message processing. Status and subscription changes are coalesced
+ * while that thread is busy; reconnection records are all delivered.
+ */
+@Service
+public class DashboardStreamService implements WebSocketStatusService.StatusListener,
+        OkexWebSocketClient.SubscriptionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardStreamService.class);
+
+    private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<Map<String, Object>>() {};
+
+    private final WebSocketStatusService statusService;
+    private final SystemMetricsService metricsService;
+    private final SubscriptionConfigLoader configLoader;
+    private final OkexWebSocketClient webSocketClient;
+    private final ObjectMapper objectMapper;
+
+    private final ExecutorService executor;
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    // Changes recorded by listener callbacks, not yet handled by the stream thread
+    private final AtomicReference<ConnectionStatusDTO> pendingStatus = new AtomicReference<>();
+    private final AtomicReference<SubscriptionConfig> pendingSubscriptions = new AtomicReference<>();
+    private final AtomicBoolean tickPending = new AtomicBoolean();
+
+    // Last state sent to viewers, used to compute deltas (stream thread only)
+    private Map<String, Object> lastConnection;
+    private Map<String, Object> lastMetrics;
+    private Map<String, SubscriptionDTO> lastSubscriptions;
+    private long lastSentMillis;
+
+    @Value("${dashboard.stream.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs = 1_800_000L;
+
+    @Value("${dashboard.stream.heartbeat-interval-ms:15000}")
+    private long heartbeatIntervalMs = 15_000L;
+
+    public DashboardStreamService(WebSocketStatusService statusService,
+                                  SystemMetricsService metricsService,
+                                  SubscriptionConfigLoader configLoader,
+                                  OkexWebSocketClient webSocketClient,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        this.statusService = statusService;
+        this.metricsService = metricsService;
+        this.configLoader = configLoader;
+        this.webSocketClient = webSocketClient;
+        this.objectMapper = objectMapper;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("okex.dashboard.viewers", emitters, List::size)
+                .description("Open dashboard SSE connections")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        statusService.addListener(this);
+        webSocketClient.addSubscriptionListener(this);
+        log.info("DashboardStreamService initialized: emitterTimeoutMs={}, heartbeatIntervalMs={}",
+                emitterTimeoutMs, heartbeatIntervalMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        statusService.removeListener(this);
+        webSocketClient.removeSubscriptionListener(this);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        for (SseEmitter emitter : emitters) {
+            emitter.complete();
+        }
+        emitters.clear();
+    }
+
+    /**
+     * Open a new viewer stream, starting with a full snapshot.
+     * The snapshot is sent on the stream thread, so no change in between is lost.
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+
+        executor.execute(() -> sendSnapshot(emitter));
+        return emitter;
+    }
+
+    private void sendSnapshot(SseEmitter emitter) {
+        if (emitters.isEmpty()) {
+            // State was not tracked while nobody was watching
+            lastConnection = toMap(statusService.getConnectionStatus());
+            lastMetrics = toMap(metricsService.getSystemMetrics());
+            lastSubscriptions = buildSubscriptions(currentConfig(), Collections.emptyMap());
+        }
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("connection", lastConnection);
+        snapshot.put("metrics", lastMetrics);
+        snapshot.put("subscriptions", new ArrayList<>(lastSubscriptions.values()));
+        try {
+            emitter.send(SseEmitter.event().name("snapshot")
+                    .data(objectMapper.writeValueAsString(snapshot), MediaType.APPLICATION_JSON));
+        } catch (IOException e) {
+            log.debug("Dashboard viewer disconnected before snapshot", e);
+            emitter.completeWithError(e);
+            return;
+        }
+
+        emitters.add(emitter);
+        log.debug("Dashboard viewer connected ({} open)", emitters.size());
+    }
+
+    /**
+     * Periodic tick: metrics and lastMessageTime deltas, plus a heartbeat comment on idle streams.
+     * Skipped while the previous tick is still queued behind a slow viewer.
+     */
+    @Scheduled(fixedDelayString = "${dashboard.stream.push-interval-ms:2000}")
+    public void pushPeriodicUpdates() {
+        if (emitters.isEmpty() || !tickPending.compareAndSet(false, true)) {
+            return;
+        }
+        executor.execute(() -> {
+            tickPending.set(false);
+            if (!emitters.isEmpty()) {
+                pushTick();
+            }
+        });
+    }
+
+    private void pushTick() {
+        Map<String, Object> metrics = toMap(metricsService.getSystemMetrics());
+        Map<String, Object> metricsDelta = diff(lastMetrics, metrics);
+        lastMetrics = metrics;
+        if (!metricsDelta.isEmpty()) {
+            broadcast("metrics", metricsDelta);
+        }
+
+        pushConnectionDelta(statusService.getConnectionStatus());
+
+        if (System.currentTimeMillis() - lastSentMillis >= heartbeatIntervalMs) {
+            broadcastComment("heartbeat");
+        }
+    }
+
+    @Override
+    public void onStatusChanged(ConnectionStatusDTO status) {
+        if (emitters.isEmpty()) {
+            return;
+        }
+        // Only schedule a push if none is pending; it sends the latest status
+        if (pendingStatus.getAndSet(status) == null) {
+            executor.execute(() -> {
+                ConnectionStatusDTO latest = pendingStatus.getAndSet(null);
+                if (latest != null && !emitters.isEmpty()) {
+                    pushConnectionDelta(latest);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void onReconnection(ReconnectionRecordDTO record) {
+        if (emitters.isEmpty()) {
+            return;
+        }
+        executor.execute(() -> {
+            if (!emitters.isEmpty()) {
+                broadcast("reconnection", record);
+            }
+        });
+    }
+
+    @Override
+    public void onSubscriptionsChanged(SubscriptionConfig config) {
+        if (emitters.isEmpty()) {
+            return;
+        }
+        if (pendingSubscriptions.getAndSet(config) == null) {
+            executor.execute(() -> {
+                SubscriptionConfig latest = pendingSubscriptions.getAndSet(null);
+                if (latest != null && !emitters.isEmpty()) {
+                    pushSubscriptionsDelta(latest);
+                }
+            });
+        }
+    }
+
+    private void pushSubscriptionsDelta(SubscriptionConfig config) {
+        Map<String, SubscriptionDTO> current = buildSubscriptions(config, lastSubscriptions);
+        List<SubscriptionDTO> added = new ArrayList<>();
+        for (Map.Entry<String, SubscriptionDTO> entry : current.entrySet()) {
+            if (!lastSubscriptions.containsKey(entry.getKey())) {
+                added.add(entry.getValue());
+            }
+        }
+        List<SubscriptionDTO> removed = new ArrayList<>();
+        for (Map.Entry<String, SubscriptionDTO> entry : lastSubscriptions.entrySet()) {
+            if (!current.containsKey(entry.getKey())) {
+                removed.add(entry.getValue());
+            }
+        }
+        lastSubscriptions = current;
+
+        if (!added.isEmpty() || !removed.isEmpty()) {
+            Map<String, Object> delta = new LinkedHashMap<>();
+            delta.put("added", added);
+            delta.put("removed", removed);
+            broadcast("subscriptions", delta);
+        }
+    }
+
+    /**
+     * Get number of open viewer streams
+     */
+    public int getViewerCount() {
+        return emitters.size();
+    }
+
+    private void pushConnectionDelta(ConnectionStatusDTO status) {
+        Map<String, Object> connection = toMap(status);
+        Map<String, Object> delta = diff(lastConnection, connection);
+        lastConnection = connection;
+        if (!delta.isEmpty()) {
+            broadcast("connection", delta);
+        }
+    }
+
+    private SubscriptionConfig currentConfig() {
+        SubscriptionConfig applied = webSocketClient.getCurrentConfig();
+        return applied != null ? applied : configLoader.loadCurrentConfig();
+    }
+
+    /**
+     * Build subscription pairs keyed by symbol|interval, keeping subscribedAt of pairs already known
+     */
+    private Map<String, SubscriptionDTO> buildSubscriptions(SubscriptionConfig config,
+                                                            Map<String, SubscriptionDTO> previous) {
+        Map<String, SubscriptionDTO> result = new LinkedHashMap<>();
+        if (config == null) {
+            return result;
+        }
+        String now = Instant.now().toString();
+        for (String symbol : config.getSymbols()) {
+            for (String interval : config.getIntervals()) {
+                String key = symbol + "|" + interval;
+                SubscriptionDTO known = previous.get(key);
+                result.put(key, known != null ? known : SubscriptionDTO.builder()
+                        .symbol(symbol)
+                        .interval(interval)
+                        .subscribedAt(now)
+                        .messagesReceived(0)
+                        .lastUpdate(now)
+                        .build());
+            }
+        }
+        return result;
+    }
+
+    private Map<String, Object> toMap(Object dto) {
+        return objectMapper.convertValue(dto, MAP_TYPE);
+    }
+
+    /**
+     * Fields of current that differ from previous (all of current if previous is null)
+     */
+    static Map<String, Object> diff(Map<String, Object> previous, Map<String, Object> current) {
+        if (previous == null) {
+            return current;
+        }
+        Map<String, Object> delta = new HashMap<>();
+        for (Map.Entry<String, Object> entry : current.entrySet()) {
+            if (!Objects.equals(previous.get(entry.getKey()), entry.getValue())) {
+                delta.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * Serialize once and write to every viewer; viewers that fail are dropped
+     */
+    private void broadcast(String eventName, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (IOException e) {
+            log.error("Failed to serialize dashboard event {}", eventName, e);
+            return;
+        }
+        send(emitter -> emitter.send(SseEmitter.event().name(eventName)
+                .data(json, MediaType.APPLICATION_JSON)));
+    }
+
+    private void broadcastComment(String comment) {
+        send(emitter -> emitter.send(SseEmitter.event().comment(comment)));
+    }
+
+    private void send(EmitterWrite write) {
+        for (SseEmitter emitter : emitters) {
+            try {
+                write.apply(emitter);
+            } catch (Exception e) {
+                log.debug("Dropping dashboard viewer: {}", e.getMessage());
+                emitters.remove(emitter);
+                emitter.completeWithError(e);
+            }
+        }
+        lastSentMillis = System.currentTimeMillis();
+    }
+
+    @FunctionalInterface
+    private interface EmitterWrite {
+        void apply(SseEmitter emitter) throws IOException;
+    }
+}
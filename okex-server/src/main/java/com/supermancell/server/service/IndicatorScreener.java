@@ -0,0 +1,456 @@
+package com.supermancell.server.service;
+
+import com.supermancell.common.model.Candle;
+import com.supermancell.common.model.IndicatorResult;
+import com.supermancell.server.cache.RecentCandleStore;
+import com.supermancell.server.websocket.CandleEventDispatcher;
+import com.supermancell.server.websocket.OkexWebSocketClient;
+import com.supermancell.server.websocket.SubscriptionConfig;
+import com.supermancell.server.websocket.SubscriptionConfigLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Screener - evaluates one indicator predicate across every subscribed (symbol, interval)
+ *
+ * Instead of one request per symbol, a single scan computes the indicator for the whole
+ * subscription universe and reports only the series that match (e.g. RSI below 30, bullish pinbar).
+ *
+ * Key features:
+ * - Uses the in-memory candle windows (RecentCandleStore): no MongoDB, Redis or REST calls
+ * - Series are split recursively and evaluated on a dedicated work-stealing ForkJoinPool
+ *   (indicator.screener.parallelism), separate from the gRPC executor
+ * - Matches are handed to the caller as they are found, one at a time
+ * - screenAsync returns immediately, so the caller's thread is not held for the scan
+ * - Series with fewer candles in memory than the indicator needs are counted as skipped
+ */
+@Service
+public class IndicatorScreener {
+
+    private static final Logger log = LoggerFactory.getLogger(IndicatorScreener.class);
+
+    /** Series evaluated per leaf task before the work is split no further */
+    private static final int LEAF_SIZE = 4;
+
+    private final RecentCandleStore recentCandleStore;
+    private final CalculationEngine calculationEngine;
+    private final OkexWebSocketClient webSocketClient;
+    private final SubscriptionConfigLoader configLoader;
+
+    private ForkJoinPool pool;
+    private ScheduledExecutorService timer;
+
+    @Value("${indicator.screener.parallelism:0}")
+    private int parallelism = 0;
+
+    @Value("${indicator.screener.window-size:300}")
+    private int windowSize = 300;
+
+    @Value("${indicator.screener.timeout-ms:5000}")
+    private long timeoutMs = 5000L;
+
+    public IndicatorScreener(RecentCandleStore recentCandleStore,
+                             CalculationEngine calculationEngine,
+                             OkexWebSocketClient webSocketClient,
+                             SubscriptionConfigLoader configLoader) {
+        this.recentCandleStore = recentCandleStore;
+        this.calculationEngine = calculationEngine;
+        this.webSocketClient = webSocketClient;
+        this.configLoader = configLoader;
+    }
+
+    @PostConstruct
+    public void init() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("indicator-screener-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "indicator-screener-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("IndicatorScreener initialized: parallelism={}, windowSize={}, timeoutMs={}",
+                threads, windowSize, timeoutMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+    }
+
+    /**
+     * Scan the subscription universe, blocking until the scan is done
+     *
+     * @param query Indicator, predicate and optional symbol/interval filters
+     * @param onMatch Receives each matching series; calls are serialized, never concurrent
+     * @return Scan counters
+     * @throws TimeoutException if the scan takes longer than indicator.screener.timeout-ms
+     *         (matches already reported stay reported)
+     */
+    public Summary screen(Query query, Consumer<Match> onMatch) throws TimeoutException {
+        CompletableFuture<Summary> result = screenAsync(query, onMatch);
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Screener scan interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw (TimeoutException) e.getCause();
+            }
+            throw new IllegalStateException("Screener scan failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Start a scan of the subscription universe without waiting for it
+     *
+     * Matches are reported from the screener's worker threads. The future fails with a
+     * TimeoutException after indicator.screener.timeout-ms; failing or cancelling it stops
+     * the scan and drops matches not yet reported.
+     *
+     * @param query Indicator, predicate and optional symbol/interval filters
+     * @param onMatch Receives each matching series; calls are serialized, never concurrent
+     * @return Scan counters once every series has been evaluated
+     */
+    public CompletableFuture<Summary> screenAsync(Query query, Consumer<Match> onMatch) {
+        long start = System.nanoTime();
+        List<String[]> series = universe(query);
+        Scan scan = new Scan(query, series, onMatch);
+        CompletableFuture<Summary> result = new CompletableFuture<>();
+        result.whenComplete((summary, error) -> {
+            if (error != null) {
+                scan.cancel();
+            }
+        });
+
+        if (series.isEmpty()) {
+            result.complete(summary(scan, start));
+            return result;
+        }
+
+        ScheduledFuture<?> timeout = timer.schedule(() -> result.completeExceptionally(
+                new TimeoutException("Screener scan exceeded " + timeoutMs + "ms")), timeoutMs, TimeUnit.MILLISECONDS);
+        pool.execute(() -> {
+            try {
+                new ScanTask(scan, 0, series.size()).invoke();
+                result.complete(summary(scan, start));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            } finally {
+                timeout.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    private Summary summary(Scan scan, long start) {
+        Summary summary = new Summary(scan.series.size(), scan.matched(), scan.skipped.get(),
+                TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        log.debug("Screener {} {} {} {}: {}", scan.query.spec, scan.query.field, scan.query.operator,
+                scan.query.threshold, summary);
+        return summary;
+    }
+
+    /**
+     * Evaluate one series
+     *
+     * @return The match, or null if the predicate does not hold or the series lacks data
+     */
+    Match evaluate(Query query, String symbol, String interval, AtomicInteger skipped) {
+        List<Candle> candles = recentCandleStore.getRecent(symbol, interval, windowSize);
+        if (!query.includeUnconfirmed && !candles.isEmpty()
+                && !CandleEventDispatcher.isConfirmed(candles.get(candles.size() - 1))) {
+            candles = candles.subList(0, candles.size() - 1);
+        }
+        if (candles.size() < query.spec.getRequiredDataPoints()) {
+            skipped.incrementAndGet();
+            return null;
+        }
+
+        IndicatorResult result = calculationEngine.calculateOnCandles(
+                candles, Collections.singletonList(query.spec)).get(0);
+        Double value = query.field == null
+                ? result.getValue()
+                : (result.getValues() != null ? result.getValues().get(query.field) : null);
+        if (result.getValue() == null || value == null) {
+            skipped.incrementAndGet();
+            return null;
+        }
+        if (!query.operator.test(value, query.threshold)) {
+            return null;
+        }
+        return new Match(symbol, interval, candles.get(candles.size() - 1).getTimestamp().toEpochMilli(),
+                value, result);
+    }
+
+    private List<String[]> universe(Query query) {
+        SubscriptionConfig config = webSocketClient.getCurrentConfig();
+        if (config == null) {
+            config = configLoader.loadCurrentConfig();
+        }
+        List<String[]> series = new ArrayList<>();
+        if (config == null) {
+            return series;
+        }
+        for (String symbol : config.getSymbols()) {
+            if (!query.symbols.isEmpty() && !query.symbols.contains(symbol)) {
+                continue;
+            }
+            for (String interval : config.getIntervals()) {
+                if (query.intervals.isEmpty() || query.intervals.contains(interval)) {
+                    series.add(new String[]{symbol, interval});
+                }
+            }
+        }
+        return series;
+    }
+
+    /**
+     * State shared by all tasks of one scan
+     */
+    private static final class Scan {
+        private final Query query;
+        private final List<String[]> series;
+        private final Consumer<Match> onMatch;
+        private final AtomicInteger skipped = new AtomicInteger();
+        private volatile boolean cancelled;
+        private int matched;
+
+        private Scan(Query query, List<String[]> series, Consumer<Match> onMatch) {
+            this.query = query;
+            this.series = series;
+            this.onMatch = onMatch;
+        }
+
+        /**
+         * Hand a match to the caller; serialized, and dropped once the scan was cancelled
+         */
+        synchronized void report(Match match) {
+            if (!cancelled) {
+                onMatch.accept(match);
+                matched++;
+            }
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+        }
+
+        synchronized int matched() {
+            return matched;
+        }
+    }
+
+    /**
+     * Splits the series range in halves until LEAF_SIZE, then evaluates sequentially
+     */
+    private final class ScanTask extends RecursiveAction {
+        private final Scan scan;
+        private final int from;
+        private final int to;
+
+        private ScanTask(Scan scan, int from, int to) {
+            this.scan = scan;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                for (int i = from; i < to && !scan.cancelled; i++) {
+                    String[] entry = scan.series.get(i);
+                    try {
+                        Match match = evaluate(scan.query, entry[0], entry[1], scan.skipped);
+                        if (match != null) {
+                            scan.report(match);
+                        }
+                    } catch (RuntimeException e) {
+                        scan.skipped.incrementAndGet();
+                        log.warn("Screener failed on {}:{}", entry[0], entry[1], e);
+                    }
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ScanTask(scan, from, mid), new ScanTask(scan, mid, to));
+        }
+    }
+
+    /**
+     * Comparison applied to the selected result field
+     */
+    public enum Operator {
+        LT, LTE, GT, GTE, EQ;
+
+        public boolean test(double value, double threshold) {
+            switch (this) {
+                case LT:
+                    return value < threshold;
+                case LTE:
+                    return value <= threshold;
+                case GT:
+                    return value > threshold;
+                case GTE:
+                    return value >= threshold;
+                default:
+                    return value == threshold;
+            }
+        }
+    }
+
+    /**
+     * Screener request: indicator, predicate on one of its result fields, optional universe filters
+     */
+    public static final class Query {
+        private final IndicatorSpec spec;
+        private final String field;
+        private final Operator operator;
+        private final double threshold;
+        private final Set<String> symbols;
+        private final Set<String> intervals;
+        private final boolean includeUnconfirmed;
+
+        /**
+         * @param field Result field compared (e.g. histogram, is_bullish); null or empty for the primary value
+         * @param symbols Symbols to scan, empty for all subscribed
+         * @param intervals Intervals to scan, empty for all subscribed
+         * @param includeUnconfirmed true to evaluate the still-open candle, false for the last closed one
+         */
+        public Query(IndicatorSpec spec, String field, Operator operator, double threshold,
+                     Collection<String> symbols, Collection<String> intervals, boolean includeUnconfirmed) {
+            this.spec = spec;
+            this.field = field == null || field.isEmpty() ? null : field;
+            this.operator = operator;
+            this.threshold = threshold;
+            this.symbols = symbols != null ? new LinkedHashSet<>(symbols) : Collections.<String>emptySet();
+            this.intervals = intervals != null ? new LinkedHashSet<>(intervals) : Collections.<String>emptySet();
+            this.includeUnconfirmed = includeUnconfirmed;
+        }
+
+        public IndicatorSpec getSpec() {
+            return spec;
+        }
+    }
+
+    /**
+     * One series satisfying the predicate
+     */
+    public static final class Match {
+        private final String symbol;
+        private final String interval;
+        private final long candleTimestamp;
+        private final double value;
+        private final IndicatorResult result;
+
+        public Match(String symbol, String interval, long candleTimestamp, double value, IndicatorResult result) {
+            this.symbol = symbol;
+            this.interval = interval;
+            this.candleTimestamp = candleTimestamp;
+            this.value = value;
+            this.result = result;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        public String getInterval() {
+            return interval;
+        }
+
+        /**
+         * @return Open time (epoch ms) of the candle the indicator was evaluated on
+         */
+        public long getCandleTimestamp() {
+            return candleTimestamp;
+        }
+
+        /**
+         * @return Value of the compared field
+         */
+        public double getValue() {
+            return value;
+        }
+
+        public IndicatorResult getResult() {
+            return result;
+        }
+    }
+
+    /**
+     * Counters of one scan
+     */
+    public static final class Summary {
+        private final int scanned;
+        private final int matched;
+        private final int skipped;
+        private final long elapsedMicros;
+
+        Summary(int scanned, int matched, int skipped, long elapsedMicros) {
+            this.scanned = scanned;
+            this.matched = matched;
+            this.skipped = skipped;
+            this.elapsedMicros = elapsedMicros;
+        }
+
+        public int getScanned() {
+            return scanned;
+        }
+
+        public int getMatched() {
+            return matched;
+        }
+
+        /**
+         * @return Series without enough in-memory candles or without the compared field
+         */
+        public int getSkipped() {
+            return skipped;
+        }
+
+        public long getElapsedMicros() {
+            return elapsedMicros;
+        }
+
+        @Override
+        public String toString() {
+            return "Summary{scanned=" + scanned + ", matched=" + matched + ", skipped=" + skipped
+                    + ", elapsedMicros=" + elapsedMicros + '}';
+        }
+    }
+}
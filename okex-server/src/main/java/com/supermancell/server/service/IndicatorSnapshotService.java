@@ -0,0 +1,284 @@
+package com.supermancell.server.service;
+
+import com.supermancell.common.model.Candle;
+import com.supermancell.common.model.CandleInterval;
+import com.supermancell.common.model.IndicatorResult;
+import com.supermancell.server.cache.IndicatorSnapshotStore;
+import com.supermancell.server.cache.RecentCandleStore;
+import com.supermancell.server.repository.IndicatorSnapshotRepository;
+import com.supermancell.server.websocket.CandleEventDispatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Candle-close indicator snapshots for the standard parameter sets.
+ *
+ * Most requests ask for the same few parameter sets right after a candle closes. Instead of
+ * every request computing them in that burst, each confirmed candle of a subscribed series
+ * triggers one background computation of the configured specs over the in-memory candle
+ * window (RecentCandleStore). Results go to:
+ * - IndicatorSnapshotStore, read first by CalculationEngine for matching requests
+ * - the Redis indicator cache, shared with other instances
+ * - MongoDB (indicator_snapshots), if indicator.snapshot.mongo.enabled
+ *
+ * Key features:
+ * - Single snapshot thread; listeners only enqueue, so the WebSocket thread is never blocked
+ * - Confirmations of the same series still waiting are coalesced into the latest one
+ * - Only full windows (window-size candles, no missing CandleInterval slot) are published;
+ *   a short or gapped window is skipped and requests take the integrity-checked path
+ */
+@Service
+public class IndicatorSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(IndicatorSnapshotService.class);
+
+    private final CandleEventDispatcher candleEventDispatcher;
+    private final RecentCandleStore recentCandleStore;
+    private final CalculationEngine calculationEngine;
+    private final IndicatorSnapshotStore snapshotStore;
+    private final IndicatorSnapshotRepository snapshotRepository;
+    private final CandleEventDispatcher.CandleListener listener = this::onCandle;
+    private final ExecutorService executor;
+
+    /** Latest confirmed candle per series waiting for its snapshot */
+    private final Map<String, Candle> pending = new ConcurrentHashMap<>();
+
+    private volatile List<IndicatorSpec> specs = Collections.emptyList();
+    private volatile int requiredDataPoints;
+
+    @Value("${indicator.snapshot.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${indicator.snapshot.specs:RSI:14,BOLL:20:2.0,MACD:12:26:9,PINBAR:0.2:0.6}")
+    private String specsConfig = "RSI:14,BOLL:20:2.0,MACD:12:26:9,PINBAR:0.2:0.6";
+
+    @Value("${indicator.snapshot.window-size:300}")
+    private int windowSize = 300;
+
+    @Value("${indicator.snapshot.mongo.enabled:false}")
+    private boolean mongoEnabled = false;
+
+    public IndicatorSnapshotService(CandleEventDispatcher candleEventDispatcher,
+                                    RecentCandleStore recentCandleStore,
+                                    CalculationEngine calculationEngine,
+                                    IndicatorSnapshotStore snapshotStore,
+                                    IndicatorSnapshotRepository snapshotRepository) {
+        this.candleEventDispatcher = candleEventDispatcher;
+        this.recentCandleStore = recentCandleStore;
+        this.calculationEngine = calculationEngine;
+        this.snapshotStore = snapshotStore;
+        this.snapshotRepository = snapshotRepository;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "indicator-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void init() {
+        specs = parseSpecs(specsConfig);
+        requiredDataPoints = 1;
+        for (IndicatorSpec spec : specs) {
+            requiredDataPoints = Math.max(requiredDataPoints, spec.getRequiredDataPoints());
+        }
+        if (enabled) {
+            candleEventDispatcher.addListener(listener);
+        }
+        log.info("IndicatorSnapshotService initialized: enabled={}, specs={}, windowSize={}, mongoEnabled={}",
+                enabled, specs, windowSize, mongoEnabled);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        candleEventDispatcher.removeListener(listener);
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Compute and publish the snapshot of a series over candles the caller holds
+     *
+     * Only the last window-size candles are used, and nothing is published unless they are
+     * all there: a snapshot is served ahead of every other source, so it must match what an
+     * integrity-checked request window would give.
+     *
+     * @param candles Candles in chronological order, ending with the candle the snapshot is for
+     * @return Results in the order of getSpecs(), empty if the window is short or has gaps
+     */
+    public List<IndicatorResult> publish(String symbol, String interval, List<Candle> candles) {
+        if (specs.isEmpty() || candles == null) {
+            return Collections.emptyList();
+        }
+        if (candles.size() > windowSize) {
+            candles = candles.subList(candles.size() - windowSize, candles.size());
+        }
+        String incomplete = checkWindow(interval, candles);
+        if (incomplete != null) {
+            log.debug("Skipping indicator snapshot of {}:{}: {}", symbol, interval, incomplete);
+            return Collections.emptyList();
+        }
+        List<IndicatorResult> results = calculationEngine.precompute(symbol, interval, candles, specs);
+
+        if (mongoEnabled) {
+            Candle last = candles.get(candles.size() - 1);
+            for (int i = 0; i < specs.size(); i++) {
+                IndicatorResult result = results.get(i);
+                if (result != null && result.getValue() != null) {
+                    IndicatorSpec spec = specs.get(i);
+                    snapshotRepository.save(
+                            calculationEngine.buildIndicatorCacheKey(spec.getType(), symbol, interval, spec.getParams()),
+                            symbol, interval, last.getTimestamp(), result);
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @return Indicators computed for every snapshot
+     */
+    public List<IndicatorSpec> getSpecs() {
+        return specs;
+    }
+
+    void onCandle(Candle candle) {
+        if (!CandleEventDispatcher.isConfirmed(candle) || candle.getTimestamp() == null) {
+            return;
+        }
+        String key = candle.getSymbol() + ":" + candle.getInterval();
+        if (pending.put(key, candle) != null) {
+            // A snapshot of this series is already queued and will use the newer candle
+            return;
+        }
+        try {
+            executor.execute(() -> snapshot(key));
+        } catch (RejectedExecutionException e) {
+            pending.remove(key);
+        }
+    }
+
+    void snapshot(String key) {
+        Candle candle = pending.remove(key);
+        if (candle == null) {
+            return;
+        }
+        snapshotStore.evictExpired();
+        String symbol = candle.getSymbol();
+        String interval = candle.getInterval();
+        try {
+            long start = System.currentTimeMillis();
+            List<Candle> candles = windowEndingAt(
+                    recentCandleStore.getRecent(symbol, interval, windowSize + 1), candle);
+            if (publish(symbol, interval, candles).isEmpty()) {
+                return;
+            }
+            log.debug("Published indicator snapshot of {} at {} in {}ms",
+                    key, candle.getTimestamp(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Indicator snapshot of {} failed", key, e);
+        }
+    }
+
+    /**
+     * @return Why the window cannot be published, or null if it is complete
+     */
+    private String checkWindow(String interval, List<Candle> candles) {
+        int required = Math.max(windowSize, requiredDataPoints);
+        if (candles.size() < required) {
+            return String.format("only %d of %d candles", candles.size(), required);
+        }
+        CandleInterval candleInterval = CandleInterval.parse(interval);
+        if (candleInterval == null) {
+            return "unknown interval";
+        }
+        long previous = candleInterval.slot(candles.get(0).getTimestamp().toEpochMilli());
+        for (int i = 1; i < candles.size(); i++) {
+            long slot = candleInterval.slot(candles.get(i).getTimestamp().toEpochMilli());
+            if (slot != previous + 1) {
+                return "missing candles before " + candles.get(i).getTimestamp();
+            }
+            previous = slot;
+        }
+        return null;
+    }
+
+    /**
+     * Cut the window after the confirmed candle (the next candle may already be updating)
+     * and make sure it ends with that exact candle
+     */
+    private List<Candle> windowEndingAt(List<Candle> recent, Candle confirmed) {
+        List<Candle> window = new ArrayList<>(recent.size());
+        for (Candle candle : recent) {
+            if (candle.getTimestamp().isBefore(confirmed.getTimestamp())) {
+                window.add(candle);
+            }
+        }
+        window.add(confirmed);
+        if (window.size() > windowSize) {
+            window = window.subList(window.size() - windowSize, window.size());
+        }
+        return window;
+    }
+
+    /**
+     * Parse a comma-separated spec list, e.g. {@code RSI:14,BOLL:20:2.0,MACD:12:26:9,PINBAR:0.2:0.6}
+     *
+     * @throws IllegalArgumentException on an unknown indicator or wrong parameter count
+     */
+    static List<IndicatorSpec> parseSpecs(String config) {
+        List<IndicatorSpec> parsed = new ArrayList<>();
+        if (config == null) {
+            return parsed;
+        }
+        for (String entry : config.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            String[] parts = trimmed.split(":");
+            String type = parts[0].trim().toUpperCase(Locale.ROOT);
+            try {
+                if ("RSI".equals(type) && parts.length == 2) {
+                    parsed.add(IndicatorSpec.rsi(Integer.parseInt(parts[1].trim())));
+                } else if ("BOLL".equals(type) && parts.length == 3) {
+                    parsed.add(IndicatorSpec.boll(Integer.parseInt(parts[1].trim()),
+                            Double.parseDouble(parts[2].trim())));
+                } else if ("MACD".equals(type) && parts.length == 4) {
+                    parsed.add(IndicatorSpec.macd(Integer.parseInt(parts[1].trim()),
+                            Integer.parseInt(parts[2].trim()), Integer.parseInt(parts[3].trim())));
+                } else if ("PINBAR".equals(type) && parts.length == 3) {
+                    parsed.add(IndicatorSpec.pinbar(Double.parseDouble(parts[1].trim()),
+                            Double.parseDouble(parts[2].trim())));
+                } else {
+                    throw new IllegalArgumentException("Unsupported indicator snapshot spec: " + trimmed);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid indicator snapshot spec: " + trimmed, e);
+            }
+        }
+        return parsed;
+    }
+}
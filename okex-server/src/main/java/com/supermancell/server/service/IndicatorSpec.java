@@ -0,0 +1,100 @@
+package com.supermancell.server.service;
+
+import com.supermancell.common.model.IndicatorParams;
+
+import java.util.Objects;
+
+/**
+ * IndicatorSpec - One requested indicator (type + parameters) in a composite calculation
+ * 
+ * Parameter names match those read by the calculators in the processor package.
+ * Non-positive parameters are passed through so calculators fall back to their configured defaults.
+ */
+public final class IndicatorSpec {
+    
+    private static final int DEFAULT_RSI_PERIOD = 14;
+    private static final int DEFAULT_BOLL_PERIOD = 20;
+    private static final int DEFAULT_MACD_SLOW_PERIOD = 26;
+    private static final int DEFAULT_MACD_SIGNAL_PERIOD = 9;
+    
+    private final CalculationEngine.IndicatorType type;
+    private final IndicatorParams params;
+    private final int requiredDataPoints;
+    
+    private IndicatorSpec(CalculationEngine.IndicatorType type, IndicatorParams params, int requiredDataPoints) {
+        this.type = type;
+        this.params = params;
+        this.requiredDataPoints = requiredDataPoints;
+    }
+    
+    public static IndicatorSpec rsi(int period) {
+        IndicatorParams params = new IndicatorParams();
+        params.addParameter("period", period);
+        return new IndicatorSpec(CalculationEngine.IndicatorType.RSI, params,
+                orDefault(period, DEFAULT_RSI_PERIOD) + 1);
+    }
+    
+    public static IndicatorSpec boll(int period, double stdDev) {
+        IndicatorParams params = new IndicatorParams();
+        params.addParameter("period", period);
+        params.addParameter("stdDev", stdDev);
+        return new IndicatorSpec(CalculationEngine.IndicatorType.BOLL, params,
+                orDefault(period, DEFAULT_BOLL_PERIOD));
+    }
+    
+    public static IndicatorSpec macd(int fastPeriod, int slowPeriod, int signalPeriod) {
+        IndicatorParams params = new IndicatorParams();
+        params.addParameter("fastPeriod", fastPeriod);
+        params.addParameter("slowPeriod", slowPeriod);
+        params.addParameter("signalPeriod", signalPeriod);
+        return new IndicatorSpec(CalculationEngine.IndicatorType.MACD, params,
+                orDefault(slowPeriod, DEFAULT_MACD_SLOW_PERIOD) + orDefault(signalPeriod, DEFAULT_MACD_SIGNAL_PERIOD));
+    }
+    
+    public static IndicatorSpec pinbar(double bodyRatioThreshold, double wickRatioThreshold) {
+        IndicatorParams params = new IndicatorParams();
+        params.addParameter("bodyRatioThreshold", bodyRatioThreshold);
+        params.addParameter("wickRatioThreshold", wickRatioThreshold);
+        return new IndicatorSpec(CalculationEngine.IndicatorType.PINBAR, params, 1);
+    }
+    
+    private static int orDefault(int value, int defaultValue) {
+        return value > 0 ? value : defaultValue;
+    }
+    
+    public CalculationEngine.IndicatorType getType() {
+        return type;
+    }
+    
+    public IndicatorParams getParams() {
+        return params;
+    }
+    
+    /**
+     * @return Minimum number of candles this indicator needs to produce a value
+     */
+    public int getRequiredDataPoints() {
+        return requiredDataPoints;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IndicatorSpec that = (IndicatorSpec) o;
+        return type == that.type && params.getAllParameters().equals(that.params.getAllParameters());
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, params.getAllParameters());
+    }
+    
+    @Override
+    public String toString() {
+        return "IndicatorSpec{" +
+                "type=" + type +
+                ", params=" + params.getAllParameters() +
+                '}';
+    }
+}
@@ -0,0 +1,38 @@
+package com.supermancell.server.service;
+
+/**
+ * Stages of the ingestion → signal path whose latency is recorded by LatencyTracker
+ */
+public enum LatencyStage {
+
+    /** Candle close time on the exchange → its confirmed frame received (confirmed candles only) */
+    EXCHANGE_TO_RECEIVE("exchange_to_receive", "Candle close on the exchange until its confirmation is received"),
+
+    /** WebSocket frame received → parsed into a Candle */
+    RECEIVE_TO_PARSED("receive_to_parsed", "WebSocket frame received until parsed"),
+
+    /** Candle parsed → written to MongoDB by CandleBatchWriter (buffer wait + insert) */
+    PARSED_TO_PERSISTED("parsed_to_persisted", "Candle parsed until persisted to MongoDB"),
+
+    /** Candle received → streamed indicator values handed to subscribers */
+    RECEIVE_TO_STREAM("receive_to_stream", "Candle received until streamed indicators are published"),
+
+    /** Unary gRPC request received → response completed */
+    REQUEST_TO_RESPONSE("request_to_response", "Unary gRPC request received until the call is closed");
+
+    private final String tag;
+    private final String description;
+
+    LatencyStage(String tag, String description) {
+        this.tag = tag;
+        this.description = description;
+    }
+
+    public String getTag() {
+        return tag;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,127 @@
+package com.supermancell.server.service;
+
+import com.supermancell.server.dto.LatencyStatsDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HDR latency histograms per LatencyStage.
+ * 
+ * Each stage has a lock-free HdrHistogram Recorder (microsecond resolution, 2 significant
+ * digits, up to 1 hour) whose intervals are folded into a cumulative histogram when a
+ * snapshot is taken for /api/metrics; reset() starts a new measurement. The same samples
+ * go to the Micrometer timer {@code okex.latency} tagged by stage, which Actuator exports
+ * with sliding-window percentiles.
+ */
+@Component
+public class LatencyTracker implements MeterBinder {
+
+    public static final String METRIC_NAME = "okex.latency";
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final Map<LatencyStage, StageHistogram> histograms = new EnumMap<>(LatencyStage.class);
+    private volatile Map<LatencyStage, Timer> timers;
+
+    public LatencyTracker() {
+        for (LatencyStage stage : LatencyStage.values()) {
+            histograms.put(stage, new StageHistogram());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Map<LatencyStage, Timer> bound = new EnumMap<>(LatencyStage.class);
+        for (LatencyStage stage : LatencyStage.values()) {
+            bound.put(stage, Timer.builder(METRIC_NAME)
+                    .description(stage.getDescription())
+                    .tag("stage", stage.getTag())
+                    .publishPercentiles(0.5, 0.9, 0.99, 0.999)
+                    .register(registry));
+        }
+        timers = bound;
+    }
+
+    /**
+     * Record one sample; negative durations (clock skew) are ignored
+     */
+    public void record(LatencyStage stage, long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS);
+        histograms.get(stage).recorder.recordValue(micros);
+
+        Map<LatencyStage, Timer> bound = timers;
+        if (bound != null) {
+            bound.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Record the time elapsed since a System.nanoTime() stamp; 0 means "not stamped"
+     */
+    public void recordSince(LatencyStage stage, long startNanos) {
+        if (startNanos != 0) {
+            record(stage, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Distribution of every stage since the last reset, keyed by stage tag
+     */
+    public Map<String, LatencyStatsDTO> snapshot() {
+        Map<String, LatencyStatsDTO> result = new LinkedHashMap<>();
+        for (Map.Entry<LatencyStage, StageHistogram> entry : histograms.entrySet()) {
+            result.put(entry.getKey().getTag(), entry.getValue().stats());
+        }
+        return result;
+    }
+
+    public void reset() {
+        for (StageHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    private static final class StageHistogram {
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private final Histogram cumulative = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private Histogram interval;
+
+        synchronized LatencyStatsDTO stats() {
+            interval = recorder.getIntervalHistogram(interval);
+            cumulative.add(interval);
+            if (cumulative.getTotalCount() == 0) {
+                return new LatencyStatsDTO();
+            }
+            return new LatencyStatsDTO(
+                    cumulative.getTotalCount(),
+                    cumulative.getMean() / 1000.0,
+                    millis(cumulative.getValueAtPercentile(50)),
+                    millis(cumulative.getValueAtPercentile(90)),
+                    millis(cumulative.getValueAtPercentile(99)),
+                    millis(cumulative.getValueAtPercentile(99.9)),
+                    millis(cumulative.getMaxValue()));
+        }
+
+        synchronized void reset() {
+            recorder.reset();
+            cumulative.reset();
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+}
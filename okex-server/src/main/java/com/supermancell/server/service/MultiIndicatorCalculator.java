@@ -0,0 +1,131 @@
+package com.supermancell.server.service;
+
+import com.supermancell.common.indicator.TechnicalIndicator;
+import com.supermancell.common.model.Candle;
+import com.supermancell.common.model.IndicatorResult;
+import com.supermancell.server.processor.CloseAccumulator;
+import com.supermancell.server.processor.MACDCalculator;
+import com.supermancell.server.processor.RSICalculator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MultiIndicatorCalculator - Computes several indicators over the same candle window
+ * 
+ * Recursive indicators (RSI, MACD) consume the closes through {@link CloseAccumulator}
+ * states fed from a single loop over the window. Window-tail indicators (BOLL, Pinbar)
+ * only read their last few candles and are delegated to their calculators as-is.
+ * 
+ * Results are identical to calling each calculator separately on the same window.
+ * 
+ * The fused pass bypasses the calculators' @Timed entry points, so it is timed here as
+ * okex.indicator.calculation{indicator=MULTI, mode=fused}, with the same tag keys the
+ * TimedAspect uses. BOLL and Pinbar keep being timed by their own calculators.
+ */
+class MultiIndicatorCalculator {
+    
+    private final RSICalculator rsiCalculator;
+    private final MACDCalculator macdCalculator;
+    private final Map<CalculationEngine.IndicatorType, TechnicalIndicator> calculators;
+    private final MeterRegistry meterRegistry;
+    
+    MultiIndicatorCalculator(RSICalculator rsiCalculator,
+                             MACDCalculator macdCalculator,
+                             Map<CalculationEngine.IndicatorType, TechnicalIndicator> calculators,
+                             MeterRegistry meterRegistry) {
+        this.rsiCalculator = rsiCalculator;
+        this.macdCalculator = macdCalculator;
+        this.calculators = calculators;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    /**
+     * Calculate all specs over the given candles
+     * 
+     * @param candles Candles in chronological order (must not be empty)
+     * @param specs Requested indicators
+     * @return Results in the same order as specs
+     */
+    List<IndicatorResult> calculate(List<Candle> candles, List<IndicatorSpec> specs) {
+        IndicatorResult[] results = new IndicatorResult[specs.size()];
+        if (specs.stream().anyMatch(MultiIndicatorCalculator::isFused)) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String exception = "none";
+            try {
+                calculateFused(candles, specs, results);
+            } catch (RuntimeException e) {
+                exception = e.getClass().getSimpleName();
+                throw e;
+            } finally {
+                sample.stop(fusedTimer(exception));
+            }
+        }
+        
+        for (int i = 0; i < specs.size(); i++) {
+            if (results[i] == null) {
+                IndicatorSpec spec = specs.get(i);
+                results[i] = calculators.get(spec.getType()).calculate(candles, spec.getParams());
+            }
+        }
+        return Arrays.asList(results);
+    }
+    
+    /**
+     * Single pass over the closes for every recursive indicator; fills their slots in results
+     */
+    private void calculateFused(List<Candle> candles, List<IndicatorSpec> specs, IndicatorResult[] results) {
+        CloseAccumulator[] states = new CloseAccumulator[specs.size()];
+        List<CloseAccumulator> active = new ArrayList<>();
+        
+        for (int i = 0; i < specs.size(); i++) {
+            IndicatorSpec spec = specs.get(i);
+            if (spec.getType() == CalculationEngine.IndicatorType.RSI) {
+                states[i] = rsiCalculator.newState(spec.getParams());
+                active.add(states[i]);
+            } else if (spec.getType() == CalculationEngine.IndicatorType.MACD) {
+                MACDCalculator.MACDState state = macdCalculator.newState(spec.getParams());
+                states[i] = state;
+                if (state.isValid()) {
+                    active.add(state);
+                }
+            }
+        }
+        
+        if (!active.isEmpty()) {
+            for (Candle candle : candles) {
+                double close = candle.getClose();
+                for (CloseAccumulator state : active) {
+                    state.accept(close);
+                }
+            }
+        }
+        
+        for (int i = 0; i < specs.size(); i++) {
+            if (states[i] instanceof RSICalculator.RSIState) {
+                results[i] = rsiCalculator.buildResult(candles, (RSICalculator.RSIState) states[i]);
+            } else if (states[i] instanceof MACDCalculator.MACDState) {
+                results[i] = macdCalculator.buildResult(candles, (MACDCalculator.MACDState) states[i]);
+            }
+        }
+    }
+    
+    private static boolean isFused(IndicatorSpec spec) {
+        return spec.getType() == CalculationEngine.IndicatorType.RSI
+                || spec.getType() == CalculationEngine.IndicatorType.MACD;
+    }
+    
+    private Timer fusedTimer(String exception) {
+        return Timer.builder("okex.indicator.calculation")
+                .tag("class", MultiIndicatorCalculator.class.getName())
+                .tag("method", "calculate")
+                .tag("exception", exception)
+                .tag("indicator", "MULTI")
+                .tag("mode", "fused")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,55 @@
+package com.supermancell.server.service;
+
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Deadline;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+
+/**
+ * Deadline and cancellation checks for the current gRPC request.
+ * 
+ * gRPC attaches the caller's deadline and cancellation to {@link Context#current()}.
+ * Calculation stages call {@link #check(String)} before doing expensive work
+ * (cache lookups, Mongo queries, OKX REST calls) so that requests whose caller
+ * has already given up are abandoned instead of computed and discarded.
+ * Outside a gRPC call (live streams, REST, scheduled tasks) the checks never fail.
+ */
+public final class RequestDeadline {
+
+    private RequestDeadline() {
+    }
+
+    /**
+     * Fail fast if the current request is cancelled or past its deadline
+     * 
+     * @param stage Work about to start, used in the error description
+     * @throws StatusRuntimeException DEADLINE_EXCEEDED or CANCELLED
+     */
+    public static void check(String stage) {
+        Context context = Context.current();
+        Deadline deadline = context.getDeadline();
+        if (deadline != null && deadline.isExpired()) {
+            throw Status.DEADLINE_EXCEEDED
+                    .withDescription("Deadline exceeded before " + stage)
+                    .asRuntimeException();
+        }
+        if (context.isCancelled()) {
+            Status status = Contexts.statusFromCancelled(context);
+            throw (status != null ? status : Status.CANCELLED)
+                    .withDescription("Request cancelled before " + stage)
+                    .asRuntimeException();
+        }
+    }
+
+    /**
+     * @return true if the exception is an abort raised by {@link #check(String)}
+     */
+    public static boolean isAbort(Throwable e) {
+        if (!(e instanceof StatusRuntimeException)) {
+            return false;
+        }
+        Status.Code code = ((StatusRuntimeException) e).getStatus().getCode();
+        return code == Status.Code.DEADLINE_EXCEEDED || code == Status.Code.CANCELLED;
+    }
+}
@@ -0,0 +1,78 @@
+package com.supermancell.server.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Events per second over the last N complete seconds.
+ * 
+ * Events are counted in one-second buckets of a ring; reading the rate only sums
+ * buckets and never changes state, so any number of concurrent readers see the
+ * same value. The current (incomplete) second is excluded from the rate.
+ */
+public class SlidingWindowRate {
+
+    private final int windowSeconds;
+    private final LongSupplier clockMillis;
+    private final AtomicLongArray counts;
+    private final AtomicLongArray seconds;
+
+    public SlidingWindowRate(int windowSeconds) {
+        this(windowSeconds, System::currentTimeMillis);
+    }
+
+    SlidingWindowRate(int windowSeconds, LongSupplier clockMillis) {
+        if (windowSeconds <= 0) {
+            throw new IllegalArgumentException("windowSeconds must be positive: " + windowSeconds);
+        }
+        this.windowSeconds = windowSeconds;
+        this.clockMillis = clockMillis;
+        // One extra bucket for the second currently being filled
+        this.counts = new AtomicLongArray(windowSeconds + 1);
+        this.seconds = new AtomicLongArray(windowSeconds + 1);
+        for (int i = 0; i < seconds.length(); i++) {
+            seconds.set(i, -1);
+        }
+    }
+
+    public void increment() {
+        add(1);
+    }
+
+    public void add(long events) {
+        long second = clockMillis.getAsLong() / 1000;
+        int index = (int) (second % counts.length());
+        if (seconds.get(index) != second) {
+            synchronized (this) {
+                // Bucket still holds an expired second: recycle it
+                if (seconds.get(index) != second) {
+                    counts.set(index, 0);
+                    seconds.set(index, second);
+                }
+            }
+        }
+        counts.addAndGet(index, events);
+    }
+
+    /**
+     * @return Average events per second over the last windowSeconds complete seconds
+     */
+    public double getRate() {
+        long current = clockMillis.getAsLong() / 1000;
+        long sum = 0;
+        for (long second = current - windowSeconds; second < current; second++) {
+            int index = (int) (second % counts.length());
+            if (seconds.get(index) == second) {
+                sum += counts.get(index);
+            }
+        }
+        return (double) sum / windowSeconds;
+    }
+
+    public synchronized void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+            seconds.set(i, -1);
+        }
+    }
+}
@@ -1,59 +1,112 @@
 package com.supermancell.server.service;
 
+import com.supermancell.server.dto.LatencyStatsDTO;
 import com.supermancell.server.dto.SystemMetricsDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.lang.management.OperatingSystemMXBean;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.LongAdder;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service for tracking system metrics including WebSocket messages, data processing,
  * cache statistics, and system resource usage.
- * Thread-safe implementation using atomic counters.
+ * 
+ * All counters are Micrometer meters, exported through Actuator (/actuator/metrics,
+ * /actuator/prometheus):
+ * - okex.websocket.messages      WebSocket messages received
+ * - okex.data.processed          Bytes received / persisted
+ * - okex.cache.requests          Cache lookups, tagged cache=candle|indicator, result=hit|miss
+ * - okex.candle.flush            CandleBatchWriter flush duration, tagged outcome
+ * - okex.candle.flush.size       Candles per flush
+ * 
+ * The /api/metrics view is derived from the same meters. The message rate comes from a
+ * sliding window, so reading it has no side effects. resetMetrics() only rebases this
+ * view; exported counters stay monotonic as Prometheus expects.
  */
 @Service
 public class SystemMetricsService {
     
     private static final Logger log = LoggerFactory.getLogger(SystemMetricsService.class);
     
+    public static final String CACHE_CANDLE = "candle";
+    public static final String CACHE_INDICATOR = "indicator";
+    
+    private final MeterRegistry meterRegistry;
+    private final LatencyTracker latencyTracker;
+    
     // Message statistics
-    private final LongAdder messagesReceived = new LongAdder();
-    private final AtomicLong lastMessageCount = new AtomicLong(0);
-    private final AtomicLong lastMessageTime = new AtomicLong(System.currentTimeMillis());
+    private final ResettableCounter messagesReceived;
+    private volatile SlidingWindowRate messageRate;
     
     // Data processing statistics
-    private final LongAdder dataProcessed = new LongAdder();
+    private final ResettableCounter dataProcessed;
     
-    // Cache statistics
-    private final LongAdder cacheHits = new LongAdder();
-    private final LongAdder cacheMisses = new LongAdder();
+    // Cache statistics, keyed by cache name + result
+    private final Map<String, ResettableCounter> cacheRequests = new ConcurrentHashMap<>();
     
-    // Connection pool statistics (these would be updated from actual connection pools)
-    private volatile int mongodbConnections = 0;
-    private volatile int redisConnections = 0;
+    // Batch writer statistics
+    private final Timer flushSuccess;
+    private final Timer flushFailure;
+    private final DistributionSummary flushSize;
     
     // System resource beans
     private final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
     private final OperatingSystemMXBean operatingSystemMXBean = ManagementFactory.getOperatingSystemMXBean();
     
+    @Value("${metrics.rate-window-seconds:10}")
+    private int rateWindowSeconds = 10;
+    
+    public SystemMetricsService(MeterRegistry meterRegistry, LatencyTracker latencyTracker) {
+        this.meterRegistry = meterRegistry;
+        this.latencyTracker = latencyTracker;
+        this.messagesReceived = new ResettableCounter(Counter.builder("okex.websocket.messages")
+                .description("WebSocket messages received from OKX")
+                .register(meterRegistry));
+        this.dataProcessed = new ResettableCounter(Counter.builder("okex.data.processed")
+                .description("Bytes of market data received and persisted")
+                .baseUnit("bytes")
+                .register(meterRegistry));
+        this.flushSuccess = flushTimer("success");
+        this.flushFailure = flushTimer("failure");
+        this.flushSize = DistributionSummary.builder("okex.candle.flush.size")
+                .description("Candles written per CandleBatchWriter flush")
+                .baseUnit("candles")
+                .register(meterRegistry);
+    }
+    
+    @PostConstruct
+    public void init() {
+        messageRate = new SlidingWindowRate(rateWindowSeconds);
+        log.info("SystemMetricsService initialized with rate window: {}s", rateWindowSeconds);
+    }
+    
     /**
      * Get current system metrics
      */
     public SystemMetricsDTO getSystemMetrics() {
         return SystemMetricsDTO.builder()
-                .messagesReceived(messagesReceived.sum())
-                .messagesPerSecond(calculateMessagesPerSecond())
-                .dataProcessed(dataProcessed.sum())
+                .messagesReceived((long) messagesReceived.count())
+                .messagesPerSecond(messageRate.getRate())
+                .dataProcessed((long) dataProcessed.count())
                 .cacheHitRate(calculateCacheHitRate())
-                .mongodbConnections(mongodbConnections)
-                .redisConnections(redisConnections)
+                .mongodbConnections((int) sumGauges("mongodb.driver.pool.checkedout"))
+                .redisConnections((int) sumGauges("okex.redis.pool.active"))
                 .memoryUsage(getMemoryUsage())
                 .cpuUsage(getCpuUsage())
+                .latency(latencyTracker.snapshot())
                 .build();
     }
     
@@ -61,7 +114,8 @@ public class SystemMetricsService {
      * Increment message received counter
      */
     public void incrementMessageCount() {
-        messagesReceived.increment();
+        messagesReceived.increment(1);
+        messageRate.increment();
     }
     
     /**
@@ -69,79 +123,99 @@ public class SystemMetricsService {
      */
     public void recordDataProcessed(long bytes) {
         if (bytes > 0) {
-            dataProcessed.add(bytes);
+            dataProcessed.increment(bytes);
         }
     }
     
     /**
      * Record a cache access
      * 
+     * @param cache Cache name (CACHE_CANDLE, CACHE_INDICATOR)
      * @param hit true if cache hit, false if cache miss
      */
-    public void recordCacheAccess(boolean hit) {
-        if (hit) {
-            cacheHits.increment();
-        } else {
-            cacheMisses.increment();
+    public void recordCacheAccess(String cache, boolean hit) {
+        String result = hit ? "hit" : "miss";
+        cacheRequests.computeIfAbsent(cache + ":" + result, key -> new ResettableCounter(
+                Counter.builder("okex.cache.requests")
+                        .description("Cache lookups by cache and result")
+                        .tag("cache", cache)
+                        .tag("result", result)
+                        .register(meterRegistry)))
+                .increment(1);
+    }
+    
+    /**
+     * Record one CandleBatchWriter flush
+     * 
+     * @param nanos Flush duration
+     * @param candles Number of candles written
+     * @param success false if the write failed (candles stay buffered)
+     */
+    public void recordFlush(long nanos, int candles, boolean success) {
+        (success ? flushSuccess : flushFailure).record(nanos, TimeUnit.NANOSECONDS);
+        if (success) {
+            flushSize.record(candles);
         }
     }
     
     /**
-     * Update MongoDB connections count
+     * Record the latency of one ingestion or request stage
      */
-    public void updateMongodbConnections(int count) {
-        this.mongodbConnections = Math.max(0, count);
+    public void recordLatency(LatencyStage stage, long nanos) {
+        latencyTracker.record(stage, nanos);
     }
     
     /**
-     * Update Redis connections count
+     * Record the time elapsed since a System.nanoTime() stamp (ignored when the stamp is 0)
      */
-    public void updateRedisConnections(int count) {
-        this.redisConnections = Math.max(0, count);
+    public void recordLatencySince(LatencyStage stage, long startNanos) {
+        latencyTracker.recordSince(stage, startNanos);
     }
     
     /**
-     * Calculate messages per second rate
-     * Uses sliding window approach based on time since last calculation
+     * Get latency distributions per stage since the last reset
      */
-    private double calculateMessagesPerSecond() {
-        long currentTime = System.currentTimeMillis();
-        long currentCount = messagesReceived.sum();
-        
-        long lastTime = lastMessageTime.get();
-        long lastCount = lastMessageCount.get();
-        
-        // Calculate time difference in seconds
-        double timeDiffSeconds = (currentTime - lastTime) / 1000.0;
-        
-        if (timeDiffSeconds < 0.1) {
-            // Too soon to calculate, return 0
-            return 0.0;
-        }
-        
-        // Calculate rate
-        double rate = (currentCount - lastCount) / timeDiffSeconds;
-        
-        // Update last values for next calculation
-        lastMessageTime.set(currentTime);
-        lastMessageCount.set(currentCount);
-        
-        return Math.max(0.0, rate);
+    public Map<String, LatencyStatsDTO> getLatencySnapshot() {
+        return latencyTracker.snapshot();
     }
     
     /**
-     * Calculate cache hit rate (0.0 to 1.0)
+     * Calculate cache hit rate (0.0 to 1.0) over all caches
      */
     private double calculateCacheHitRate() {
-        long hits = cacheHits.sum();
-        long misses = cacheMisses.sum();
-        long total = hits + misses;
+        double hits = 0;
+        double total = 0;
+        for (Map.Entry<String, ResettableCounter> entry : cacheRequests.entrySet()) {
+            double count = entry.getValue().count();
+            total += count;
+            if (entry.getKey().endsWith(":hit")) {
+                hits += count;
+            }
+        }
         
         if (total == 0) {
             return 0.0;
         }
         
-        return (double) hits / total;
+        return hits / total;
+    }
+    
+    private double sumGauges(String name) {
+        double sum = 0;
+        for (Gauge gauge : meterRegistry.find(name).gauges()) {
+            double value = gauge.value();
+            if (!Double.isNaN(value)) {
+                sum += value;
+            }
+        }
+        return sum;
+    }
+    
+    private Timer flushTimer(String outcome) {
+        return Timer.builder("okex.candle.flush")
+                .description("CandleBatchWriter flush duration")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
     
     /**
@@ -166,10 +240,16 @@ public class SystemMetricsService {
     
     /**
      * Get CPU usage percentage (0.0 to 1.0)
-     * Note: This is system-wide CPU load, not just JVM process
+     * Uses the JVM process CPU usage published by Micrometer's processor metrics;
+     * falls back to the normalized system load average when that gauge is not available.
      */
     private double getCpuUsage() {
         try {
+            Gauge processCpu = meterRegistry.find("process.cpu.usage").gauge();
+            if (processCpu != null && !Double.isNaN(processCpu.value()) && processCpu.value() >= 0) {
+                return Math.min(1.0, processCpu.value());
+            }
+            
             double load = operatingSystemMXBean.getSystemLoadAverage();
             int processors = operatingSystemMXBean.getAvailableProcessors();
             
@@ -192,13 +272,12 @@ public class SystemMetricsService {
      */
     public void resetMetrics() {
         messagesReceived.reset();
-        lastMessageCount.set(0);
-        lastMessageTime.set(System.currentTimeMillis());
+        messageRate.reset();
         dataProcessed.reset();
-        cacheHits.reset();
-        cacheMisses.reset();
-        mongodbConnections = 0;
-        redisConnections = 0;
+        for (ResettableCounter counter : cacheRequests.values()) {
+            counter.reset();
+        }
+        latencyTracker.reset();
         log.info("System metrics reset");
     }
     
@@ -206,24 +285,55 @@ public class SystemMetricsService {
      * Get current message count
      */
     public long getMessageCount() {
-        return messagesReceived.sum();
+        return (long) messagesReceived.count();
     }
     
     /**
      * Get current data processed
      */
     public long getDataProcessed() {
-        return dataProcessed.sum();
+        return (long) dataProcessed.count();
     }
     
     /**
      * Get cache statistics summary for logging
      */
     public String getCacheStatsSummary() {
-        long hits = cacheHits.sum();
-        long misses = cacheMisses.sum();
+        long hits = 0;
+        long misses = 0;
+        for (Map.Entry<String, ResettableCounter> entry : cacheRequests.entrySet()) {
+            if (entry.getKey().endsWith(":hit")) {
+                hits += (long) entry.getValue().count();
+            } else {
+                misses += (long) entry.getValue().count();
+            }
+        }
         double hitRate = calculateCacheHitRate();
         return String.format("Cache stats: hits=%d, misses=%d, hit_rate=%.2f%%", 
             hits, misses, hitRate * 100);
     }
+    
+    /**
+     * Monotonic Micrometer counter with a resettable baseline for the /api/metrics view
+     */
+    private static final class ResettableCounter {
+        private final Counter counter;
+        private volatile double baseline;
+        
+        ResettableCounter(Counter counter) {
+            this.counter = counter;
+        }
+        
+        void increment(double amount) {
+            counter.increment(amount);
+        }
+        
+        double count() {
+            return counter.count() - baseline;
+        }
+        
+        void reset() {
+            baseline = counter.count();
+        }
+    }
 }
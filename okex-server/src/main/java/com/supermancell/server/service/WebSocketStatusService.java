@@ -16,6 +16,9 @@ import java.util.concurrent.CopyOnWriteArrayList;
 /**
  * Service for tracking and managing WebSocket connection status and reconnection history.
  * Thread-safe implementation using CopyOnWriteArrayList for reconnection history.
+ * 
+ * Registered StatusListeners are notified synchronously on the caller's thread
+ * whenever the status or reconnection state changes.
  */
 @Service
 public class WebSocketStatusService {
@@ -37,6 +40,16 @@ public class WebSocketStatusService {
     // Thread-safe list for reconnection history
     private final List<ReconnectionRecordDTO> reconnectionHistory = new CopyOnWriteArrayList<>();
     
+    private final List<StatusListener> listeners = new CopyOnWriteArrayList<>();
+    
+    public void addListener(StatusListener listener) {
+        listeners.add(listener);
+    }
+    
+    public void removeListener(StatusListener listener) {
+        listeners.remove(listener);
+    }
+    
     /**
      * Get current connection status
      */
@@ -72,6 +85,8 @@ public class WebSocketStatusService {
         } else if ("DISCONNECTED".equals(newStatus) || "ERROR".equals(newStatus)) {
             this.disconnectedAt = now;
         }
+        
+        notifyStatusChanged();
     }
     
     /**
@@ -116,6 +131,14 @@ public class WebSocketStatusService {
         }
         
         log.info("Recorded reconnection: attempt={}, success={}, reason={}", attempt, success, reason);
+        
+        for (StatusListener listener : listeners) {
+            try {
+                listener.onReconnection(record);
+            } catch (Exception e) {
+                log.error("Status listener failed on reconnection record", e);
+            }
+        }
     }
     
     /**
@@ -143,6 +166,7 @@ public class WebSocketStatusService {
      */
     public void updateReconnectAttempts(int attempts) {
         this.reconnectAttempts = attempts;
+        notifyStatusChanged();
     }
     
     /**
@@ -150,6 +174,7 @@ public class WebSocketStatusService {
      */
     public void updateCurrentReconnectDelay(long delayMs) {
         this.currentReconnectDelay = delayMs;
+        notifyStatusChanged();
     }
     
     /**
@@ -166,4 +191,28 @@ public class WebSocketStatusService {
         reconnectionHistory.clear();
         log.info("Reconnection history cleared");
     }
+    
+    private void notifyStatusChanged() {
+        if (listeners.isEmpty()) {
+            return;
+        }
+        ConnectionStatusDTO snapshot = getConnectionStatus();
+        for (StatusListener listener : listeners) {
+            try {
+                listener.onStatusChanged(snapshot);
+            } catch (Exception e) {
+                log.error("Status listener failed on status change", e);
+            }
+        }
+    }
+    
+    /**
+     * Receiver of connection status changes
+     * Called on the WebSocket thread; implementations must not block.
+     */
+    public interface StatusListener {
+        void onStatusChanged(ConnectionStatusDTO status);
+        
+        void onReconnection(ReconnectionRecordDTO record);
+    }
 }
@@ -2,6 +2,7 @@ package com.supermancell.server.websocket;
 
 import com.supermancell.common.model.Candle;
 import com.supermancell.server.repository.CandleRepository;
+import com.supermancell.server.service.LatencyStage;
 import com.supermancell.server.service.SystemMetricsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -111,10 +112,16 @@ public class CandleBatchWriter {
         List<Candle> candlesToSave = new ArrayList<>(candleBuffer.values());
         int count = candlesToSave.size();
         
+        long startTime = System.nanoTime();
         try {
-            long startTime = System.currentTimeMillis();
             candleRepository.saveBatch(candlesToSave);
-            long duration = System.currentTimeMillis() - startTime;
+            long durationNanos = System.nanoTime() - startTime;
+            metricsService.recordFlush(durationNanos, count, true);
+            
+            // Buffer wait + insert time of every candle parsed from the WebSocket feed
+            for (Candle candle : candlesToSave) {
+                metricsService.recordLatencySince(LatencyStage.PARSED_TO_PERSISTED, candle.getParsedNanos());
+            }
             
             // Calculate approximate data size (rough estimation)
             // Each candle has symbol, interval, timestamp, OHLCV data
@@ -123,8 +130,10 @@ public class CandleBatchWriter {
             metricsService.recordDataProcessed(estimatedBytes);
             
             candleBuffer.clear();
-            log.info("Flushed {} candles to database in {}ms (~{} bytes)", count, duration, estimatedBytes);
+            log.info("Flushed {} candles to database in {}ms (~{} bytes)", count,
+                    TimeUnit.NANOSECONDS.toMillis(durationNanos), estimatedBytes);
         } catch (Exception e) {
+            metricsService.recordFlush(System.nanoTime() - startTime, count, false);
             log.error("Failed to flush {} candles to database", count, e);
             // Don't clear buffer on error to allow retry on next flush
         }
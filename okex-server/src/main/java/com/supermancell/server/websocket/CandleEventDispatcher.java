@@ -0,0 +1,70 @@
+package com.supermancell.server.websocket;
+
+import com.supermancell.common.model.Candle;
+import com.supermancell.server.cache.RecentCandleStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Fan-out point for candles parsed from the WebSocket feed.
+ * 
+ * Every candle (confirmed or still updating) first lands in the RecentCandleStore,
+ * then registered listeners are notified synchronously on the WebSocket thread.
+ * Listeners must therefore return quickly and hand heavy work to their own executors.
+ */
+@Component
+public class CandleEventDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(CandleEventDispatcher.class);
+
+    private final RecentCandleStore recentCandleStore;
+    private final List<CandleListener> listeners = new CopyOnWriteArrayList<>();
+
+    public CandleEventDispatcher(RecentCandleStore recentCandleStore) {
+        this.recentCandleStore = recentCandleStore;
+    }
+
+    public void addListener(CandleListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(CandleListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Publish a candle to the recent store and all listeners.
+     */
+    public void dispatch(Candle candle) {
+        if (candle == null) {
+            return;
+        }
+        recentCandleStore.append(candle);
+
+        for (CandleListener listener : listeners) {
+            try {
+                listener.onCandle(candle);
+            } catch (Exception e) {
+                log.error("Candle listener failed for {} {}", candle.getSymbol(), candle.getInterval(), e);
+            }
+        }
+    }
+
+    /**
+     * @return true if the candle is closed (OKX confirm flag "1")
+     */
+    public static boolean isConfirmed(Candle candle) {
+        return "1".equals(candle.getConfirm());
+    }
+
+    /**
+     * Receiver of ingested candles
+     */
+    public interface CandleListener {
+        void onCandle(Candle candle);
+    }
+}
@@ -5,6 +5,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.supermancell.common.model.Candle;
+import com.supermancell.common.model.CandleInterval;
+import com.supermancell.server.service.LatencyStage;
 import com.supermancell.server.service.SystemMetricsService;
 import com.supermancell.server.service.WebSocketStatusService;
 import org.slf4j.Logger;
@@ -24,6 +26,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -40,6 +43,7 @@ public class OkexWebSocketClient {
     private final CandleBatchWriter candleBatchWriter;
     private final WebSocketStatusService statusService;
     private final SystemMetricsService metricsService;
+    private final CandleEventDispatcher candleEventDispatcher;
     
     // Explicit constructor
     public OkexWebSocketClient(
@@ -47,7 +51,8 @@ public class OkexWebSocketClient {
             OkexMessageParser messageParser,
             CandleBatchWriter candleBatchWriter,
             WebSocketStatusService statusService,
-            SystemMetricsService metricsService) {
+            SystemMetricsService metricsService,
+            CandleEventDispatcher candleEventDispatcher) {
         this.webSocketClient = new StandardWebSocketClient();
         this.objectMapper = new ObjectMapper();
         this.subscriptionConfigLoader = subscriptionConfigLoader;
@@ -55,6 +60,7 @@ public class OkexWebSocketClient {
         this.candleBatchWriter = candleBatchWriter;
         this.statusService = statusService;
         this.metricsService = metricsService;
+        this.candleEventDispatcher = candleEventDispatcher;
     }
 
     @Value("${websocket.okex.url}")
@@ -88,6 +94,7 @@ public class OkexWebSocketClient {
     private volatile SubscriptionConfig currentConfig;
 
     private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final List<SubscriptionListener> subscriptionListeners = new CopyOnWriteArrayList<>();
     private volatile long lastMessageTimestamp = System.currentTimeMillis();
     private volatile int reconnectAttempts = 0;
     private volatile boolean heartbeatStarted = false;
@@ -134,6 +141,7 @@ public class OkexWebSocketClient {
             sendSubscribeMessages(buildAllPairs(newConfig));
             currentConfig = newConfig;
             log.info("Initial subscriptions applied: {}", newConfig);
+            notifySubscriptionsChanged(newConfig);
             return;
         }
 
@@ -155,6 +163,34 @@ public class OkexWebSocketClient {
 
         currentConfig = newConfig;
         log.info("Updated subscriptions. New config: {}", newConfig);
+        if (!toUnsubscribe.isEmpty() || !toSubscribe.isEmpty()) {
+            notifySubscriptionsChanged(newConfig);
+        }
+    }
+
+    public void addSubscriptionListener(SubscriptionListener listener) {
+        subscriptionListeners.add(listener);
+    }
+
+    public void removeSubscriptionListener(SubscriptionListener listener) {
+        subscriptionListeners.remove(listener);
+    }
+
+    /**
+     * @return Subscriptions currently applied on the connection, or null before the first apply
+     */
+    public SubscriptionConfig getCurrentConfig() {
+        return currentConfig;
+    }
+
+    private void notifySubscriptionsChanged(SubscriptionConfig config) {
+        for (SubscriptionListener listener : subscriptionListeners) {
+            try {
+                listener.onSubscriptionsChanged(config);
+            } catch (Exception e) {
+                log.error("Subscription listener failed", e);
+            }
+        }
     }
 
     private void ensureConnected() {
@@ -240,6 +276,25 @@ public class OkexWebSocketClient {
         }
     }
 
+    /**
+     * Stamp a freshly parsed candle with its ingestion times and record the
+     * exchange→receive (confirmed candles only) and receive→parsed latencies
+     */
+    private void traceReceived(Candle candle, long receivedNanos, long receivedMillis) {
+        candle.setReceivedNanos(receivedNanos);
+        candle.setParsedNanos(System.nanoTime());
+        metricsService.recordLatency(LatencyStage.RECEIVE_TO_PARSED, candle.getParsedNanos() - receivedNanos);
+
+        if (CandleEventDispatcher.isConfirmed(candle) && candle.getTimestamp() != null) {
+            CandleInterval interval = CandleInterval.parse(candle.getInterval());
+            if (interval != null) {
+                long closeMillis = interval.closeTime(candle.getTimestamp().toEpochMilli());
+                metricsService.recordLatency(LatencyStage.EXCHANGE_TO_RECEIVE,
+                        TimeUnit.MILLISECONDS.toNanos(receivedMillis - closeMillis));
+            }
+        }
+    }
+
     private void onConnected() {
         reconnectAttempts = 0;
         lastMessageTimestamp = System.currentTimeMillis();
@@ -428,6 +483,8 @@ public class OkexWebSocketClient {
         @Override
         public void handleMessage(WebSocketSession session, org.springframework.web.socket.WebSocketMessage<?> message) {
             if (message instanceof TextMessage) {
+                long receivedNanos = System.nanoTime();
+                long receivedMillis = System.currentTimeMillis();
                 String payload = ((TextMessage) message).getPayload();
                 log.debug("Received message: {}", payload);
                 lastMessageTimestamp = System.currentTimeMillis();
@@ -443,11 +500,13 @@ public class OkexWebSocketClient {
                     return;
                 }
 
-                // Parse and buffer candles for batch write
+                // Parse and buffer candles for batch write, then notify live consumers
                 try {
                     Candle candle = messageParser.parseCandle(payload);
                     if (candle != null) {
+                        traceReceived(candle, receivedNanos, receivedMillis);
                         candleBatchWriter.addCandle(candle);
+                        candleEventDispatcher.dispatch(candle);
                     }
                 } catch (Exception e) {
                     log.error("Failed to parse candle from message: {}", payload, e);
@@ -494,4 +553,11 @@ public class OkexWebSocketClient {
             return false;
         }
     }
+
+    /**
+     * Receiver of applied subscription changes
+     */
+    public interface SubscriptionListener {
+        void onSubscriptionsChanged(SubscriptionConfig config);
+    }
 }
@@ -1,9 +1,12 @@
 package com.supermancell.server.aspect;
 
 import com.supermancell.common.model.Candle;
+import com.supermancell.common.model.CandleInterval;
 import com.supermancell.server.cache.CandleCacheService;
+import com.supermancell.server.cache.CandleGapIndex;
 import com.supermancell.server.client.OkexRestClient;
 import com.supermancell.server.repository.CandleRepository;
+import com.supermancell.server.service.CandleGapRepairWorker;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -34,15 +37,22 @@ class CandleDataIntegrityAspectTest {
     @Mock
     private CandleCacheService candleCacheService;
     
+    @Mock
+    private CandleGapRepairWorker candleGapRepairWorker;
+    
     @Mock
     private ProceedingJoinPoint joinPoint;
     
+    private CandleGapIndex candleGapIndex;
+    
     private CandleDataIntegrityAspect aspect;
     
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        aspect = new CandleDataIntegrityAspect(okexRestClient, candleRepository, candleCacheService);
+        candleGapIndex = new CandleGapIndex();
+        aspect = new CandleDataIntegrityAspect(okexRestClient, candleRepository, candleCacheService,
+                candleGapIndex, candleGapRepairWorker);
         
         // Set default configuration
         ReflectionTestUtils.setField(aspect, "integrityCheckEnabled", true);
@@ -242,6 +252,177 @@ class CandleDataIntegrityAspectTest {
         verify(okexRestClient, times(1)).getCandles(symbol, interval, limit);
     }
     
+    @Test
+    void testCheckCandleDataIntegrity_IndexComplete_SkipsScanAndCaches() throws Throwable {
+        // Given: Index already covers the window without gaps
+        ReflectionTestUtils.setField(aspect, "cacheExpireSeconds", 60);
+        
+        String symbol = "BTC-USDT-SWAP";
+        String interval = "1m";
+        int limit = 10;
+        
+        List<Candle> candles = createContinuousCandles(symbol, interval, 10);
+        candleGapIndex.record(candles);
+        
+        Object[] args = {symbol, interval, limit};
+        when(joinPoint.getArgs()).thenReturn(args);
+        when(joinPoint.proceed()).thenReturn(candles);
+        
+        // When: Aspect is invoked
+        Object result = aspect.checkCandleDataIntegrity(joinPoint);
+        
+        // Then: Data is cached (TTL capped at the close of the current 1m candle) and returned without repair
+        assertEquals(candles, result);
+        verify(candleCacheService, times(1)).cacheCandles(eq(symbol), eq(interval), eq(limit), eq(candles),
+                intThat(ttl -> ttl >= 1 && ttl <= 60));
+        verify(candleGapRepairWorker, never()).submit(anyString(), anyString(), anyInt());
+    }
+    
+    @Test
+    void testCheckCandleDataIntegrity_IndexGaps_RepairsInBackground() throws Throwable {
+        // Given: Non-strict mode and an index with known gaps
+        ReflectionTestUtils.setField(aspect, "cacheExpireSeconds", 60);
+        
+        String symbol = "ETH-USDT-SWAP";
+        String interval = "1H";
+        int limit = 10;
+        
+        List<Candle> discontinuousCandles = createDiscontinuousCandles(symbol, interval, 10);
+        candleGapIndex.record(discontinuousCandles);
+        
+        Object[] args = {symbol, interval, limit};
+        when(joinPoint.getArgs()).thenReturn(args);
+        when(joinPoint.proceed()).thenReturn(discontinuousCandles);
+        
+        // When: Aspect is invoked
+        Object result = aspect.checkCandleDataIntegrity(joinPoint);
+        
+        // Then: Stored data is returned at once, repair is handed to the worker
+        assertEquals(discontinuousCandles, result);
+        verify(candleGapRepairWorker, times(1)).submit(symbol, interval, limit);
+        verify(okexRestClient, never()).getCandles(anyString(), anyString(), anyInt());
+        verify(candleCacheService, never()).cacheCandles(anyString(), anyString(), anyInt(), anyList(), anyInt());
+    }
+    
+    @Test
+    void testCheckCandleDataIntegrity_IndexGaps_StrictModeRepairsInline() throws Throwable {
+        // Given: Strict mode and an index reporting one missing candle
+        ReflectionTestUtils.setField(aspect, "strictMode", true);
+        
+        String symbol = "BTC-USDT-SWAP";
+        String interval = "1m";
+        int limit = 10;
+        
+        List<Candle> window = createContinuousCandles(symbol, interval, 10);
+        Candle hole = window.remove(4);
+        candleGapIndex.record(window);
+        List<Candle> fetched = new ArrayList<>();
+        fetched.add(hole);
+        
+        Object[] args = {symbol, interval, limit};
+        when(joinPoint.getArgs()).thenReturn(args);
+        when(joinPoint.proceed()).thenReturn(window);
+        when(candleGapRepairWorker.fetchMissing(eq(symbol), eq(interval), anyList())).thenReturn(fetched);
+        
+        // When: Aspect is invoked
+        @SuppressWarnings("unchecked")
+        List<Candle> result = (List<Candle>) aspect.checkCandleDataIntegrity(joinPoint);
+        
+        // Then: The hole is repaired before returning, not handed to the worker
+        assertEquals(10, result.size());
+        assertSame(hole, result.get(4));
+        verify(candleGapRepairWorker).persistAsync(eq(symbol), eq(interval), anyList(), eq(fetched));
+        verify(candleGapRepairWorker, never()).submit(anyString(), anyString(), anyInt());
+    }
+    
+    @Test
+    void testCacheTtlSeconds_CappedAtCandleClose() {
+        ReflectionTestUtils.setField(aspect, "cacheExpireSeconds", 600);
+        
+        int ttl = aspect.cacheTtlSeconds("1m");
+        assertTrue(ttl >= 1 && ttl <= 60, "TTL " + ttl + " outlives the current 1m candle");
+        // Unknown intervals keep the configured expiry
+        assertEquals(600, aspect.cacheTtlSeconds("7x"));
+    }
+    
+    @Test
+    void testCheckCandleDataIntegrity_DailyDiscontinuousData_StrictMode() throws Throwable {
+        // Given: Daily candles with gaps (previously skipped: only 1m and 1H were checked)
+        ReflectionTestUtils.setField(aspect, "strictMode", true);
+        
+        String symbol = "BTC-USDT-SWAP";
+        String interval = "1Dutc";
+        int limit = 10;
+        
+        List<Candle> discontinuousCandles = createDiscontinuousCandles(symbol, interval, 10);
+        List<Candle> completeCandles = createContinuousCandles(symbol, interval, 10);
+        
+        Object[] args = {symbol, interval, limit};
+        when(joinPoint.getArgs()).thenReturn(args);
+        when(joinPoint.proceed()).thenReturn(discontinuousCandles);
+        when(okexRestClient.getCandles(symbol, interval, limit)).thenReturn(completeCandles);
+        
+        // When: Aspect is invoked
+        Object result = aspect.checkCandleDataIntegrity(joinPoint);
+        
+        // Then: Gaps are detected and complete data is fetched
+        assertEquals(completeCandles, result);
+        verify(okexRestClient, times(1)).getCandles(symbol, interval, limit);
+    }
+    
+    @Test
+    void testCheckCandleDataIntegrity_SingleMissingCandle_TargetedRepair() throws Throwable {
+        // Given: Strict mode and one candle missing in the middle of the window
+        ReflectionTestUtils.setField(aspect, "strictMode", true);
+        
+        String symbol = "BTC-USDT-SWAP";
+        String interval = "1m";
+        int limit = 10;
+        
+        List<Candle> window = createContinuousCandles(symbol, interval, 10);
+        Candle hole = window.remove(4);
+        List<Candle> fetched = new ArrayList<>();
+        fetched.add(hole);
+        
+        Object[] args = {symbol, interval, limit};
+        when(joinPoint.getArgs()).thenReturn(args);
+        when(joinPoint.proceed()).thenReturn(window);
+        when(candleGapRepairWorker.fetchMissing(eq(symbol), eq(interval), anyList())).thenReturn(fetched);
+        
+        // When: Aspect is invoked
+        @SuppressWarnings("unchecked")
+        List<Candle> result = (List<Candle>) aspect.checkCandleDataIntegrity(joinPoint);
+        
+        // Then: Only the hole is fetched, merged in place and persisted in the background
+        assertEquals(10, result.size());
+        assertSame(hole, result.get(4));
+        verify(candleGapRepairWorker).persistAsync(eq(symbol), eq(interval), anyList(), eq(fetched));
+        verify(okexRestClient, never()).getCandles(anyString(), anyString(), anyInt());
+        verify(candleRepository, never()).saveBatch(anyList());
+    }
+    
+    @Test
+    void testMissingOpenTimes_WindowEndsAtLastClosedCandle() {
+        CandleInterval minute = CandleInterval.parse("1m");
+        long now = 1_700_000_070_000L; // 30s into a minute
+        long lastClosed = minute.openTime(now) - 60_000L;
+        
+        List<Candle> candles = new ArrayList<>();
+        for (int i = 4; i >= 0; i--) {
+            if (i != 2) {
+                Candle candle = new Candle();
+                candle.setTimestamp(Instant.ofEpochMilli(lastClosed - i * 60_000L));
+                candles.add(candle);
+            }
+        }
+        
+        List<Long> missing = CandleDataIntegrityAspect.missingOpenTimes(minute, candles, 6, now);
+        
+        assertEquals(2, missing.size());
+        assertEquals(lastClosed - 5 * 60_000L, missing.get(0).longValue());
+        assertEquals(lastClosed - 2 * 60_000L, missing.get(1).longValue());
+    }
+    
     // Helper methods
     
     /**
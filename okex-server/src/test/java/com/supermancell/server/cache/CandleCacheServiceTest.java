@@ -2,6 +2,7 @@ package com.supermancell.server.cache;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.supermancell.common.model.Candle;
+import com.supermancell.server.service.SystemMetricsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -29,6 +30,9 @@ class CandleCacheServiceTest {
     @Mock
     private Jedis jedis;
     
+    @Mock
+    private SystemMetricsService metricsService;
+    
     private CandleCacheService candleCacheService;
     private ObjectMapper objectMapper;
     
@@ -36,7 +40,7 @@ class CandleCacheServiceTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         objectMapper = new ObjectMapper();
-        candleCacheService = new CandleCacheService(jedisPool, objectMapper);
+        candleCacheService = new CandleCacheService(jedisPool, objectMapper, metricsService);
         
         // Enable Redis by default
         ReflectionTestUtils.setField(candleCacheService, "redisEnabled", true);
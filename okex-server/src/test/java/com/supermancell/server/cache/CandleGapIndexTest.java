@@ -0,0 +1,100 @@
+package com.supermancell.server.cache;
+
+import com.supermancell.common.model.Candle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CandleGapIndex
+ */
+class CandleGapIndexTest {
+
+    private static final String SYMBOL = "BTC-USDT-SWAP";
+    private static final String INTERVAL = "1m";
+    private static final long BASE = 1_700_000_040_000L; // minute-aligned
+
+    private CandleGapIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CandleGapIndex();
+        ReflectionTestUtils.setField(index, "maxSlots", 100);
+    }
+
+    @Test
+    void testCheck_UnknownSeries() {
+        assertEquals(CandleGapIndex.Status.UNKNOWN, index.check(SYMBOL, INTERVAL, 10));
+    }
+
+    @Test
+    void testRecord_ContiguousCandlesAreComplete() {
+        for (int i = 0; i < 10; i++) {
+            index.record(createCandle(i));
+        }
+
+        assertEquals(CandleGapIndex.Status.COMPLETE, index.check(SYMBOL, INTERVAL, 10));
+        // Window reaching before the first recorded slot is not covered
+        assertEquals(CandleGapIndex.Status.UNKNOWN, index.check(SYMBOL, INTERVAL, 11));
+    }
+
+    @Test
+    void testRecord_SkippedSlotsBecomeGapsUntilFilled() {
+        index.record(Arrays.asList(createCandle(0), createCandle(1), createCandle(4)));
+
+        assertEquals(CandleGapIndex.Status.GAPS, index.check(SYMBOL, INTERVAL, 5));
+        assertEquals(CandleGapIndex.Status.COMPLETE, index.check(SYMBOL, INTERVAL, 1));
+        assertEquals(Arrays.asList(BASE + 120_000L, BASE + 180_000L), index.getMissing(SYMBOL, INTERVAL, 5));
+
+        // Late writes (e.g. a repair) fill the gap
+        index.record(Arrays.asList(createCandle(2), createCandle(3)));
+        assertEquals(CandleGapIndex.Status.COMPLETE, index.check(SYMBOL, INTERVAL, 5));
+    }
+
+    @Test
+    void testObserve_ExtendsCoverageBackwards() {
+        index.record(createCandle(10));
+        index.observe(SYMBOL, INTERVAL, Arrays.asList(createCandle(5), createCandle(7), createCandle(8),
+                createCandle(9), createCandle(10)));
+
+        assertEquals(CandleGapIndex.Status.GAPS, index.check(SYMBOL, INTERVAL, 6));
+        assertEquals(CandleGapIndex.Status.COMPLETE, index.check(SYMBOL, INTERVAL, 4));
+        assertEquals(Collections.singletonList(BASE + 6 * 60_000L), index.getMissing(SYMBOL, INTERVAL, 6));
+    }
+
+    @Test
+    void testResolve_ForgetsExchangeHoles() {
+        index.record(Arrays.asList(createCandle(0), createCandle(3)));
+        assertEquals(2, index.getMissingCount(SYMBOL, INTERVAL));
+
+        index.resolve(SYMBOL, INTERVAL, BASE, BASE + 3 * 60_000L);
+
+        assertEquals(0, index.getMissingCount(SYMBOL, INTERVAL));
+        assertEquals(CandleGapIndex.Status.COMPLETE, index.check(SYMBOL, INTERVAL, 4));
+    }
+
+    @Test
+    void testRecord_CoverageBoundedByMaxSlots() {
+        index.record(createCandle(0));
+        index.record(createCandle(500));
+
+        assertEquals(99, index.getMissingCount(SYMBOL, INTERVAL));
+        assertEquals(CandleGapIndex.Status.UNKNOWN, index.check(SYMBOL, INTERVAL, 101));
+    }
+
+    private Candle createCandle(int minute) {
+        Candle candle = new Candle();
+        candle.setSymbol(SYMBOL);
+        candle.setInterval(INTERVAL);
+        candle.setTimestamp(Instant.ofEpochMilli(BASE + minute * 60_000L));
+        candle.setClose(100.0 + minute);
+        candle.setConfirm("1");
+        return candle;
+    }
+}
@@ -0,0 +1,87 @@
+package com.supermancell.server.cache;
+
+import com.supermancell.common.model.Candle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RecentCandleStore
+ */
+class RecentCandleStoreTest {
+
+    private static final String SYMBOL = "BTC-USDT-SWAP";
+    private static final String INTERVAL = "1m";
+
+    private RecentCandleStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new RecentCandleStore();
+        ReflectionTestUtils.setField(store, "capacity", 3);
+    }
+
+    @Test
+    void testAppend_ReplacesInProgressCandle() {
+        store.append(createCandle(0, 100.0, "0"));
+        store.append(createCandle(0, 101.0, "1"));
+
+        List<Candle> recent = store.getRecent(SYMBOL, INTERVAL, 10);
+        assertEquals(1, recent.size());
+        assertEquals(101.0, recent.get(0).getClose());
+        assertEquals(2, store.getVersion(SYMBOL, INTERVAL));
+    }
+
+    @Test
+    void testAppend_EvictsOldestBeyondCapacity() {
+        for (int i = 0; i < 5; i++) {
+            store.append(createCandle(i, 100.0 + i, "1"));
+        }
+
+        List<Candle> recent = store.getRecent(SYMBOL, INTERVAL, 10);
+        assertEquals(3, recent.size());
+        assertEquals(102.0, recent.get(0).getClose());
+        assertEquals(104.0, recent.get(2).getClose());
+    }
+
+    @Test
+    void testSeed_MergesHistoryWithLiveCandles() {
+        store.append(createCandle(2, 200.0, "0"));
+        store.seed(SYMBOL, INTERVAL, Arrays.asList(
+                createCandle(0, 100.0, "1"),
+                createCandle(1, 101.0, "1"),
+                createCandle(2, 102.0, "1")));
+
+        List<Candle> recent = store.getRecent(SYMBOL, INTERVAL, 10);
+        assertEquals(3, recent.size());
+        assertEquals(100.0, recent.get(0).getClose());
+        // Live candle wins over the stored copy
+        assertEquals(200.0, recent.get(2).getClose());
+    }
+
+    @Test
+    void testGetRecent_UnknownSeries() {
+        assertTrue(store.getRecent("ETH-USDT-SWAP", INTERVAL, 10).isEmpty());
+        assertEquals(0, store.getVersion("ETH-USDT-SWAP", INTERVAL));
+    }
+
+    private Candle createCandle(int minute, double close, String confirm) {
+        Candle candle = new Candle();
+        candle.setSymbol(SYMBOL);
+        candle.setInterval(INTERVAL);
+        candle.setTimestamp(Instant.ofEpochSecond(1_700_000_000L + minute * 60L));
+        candle.setOpen(close);
+        candle.setHigh(close + 1);
+        candle.setLow(close - 1);
+        candle.setClose(close);
+        candle.setVolume(1000.0);
+        candle.setConfirm(confirm);
+        return candle;
+    }
+}
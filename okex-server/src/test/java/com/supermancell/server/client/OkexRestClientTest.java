@@ -7,9 +7,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 /**
  * Unit tests for OkexRestClient
@@ -18,6 +21,8 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 class OkexRestClientTest {
     
+    private static final long MINUTE = 60_000L;
+    
     private OkexRestClient okexRestClient;
     private ObjectMapper objectMapper;
     
@@ -175,4 +180,86 @@ class OkexRestClientTest {
                     "Low should be <= High");
         }
     }
+    
+    @Test
+    void testGetCandlesInRange_PagesThroughLongRange() {
+        // 700 recent minutes with one exchange hole: three pages on the recent endpoint
+        long to = MINUTE * (System.currentTimeMillis() / MINUTE) - MINUTE;
+        long from = to - 699 * MINUTE;
+        long hole = from + 10 * MINUTE;
+        OkexRestClient client = fakeExchange(from - 1000 * MINUTE, hole);
+        
+        OkexRestClient.CandleRange range = client.getCandlesInRange("BTC-USDT-SWAP", "1m", from, to);
+        
+        assertEquals(from, range.getCoveredFrom());
+        assertEquals(699, range.getCandles().size());
+        assertEquals(from, range.getCandles().get(0).getTimestamp().toEpochMilli());
+        assertEquals(to, range.getCandles().get(698).getTimestamp().toEpochMilli());
+        verify(client, times(3)).fetchPage(anyString(), anyString(), eq(false), anyInt(), any());
+        verify(client, never()).fetchPage(anyString(), anyString(), eq(true), anyInt(), any());
+    }
+    
+    @Test
+    void testGetCandlesInRange_OldRangeUsesHistoryEndpoint() {
+        // 250 minutes ending 2000 bars ago: only history-candles serves them, 100 per page
+        long to = MINUTE * (System.currentTimeMillis() / MINUTE) - 2000 * MINUTE;
+        long from = to - 249 * MINUTE;
+        OkexRestClient client = fakeExchange(from - 1000 * MINUTE, -1);
+        
+        OkexRestClient.CandleRange range = client.getCandlesInRange("BTC-USDT-SWAP", "1m", from, to);
+        
+        assertEquals(from, range.getCoveredFrom());
+        assertEquals(250, range.getCandles().size());
+        verify(client, times(3)).fetchPage(anyString(), anyString(), eq(true), intThat(limit -> limit <= 100), any());
+        verify(client, never()).fetchPage(anyString(), anyString(), eq(false), anyInt(), any());
+    }
+    
+    @Test
+    void testGetCandlesInRange_PageLimitReportsPartialCoverage() {
+        long to = MINUTE * (System.currentTimeMillis() / MINUTE) - MINUTE;
+        long from = to - 999 * MINUTE;
+        OkexRestClient client = fakeExchange(from - 1000 * MINUTE, -1);
+        ReflectionTestUtils.setField(client, "maxRangePages", 2);
+        
+        OkexRestClient.CandleRange range = client.getCandlesInRange("BTC-USDT-SWAP", "1m", from, to);
+        
+        assertEquals(600, range.getCandles().size());
+        assertEquals(range.getCandles().get(0).getTimestamp().toEpochMilli(), range.getCoveredFrom());
+        assertEquals(to - 599 * MINUTE, range.getCoveredFrom());
+    }
+    
+    @Test
+    void testGetCandlesInRange_FailedRequestCoversNothing() {
+        OkexRestClient client = spy(okexRestClient);
+        doReturn(null).when(client).fetchPage(anyString(), anyString(), anyBoolean(), anyInt(), any());
+        long to = MINUTE * (System.currentTimeMillis() / MINUTE) - MINUTE;
+        
+        OkexRestClient.CandleRange range = client.getCandlesInRange("BTC-USDT-SWAP", "1m", to - 5 * MINUTE, to);
+        
+        assertTrue(range.getCandles().isEmpty());
+        assertEquals(to + 1, range.getCoveredFrom());
+    }
+    
+    /**
+     * Spy whose requests are answered from a 1m series listed at {@code listedAt}, one candle
+     * per minute up to the last closed one, without the candle at {@code hole}
+     */
+    private OkexRestClient fakeExchange(long listedAt, long hole) {
+        OkexRestClient client = spy(okexRestClient);
+        long latest = MINUTE * (System.currentTimeMillis() / MINUTE) - MINUTE;
+        doAnswer(invocation -> {
+            int limit = invocation.getArgument(3);
+            Long after = invocation.getArgument(4);
+            List<Candle> page = new ArrayList<>();
+            for (long t = Math.min(latest, MINUTE * ((after - 1) / MINUTE)); t >= listedAt && page.size() < limit; t -= MINUTE) {
+                if (t != hole) {
+                    Candle candle = new Candle();
+                    candle.setTimestamp(Instant.ofEpochMilli(t));
+                    page.add(0, candle);
+                }
+            }
+            return page;
+        }).when(client).fetchPage(anyString(), anyString(), anyBoolean(), anyInt(), any());
+        return client;
+    }
 }
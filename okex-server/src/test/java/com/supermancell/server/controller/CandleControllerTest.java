@@ -0,0 +1,139 @@
+package com.supermancell.server.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.okex.common.proto.IndicatorServiceProto.CandleColumns;
+import com.supermancell.common.model.Candle;
+import com.supermancell.server.repository.CandleRepository;
+import com.supermancell.server.service.CandleStreamService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.protobuf.ProtobufHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for CandleController conditional GET and representations
+ */
+class CandleControllerTest {
+
+    private static final String SYMBOL = "BTC-USDT-SWAP";
+    private static final String INTERVAL = "1m";
+
+    private CandleRepository candleRepository;
+    private MockMvc mockMvc;
+    private List<Candle> candles;
+
+    @BeforeEach
+    void setUp() {
+        candleRepository = mock(CandleRepository.class);
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new CandleController(candleRepository, mock(CandleStreamService.class)))
+                .setMessageConverters(new ProtobufHttpMessageConverter(),
+                        new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+
+        candles = new ArrayList<>(Arrays.asList(createCandle(0, 100.0, "1"), createCandle(1, 101.0, "0")));
+        when(candleRepository.findCandles(SYMBOL, INTERVAL, 300)).thenAnswer(invocation -> candles);
+    }
+
+    @Test
+    void testGetCandles_DefaultJsonWithValidators() throws Exception {
+        mockMvc.perform(get("/api/candles").param("symbol", SYMBOL).param("interval", INTERVAL)
+                        .header(HttpHeaders.ACCEPT, "application/json, text/plain, */*"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[1].close").value(101.0))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"));
+
+        // Wildcard Accept still gets the default representation
+        mockMvc.perform(get("/api/candles").param("symbol", SYMBOL).param("interval", INTERVAL)
+                        .header(HttpHeaders.ACCEPT, "*/*"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].close").value(100.0));
+    }
+
+    @Test
+    void testGetCandles_NotModifiedUntilOpenCandleChanges() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/candles").param("symbol", SYMBOL).param("interval", INTERVAL))
+                .andExpect(status().isOk())
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertTrue(etag.startsWith("W/"));
+
+        mockMvc.perform(get("/api/candles").param("symbol", SYMBOL).param("interval", INTERVAL)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // Revision of the open candle: same timestamp, new close
+        candles.set(1, createCandle(1, 101.5, "0"));
+        mockMvc.perform(get("/api/candles").param("symbol", SYMBOL).param("interval", INTERVAL)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[1].close").value(101.5));
+    }
+
+    @Test
+    void testGetCandles_ColumnarJson() throws Exception {
+        mockMvc.perform(get("/api/candles").param("symbol", SYMBOL).param("interval", INTERVAL)
+                        .header(HttpHeaders.ACCEPT, CandleResponses.COLUMNAR_JSON_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.close[0]").value(100.0))
+                .andExpect(jsonPath("$.data.close[1]").value(101.0))
+                .andExpect(jsonPath("$.data.confirmed[0]").value(true))
+                .andExpect(jsonPath("$.data.confirmed[1]").value(false));
+    }
+
+    @Test
+    void testGetCandles_Protobuf() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/candles").param("symbol", SYMBOL).param("interval", INTERVAL)
+                        .header(HttpHeaders.ACCEPT, CandleResponses.PROTOBUF_VALUE))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        CandleColumns columns = CandleColumns.parseFrom(result.getResponse().getContentAsByteArray());
+        assertEquals(SYMBOL, columns.getSymbol());
+        assertEquals(2, columns.getTimestampsCount());
+        assertEquals(candles.get(1).getTimestamp().toEpochMilli(), columns.getTimestamps(1));
+        assertEquals(101.0, columns.getClose(1));
+    }
+
+    @Test
+    void testEtag_DiffersPerRepresentation() {
+        assertNotEquals(CandleResponses.etag(candles, "json"), CandleResponses.etag(candles, "columnar"));
+    }
+
+    private Candle createCandle(int minute, double close, String confirm) {
+        Candle candle = new Candle();
+        candle.setSymbol(SYMBOL);
+        candle.setInterval(INTERVAL);
+        candle.setTimestamp(Instant.ofEpochSecond(1_700_000_000L + minute * 60L));
+        candle.setOpen(close);
+        candle.setHigh(close + 1);
+        candle.setLow(close - 1);
+        candle.setClose(close);
+        candle.setVolume(1000.0);
+        candle.setConfirm(confirm);
+        candle.setCreatedAt(Instant.ofEpochSecond(1_700_000_000L + minute * 60L + 30));
+        return candle;
+    }
+}
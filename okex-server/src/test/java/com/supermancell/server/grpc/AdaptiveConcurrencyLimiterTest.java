@@ -0,0 +1,336 @@
+package com.supermancell.server.grpc;
+
+import com.okex.common.proto.IndicatorServiceGrpc;
+import com.okex.common.proto.IndicatorServiceProto.BaseRequest;
+import com.okex.common.proto.IndicatorServiceProto.BatchRSIRequest;
+import com.okex.common.proto.IndicatorServiceProto.IndicatorResponse;
+import com.okex.common.proto.IndicatorServiceProto.PackedBatchRequest;
+import com.okex.common.proto.IndicatorServiceProto.PackedQuery;
+import com.okex.common.proto.IndicatorServiceProto.RSIRequest;
+import com.okex.common.proto.IndicatorServiceProto.ScreenRequest;
+import com.okex.common.proto.IndicatorServiceProto.SeriesResponse;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.grpc.Context;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the AIMD logic of AdaptiveConcurrencyLimiter
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new AdaptiveConcurrencyLimiter();
+        ReflectionTestUtils.setField(limiter, "initialLimit", 4);
+        ReflectionTestUtils.setField(limiter, "minLimit", 2);
+        ReflectionTestUtils.setField(limiter, "maxLimit", 6);
+        ReflectionTestUtils.setField(limiter, "backoffRatio", 0.5);
+        ReflectionTestUtils.setField(limiter, "latencyThresholdMs", 100L);
+        limiter.init();
+    }
+
+    @Test
+    void testTryAcquire_RejectsBeyondLimit() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        assertEquals(4, limiter.getInFlight());
+
+        limiter.releaseWithoutSample();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void testRelease_FastUtilizedCallsIncreaseLimitUpToMax() {
+        for (int round = 0; round < 10; round++) {
+            int limit = limiter.getLimit();
+            for (int i = 0; i < limit; i++) {
+                assertTrue(limiter.tryAcquire());
+            }
+            for (int i = 0; i < limit; i++) {
+                limiter.release(TimeUnit.MILLISECONDS.toNanos(5), false);
+            }
+        }
+        assertEquals(6, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testRelease_IdleServerKeepsLimit() {
+        // One call in flight out of 4 does not show the limit is too low
+        assertTrue(limiter.tryAcquire());
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(5), false);
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void testRelease_SlowOrTimedOutCallsDecreaseLimitDownToMin() {
+        assertTrue(limiter.tryAcquire());
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(500), false);
+        assertEquals(2, limiter.getLimit());
+
+        assertTrue(limiter.tryAcquire());
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(5), true);
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void testRelease_LatencyIsComparedPerWorkItem() {
+        // 500ms for a 10-query batch is 50ms per query, under the 100ms threshold
+        assertTrue(limiter.tryAcquire());
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(500), false, 10);
+        assertEquals(4, limiter.getLimit());
+
+        // 500ms for 2 queries is still slow
+        assertTrue(limiter.tryAcquire());
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(500), false, 2);
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void testRelease_TimeoutDecreasesLimitRegardlessOfItems() {
+        assertTrue(limiter.tryAcquire());
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(5), true, 100);
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void testWorkItems() {
+        RSIRequest rsi = RSIRequest.newBuilder().setPeriod(14).build();
+        assertEquals(1, AdaptiveConcurrencyLimiter.requestItems(rsi));
+        assertEquals(1, AdaptiveConcurrencyLimiter.requestItems(BatchRSIRequest.getDefaultInstance()));
+        assertEquals(3, AdaptiveConcurrencyLimiter.requestItems(BatchRSIRequest.newBuilder()
+                .addRequests(rsi).addRequests(rsi).addRequests(rsi).build()));
+        assertEquals(2, AdaptiveConcurrencyLimiter.requestItems(PackedBatchRequest.newBuilder()
+                .addQueries(PackedQuery.getDefaultInstance())
+                .addQueries(PackedQuery.getDefaultInstance()).build()));
+
+        ReflectionTestUtils.setField(limiter, "seriesPointsPerItem", 500);
+        SeriesResponse.Builder series = SeriesResponse.newBuilder();
+        assertEquals(1, limiter.responseItems(series.build()));
+        for (int i = 0; i < 1001; i++) {
+            series.addTimestamps(i);
+        }
+        assertEquals(3, limiter.responseItems(series.build()));
+        assertEquals(1, limiter.responseItems(IndicatorResponse.getDefaultInstance()));
+    }
+
+    @Test
+    void testInterceptor_LongBatchDoesNotShrinkLimitButSlowSingleCallDoes() throws Exception {
+        IndicatorServiceGrpc.IndicatorServiceImplBase service = new IndicatorServiceGrpc.IndicatorServiceImplBase() {
+            @Override
+            public void calculateRSI(RSIRequest request, StreamObserver<IndicatorResponse> responseObserver) {
+                sleep(150);
+                responseObserver.onNext(IndicatorResponse.getDefaultInstance());
+                responseObserver.onCompleted();
+            }
+
+            @Override
+            public void calculateRSIBatch(BatchRSIRequest request, StreamObserver<IndicatorResponse> responseObserver) {
+                for (int i = 0; i < request.getRequestsCount(); i++) {
+                    sleep(30);
+                    responseObserver.onNext(IndicatorResponse.getDefaultInstance());
+                }
+                responseObserver.onCompleted();
+            }
+        };
+        String name = InProcessServerBuilder.generateName();
+        Server server = InProcessServerBuilder.forName(name)
+                .addService(ServerInterceptors.intercept(service, limiter))
+                .build()
+                .start();
+        ManagedChannel channel = InProcessChannelBuilder.forName(name).build();
+        try {
+            IndicatorServiceGrpc.IndicatorServiceBlockingStub stub = IndicatorServiceGrpc.newBlockingStub(channel);
+            RSIRequest rsi = RSIRequest.newBuilder()
+                    .setBase(BaseRequest.newBuilder().setSymbol("BTC-USDT").setInterval("1m"))
+                    .setPeriod(14)
+                    .build();
+
+            // 10 queries in about 300ms: slower than the threshold overall, fast per query
+            BatchRSIRequest.Builder batch = BatchRSIRequest.newBuilder();
+            for (int i = 0; i < 10; i++) {
+                batch.addRequests(rsi);
+            }
+            Iterator<IndicatorResponse> responses = stub.calculateRSIBatch(batch.build());
+            while (responses.hasNext()) {
+                responses.next();
+            }
+            awaitInFlight(0);
+            assertEquals(4, limiter.getLimit());
+
+            stub.calculateRSI(rsi);
+            awaitInFlight(0);
+            assertEquals(2, limiter.getLimit());
+        } finally {
+            channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+            server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void testInterceptor_ServerSideDeadlineExpiryShrinksLimit() throws Exception {
+        // Deadline (50ms) far below the latency threshold: only the expiry itself can signal overload
+        ReflectionTestUtils.setField(limiter, "latencyThresholdMs", 10_000L);
+        CountDownLatch handlerRunning = new CountDownLatch(1);
+        CountDownLatch releaseHandler = new CountDownLatch(1);
+        IndicatorServiceGrpc.IndicatorServiceImplBase service = new IndicatorServiceGrpc.IndicatorServiceImplBase() {
+            @Override
+            public void calculateRSI(RSIRequest request, StreamObserver<IndicatorResponse> responseObserver) {
+                handlerRunning.countDown();
+                try {
+                    releaseHandler.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                responseObserver.onNext(IndicatorResponse.getDefaultInstance());
+                responseObserver.onCompleted();
+            }
+        };
+        String name = InProcessServerBuilder.generateName();
+        Server server = InProcessServerBuilder.forName(name)
+                .addService(ServerInterceptors.intercept(service, limiter))
+                .build()
+                .start();
+        ManagedChannel channel = InProcessChannelBuilder.forName(name).build();
+        try {
+            StatusRuntimeException error = assertThrows(StatusRuntimeException.class, () ->
+                    IndicatorServiceGrpc.newBlockingStub(channel)
+                            .withDeadlineAfter(50, TimeUnit.MILLISECONDS)
+                            .calculateRSI(RSIRequest.getDefaultInstance()));
+            assertEquals(Status.Code.DEADLINE_EXCEEDED, error.getStatus().getCode());
+            assertTrue(handlerRunning.await(5, TimeUnit.SECONDS));
+
+            // The handler is still running: the cancelled call keeps its slot
+            Thread.sleep(100);
+            assertEquals(1, limiter.getInFlight());
+            assertEquals(4, limiter.getLimit());
+
+            releaseHandler.countDown();
+            awaitInFlight(0);
+            assertEquals(2, limiter.getLimit());
+        } finally {
+            releaseHandler.countDown();
+            channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+            server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void testInterceptor_ClientCancellationFreesSlotWithoutSample() throws Exception {
+        CountDownLatch handlerRunning = new CountDownLatch(1);
+        CountDownLatch releaseHandler = new CountDownLatch(1);
+        IndicatorServiceGrpc.IndicatorServiceImplBase service = new IndicatorServiceGrpc.IndicatorServiceImplBase() {
+            @Override
+            public void calculateRSI(RSIRequest request, StreamObserver<IndicatorResponse> responseObserver) {
+                handlerRunning.countDown();
+                try {
+                    releaseHandler.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                responseObserver.onNext(IndicatorResponse.getDefaultInstance());
+                responseObserver.onCompleted();
+            }
+        };
+        String name = InProcessServerBuilder.generateName();
+        Server server = InProcessServerBuilder.forName(name)
+                .addService(ServerInterceptors.intercept(service, limiter))
+                .build()
+                .start();
+        ManagedChannel channel = InProcessChannelBuilder.forName(name).build();
+        try {
+            Context.CancellableContext context = Context.current().withCancellation();
+            ListenableFuture<IndicatorResponse> response = context.call(() ->
+                    IndicatorServiceGrpc.newFutureStub(channel).calculateRSI(RSIRequest.getDefaultInstance()));
+            assertTrue(handlerRunning.await(5, TimeUnit.SECONDS));
+            context.cancel(null);
+            assertThrows(ExecutionException.class, () -> response.get(5, TimeUnit.SECONDS));
+
+            Thread.sleep(100);
+            assertEquals(1, limiter.getInFlight());
+
+            releaseHandler.countDown();
+            awaitInFlight(0);
+            assertEquals(4, limiter.getLimit());
+        } finally {
+            releaseHandler.countDown();
+            channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+            server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void testInterceptor_ScreenDoesNotTakeSlot() throws Exception {
+        CountDownLatch handlerRunning = new CountDownLatch(1);
+        CountDownLatch releaseHandler = new CountDownLatch(1);
+        IndicatorServiceGrpc.IndicatorServiceImplBase service = new IndicatorServiceGrpc.IndicatorServiceImplBase() {
+            @Override
+            public void screen(ScreenRequest request, StreamObserver<IndicatorResponse> responseObserver) {
+                handlerRunning.countDown();
+                try {
+                    releaseHandler.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                responseObserver.onCompleted();
+            }
+        };
+        String name = InProcessServerBuilder.generateName();
+        Server server = InProcessServerBuilder.forName(name)
+                .addService(ServerInterceptors.intercept(service, limiter))
+                .build()
+                .start();
+        ManagedChannel channel = InProcessChannelBuilder.forName(name).build();
+        try {
+            Iterator<IndicatorResponse> responses = IndicatorServiceGrpc.newBlockingStub(channel)
+                    .screen(ScreenRequest.getDefaultInstance());
+            assertTrue(handlerRunning.await(5, TimeUnit.SECONDS));
+            assertEquals(0, limiter.getInFlight());
+
+            releaseHandler.countDown();
+            assertFalse(responses.hasNext());
+            assertEquals(4, limiter.getLimit());
+        } finally {
+            releaseHandler.countDown();
+            channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+            server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private void awaitInFlight(int expected) throws InterruptedException {
+        // The slot is released in close(), which can return after the client saw the status
+        for (int i = 0; i < 100 && limiter.getInFlight() != expected; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, limiter.getInFlight());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
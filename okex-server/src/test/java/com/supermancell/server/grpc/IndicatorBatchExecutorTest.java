@@ -0,0 +1,192 @@
+package com.supermancell.server.grpc;
+
+import com.okex.common.proto.IndicatorServiceProto.IndicatorResponse;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for IndicatorBatchExecutor
+ */
+class IndicatorBatchExecutorTest {
+
+    private IndicatorBatchExecutor batchExecutor;
+
+    @BeforeEach
+    void setUp() {
+        batchExecutor = new IndicatorBatchExecutor();
+        ReflectionTestUtils.setField(batchExecutor, "parallelism", 4);
+        ReflectionTestUtils.setField(batchExecutor, "queueCapacity", 10);
+        ReflectionTestUtils.setField(batchExecutor, "itemTimeoutMs", 500L);
+        batchExecutor.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchExecutor.shutdown();
+    }
+
+    @Test
+    void testExecute_StreamsAllItemsWithRequestIndex() throws Exception {
+        RecordingObserver observer = new RecordingObserver();
+        List<Integer> delays = Arrays.asList(200, 0, 100, 50);
+
+        batchExecutor.execute(delays, delay -> {
+            sleep(delay);
+            return IndicatorResponse.newBuilder().setSuccess(true).setDataPoints(delay).build();
+        }, this::error, observer);
+
+        assertTrue(observer.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(4, observer.responses.size());
+
+        // Items ran concurrently: the slowest item is not streamed first
+        assertNotEquals(0, observer.responses.get(0).getRequestIndex());
+        for (IndicatorResponse response : observer.responses) {
+            assertTrue(response.getSuccess());
+            assertEquals((int) delays.get(response.getRequestIndex()), response.getDataPoints());
+        }
+    }
+
+    @Test
+    void testExecute_ItemTimeoutReturnsError() throws Exception {
+        RecordingObserver observer = new RecordingObserver();
+
+        batchExecutor.execute(Arrays.asList(2000, 0), delay -> {
+            sleep(delay);
+            return IndicatorResponse.newBuilder().setSuccess(true).build();
+        }, this::error, observer);
+
+        assertTrue(observer.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(2, observer.responses.size());
+
+        IndicatorResponse slow = observer.responses.stream()
+                .filter(response -> response.getRequestIndex() == 0)
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+        assertFalse(slow.getSuccess());
+        assertTrue(slow.getErrorMessage().startsWith("Deadline exceeded"));
+    }
+
+    @Test
+    void testExecute_FailingItemReturnsError() throws Exception {
+        RecordingObserver observer = new RecordingObserver();
+
+        batchExecutor.execute(Collections.singletonList(1), item -> {
+            throw new IllegalStateException("boom");
+        }, this::error, observer);
+
+        assertTrue(observer.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(1, observer.responses.size());
+        assertFalse(observer.responses.get(0).getSuccess());
+        assertEquals("Failed: boom", observer.responses.get(0).getErrorMessage());
+    }
+
+    @Test
+    void testExecute_EmptyBatchCompletesImmediately() {
+        RecordingObserver observer = new RecordingObserver();
+
+        batchExecutor.execute(Collections.<Integer>emptyList(), item -> null, this::error, observer);
+
+        assertEquals(0, observer.completed.getCount());
+        assertTrue(observer.responses.isEmpty());
+    }
+
+    @Test
+    void testInvokeAll_ReturnsResultsInItemOrder() {
+        List<String> results = batchExecutor.invokeAll(Arrays.asList(300, 0, 2000, -1), delay -> {
+            if (delay < 0) {
+                throw new IllegalStateException("boom");
+            }
+            sleep(delay);
+            return "ok-" + delay;
+        }, (delay, message) -> "error-" + delay + ": " + message);
+
+        assertEquals(4, results.size());
+        assertEquals("ok-300", results.get(0));
+        assertEquals("ok-0", results.get(1));
+        assertTrue(results.get(2).startsWith("error-2000: Deadline exceeded"));
+        assertEquals("error--1: Failed: boom", results.get(3));
+    }
+
+    @Test
+    void testExecute_QueueWaitDoesNotCountAgainstItemTimeout() throws Exception {
+        RecordingObserver observer = new RecordingObserver();
+        // 8 items on 4 threads: the second wave waits 300ms, then runs 300ms, done after the 500ms timeout
+        List<Integer> delays = Collections.nCopies(8, 300);
+
+        batchExecutor.execute(delays, delay -> {
+            sleep(delay);
+            return IndicatorResponse.newBuilder().setSuccess(true).build();
+        }, this::error, observer);
+
+        assertTrue(observer.completed.await(5, TimeUnit.SECONDS));
+        assertEquals(8, observer.responses.size());
+        for (IndicatorResponse response : observer.responses) {
+            assertTrue(response.getSuccess(), response.getErrorMessage());
+        }
+    }
+
+    @Test
+    void testInvokeAll_QueueWaitDoesNotCountAgainstItemTimeout() {
+        // Saturate the pool with another batch first
+        RecordingObserver other = new RecordingObserver();
+        batchExecutor.execute(Collections.nCopies(4, 300), delay -> {
+            sleep(delay);
+            return IndicatorResponse.newBuilder().setSuccess(true).build();
+        }, this::error, other);
+
+        List<String> results = batchExecutor.invokeAll(Arrays.asList(300, 300, 300, 300, 2000), delay -> {
+            sleep(delay);
+            return "ok-" + delay;
+        }, (delay, message) -> "error-" + delay + ": " + message);
+
+        assertEquals(Arrays.asList("ok-300", "ok-300", "ok-300", "ok-300"), results.subList(0, 4));
+        assertTrue(results.get(4).startsWith("error-2000: Deadline exceeded"));
+    }
+
+    private IndicatorResponse error(String message) {
+        return IndicatorResponse.newBuilder().setSuccess(false).setErrorMessage(message).build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Helper observer recording responses in delivery order
+     */
+    private static class RecordingObserver implements StreamObserver<IndicatorResponse> {
+        private final List<IndicatorResponse> responses = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        @Override
+        public void onNext(IndicatorResponse value) {
+            responses.add(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            completed.countDown();
+        }
+
+        @Override
+        public void onCompleted() {
+            completed.countDown();
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.supermancell.server.grpc;
+
+import com.okex.common.proto.IndicatorServiceProto.BaseRequest;
+import com.okex.common.proto.IndicatorServiceProto.IndicatorQuery;
+import com.okex.common.proto.IndicatorServiceProto.IndicatorResponse;
+import com.okex.common.proto.IndicatorServiceProto.IndicatorResultV2;
+import com.okex.common.proto.IndicatorServiceProto.IndicatorType;
+import com.okex.common.proto.IndicatorServiceProto.MultiIndicatorRequest;
+import com.okex.common.proto.IndicatorServiceProto.MultiIndicatorResponse;
+import com.okex.common.proto.IndicatorServiceProto.PackedBatchRequest;
+import com.okex.common.proto.IndicatorServiceProto.PackedBatchResponse;
+import com.okex.common.proto.IndicatorServiceProto.PackedQuery;
+import com.okex.common.proto.IndicatorServiceProto.ScreenOperator;
+import com.okex.common.proto.IndicatorServiceProto.ScreenRequest;
+import com.okex.common.proto.IndicatorServiceProto.SeriesRequest;
+import com.okex.common.proto.IndicatorServiceProto.SeriesResponse;
+import com.okex.common.proto.IndicatorServiceProto.SubscriptionCommand;
+import com.supermancell.common.model.IndicatorResult;
+import com.supermancell.server.service.CalculationEngine;
+import com.supermancell.server.service.IndicatorScreener;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the subscribeIndicators, calculateMulti, calculateSeries, calculatePacked
+ * and screen RPCs of IndicatorServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+class IndicatorServiceImplTest {
+
+    @Mock
+    private CalculationEngine calculationEngine;
+
+    @Mock
+    private IndicatorBatchExecutor batchExecutor;
+
+    @Mock
+    private IndicatorStreamHub streamHub;
+
+    @Mock
+    private IndicatorScreener screener;
+
+    @Mock
+    private ServerCallStreamObserver<IndicatorResponse> responseObserver;
+
+    private IndicatorServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new IndicatorServiceImpl(calculationEngine, batchExecutor, streamHub, screener);
+    }
+
+    @Test
+    void testSubscribeIndicators_AddRemoveAndComplete() {
+        IndicatorStreamHub.Subscription btc = subscription("BTC-USDT-SWAP");
+        IndicatorStreamHub.Subscription eth = subscription("ETH-USDT-SWAP");
+        when(streamHub.subscribe(eq("BTC-USDT-SWAP"), eq("1m"), anyList(), eq(false), any(StreamSink.class)))
+                .thenReturn(btc);
+        when(streamHub.subscribe(eq("ETH-USDT-SWAP"), eq("1m"), anyList(), eq(true), any(StreamSink.class)))
+                .thenReturn(eth);
+
+        StreamObserver<SubscriptionCommand> commands = service.subscribeIndicators(responseObserver);
+        commands.onNext(command(SubscriptionCommand.Action.ADD, "BTC-USDT-SWAP", false));
+        commands.onNext(command(SubscriptionCommand.Action.ADD, "ETH-USDT-SWAP", true));
+        commands.onNext(command(SubscriptionCommand.Action.REMOVE, "BTC-USDT-SWAP", false));
+
+        // Both series share one sink on the same call
+        ArgumentCaptor<StreamSink> sinks = ArgumentCaptor.forClass(StreamSink.class);
+        verify(streamHub, times(2)).subscribe(anyString(), anyString(), anyList(), anyBoolean(), sinks.capture());
+        assertSame(sinks.getAllValues().get(0), sinks.getAllValues().get(1));
+        verify(streamHub).unsubscribe(btc);
+        verify(streamHub, never()).unsubscribe(eth);
+
+        // Half-close ends the remaining subscriptions and completes the call
+        commands.onCompleted();
+        verify(streamHub).unsubscribe(eth);
+        verify(responseObserver).onCompleted();
+    }
+
+    @Test
+    void testSubscribeIndicators_ReAddReplacesSubscription() {
+        IndicatorStreamHub.Subscription first = subscription("BTC-USDT-SWAP");
+        IndicatorStreamHub.Subscription second = subscription("BTC-USDT-SWAP");
+        when(streamHub.subscribe(anyString(), anyString(), anyList(), anyBoolean(), any(StreamSink.class)))
+                .thenReturn(first, second);
+
+        StreamObserver<SubscriptionCommand> commands = service.subscribeIndicators(responseObserver);
+        commands.onNext(command(SubscriptionCommand.Action.ADD, "BTC-USDT-SWAP", false));
+        commands.onNext(command(SubscriptionCommand.Action.ADD, "BTC-USDT-SWAP", true));
+
+        verify(streamHub).unsubscribe(first);
+        verify(streamHub, never()).unsubscribe(second);
+    }
+
+    @Test
+    void testSubscribeIndicators_InvalidCommandReturnsError() {
+        when(responseObserver.isReady()).thenReturn(true);
+
+        StreamObserver<SubscriptionCommand> commands = service.subscribeIndicators(responseObserver);
+        commands.onNext(SubscriptionCommand.newBuilder().setAction(SubscriptionCommand.Action.ADD).build());
+
+        ArgumentCaptor<IndicatorResponse> captor = ArgumentCaptor.forClass(IndicatorResponse.class);
+        verify(responseObserver).onNext(captor.capture());
+        assertFalse(captor.getValue().getSuccess());
+        verify(streamHub, never()).subscribe(anyString(), anyString(), anyList(), anyBoolean(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCalculatePacked_GroupsSeriesAndUsesDictionaries() {
+        when(batchExecutor.invokeAll(anyList(), any(Function.class), any(BiFunction.class))).thenAnswer(invocation -> {
+            List<Object> items = invocation.getArgument(0);
+            Function<Object, Object> task = invocation.getArgument(1);
+            List<Object> results = new ArrayList<>();
+            for (Object item : items) {
+                results.add(task.apply(item));
+            }
+            return results;
+        });
+        when(calculationEngine.calculateMulti(eq("BTC-USDT-SWAP"), eq("1m"), eq(100), anyList()))
+                .thenReturn(Arrays.asList(result(55.5, null), result(1.2, macdValues())));
+        when(calculationEngine.calculateMulti(eq("ETH-USDT-SWAP"), eq("1m"), eq(100), anyList()))
+                .thenReturn(Collections.singletonList(result(null, null)));
+
+        PackedBatchRequest request = PackedBatchRequest.newBuilder()
+                .addQueries(packed("BTC-USDT-SWAP", IndicatorType.RSI))
+                .addQueries(packed("ETH-USDT-SWAP", IndicatorType.RSI))
+                .addQueries(packed("BTC-USDT-SWAP", IndicatorType.MACD))
+                .build();
+        StreamObserver<PackedBatchResponse> observer = mock(StreamObserver.class);
+
+        service.calculatePacked(request, observer);
+
+        // One fused calculation per symbol/interval/limit
+        verify(calculationEngine, times(2)).calculateMulti(anyString(), anyString(), anyInt(), anyList());
+
+        ArgumentCaptor<PackedBatchResponse> captor = ArgumentCaptor.forClass(PackedBatchResponse.class);
+        verify(observer).onNext(captor.capture());
+        verify(observer).onCompleted();
+        PackedBatchResponse response = captor.getValue();
+
+        assertEquals(Arrays.asList("BTC-USDT-SWAP", "ETH-USDT-SWAP"), response.getSymbolsList());
+        assertEquals(Collections.singletonList("1m"), response.getIntervalsList());
+        assertFalse(response.getSuccess());
+        assertEquals(3, response.getResultsCount());
+
+        IndicatorResultV2 rsi = response.getResults(0);
+        assertEquals(0, rsi.getSymbolId());
+        assertEquals(IndicatorResultV2.ValueCase.RSI, rsi.getValueCase());
+        assertEquals(55.5, rsi.getRsi().getValue(), 1e-9);
+
+        IndicatorResultV2 failed = response.getResults(1);
+        assertEquals(1, failed.getSymbolId());
+        assertEquals(IndicatorResultV2.ValueCase.VALUE_NOT_SET, failed.getValueCase());
+        assertFalse(failed.getErrorMessage().isEmpty());
+
+        IndicatorResultV2 macd = response.getResults(2);
+        assertEquals(0, macd.getSymbolId());
+        assertEquals(IndicatorResultV2.ValueCase.MACD, macd.getValueCase());
+        assertEquals(0.8, macd.getMacd().getSignal(), 1e-9);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCalculateMulti_UnsupportedTypeIsInvalidRequest() {
+        StreamObserver<MultiIndicatorResponse> observer = mock(StreamObserver.class);
+
+        service.calculateMulti(MultiIndicatorRequest.newBuilder()
+                .setBase(BaseRequest.newBuilder().setSymbol("BTC-USDT-SWAP").setInterval("1m").setLimit(100))
+                .addQueries(IndicatorQuery.newBuilder().setType(IndicatorType.RSI).setPeriod(14))
+                .addQueries(IndicatorQuery.newBuilder().setTypeValue(99))
+                .build(), observer);
+
+        ArgumentCaptor<MultiIndicatorResponse> captor = ArgumentCaptor.forClass(MultiIndicatorResponse.class);
+        verify(observer).onNext(captor.capture());
+        verify(observer).onCompleted();
+        verify(observer, never()).onError(any());
+        assertFalse(captor.getValue().getSuccess());
+        assertTrue(captor.getValue().getErrorMessage().startsWith("Invalid request"));
+        verifyNoInteractions(calculationEngine);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCalculateSeries_UnsupportedTypeIsInvalidRequest() {
+        StreamObserver<SeriesResponse> observer = mock(StreamObserver.class);
+
+        service.calculateSeries(SeriesRequest.newBuilder()
+                .setBase(BaseRequest.newBuilder().setSymbol("BTC-USDT-SWAP").setInterval("1m").setLimit(100))
+                .setQuery(IndicatorQuery.newBuilder().setTypeValue(99))
+                .build(), observer);
+
+        ArgumentCaptor<SeriesResponse> captor = ArgumentCaptor.forClass(SeriesResponse.class);
+        verify(observer).onNext(captor.capture());
+        verify(observer).onCompleted();
+        verify(observer, never()).onError(any());
+        assertFalse(captor.getValue().getSuccess());
+        assertTrue(captor.getValue().getErrorMessage().startsWith("Invalid request"));
+        assertEquals(99, captor.getValue().getIndicatorTypeValue());
+        verifyNoInteractions(calculationEngine);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testScreen_StreamsOnlyMatches() throws Exception {
+        when(responseObserver.isReady()).thenReturn(true);
+        when(screener.screenAsync(any(IndicatorScreener.Query.class), any(Consumer.class))).thenAnswer(invocation -> {
+            Consumer<IndicatorScreener.Match> onMatch = invocation.getArgument(1);
+            onMatch.accept(new IndicatorScreener.Match("ETH-USDT-SWAP", "1H", 0L, 25.0, result(25.0, null)));
+            return CompletableFuture.completedFuture(null);
+        });
+
+        service.screen(screenRequest(), responseObserver);
+
+        ArgumentCaptor<IndicatorResponse> captor = ArgumentCaptor.forClass(IndicatorResponse.class);
+        verify(responseObserver).onNext(captor.capture());
+        verify(responseObserver).onCompleted();
+        assertEquals("ETH-USDT-SWAP", captor.getValue().getSymbol());
+        assertEquals("1H", captor.getValue().getInterval());
+        assertEquals(25.0, captor.getValue().getRsiValue(), 1e-9);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testScreen_WaitsForTransportReadinessAndDoesNotBlockHandler() {
+        CompletableFuture<IndicatorScreener.Summary> scan = new CompletableFuture<>();
+        AtomicReference<Consumer<IndicatorScreener.Match>> onMatch = new AtomicReference<>();
+        when(screener.screenAsync(any(IndicatorScreener.Query.class), any(Consumer.class))).thenAnswer(invocation -> {
+            onMatch.set(invocation.getArgument(1));
+            return scan;
+        });
+        AtomicBoolean ready = new AtomicBoolean(false);
+        when(responseObserver.isReady()).thenAnswer(invocation -> ready.get());
+
+        // The handler returns while the scan is still running
+        service.screen(screenRequest(), responseObserver);
+        ArgumentCaptor<Runnable> onReady = ArgumentCaptor.forClass(Runnable.class);
+        verify(responseObserver).setOnReadyHandler(onReady.capture());
+
+        // A match found while the transport is not ready is queued, not written
+        onMatch.get().accept(new IndicatorScreener.Match("ETH-USDT-SWAP", "1H", 0L, 25.0, result(25.0, null)));
+        scan.complete(null);
+        verify(responseObserver, never()).onNext(any());
+        verify(responseObserver, never()).onCompleted();
+
+        ready.set(true);
+        onReady.getValue().run();
+        InOrder inOrder = inOrder(responseObserver);
+        inOrder.verify(responseObserver).onNext(any(IndicatorResponse.class));
+        inOrder.verify(responseObserver).onCompleted();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testScreen_TimeoutFailsWithDeadlineExceeded() {
+        CompletableFuture<IndicatorScreener.Summary> scan = new CompletableFuture<>();
+        scan.completeExceptionally(new TimeoutException("too slow"));
+        when(screener.screenAsync(any(IndicatorScreener.Query.class), any(Consumer.class))).thenReturn(scan);
+
+        service.screen(screenRequest(), responseObserver);
+
+        ArgumentCaptor<Throwable> captor = ArgumentCaptor.forClass(Throwable.class);
+        verify(responseObserver).onError(captor.capture());
+        assertEquals(Status.Code.DEADLINE_EXCEEDED, Status.fromThrowable(captor.getValue()).getCode());
+        verify(responseObserver, never()).onCompleted();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testScreen_ClientCancellationStopsScan() {
+        CompletableFuture<IndicatorScreener.Summary> scan = new CompletableFuture<>();
+        when(screener.screenAsync(any(IndicatorScreener.Query.class), any(Consumer.class))).thenReturn(scan);
+
+        service.screen(screenRequest(), responseObserver);
+        ArgumentCaptor<Runnable> onCancel = ArgumentCaptor.forClass(Runnable.class);
+        verify(responseObserver).setOnCancelHandler(onCancel.capture());
+        onCancel.getValue().run();
+
+        assertTrue(scan.isCancelled());
+        verify(responseObserver, never()).onError(any());
+        verify(responseObserver, never()).onCompleted();
+    }
+
+    private ScreenRequest screenRequest() {
+        return ScreenRequest.newBuilder()
+                .setQuery(IndicatorQuery.newBuilder().setType(IndicatorType.RSI).setPeriod(14))
+                .setOperator(ScreenOperator.LT)
+                .setThreshold(30)
+                .build();
+    }
+
+    private PackedQuery packed(String symbol, IndicatorType type) {
+        return PackedQuery.newBuilder()
+                .setBase(BaseRequest.newBuilder().setSymbol(symbol).setInterval("1m").setLimit(100))
+                .setQuery(IndicatorQuery.newBuilder().setType(type))
+                .build();
+    }
+
+    private IndicatorResult result(Double value, Map<String, Double> values) {
+        IndicatorResult result = new IndicatorResult();
+        result.setValue(value);
+        result.setValues(values);
+        result.setDataPoints(100);
+        return result;
+    }
+
+    private Map<String, Double> macdValues() {
+        Map<String, Double> values = new HashMap<>();
+        values.put("signal", 0.8);
+        values.put("histogram", 0.4);
+        return values;
+    }
+
+    private IndicatorStreamHub.Subscription subscription(String symbol) {
+        return new IndicatorStreamHub.Subscription(
+                symbol, "1m", Collections.singletonList(IndicatorType.RSI), false, null);
+    }
+
+    private SubscriptionCommand command(SubscriptionCommand.Action action, String symbol, boolean includeUpdates) {
+        return SubscriptionCommand.newBuilder()
+                .setAction(action)
+                .setSymbol(symbol)
+                .setInterval("1m")
+                .addIndicators(IndicatorType.RSI)
+                .setIncludeUpdates(includeUpdates)
+                .build();
+    }
+}
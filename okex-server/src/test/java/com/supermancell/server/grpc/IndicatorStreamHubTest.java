@@ -0,0 +1,252 @@
+package com.supermancell.server.grpc;
+
+import com.okex.common.proto.IndicatorServiceProto.IndicatorResponse;
+import com.okex.common.proto.IndicatorServiceProto.IndicatorType;
+import com.supermancell.common.model.Candle;
+import com.supermancell.common.model.IndicatorResult;
+import com.supermancell.server.cache.RecentCandleStore;
+import com.supermancell.server.repository.CandleRepository;
+import com.supermancell.server.service.CalculationEngine;
+import com.supermancell.server.service.LatencyTracker;
+import com.supermancell.server.service.SystemMetricsService;
+import com.supermancell.server.websocket.CandleEventDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for IndicatorStreamHub and StreamSink
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class IndicatorStreamHubTest {
+
+    private static final String SYMBOL = "BTC-USDT-SWAP";
+    private static final String INTERVAL = "1m";
+
+    @Mock
+    private CalculationEngine calculationEngine;
+
+    @Mock
+    private CandleRepository candleRepository;
+
+    private RecentCandleStore recentCandleStore;
+    private CandleEventDispatcher dispatcher;
+    private LatencyTracker latencyTracker;
+    private IndicatorStreamHub hub;
+
+    @BeforeEach
+    void setUp() {
+        recentCandleStore = new RecentCandleStore();
+        dispatcher = new CandleEventDispatcher(recentCandleStore);
+        latencyTracker = new LatencyTracker();
+        SystemMetricsService metricsService = new SystemMetricsService(new SimpleMeterRegistry(), latencyTracker);
+        metricsService.init();
+        hub = new IndicatorStreamHub(calculationEngine, candleRepository, recentCandleStore, dispatcher,
+                metricsService);
+        hub.init();
+
+        List<Candle> history = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            history.add(createCandle(i, 100.0 + i, "1"));
+        }
+        when(candleRepository.findCandles(eq(SYMBOL), eq(INTERVAL), anyInt())).thenReturn(history);
+        when(calculationEngine.calculateOnCandles(anyList(), anyList())).thenAnswer(invocation -> {
+            List<?> specs = invocation.getArgument(1);
+            List<IndicatorResult> results = new ArrayList<>();
+            for (int i = 0; i < specs.size(); i++) {
+                results.add(createResult(50.0));
+            }
+            return results;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    void testSubscribe_SendsSnapshotThenConfirmedCandles() {
+        ServerCallStreamObserver<IndicatorResponse> observer = readyObserver();
+        hub.subscribe(SYMBOL, INTERVAL, Collections.singletonList(IndicatorType.RSI), false, new StreamSink(observer));
+
+        verify(observer, timeout(2000).times(1)).onNext(any(IndicatorResponse.class));
+
+        // Unconfirmed update is not pushed without include_updates
+        dispatcher.dispatch(createCandle(50, 151.0, "0"));
+        dispatcher.dispatch(createCandle(50, 152.0, "1"));
+
+        ArgumentCaptor<IndicatorResponse> captor = ArgumentCaptor.forClass(IndicatorResponse.class);
+        verify(observer, timeout(2000).times(2)).onNext(captor.capture());
+        IndicatorResponse live = captor.getAllValues().get(1);
+        assertEquals(IndicatorType.RSI, live.getIndicatorType());
+        assertEquals(createCandle(50, 0, "1").getTimestamp().toEpochMilli(), live.getTimestamp());
+        verify(observer, never()).onCompleted();
+    }
+
+    @Test
+    void testSubscribe_SharesComputationAcrossSubscribers() {
+        ServerCallStreamObserver<IndicatorResponse> first = readyObserver();
+        ServerCallStreamObserver<IndicatorResponse> second = readyObserver();
+        hub.subscribe(SYMBOL, INTERVAL, Collections.singletonList(IndicatorType.RSI), false, new StreamSink(first));
+        hub.subscribe(SYMBOL, INTERVAL, Arrays.asList(IndicatorType.RSI, IndicatorType.MACD), false, new StreamSink(second));
+        verify(second, timeout(2000).times(2)).onNext(any(IndicatorResponse.class));
+        clearInvocations(calculationEngine);
+
+        dispatcher.dispatch(createCandle(50, 151.0, "1"));
+
+        verify(first, timeout(2000).times(2)).onNext(any(IndicatorResponse.class));
+        verify(second, timeout(2000).times(4)).onNext(any(IndicatorResponse.class));
+        // One calculation for the union of both subscriptions
+        verify(calculationEngine, times(1)).calculateOnCandles(anyList(), argThat(specs -> specs.size() == 2));
+    }
+
+    @Test
+    void testUnsubscribe_StopsDelivery() {
+        ServerCallStreamObserver<IndicatorResponse> observer = readyObserver();
+        IndicatorStreamHub.Subscription subscription = hub.subscribe(
+                SYMBOL, INTERVAL, Collections.singletonList(IndicatorType.RSI), true, new StreamSink(observer));
+        verify(observer, timeout(2000).times(1)).onNext(any(IndicatorResponse.class));
+
+        hub.unsubscribe(subscription);
+        dispatcher.dispatch(createCandle(50, 151.0, "1"));
+
+        assertEquals(0, hub.getActiveSeriesCount());
+        verify(observer, after(300).times(1)).onNext(any(IndicatorResponse.class));
+    }
+
+    @Test
+    void testPublish_RecordsReceiveToStreamLatencyForLiveCandles() throws InterruptedException {
+        ServerCallStreamObserver<IndicatorResponse> observer = readyObserver();
+        hub.subscribe(SYMBOL, INTERVAL, Collections.singletonList(IndicatorType.RSI), false, new StreamSink(observer));
+        verify(observer, timeout(2000).times(1)).onNext(any(IndicatorResponse.class));
+
+        Candle live = createCandle(50, 151.0, "1");
+        live.setReceivedNanos(System.nanoTime());
+        dispatcher.dispatch(live);
+        verify(observer, timeout(2000).times(2)).onNext(any(IndicatorResponse.class));
+
+        // Only the live candle is timed, not the initial snapshot
+        long deadline = System.currentTimeMillis() + 2000;
+        while (latencyTracker.snapshot().get("receive_to_stream").getCount() == 0
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, latencyTracker.snapshot().get("receive_to_stream").getCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamSink_ConflatesWhileNotReady() {
+        ServerCallStreamObserver<IndicatorResponse> observer = mock(ServerCallStreamObserver.class);
+        when(observer.isReady()).thenReturn(false);
+        StreamSink sink = new StreamSink(observer);
+
+        sink.offer("BTC-USDT-SWAP:1m:RSI", IndicatorResponse.newBuilder().setRsiValue(1.0).build());
+        sink.offer("BTC-USDT-SWAP:1m:RSI", IndicatorResponse.newBuilder().setRsiValue(2.0).build());
+        sink.offer("BTC-USDT-SWAP:1m:MACD", IndicatorResponse.newBuilder().setMacdLine(3.0).build());
+
+        verify(observer, never()).onNext(any());
+        assertEquals(2, sink.getPendingCount());
+        assertEquals(1, sink.getConflatedCount());
+
+        // Transport becomes ready: only the latest value per key is sent, in arrival order
+        when(observer.isReady()).thenReturn(true);
+        sink.drain();
+
+        ArgumentCaptor<IndicatorResponse> captor = ArgumentCaptor.forClass(IndicatorResponse.class);
+        verify(observer, times(2)).onNext(captor.capture());
+        assertEquals(2.0, captor.getAllValues().get(0).getRsiValue());
+        assertEquals(3.0, captor.getAllValues().get(1).getMacdLine());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamSink_CompleteFlushesPendingResponsesFirst() {
+        ServerCallStreamObserver<IndicatorResponse> observer = mock(ServerCallStreamObserver.class);
+        when(observer.isReady()).thenReturn(false);
+        StreamSink sink = new StreamSink(observer);
+        sink.offer("BTC-USDT-SWAP:1m:RSI", IndicatorResponse.newBuilder().setRsiValue(1.0).build());
+
+        sink.complete();
+        sink.offer("BTC-USDT-SWAP:1m:MACD", IndicatorResponse.newBuilder().setMacdLine(2.0).build());
+
+        // Not ready: the call stays open with the last value queued
+        verify(observer, never()).onNext(any());
+        verify(observer, never()).onCompleted();
+        assertFalse(sink.isClosed());
+
+        when(observer.isReady()).thenReturn(true);
+        sink.drain();
+
+        InOrder inOrder = inOrder(observer);
+        inOrder.verify(observer).onNext(IndicatorResponse.newBuilder().setRsiValue(1.0).build());
+        inOrder.verify(observer).onCompleted();
+        verify(observer, times(1)).onNext(any());
+        assertTrue(sink.isClosed());
+        assertEquals(0, sink.getPendingCount());
+    }
+
+    @Test
+    void testStreamSink_CompleteWhenReadyCompletesImmediately() {
+        ServerCallStreamObserver<IndicatorResponse> observer = readyObserver();
+        StreamSink sink = new StreamSink(observer);
+        sink.offer("BTC-USDT-SWAP:1m:RSI", IndicatorResponse.newBuilder().setRsiValue(1.0).build());
+
+        sink.complete();
+        sink.complete();
+
+        verify(observer, times(1)).onNext(any());
+        verify(observer, times(1)).onCompleted();
+        assertTrue(sink.isClosed());
+    }
+
+    @SuppressWarnings("unchecked")
+    private ServerCallStreamObserver<IndicatorResponse> readyObserver() {
+        ServerCallStreamObserver<IndicatorResponse> observer = mock(ServerCallStreamObserver.class);
+        when(observer.isReady()).thenReturn(true);
+        return observer;
+    }
+
+    private IndicatorResult createResult(double value) {
+        Map<String, Double> values = new HashMap<>();
+        values.put("rsi", value);
+        return new IndicatorResult(value, values, null, 50);
+    }
+
+    private Candle createCandle(int minute, double close, String confirm) {
+        Candle candle = new Candle();
+        candle.setSymbol(SYMBOL);
+        candle.setInterval(INTERVAL);
+        candle.setTimestamp(Instant.ofEpochSecond(1_700_000_000L + minute * 60L));
+        candle.setOpen(close);
+        candle.setHigh(close + 1);
+        candle.setLow(close - 1);
+        candle.setClose(close);
+        candle.setVolume(1000.0);
+        candle.setConfirm(confirm);
+        return candle;
+    }
+}
@@ -0,0 +1,37 @@
+package com.supermancell.server.grpc;
+
+import io.grpc.Metadata;
+import io.grpc.ServerStreamTracer;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for QueueWaitStreamTracer
+ */
+class QueueWaitStreamTracerTest {
+
+    @Test
+    void testServerCallStarted_RecordsQueueWaitPerMethod() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        QueueWaitStreamTracer.Factory factory = new QueueWaitStreamTracer.Factory(registry);
+
+        ServerStreamTracer rsi = factory.newServerStreamTracer("IndicatorService/CalculateRSI", new Metadata());
+        ServerStreamTracer macd = factory.newServerStreamTracer("IndicatorService/CalculateMACD", new Metadata());
+        Thread.sleep(20);
+        rsi.serverCallStarted(mock(ServerStreamTracer.ServerCallInfo.class));
+        macd.serverCallStarted(mock(ServerStreamTracer.ServerCallInfo.class));
+
+        Timer rsiTimer = registry.get(QueueWaitStreamTracer.METRIC_NAME)
+                .tag("method", "IndicatorService/CalculateRSI").timer();
+        assertEquals(1, rsiTimer.count());
+        assertTrue(rsiTimer.totalTime(TimeUnit.MILLISECONDS) >= 20);
+        assertEquals(1, registry.get(QueueWaitStreamTracer.METRIC_NAME)
+                .tag("method", "IndicatorService/CalculateMACD").timer().count());
+    }
+}
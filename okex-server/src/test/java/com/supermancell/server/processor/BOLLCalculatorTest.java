@@ -3,6 +3,7 @@ package com.supermancell.server.processor;
 import com.supermancell.common.model.Candle;
 import com.supermancell.common.model.IndicatorParams;
 import com.supermancell.common.model.IndicatorResult;
+import com.supermancell.common.model.IndicatorSeries;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -251,6 +252,26 @@ class BOLLCalculatorTest {
         assertEquals(25, result.getDataPoints());
     }
     
+    @Test
+    void testCalculateSeries_MatchesWindowCalculations() {
+        List<Candle> candles = createTestCandles(200, 60000.0, 50.0);
+        IndicatorParams params = new IndicatorParams();
+        params.addParameter("period", 20);
+        params.addParameter("stdDev", 2.0);
+        
+        IndicatorSeries series = calculator.calculateSeries(candles, params);
+        
+        assertTrue(series.isSuccess());
+        assertEquals(200 - 20 + 1, series.size());
+        for (int i = 0; i < series.size(); i++) {
+            IndicatorResult expected = calculator.calculate(candles.subList(0, i + 20), params);
+            // Rolling sums may differ from the two-pass window by one rounding step
+            assertEquals(expected.getValues().get("upper"), series.getComponent("upper")[i], 0.011);
+            assertEquals(expected.getValues().get("middle"), series.getComponent("middle")[i], 0.011);
+            assertEquals(expected.getValues().get("lower"), series.getComponent("lower")[i], 0.011);
+        }
+    }
+    
     /**
      * Helper method to create test candles with controlled volatility
      */
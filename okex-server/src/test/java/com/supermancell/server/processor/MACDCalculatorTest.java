@@ -3,6 +3,7 @@ package com.supermancell.server.processor;
 import com.supermancell.common.model.Candle;
 import com.supermancell.common.model.IndicatorParams;
 import com.supermancell.common.model.IndicatorResult;
+import com.supermancell.common.model.IndicatorSeries;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -259,6 +260,26 @@ class MACDCalculatorTest {
         // Should complete without error
     }
     
+    @Test
+    void testCalculateSeries_MatchesPrefixCalculations() {
+        List<Candle> candles = createTestCandles(80, 100.0, 2.0);
+        IndicatorParams params = new IndicatorParams();
+        params.addParameter("fastPeriod", 12);
+        params.addParameter("slowPeriod", 26);
+        params.addParameter("signalPeriod", 9);
+        
+        IndicatorSeries series = calculator.calculateSeries(candles, params);
+        
+        assertTrue(series.isSuccess());
+        assertEquals(80 - 35 + 1, series.size());
+        for (int i = 0; i < series.size(); i++) {
+            IndicatorResult expected = calculator.calculate(candles.subList(0, i + 35), params);
+            assertEquals(expected.getValues().get("macd"), series.getComponent("macd")[i]);
+            assertEquals(expected.getValues().get("signal"), series.getComponent("signal")[i]);
+            assertEquals(expected.getValues().get("histogram"), series.getComponent("histogram")[i]);
+        }
+    }
+    
     /**
      * Helper method to create test candles
      */
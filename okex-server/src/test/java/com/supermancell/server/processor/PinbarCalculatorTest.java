@@ -9,7 +9,11 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -339,6 +343,113 @@ class PinbarCalculatorTest {
         assertEquals(6, result.getDataPoints(), "Should report total candles analyzed");
     }
     
+    @Test
+    void testScan_MatchesLatestCandleCalculation() {
+        List<Candle> candles = randomCandles(500, 7L);
+        IndicatorParams params = new IndicatorParams();
+        
+        PinbarCalculator.PinbarScan scan = calculator.scan(candles, params);
+        
+        assertEquals(0, scan.getFrom());
+        assertEquals(500, scan.getTo());
+        assertTrue(scan.count() > 0, "Random window should contain pinbars");
+        for (int i = 0; i < candles.size(); i++) {
+            IndicatorResult result = calculator.calculate(candles.subList(0, i + 1), params);
+            assertEquals(result.getValues().get("is_bullish") == 1.0, scan.getBullish().get(i), "bullish at " + i);
+            assertEquals(result.getValues().get("is_bearish") == 1.0, scan.getBearish().get(i), "bearish at " + i);
+        }
+    }
+    
+    @Test
+    void testScan_PrimitiveArraysRangeAndIndices() {
+        List<Candle> candles = randomCandles(200, 11L);
+        double[] open = new double[200];
+        double[] high = new double[200];
+        double[] low = new double[200];
+        double[] close = new double[200];
+        for (int i = 0; i < 200; i++) {
+            open[i] = candles.get(i).getOpen();
+            high[i] = candles.get(i).getHigh();
+            low[i] = candles.get(i).getLow();
+            close[i] = candles.get(i).getClose();
+        }
+        IndicatorParams params = new IndicatorParams();
+        params.addParameter("bodyRatioThreshold", 0.3);
+        params.addParameter("wickRatioThreshold", 0.5);
+        
+        BitSet expected = calculator.scan(candles, params).pinbars();
+        expected.clear(0, 50);
+        expected.clear(150, 200);
+        
+        PinbarCalculator.PinbarScan scan = calculator.scan(open, high, low, close, 50, 150, params);
+        
+        assertEquals(expected, scan.pinbars(), "Bit indices should be absolute array indices");
+        assertArrayEquals(expected.stream().toArray(), scan.indices());
+        assertEquals(expected.cardinality(), scan.count());
+        assertThrows(IllegalArgumentException.class,
+                () -> calculator.scan(open, high, low, close, 150, 201, params));
+    }
+    
+    @Test
+    void testScan_DojiAndMultipleSeries() {
+        Candle doji = createRegularCandle(100.0, 0);
+        doji.setHigh(100.0);
+        doji.setLow(100.0);
+        doji.setClose(100.0);
+        Candle hammer = createRegularCandle(100.0, 0);
+        hammer.setHigh(100.0);
+        hammer.setOpen(99.5);
+        hammer.setClose(99.8);
+        hammer.setLow(95.0);
+        Candle shootingStar = createRegularCandle(100.0, 0);
+        shootingStar.setHigh(105.0);
+        shootingStar.setOpen(100.5);
+        shootingStar.setClose(100.2);
+        shootingStar.setLow(100.0);
+        
+        Map<String, List<Candle>> series = new LinkedHashMap<>();
+        List<Candle> btc = new ArrayList<>();
+        btc.add(doji);
+        btc.add(hammer);
+        btc.add(createRegularCandle(100.0, 0));
+        btc.add(shootingStar);
+        series.put("BTC-USDT-SWAP", btc);
+        series.put("ETH-USDT-SWAP", new ArrayList<>());
+        
+        Map<String, PinbarCalculator.PinbarScan> scans = calculator.scanAll(series, new IndicatorParams());
+        
+        PinbarCalculator.PinbarScan btcScan = scans.get("BTC-USDT-SWAP");
+        assertArrayEquals(new int[] {1, 3}, btcScan.indices());
+        assertTrue(btcScan.getBullish().get(1));
+        assertTrue(btcScan.getBearish().get(3));
+        assertFalse(btcScan.isPinbar(0), "Zero-range candle is never a pinbar");
+        assertEquals(0, scans.get("ETH-USDT-SWAP").count());
+    }
+    
+    /**
+     * Random candles with skewed open/close placement so that both pinbar types occur
+     */
+    private List<Candle> randomCandles(int count, long seed) {
+        Random random = new Random(seed);
+        List<Candle> candles = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            double low = 100.0 + random.nextDouble() * 10.0;
+            double range = 0.5 + random.nextDouble() * 5.0;
+            double position = random.nextDouble();
+            double skew = random.nextBoolean() ? Math.pow(position, 4) : 1.0 - Math.pow(position, 4);
+            double open = low + range * skew;
+            double close = low + range * Math.min(1.0, Math.max(0.0, skew + (random.nextDouble() - 0.5) * 0.3));
+            
+            Candle candle = createRegularCandle(100.0, count - i);
+            candle.setLow(low);
+            candle.setHigh(low + range);
+            candle.setOpen(open);
+            candle.setClose(close);
+            candles.add(candle);
+        }
+        return candles;
+    }
+    
     /**
      * Helper method to create a regular (non-pinbar) candle
      */
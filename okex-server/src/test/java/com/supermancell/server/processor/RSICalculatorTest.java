@@ -3,6 +3,7 @@ package com.supermancell.server.processor;
 import com.supermancell.common.model.Candle;
 import com.supermancell.common.model.IndicatorParams;
 import com.supermancell.common.model.IndicatorResult;
+import com.supermancell.common.model.IndicatorSeries;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -199,6 +200,35 @@ class RSICalculatorTest {
         assertEquals(100.0, result.getValue(), 0.1, "RSI should be 100 when all gains");
     }
     
+    @Test
+    void testCalculateSeries_MatchesPrefixCalculations() {
+        List<Candle> candles = createTestCandles(60);
+        IndicatorParams params = new IndicatorParams();
+        params.addParameter("period", 14);
+        
+        IndicatorSeries series = calculator.calculateSeries(candles, params);
+        
+        assertTrue(series.isSuccess());
+        assertEquals(60 - 14, series.size());
+        double[] rsi = series.getComponent("rsi");
+        for (int i = 0; i < series.size(); i++) {
+            List<Candle> prefix = candles.subList(0, i + 15);
+            assertEquals(calculator.calculate(prefix, params).getValue(), rsi[i]);
+            assertEquals(prefix.get(prefix.size() - 1).getTimestamp().toEpochMilli(), series.getTimestamps()[i]);
+        }
+    }
+    
+    @Test
+    void testCalculateSeries_InsufficientData() {
+        IndicatorParams params = new IndicatorParams();
+        params.addParameter("period", 14);
+        
+        IndicatorSeries series = calculator.calculateSeries(createTestCandles(10), params);
+        
+        assertFalse(series.isSuccess());
+        assertEquals(0, series.size());
+    }
+    
     /**
      * Helper method to create test candles with random prices
      */
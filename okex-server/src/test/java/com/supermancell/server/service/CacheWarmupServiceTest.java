@@ -0,0 +1,131 @@
+package com.supermancell.server.service;
+
+import com.supermancell.common.model.Candle;
+import com.supermancell.server.cache.RecentCandleStore;
+import com.supermancell.server.repository.CandleRepository;
+import com.supermancell.server.websocket.SubscriptionConfig;
+import com.supermancell.server.websocket.SubscriptionConfigLoader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CacheWarmupService
+ */
+class CacheWarmupServiceTest {
+
+    private SubscriptionConfigLoader configLoader;
+    private CandleRepository candleRepository;
+    private IndicatorSnapshotService indicatorSnapshotService;
+    private RecentCandleStore recentCandleStore;
+    private CacheWarmupService warmupService;
+
+    @BeforeEach
+    void setUp() {
+        configLoader = mock(SubscriptionConfigLoader.class);
+        candleRepository = mock(CandleRepository.class);
+        indicatorSnapshotService = mock(IndicatorSnapshotService.class);
+        recentCandleStore = new RecentCandleStore();
+        warmupService = new CacheWarmupService(configLoader, candleRepository, recentCandleStore, indicatorSnapshotService);
+        ReflectionTestUtils.setField(warmupService, "candleLimit", 50);
+
+        when(configLoader.loadCurrentConfig()).thenReturn(new SubscriptionConfig(
+                Arrays.asList("BTC-USDT-SWAP", "ETH-USDT-SWAP"), Arrays.asList("1m", "1H")));
+    }
+
+    @Test
+    void testWarmUp_LoadsEverySeriesAndPrecomputes() {
+        when(candleRepository.findCandles(anyString(), anyString(), eq(50)))
+                .thenAnswer(invocation -> createCandles(invocation.getArgument(0), invocation.getArgument(1), 50));
+
+        warmupService.warmUp();
+
+        assertTrue(warmupService.isComplete());
+        verify(candleRepository, times(4)).findCandles(anyString(), anyString(), eq(50));
+        verify(indicatorSnapshotService, times(4)).publish(anyString(), anyString(), anyList());
+        assertEquals(50, recentCandleStore.size("ETH-USDT-SWAP", "1H"));
+    }
+
+    @Test
+    void testWarmUp_SnapshotExcludesUnconfirmedLastCandle() {
+        when(candleRepository.findCandles(anyString(), anyString(), eq(50))).thenAnswer(invocation -> {
+            List<Candle> candles = createCandles(invocation.getArgument(0), invocation.getArgument(1), 50);
+            candles.get(49).setConfirm("0");
+            return candles;
+        });
+
+        warmupService.warmUp();
+
+        ArgumentCaptor<List<Candle>> published = ArgumentCaptor.forClass(List.class);
+        verify(indicatorSnapshotService).publish(eq("BTC-USDT-SWAP"), eq("1m"), published.capture());
+        assertEquals(49, published.getValue().size());
+        assertTrue(published.getValue().stream().allMatch(candle -> "1".equals(candle.getConfirm())));
+        // The open candle is still seeded for live requests
+        assertEquals(50, recentCandleStore.size("BTC-USDT-SWAP", "1m"));
+    }
+
+    @Test
+    void testWarmUp_NoSnapshotWithoutConfirmedCandles() {
+        when(candleRepository.findCandles(anyString(), anyString(), eq(50))).thenAnswer(invocation -> {
+            List<Candle> candles = createCandles(invocation.getArgument(0), invocation.getArgument(1), 1);
+            candles.get(0).setConfirm("0");
+            return candles;
+        });
+
+        warmupService.warmUp();
+
+        verifyNoInteractions(indicatorSnapshotService);
+        assertEquals(1, recentCandleStore.size("BTC-USDT-SWAP", "1m"));
+    }
+
+    @Test
+    void testWarmUp_FailedSeriesDoesNotStopOthers() {
+        ReflectionTestUtils.setField(warmupService, "precomputeIndicators", false);
+        when(candleRepository.findCandles(anyString(), anyString(), eq(50)))
+                .thenAnswer(invocation -> createCandles(invocation.getArgument(0), invocation.getArgument(1), 50));
+        when(candleRepository.findCandles("BTC-USDT-SWAP", "1m", 50)).thenThrow(new RuntimeException("Mongo down"));
+
+        warmupService.warmUp();
+
+        assertTrue(warmupService.isComplete());
+        assertEquals(0, recentCandleStore.size("BTC-USDT-SWAP", "1m"));
+        assertEquals(50, recentCandleStore.size("BTC-USDT-SWAP", "1H"));
+        verifyNoInteractions(indicatorSnapshotService);
+    }
+
+    @Test
+    void testWarmUp_NoSubscriptions() {
+        when(configLoader.loadCurrentConfig()).thenReturn(
+                new SubscriptionConfig(Collections.<String>emptyList(), Collections.<String>emptyList()));
+
+        warmupService.warmUp();
+
+        assertTrue(warmupService.isComplete());
+        verifyNoInteractions(candleRepository);
+    }
+
+    private List<Candle> createCandles(String symbol, String interval, int count) {
+        List<Candle> candles = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Candle candle = new Candle();
+            candle.setSymbol(symbol);
+            candle.setInterval(interval);
+            candle.setTimestamp(Instant.ofEpochSecond(1_700_000_000L + i * 60L));
+            candle.setClose(100.0 + i);
+            candle.setConfirm("1");
+            candles.add(candle);
+        }
+        return candles;
+    }
+}
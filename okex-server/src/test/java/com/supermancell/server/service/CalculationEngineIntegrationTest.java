@@ -3,17 +3,23 @@ package com.supermancell.server.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.supermancell.common.model.Candle;
 import com.supermancell.common.model.IndicatorResult;
+import com.supermancell.common.model.IndicatorSeries;
 import com.supermancell.server.aspect.CandleDataIntegrityAspect;
 import com.supermancell.server.cache.CandleCacheService;
+import com.supermancell.server.cache.IndicatorSnapshotStore;
 import com.supermancell.server.client.OkexRestClient;
 import com.supermancell.server.processor.BOLLCalculator;
 import com.supermancell.server.processor.MACDCalculator;
 import com.supermancell.server.processor.PinbarCalculator;
 import com.supermancell.server.processor.RSICalculator;
 import com.supermancell.server.repository.CandleRepository;
+import io.grpc.Context;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -21,7 +27,11 @@ import redis.clients.jedis.JedisPool;
 
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -54,6 +64,7 @@ class CalculationEngineIntegrationTest {
     private BOLLCalculator bollCalculator;
     private MACDCalculator macdCalculator;
     private PinbarCalculator pinbarCalculator;
+    private SimpleMeterRegistry meterRegistry;
     
     @BeforeEach
     void setUp() {
@@ -62,6 +73,7 @@ class CalculationEngineIntegrationTest {
         bollCalculator = new BOLLCalculator();
         macdCalculator = new MACDCalculator();
         pinbarCalculator = new PinbarCalculator();
+        meterRegistry = new SimpleMeterRegistry();
         
         // Set default values using reflection
         ReflectionTestUtils.setField(rsiCalculator, "defaultPeriod", 14);
@@ -77,10 +89,12 @@ class CalculationEngineIntegrationTest {
         calculationEngine = new CalculationEngine(
             candleRepository,
             candleCacheService,
+            new IndicatorSnapshotStore(),
             rsiCalculator,
             bollCalculator,
             macdCalculator,
-            pinbarCalculator
+            pinbarCalculator,
+            meterRegistry
         );
     }
     
@@ -391,6 +405,165 @@ class CalculationEngineIntegrationTest {
         verify(candleRepository).findCandles(symbol, interval, 100);
     }
     
+    @Test
+    void testCalculateMulti_SingleFetchMatchesIndividualResults() {
+        String symbol = "BTC-USDT-SWAP";
+        String interval = "1m";
+        int limit = 100;
+        
+        when(candleCacheService.getIndicatorResult(anyString())).thenReturn(null);
+        
+        List<Candle> candles = createTestCandles(100, 100.0, 1.0);
+        when(candleRepository.findCandles(symbol, interval, limit)).thenReturn(candles);
+        
+        List<IndicatorSpec> specs = new ArrayList<>();
+        specs.add(IndicatorSpec.rsi(14));
+        specs.add(IndicatorSpec.boll(20, 2.0));
+        specs.add(IndicatorSpec.macd(12, 26, 9));
+        specs.add(IndicatorSpec.pinbar(0.2, 0.6));
+        
+        // Execute
+        List<IndicatorResult> results = calculationEngine.calculateMulti(symbol, interval, limit, specs);
+        
+        // Verify one fetch for all indicators
+        assertEquals(4, results.size());
+        verify(candleRepository, times(1)).findCandles(symbol, interval, limit);
+        verify(candleCacheService, times(4)).cacheIndicatorResult(anyString(), any(IndicatorResult.class));
+        
+        // Verify results match the individual calculators on the same window
+        assertEquals(rsiCalculator.calculate(candles, specs.get(0).getParams()).getValues(), results.get(0).getValues());
+        assertEquals(bollCalculator.calculate(candles, specs.get(1).getParams()).getValues(), results.get(1).getValues());
+        assertEquals(macdCalculator.calculate(candles, specs.get(2).getParams()).getValues(), results.get(2).getValues());
+        assertEquals(pinbarCalculator.calculate(candles, specs.get(3).getParams()).getValues(), results.get(3).getValues());
+        
+        // The fused RSI/MACD pass bypasses the calculators' @Timed methods and is timed on its own
+        Timer fused = meterRegistry.find("okex.indicator.calculation").tag("mode", "fused").timer();
+        assertNotNull(fused);
+        assertEquals(1, fused.count());
+    }
+    
+    @Test
+    void testCalculateMulti_CacheHitSkipsCalculation() {
+        String symbol = "BTC-USDT-SWAP";
+        String interval = "1m";
+        
+        IndicatorResult cachedResult = new IndicatorResult();
+        cachedResult.setValue(65.5);
+        when(candleCacheService.getIndicatorResult(startsWith("indicator:rsi:"))).thenReturn(cachedResult);
+        when(candleCacheService.getIndicatorResult(startsWith("indicator:macd:"))).thenReturn(null);
+        
+        List<Candle> candles = createTestCandles(100, 100.0, 1.0);
+        when(candleRepository.findCandles(symbol, interval, 35)).thenReturn(candles);
+        
+        List<IndicatorSpec> specs = new ArrayList<>();
+        specs.add(IndicatorSpec.rsi(14));
+        specs.add(IndicatorSpec.macd(12, 26, 9));
+        
+        // Execute with a limit shorter than MACD needs
+        List<IndicatorResult> results = calculationEngine.calculateMulti(symbol, interval, 10, specs);
+        
+        // Verify RSI came from cache and the window grew to the MACD requirement (26 + 9)
+        assertSame(cachedResult, results.get(0));
+        assertNotNull(results.get(1).getValue());
+        verify(candleRepository, never()).findCandles(symbol, interval, 10);
+        verify(candleRepository).findCandles(symbol, interval, 35);
+        verify(candleCacheService, times(1)).cacheIndicatorResult(startsWith("indicator:macd:"), any(IndicatorResult.class));
+    }
+    
+    @Test
+    void testPrecompute_CachesUnderRequestKeys() {
+        String symbol = "BTC-USDT-SWAP";
+        String interval = "1m";
+        List<Candle> candles = createTestCandles(100, 100.0, 1.0);
+        
+        List<IndicatorResult> results = calculationEngine.precompute(symbol, interval, candles,
+                Arrays.asList(IndicatorSpec.rsi(14), IndicatorSpec.macd(12, 26, 9)));
+        
+        // Verify no candle fetch and results cached under the keys calculateMulti() reads
+        assertEquals(2, results.size());
+        verify(candleRepository, never()).findCandles(anyString(), anyString(), anyInt());
+        ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+        verify(candleCacheService, times(2)).cacheIndicatorResult(keys.capture(), any(IndicatorResult.class));
+        
+        when(candleCacheService.getIndicatorResult(anyString())).thenReturn(results.get(0));
+        calculationEngine.calculateMulti(symbol, interval, 100, Arrays.asList(IndicatorSpec.rsi(14)));
+        verify(candleCacheService).getIndicatorResult(keys.getAllValues().get(0));
+    }
+    
+    @Test
+    void testPrecompute_SnapshotAnswersMatchingRequests() {
+        String symbol = "BTC-USDT-SWAP";
+        String interval = "1m";
+        // Chronological, ending with the candle that closed last minute
+        List<Candle> candles = new ArrayList<>();
+        for (int minutesAgo = 100; minutesAgo >= 1; minutesAgo--) {
+            Candle candle = createCandle(symbol, 100.0 + (minutesAgo % 7), minutesAgo);
+            candle.setConfirm("1");
+            candles.add(candle);
+        }
+        
+        List<IndicatorResult> snapshot = calculationEngine.precompute(symbol, interval, candles,
+                Arrays.asList(IndicatorSpec.rsi(14), IndicatorSpec.pinbar(0.2, 0.6)));
+        
+        // Served from the snapshot table: no Redis lookup, no candle fetch
+        assertSame(snapshot.get(0), calculationEngine.calculateRSI(symbol, interval, 14, 100));
+        assertSame(snapshot.get(1), calculationEngine.calculatePinbar(symbol, interval, 0.2, 0.6, 100));
+        verify(candleCacheService, never()).getIndicatorResult(anyString());
+        verify(candleRepository, never()).findCandles(anyString(), anyString(), anyInt());
+    }
+    
+    @Test
+    void testSnapshotValidUntil_CappedByIndicatorCacheTtl() {
+        long now = Instant.parse("2024-01-10T13:47:30Z").toEpochMilli();
+        
+        // Confirmed daily bar: the next bar closes at 16:00 UTC (midnight HK), hours away
+        Candle daily = new Candle();
+        daily.setTimestamp(Instant.parse("2024-01-08T16:00:00Z"));
+        daily.setConfirm("1");
+        assertEquals(now + 300_000L, calculationEngine.snapshotValidUntil("1D", daily, now));
+        
+        // Still-open minute bar: closes before the TTL runs out
+        Candle minute = new Candle();
+        minute.setTimestamp(Instant.parse("2024-01-10T13:47:00Z"));
+        minute.setConfirm("0");
+        assertEquals(Instant.parse("2024-01-10T13:48:00Z").toEpochMilli(),
+                calculationEngine.snapshotValidUntil("1m", minute, now));
+        
+        // Confirmed minute bar: valid until the following bar closes
+        minute.setTimestamp(Instant.parse("2024-01-10T13:46:00Z"));
+        minute.setConfirm("1");
+        assertEquals(Instant.parse("2024-01-10T13:48:00Z").toEpochMilli(),
+                calculationEngine.snapshotValidUntil("1m", minute, now));
+    }
+    
+    @Test
+    void testCalculateSeries_RangeTrimsWarmupPoints() {
+        String symbol = "BTC-USDT-SWAP";
+        String interval = "1m";
+        
+        // createTestCandles is newest-last with timestamps going back in time; sort chronologically
+        List<Candle> candles = createTestCandles(60, 100.0, 1.0);
+        candles.sort((a, b) -> a.getTimestamp().compareTo(b.getTimestamp()));
+        List<Candle> warmup = new ArrayList<>(candles.subList(0, 14));
+        List<Candle> range = new ArrayList<>(candles.subList(14, 60));
+        Instant from = range.get(0).getTimestamp();
+        Instant to = range.get(range.size() - 1).getTimestamp();
+        
+        when(candleRepository.findCandlesBetween(symbol, interval, from, to, 100)).thenReturn(range);
+        when(candleRepository.findCandlesBefore(symbol, interval, from, 14)).thenReturn(warmup);
+        
+        IndicatorSeries series = calculationEngine.calculateSeries(
+                IndicatorSpec.rsi(14), symbol, interval, 100, from, to);
+        
+        // Every candle in the range has a value thanks to the warm-up candles
+        assertTrue(series.isSuccess());
+        assertEquals(range.size(), series.size());
+        assertEquals(from.toEpochMilli(), series.getTimestamps()[0]);
+        assertEquals(rsiCalculator.calculate(candles, null).getValue(), 
+                series.getComponent("rsi")[series.size() - 1]);
+        verify(candleRepository, never()).findCandles(anyString(), anyString(), anyInt());
+    }
+    
     /**
      * Helper: Create test candles with controlled volatility
      */
@@ -424,6 +597,44 @@ class CalculationEngineIntegrationTest {
         return candle;
     }
     
+    @Test
+    void testCalculateRSI_ExpiredDeadlineSkipsCandleFetch() throws Exception {
+        ScheduledExecutorService deadlineScheduler = Executors.newSingleThreadScheduledExecutor();
+        Context.CancellableContext context = Context.current()
+                .withDeadlineAfter(1, TimeUnit.MILLISECONDS, deadlineScheduler);
+        // The context is cancelled by the scheduler thread, which may run late on a busy machine
+        for (int i = 0; i < 500 && !context.isCancelled(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(context.isCancelled());
+        
+        IndicatorResult result;
+        try {
+            result = context.call(() -> calculationEngine.calculateRSI("BTC-USDT-SWAP", "1m", 14, 100));
+        } finally {
+            context.cancel(null);
+            deadlineScheduler.shutdownNow();
+        }
+        
+        assertNull(result.getValue());
+        verify(candleCacheService, never()).getIndicatorResult(anyString());
+        verify(candleRepository, never()).findCandles(anyString(), anyString(), anyInt());
+    }
+    
+    @Test
+    void testCalculateMulti_CancelledRequestSkipsCandleFetch() throws Exception {
+        Context.CancellableContext context = Context.current().withCancellation();
+        context.cancel(null);
+        
+        List<IndicatorResult> results = context.call(() -> calculationEngine.calculateMulti(
+                "BTC-USDT-SWAP", "1m", 100, Arrays.asList(IndicatorSpec.rsi(14), IndicatorSpec.macd(12, 26, 9))));
+        
+        assertEquals(2, results.size());
+        assertNull(results.get(0).getValue());
+        assertNull(results.get(1).getValue());
+        verify(candleRepository, never()).findCandles(anyString(), anyString(), anyInt());
+    }
+    
     /**
      * Helper: Create a regular candle
      */
@@ -0,0 +1,141 @@
+package com.supermancell.server.service;
+
+import com.supermancell.common.model.Candle;
+import com.supermancell.common.model.CandleInterval;
+import com.supermancell.server.cache.CandleGapIndex;
+import com.supermancell.server.client.OkexRestClient;
+import com.supermancell.server.repository.CandleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CandleGapRepairWorker
+ */
+class CandleGapRepairWorkerTest {
+
+    private static final String SYMBOL = "BTC-USDT-SWAP";
+    private static final String INTERVAL = "1m";
+    private static final long BASE = 1_700_000_040_000L; // minute-aligned
+    private static final long MINUTE = 60_000L;
+
+    private OkexRestClient okexRestClient;
+    private CandleRepository candleRepository;
+    private CandleGapIndex candleGapIndex;
+    private CandleGapRepairWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        okexRestClient = mock(OkexRestClient.class);
+        candleRepository = mock(CandleRepository.class);
+        candleGapIndex = new CandleGapIndex();
+        worker = new CandleGapRepairWorker(okexRestClient, candleRepository, candleGapIndex, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.shutdown();
+    }
+
+    @Test
+    void testToRanges_GroupsContiguousSlots() {
+        List<long[]> ranges = CandleGapRepairWorker.toRanges(CandleInterval.parse(INTERVAL),
+                Arrays.asList(BASE, BASE + MINUTE, BASE + 2 * MINUTE, BASE + 5 * MINUTE));
+
+        assertEquals(2, ranges.size());
+        assertArrayEquals(new long[]{BASE, BASE + 2 * MINUTE}, ranges.get(0));
+        assertArrayEquals(new long[]{BASE + 5 * MINUTE, BASE + 5 * MINUTE}, ranges.get(1));
+    }
+
+    @Test
+    void testFetchMissing_OneRequestPerRange() {
+        when(okexRestClient.getCandlesInRange(eq(SYMBOL), eq(INTERVAL), anyLong(), anyLong()))
+                .thenReturn(new OkexRestClient.CandleRange(Collections.singletonList(createCandle(0)), 0L));
+
+        List<Candle> fetched = worker.fetchMissing(SYMBOL, INTERVAL,
+                Arrays.asList(BASE + 3 * MINUTE, BASE + 7 * MINUTE, BASE + 8 * MINUTE));
+
+        assertEquals(2, fetched.size());
+        verify(okexRestClient).getCandlesInRange(SYMBOL, INTERVAL, BASE + 3 * MINUTE, BASE + 3 * MINUTE);
+        verify(okexRestClient).getCandlesInRange(SYMBOL, INTERVAL, BASE + 7 * MINUTE, BASE + 8 * MINUTE);
+        verify(okexRestClient, never()).getCandles(anyString(), anyString(), anyInt());
+    }
+
+    @Test
+    void testFetchMissing_TooFragmentedFallsBack() {
+        List<Long> missing = Arrays.asList(BASE, BASE + 2 * MINUTE, BASE + 4 * MINUTE,
+                BASE + 6 * MINUTE, BASE + 8 * MINUTE, BASE + 10 * MINUTE);
+
+        assertNull(worker.fetchMissing(SYMBOL, INTERVAL, missing));
+        verifyNoInteractions(okexRestClient);
+    }
+
+    @Test
+    void testRepair_FetchesIndexedGapsAndResolvesHoles() {
+        candleGapIndex.record(Arrays.asList(createCandle(0), createCandle(4)));
+        // The exchange only has one of the three missing candles
+        when(okexRestClient.getCandlesInRange(SYMBOL, INTERVAL, BASE + MINUTE, BASE + 3 * MINUTE))
+                .thenReturn(new OkexRestClient.CandleRange(Collections.singletonList(createCandle(2)), BASE + MINUTE));
+
+        worker.repair(SYMBOL, INTERVAL, 5);
+
+        verify(candleRepository).saveBatch(anyList());
+        assertEquals(CandleGapIndex.Status.COMPLETE, candleGapIndex.check(SYMBOL, INTERVAL, 5));
+    }
+
+    @Test
+    void testRepair_LongGapResolvesOnlyTheReadPart() {
+        // 399 missing slots; the REST client only got through the newest 300 of them
+        candleGapIndex.record(Arrays.asList(createCandle(0), createCandle(400)));
+        when(okexRestClient.getCandlesInRange(SYMBOL, INTERVAL, BASE + MINUTE, BASE + 399 * MINUTE))
+                .thenReturn(new OkexRestClient.CandleRange(createCandles(100, 399), BASE + 100 * MINUTE));
+
+        worker.repair(SYMBOL, INTERVAL, 401);
+
+        assertEquals(CandleGapIndex.Status.GAPS, candleGapIndex.check(SYMBOL, INTERVAL, 401));
+        List<Long> missing = candleGapIndex.getMissing(SYMBOL, INTERVAL, 401);
+        assertEquals(99, missing.size());
+        assertEquals(BASE + MINUTE, missing.get(0));
+        assertEquals(BASE + 99 * MINUTE, missing.get(98));
+    }
+
+    @Test
+    void testPersistAsync_ResolvesFromOldestFetchedCandle() {
+        candleGapIndex.record(Arrays.asList(createCandle(0), createCandle(400)));
+        List<Long> requested = candleGapIndex.getMissing(SYMBOL, INTERVAL, 401);
+
+        worker.persistAsync(SYMBOL, INTERVAL, requested, createCandles(100, 399));
+        worker.shutdown();
+
+        verify(candleRepository).saveBatch(anyList());
+        assertEquals(99, candleGapIndex.getMissingCount(SYMBOL, INTERVAL));
+    }
+
+    private List<Candle> createCandles(int fromMinute, int toMinute) {
+        List<Candle> candles = new ArrayList<>();
+        for (int minute = fromMinute; minute <= toMinute; minute++) {
+            candles.add(createCandle(minute));
+        }
+        return candles;
+    }
+
+    private Candle createCandle(int minute) {
+        Candle candle = new Candle();
+        candle.setSymbol(SYMBOL);
+        candle.setInterval(INTERVAL);
+        candle.setTimestamp(Instant.ofEpochMilli(BASE + minute * MINUTE));
+        candle.setConfirm("1");
+        return candle;
+    }
+}
@@ -0,0 +1,111 @@
+package com.supermancell.server.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.supermancell.common.model.Candle;
+import com.supermancell.server.cache.RecentCandleStore;
+import com.supermancell.server.repository.CandleRepository;
+import com.supermancell.server.websocket.CandleEventDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CandleStreamService
+ */
+class CandleStreamServiceTest {
+
+    private static final String SYMBOL = "BTC-USDT-SWAP";
+    private static final String INTERVAL = "1m";
+
+    private CandleRepository candleRepository;
+    private RecentCandleStore recentCandleStore;
+    private CandleEventDispatcher dispatcher;
+    private CandleStreamService streamService;
+
+    @BeforeEach
+    void setUp() {
+        candleRepository = mock(CandleRepository.class);
+        recentCandleStore = new RecentCandleStore();
+        dispatcher = new CandleEventDispatcher(recentCandleStore);
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        streamService = new CandleStreamService(recentCandleStore, candleRepository, dispatcher,
+                objectMapper, new SimpleMeterRegistry());
+        streamService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamService.shutdown();
+    }
+
+    @Test
+    void testSubscribe_SeedsSeriesOnlyOnce() throws Exception {
+        when(candleRepository.findCandles(eq(SYMBOL), eq(INTERVAL), anyInt()))
+                .thenReturn(Arrays.asList(createCandle(0, "1"), createCandle(1, "1")));
+
+        streamService.subscribe(SYMBOL, INTERVAL, 100);
+        streamService.subscribe(SYMBOL, INTERVAL, 100);
+        streamService.subscribe(SYMBOL, INTERVAL, 100);
+        awaitViewers(3);
+
+        // The repository holds fewer candles than requested, later viewers still read from memory
+        verify(candleRepository, times(1)).findCandles(eq(SYMBOL), eq(INTERVAL), anyInt());
+        assertEquals(2, recentCandleStore.size(SYMBOL, INTERVAL));
+    }
+
+    @Test
+    void testSubscribe_SeedFailureIsRetriedByNextViewer() throws Exception {
+        when(candleRepository.findCandles(eq(SYMBOL), eq(INTERVAL), anyInt()))
+                .thenThrow(new RuntimeException("mongo down"))
+                .thenReturn(Collections.singletonList(createCandle(0, "1")));
+
+        streamService.subscribe(SYMBOL, INTERVAL, 100);
+        streamService.subscribe(SYMBOL, INTERVAL, 100);
+        awaitViewers(2);
+
+        verify(candleRepository, times(2)).findCandles(eq(SYMBOL), eq(INTERVAL), anyInt());
+        assertEquals(1, recentCandleStore.size(SYMBOL, INTERVAL));
+    }
+
+    @Test
+    void testDispatch_WithoutViewersDoesNotTouchRepository() {
+        dispatcher.dispatch(createCandle(0, "0"));
+        dispatcher.dispatch(createCandle(0, "1"));
+
+        assertEquals(0, streamService.getViewerCount());
+        verifyNoInteractions(candleRepository);
+        assertEquals(1, recentCandleStore.size(SYMBOL, INTERVAL));
+    }
+
+    private void awaitViewers(int expected) throws InterruptedException {
+        for (int i = 0; i < 100 && streamService.getViewerCount() < expected; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, streamService.getViewerCount());
+    }
+
+    private Candle createCandle(int minute, String confirm) {
+        Candle candle = new Candle();
+        candle.setSymbol(SYMBOL);
+        candle.setInterval(INTERVAL);
+        candle.setTimestamp(Instant.ofEpochSecond(1_700_000_000L + minute * 60L));
+        candle.setOpen(100.0);
+        candle.setHigh(101.0);
+        candle.setLow(99.0);
+        candle.setClose(100.5);
+        candle.setVolume(1000.0);
+        candle.setConfirm(confirm);
+        return candle;
+    }
+}
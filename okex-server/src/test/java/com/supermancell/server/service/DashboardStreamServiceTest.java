@@ -0,0 +1,156 @@
+package com.supermancell.server.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.supermancell.server.dto.ConnectionStatusDTO;
+import com.supermancell.server.websocket.OkexWebSocketClient;
+import com.supermancell.server.websocket.SubscriptionConfig;
+import com.supermancell.server.websocket.SubscriptionConfigLoader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import com.supermancell.server.dto.SystemMetricsDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DashboardStreamService
+ */
+class DashboardStreamServiceTest {
+
+    private WebSocketStatusService statusService;
+    private SystemMetricsService metricsService;
+    private SubscriptionConfigLoader configLoader;
+    private OkexWebSocketClient webSocketClient;
+    private DashboardStreamService streamService;
+
+    @BeforeEach
+    void setUp() {
+        statusService = new WebSocketStatusService();
+        metricsService = spy(new SystemMetricsService(new SimpleMeterRegistry(), new LatencyTracker()));
+        metricsService.init();
+        configLoader = Mockito.mock(SubscriptionConfigLoader.class);
+        webSocketClient = Mockito.mock(OkexWebSocketClient.class);
+        when(configLoader.loadCurrentConfig()).thenReturn(new SubscriptionConfig(
+                Arrays.asList("BTC-USDT-SWAP"), Arrays.asList("1m", "1H")));
+
+        streamService = new DashboardStreamService(statusService, metricsService, configLoader,
+                webSocketClient, new ObjectMapper(), new SimpleMeterRegistry());
+        streamService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        streamService.shutdown();
+    }
+
+    @Test
+    void testDiff_OnlyChangedFields() {
+        Map<String, Object> previous = new HashMap<>();
+        previous.put("status", "CONNECTING");
+        previous.put("url", "wss://example");
+        Map<String, Object> current = new HashMap<>(previous);
+        current.put("status", "CONNECTED");
+
+        Map<String, Object> delta = DashboardStreamService.diff(previous, current);
+        assertEquals(1, delta.size());
+        assertEquals("CONNECTED", delta.get("status"));
+
+        // First push sends everything
+        assertEquals(current, DashboardStreamService.diff(null, current));
+    }
+
+    @Test
+    void testNoViewers_NothingIsBuilt() {
+        streamService.pushPeriodicUpdates();
+        streamService.onSubscriptionsChanged(new SubscriptionConfig(
+                Arrays.asList("ETH-USDT-SWAP"), Arrays.asList("1m")));
+        statusService.updateConnectionStatus("CONNECTED");
+
+        verify(metricsService, never()).getSystemMetrics();
+        verifyNoInteractions(configLoader);
+    }
+
+    @Test
+    void testSubscribe_RegistersViewerWithSnapshot() throws InterruptedException {
+        streamService.subscribe();
+        streamService.subscribe();
+
+        awaitViewers(2);
+        // State is built once for the first viewer, shared by the second
+        verify(metricsService, times(1)).getSystemMetrics();
+        verify(configLoader, times(1)).loadCurrentConfig();
+    }
+
+    @Test
+    void testStatusListener_RegisteredOnInit() {
+        ConnectionStatusDTO[] received = new ConnectionStatusDTO[1];
+        statusService.addListener(new WebSocketStatusService.StatusListener() {
+            @Override
+            public void onStatusChanged(ConnectionStatusDTO status) {
+                received[0] = status;
+            }
+
+            @Override
+            public void onReconnection(com.supermancell.server.dto.ReconnectionRecordDTO record) {
+            }
+        });
+
+        statusService.updateConnectionStatus("CONNECTED");
+
+        assertEquals("CONNECTED", received[0].getStatus());
+        verify(webSocketClient).addSubscriptionListener(streamService);
+    }
+
+    @Test
+    void testListeners_DoNotBlockOnSlowViewers() throws Exception {
+        streamService.subscribe();
+        awaitViewers(1);
+
+        // Stall the stream thread, as a viewer with a full socket buffer would
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        String[] tickThread = new String[1];
+        doAnswer(invocation -> {
+            tickThread[0] = Thread.currentThread().getName();
+            stalled.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new SystemMetricsDTO();
+        }).when(metricsService).getSystemMetrics();
+        streamService.pushPeriodicUpdates();
+        assertTrue(stalled.await(5, TimeUnit.SECONDS));
+
+        // WebSocket-thread callbacks return immediately, and ticks do not pile up
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            statusService.updateConnectionStatus("CONNECTED");
+            statusService.updateConnectionStatus("DISCONNECTED");
+            statusService.recordReconnection("test", 1, true, 10L, null);
+            streamService.onSubscriptionsChanged(new SubscriptionConfig(
+                    Arrays.asList("ETH-USDT-SWAP"), Arrays.asList("1m")));
+            streamService.pushPeriodicUpdates();
+            streamService.pushPeriodicUpdates();
+        });
+        assertEquals("dashboard-stream", tickThread[0]);
+
+        // Subscribe, the stalled tick and one queued tick
+        release.countDown();
+        verify(metricsService, timeout(5000).times(3)).getSystemMetrics();
+        assertEquals(1, streamService.getViewerCount(), "Viewer survives the stall");
+    }
+
+    private void awaitViewers(int expected) throws InterruptedException {
+        for (int i = 0; i < 100 && streamService.getViewerCount() < expected; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, streamService.getViewerCount());
+    }
+}
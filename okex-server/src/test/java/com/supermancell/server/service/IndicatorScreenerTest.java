@@ -0,0 +1,168 @@
+package com.supermancell.server.service;
+
+import com.supermancell.common.model.Candle;
+import com.supermancell.common.model.IndicatorResult;
+import com.supermancell.server.cache.RecentCandleStore;
+import com.supermancell.server.websocket.OkexWebSocketClient;
+import com.supermancell.server.websocket.SubscriptionConfig;
+import com.supermancell.server.websocket.SubscriptionConfigLoader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for IndicatorScreener
+ */
+class IndicatorScreenerTest {
+
+    private static final long BASE = 1_700_000_040_000L; // minute-aligned
+    private static final List<String> SYMBOLS = Arrays.asList("BTC-USDT-SWAP", "ETH-USDT-SWAP", "SOL-USDT-SWAP",
+            "DOGE-USDT-SWAP", "XRP-USDT-SWAP", "ADA-USDT-SWAP");
+
+    private RecentCandleStore recentCandleStore;
+    private CalculationEngine calculationEngine;
+    private IndicatorScreener screener;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        recentCandleStore = new RecentCandleStore();
+        calculationEngine = mock(CalculationEngine.class);
+        // Fake indicator: primary value = close of the last candle, "half" = close / 2
+        when(calculationEngine.calculateOnCandles(anyList(), anyList())).thenAnswer(invocation -> {
+            List<Candle> candles = invocation.getArgument(0);
+            double close = candles.get(candles.size() - 1).getClose();
+            Map<String, Double> values = new HashMap<>();
+            values.put("half", close / 2);
+            return Collections.singletonList(new IndicatorResult(close, values, null, candles.size()));
+        });
+
+        OkexWebSocketClient webSocketClient = mock(OkexWebSocketClient.class);
+        when(webSocketClient.getCurrentConfig()).thenReturn(new SubscriptionConfig(SYMBOLS, Arrays.asList("1m", "1H")));
+        screener = new IndicatorScreener(recentCandleStore, calculationEngine, webSocketClient,
+                mock(SubscriptionConfigLoader.class));
+        screener.init();
+
+        for (int s = 0; s < SYMBOLS.size(); s++) {
+            seed(SYMBOLS.get(s), "1m", 20, 10.0 * (s + 1));
+            seed(SYMBOLS.get(s), "1H", 20, 100.0);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        screener.shutdown();
+    }
+
+    @Test
+    void testScreen_ReportsOnlyMatches() throws Exception {
+        List<IndicatorScreener.Match> matches = new ArrayList<>();
+
+        IndicatorScreener.Summary summary = screener.screen(new IndicatorScreener.Query(IndicatorSpec.rsi(14), null,
+                IndicatorScreener.Operator.LT, 30.0, null, null, false), matches::add);
+
+        assertEquals(12, summary.getScanned());
+        assertEquals(2, summary.getMatched());
+        assertEquals(0, summary.getSkipped());
+        assertEquals(2, matches.size());
+        for (IndicatorScreener.Match match : matches) {
+            assertEquals("1m", match.getInterval());
+            assertTrue(match.getValue() < 30.0);
+        }
+    }
+
+    @Test
+    void testScreen_FieldAndFilters() throws Exception {
+        List<IndicatorScreener.Match> matches = new ArrayList<>();
+
+        IndicatorScreener.Summary summary = screener.screen(new IndicatorScreener.Query(IndicatorSpec.rsi(14), "half",
+                IndicatorScreener.Operator.GTE, 25.0, Arrays.asList("SOL-USDT-SWAP", "ADA-USDT-SWAP"),
+                Collections.singletonList("1m"), false), matches::add);
+
+        assertEquals(2, summary.getScanned());
+        assertEquals(1, matches.size());
+        assertEquals("ADA-USDT-SWAP", matches.get(0).getSymbol());
+        assertEquals(30.0, matches.get(0).getValue(), 1e-9);
+    }
+
+    @Test
+    void testScreen_UsesLastClosedCandleAndSkipsShortSeries() throws Exception {
+        // Still-open candle far below the threshold; only counted with includeUnconfirmed
+        Candle open = candle("BTC-USDT-SWAP", "1H", 20, 1.0);
+        open.setConfirm("0");
+        recentCandleStore.append(open);
+
+        IndicatorScreener.Query closedOnly = new IndicatorScreener.Query(IndicatorSpec.rsi(14), null,
+                IndicatorScreener.Operator.LT, 50.0, null, Collections.singletonList("1H"), false);
+        assertEquals(0, screener.screen(closedOnly, match -> { }).getMatched());
+
+        IndicatorScreener.Query withUpdates = new IndicatorScreener.Query(IndicatorSpec.rsi(14), null,
+                IndicatorScreener.Operator.LT, 50.0, null, Collections.singletonList("1H"), true);
+        assertEquals(1, screener.screen(withUpdates, match -> { }).getMatched());
+
+        // RSI(30) needs 31 candles: every 20-candle series is skipped, not evaluated
+        IndicatorScreener.Summary summary = screener.screen(new IndicatorScreener.Query(IndicatorSpec.rsi(30), null,
+                IndicatorScreener.Operator.GT, 0.0, null, null, false), match -> { });
+        assertEquals(0, summary.getMatched());
+        assertEquals(12, summary.getSkipped());
+    }
+
+    @Test
+    void testScreenAsync_ReturnsImmediatelyAndTimesOut() throws Exception {
+        ReflectionTestUtils.setField(screener, "timeoutMs", 50L);
+        CountDownLatch releaseEngine = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            releaseEngine.await(5, TimeUnit.SECONDS);
+            return Collections.singletonList(new IndicatorResult(1.0, null, null, 20));
+        }).when(calculationEngine).calculateOnCandles(anyList(), anyList());
+        List<IndicatorScreener.Match> matches = Collections.synchronizedList(new ArrayList<>());
+
+        CompletableFuture<IndicatorScreener.Summary> scan = screener.screenAsync(new IndicatorScreener.Query(
+                IndicatorSpec.rsi(14), null, IndicatorScreener.Operator.LT, 30.0, null, null, false), matches::add);
+        assertFalse(scan.isDone());
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> scan.get(5, TimeUnit.SECONDS));
+        assertTrue(error.getCause() instanceof TimeoutException);
+
+        // Series finishing after the timeout are not reported
+        releaseEngine.countDown();
+        Thread.sleep(100);
+        assertTrue(matches.isEmpty());
+    }
+
+    private void seed(String symbol, String interval, int count, double close) {
+        List<Candle> candles = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            candles.add(candle(symbol, interval, i, close));
+        }
+        recentCandleStore.seed(symbol, interval, candles);
+    }
+
+    private Candle candle(String symbol, String interval, int index, double close) {
+        Candle candle = new Candle();
+        candle.setSymbol(symbol);
+        candle.setInterval(interval);
+        candle.setTimestamp(Instant.ofEpochMilli(BASE + index * 60_000L));
+        candle.setClose(close);
+        candle.setConfirm("1");
+        return candle;
+    }
+}
@@ -0,0 +1,145 @@
+package com.supermancell.server.service;
+
+import com.supermancell.common.model.Candle;
+import com.supermancell.server.cache.IndicatorSnapshotStore;
+import com.supermancell.server.cache.RecentCandleStore;
+import com.supermancell.server.repository.IndicatorSnapshotRepository;
+import com.supermancell.server.websocket.CandleEventDispatcher;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for IndicatorSnapshotService
+ */
+class IndicatorSnapshotServiceTest {
+
+    private static final String SYMBOL = "BTC-USDT-SWAP";
+    private static final String INTERVAL = "1m";
+    private static final long BASE = 1_700_000_040_000L; // minute-aligned
+
+    private RecentCandleStore recentCandleStore;
+    private CalculationEngine calculationEngine;
+    private IndicatorSnapshotRepository snapshotRepository;
+    private IndicatorSnapshotService snapshotService;
+
+    @BeforeEach
+    void setUp() {
+        recentCandleStore = new RecentCandleStore();
+        calculationEngine = mock(CalculationEngine.class);
+        snapshotRepository = mock(IndicatorSnapshotRepository.class);
+        snapshotService = new IndicatorSnapshotService(new CandleEventDispatcher(recentCandleStore),
+                recentCandleStore, calculationEngine, new IndicatorSnapshotStore(), snapshotRepository);
+        ReflectionTestUtils.setField(snapshotService, "windowSize", 40);
+        snapshotService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        snapshotService.shutdown();
+    }
+
+    @Test
+    void testParseSpecs() {
+        List<IndicatorSpec> specs = IndicatorSnapshotService.parseSpecs(
+                "RSI:14, BOLL:20:2.0,macd:12:26:9,PINBAR:0.2:0.6");
+
+        assertEquals(4, specs.size());
+        assertEquals(IndicatorSpec.rsi(14), specs.get(0));
+        assertEquals(IndicatorSpec.boll(20, 2.0), specs.get(1));
+        assertEquals(IndicatorSpec.macd(12, 26, 9), specs.get(2));
+        assertEquals(IndicatorSpec.pinbar(0.2, 0.6), specs.get(3));
+        assertThrows(IllegalArgumentException.class, () -> IndicatorSnapshotService.parseSpecs("RSI:14:3"));
+        assertThrows(IllegalArgumentException.class, () -> IndicatorSnapshotService.parseSpecs("KDJ:9"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSnapshot_WindowEndsAtConfirmedCandle() {
+        for (int i = 0; i < 60; i++) {
+            recentCandleStore.append(createCandle(i, "1"));
+        }
+        // The next candle is already updating when the snapshot runs
+        recentCandleStore.append(createCandle(60, "0"));
+
+        snapshotService.onCandle(createCandle(59, "1"));
+
+        ArgumentCaptor<List<Candle>> window = ArgumentCaptor.forClass(List.class);
+        verify(calculationEngine, timeout(1000)).precompute(eq(SYMBOL), eq(INTERVAL), window.capture(),
+                eq(snapshotService.getSpecs()));
+        List<Candle> candles = window.getValue();
+        assertEquals(40, candles.size());
+        assertEquals(Instant.ofEpochMilli(BASE + 59 * 60_000L), candles.get(candles.size() - 1).getTimestamp());
+        verifyNoInteractions(snapshotRepository);
+    }
+
+    @Test
+    void testOnCandle_IgnoresUnconfirmedAndShortSeries() {
+        snapshotService.onCandle(createCandle(0, "0"));
+        // Confirmed, but only one candle in memory
+        recentCandleStore.append(createCandle(1, "1"));
+        snapshotService.onCandle(createCandle(1, "1"));
+        snapshotService.shutdown();
+
+        verify(calculationEngine, never()).precompute(anyString(), anyString(), anyList(), anyList());
+    }
+
+    @Test
+    void testOnCandle_SkipsShortAndGappedWindows() {
+        // Enough for MACD (35) but fewer than window-size (40)
+        for (int i = 0; i < 36; i++) {
+            recentCandleStore.append(createCandle(i, "1"));
+        }
+        snapshotService.onCandle(createCandle(35, "1"));
+
+        // 60 candles with a hole inside the last 40 (dropped WebSocket frame)
+        String other = "ETH-USDT-SWAP";
+        for (int i = 0; i < 60; i++) {
+            if (i != 50) {
+                Candle candle = createCandle(i, "1");
+                candle.setSymbol(other);
+                recentCandleStore.append(candle);
+            }
+        }
+        Candle last = createCandle(59, "1");
+        last.setSymbol(other);
+        snapshotService.onCandle(last);
+        snapshotService.shutdown();
+
+        verify(calculationEngine, never()).precompute(anyString(), anyString(), anyList(), anyList());
+    }
+
+    @Test
+    void testPublish_UsesOnlyTheLastFullWindow() {
+        List<Candle> candles = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            candles.add(createCandle(i, "1"));
+        }
+
+        snapshotService.publish(SYMBOL, INTERVAL, candles);
+        assertTrue(snapshotService.publish(SYMBOL, INTERVAL, candles.subList(20, 50)).isEmpty());
+
+        verify(calculationEngine).precompute(SYMBOL, INTERVAL, candles.subList(10, 50), snapshotService.getSpecs());
+        verifyNoMoreInteractions(calculationEngine);
+    }
+
+    private Candle createCandle(int minute, String confirm) {
+        Candle candle = new Candle();
+        candle.setSymbol(SYMBOL);
+        candle.setInterval(INTERVAL);
+        candle.setTimestamp(Instant.ofEpochMilli(BASE + minute * 60_000L));
+        candle.setClose(100.0 + minute);
+        candle.setConfirm(confirm);
+        return candle;
+    }
+}
@@ -0,0 +1,72 @@
+package com.supermancell.server.service;
+
+import com.supermancell.server.dto.LatencyStatsDTO;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LatencyTracker histograms and Micrometer export
+ */
+class LatencyTrackerTest {
+
+    @Test
+    void testSnapshot_PercentilesPerStage() {
+        LatencyTracker tracker = new LatencyTracker();
+        for (int i = 1; i <= 100; i++) {
+            tracker.record(LatencyStage.RECEIVE_TO_PARSED, TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        LatencyStatsDTO stats = tracker.snapshot().get("receive_to_parsed");
+        assertEquals(100, stats.getCount());
+        assertEquals(50.0, stats.getP50(), 1.0);
+        assertEquals(99.0, stats.getP99(), 1.0);
+        assertEquals(100.0, stats.getMax(), 1.0);
+        assertEquals(50.5, stats.getMean(), 1.0);
+
+        // Other stages are present but empty
+        assertEquals(LatencyStage.values().length, tracker.snapshot().size());
+        assertEquals(0, tracker.snapshot().get("parsed_to_persisted").getCount());
+    }
+
+    @Test
+    void testSnapshot_AccumulatesUntilReset() {
+        LatencyTracker tracker = new LatencyTracker();
+        tracker.record(LatencyStage.PARSED_TO_PERSISTED, 1_000_000L);
+        assertEquals(1, tracker.snapshot().get("parsed_to_persisted").getCount());
+
+        tracker.record(LatencyStage.PARSED_TO_PERSISTED, 2_000_000L);
+        assertEquals(2, tracker.snapshot().get("parsed_to_persisted").getCount());
+
+        tracker.reset();
+        assertEquals(0, tracker.snapshot().get("parsed_to_persisted").getCount());
+    }
+
+    @Test
+    void testRecord_IgnoresNegativeAndUnstampedSamples() {
+        LatencyTracker tracker = new LatencyTracker();
+        tracker.record(LatencyStage.EXCHANGE_TO_RECEIVE, -5L);
+        tracker.recordSince(LatencyStage.RECEIVE_TO_STREAM, 0L);
+
+        assertEquals(0, tracker.snapshot().get("exchange_to_receive").getCount());
+        assertEquals(0, tracker.snapshot().get("receive_to_stream").getCount());
+    }
+
+    @Test
+    void testBindTo_ExportsTimerPerStage() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LatencyTracker tracker = new LatencyTracker();
+        tracker.bindTo(registry);
+
+        tracker.record(LatencyStage.REQUEST_TO_RESPONSE, TimeUnit.MILLISECONDS.toNanos(3));
+
+        Timer timer = registry.get(LatencyTracker.METRIC_NAME).tag("stage", "request_to_response").timer();
+        assertEquals(1, timer.count());
+        assertEquals(3.0, timer.totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(0, registry.get(LatencyTracker.METRIC_NAME).tag("stage", "receive_to_parsed").timer().count());
+    }
+}
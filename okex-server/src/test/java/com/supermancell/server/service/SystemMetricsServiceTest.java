@@ -0,0 +1,96 @@
+package com.supermancell.server.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SystemMetricsService and SlidingWindowRate
+ */
+class SystemMetricsServiceTest {
+
+    private SimpleMeterRegistry registry;
+    private SystemMetricsService metricsService;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metricsService = new SystemMetricsService(registry, new LatencyTracker());
+        metricsService.init();
+    }
+
+    @Test
+    void testSlidingWindowRate_ReadIsSideEffectFree() {
+        AtomicLong clock = new AtomicLong(100_000L);
+        SlidingWindowRate rate = new SlidingWindowRate(10, clock::get);
+
+        for (int i = 0; i < 50; i++) {
+            rate.increment();
+        }
+        // Current second is not complete yet
+        assertEquals(0.0, rate.getRate());
+
+        clock.addAndGet(1_000L);
+        assertEquals(5.0, rate.getRate());
+        // Reading again returns the same value
+        assertEquals(5.0, rate.getRate());
+
+        // Bucket falls out of the window after 10 seconds
+        clock.addAndGet(10_000L);
+        assertEquals(0.0, rate.getRate());
+    }
+
+    @Test
+    void testMessageCount_ExportedToRegistry() {
+        metricsService.incrementMessageCount();
+        metricsService.incrementMessageCount();
+        metricsService.recordDataProcessed(512);
+
+        assertEquals(2, metricsService.getMessageCount());
+        assertEquals(512, metricsService.getDataProcessed());
+        assertEquals(2.0, registry.get("okex.websocket.messages").counter().count());
+        assertEquals(512.0, registry.get("okex.data.processed").counter().count());
+    }
+
+    @Test
+    void testCacheHitRate_TaggedByCacheAndResult() {
+        metricsService.recordCacheAccess(SystemMetricsService.CACHE_CANDLE, true);
+        metricsService.recordCacheAccess(SystemMetricsService.CACHE_CANDLE, false);
+        metricsService.recordCacheAccess(SystemMetricsService.CACHE_INDICATOR, true);
+        metricsService.recordCacheAccess(SystemMetricsService.CACHE_INDICATOR, true);
+
+        assertEquals(0.75, metricsService.getSystemMetrics().getCacheHitRate(), 1e-9);
+        assertEquals(2.0, registry.get("okex.cache.requests")
+                .tag("cache", "indicator").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void testReset_RebasesViewButKeepsCountersMonotonic() {
+        metricsService.incrementMessageCount();
+        metricsService.recordCacheAccess(SystemMetricsService.CACHE_CANDLE, true);
+
+        metricsService.resetMetrics();
+
+        assertEquals(0, metricsService.getMessageCount());
+        assertEquals(0.0, metricsService.getSystemMetrics().getCacheHitRate());
+        assertEquals(1.0, registry.get("okex.websocket.messages").counter().count());
+
+        metricsService.incrementMessageCount();
+        assertEquals(1, metricsService.getMessageCount());
+    }
+
+    @Test
+    void testRecordFlush_TimerPerOutcome() {
+        metricsService.recordFlush(TimeUnit.MILLISECONDS.toNanos(20), 30, true);
+        metricsService.recordFlush(TimeUnit.MILLISECONDS.toNanos(5), 10, false);
+
+        assertEquals(1, registry.get("okex.candle.flush").tag("outcome", "success").timer().count());
+        assertEquals(1, registry.get("okex.candle.flush").tag("outcome", "failure").timer().count());
+        assertEquals(30.0, registry.get("okex.candle.flush.size").summary().totalAmount());
+    }
+}
@@ -44,7 +44,8 @@ class OkexWebSocketClientTest {
         CandleBatchWriter batchWriter = Mockito.mock(CandleBatchWriter.class);
         WebSocketStatusService statusService = Mockito.mock(WebSocketStatusService.class);
         SystemMetricsService metricsService = Mockito.mock(SystemMetricsService.class);
-        OkexWebSocketClient client = new OkexWebSocketClient(loader, parser, batchWriter, statusService, metricsService);
+        OkexWebSocketClient client = new OkexWebSocketClient(loader, parser, batchWriter, statusService, metricsService,
+                Mockito.mock(CandleEventDispatcher.class));
 
         WebSocketSession session = Mockito.mock(WebSocketSession.class);
         Mockito.when(session.isOpen()).thenReturn(true);
@@ -80,7 +81,8 @@ class OkexWebSocketClientTest {
         CandleBatchWriter batchWriter = Mockito.mock(CandleBatchWriter.class);
         WebSocketStatusService statusService = Mockito.mock(WebSocketStatusService.class);
         SystemMetricsService metricsService = Mockito.mock(SystemMetricsService.class);
-        OkexWebSocketClient client = new OkexWebSocketClient(loader, parser, batchWriter, statusService, metricsService);
+        OkexWebSocketClient client = new OkexWebSocketClient(loader, parser, batchWriter, statusService, metricsService,
+                Mockito.mock(CandleEventDispatcher.class));
 
         WebSocketSession session = Mockito.mock(WebSocketSession.class);
         Mockito.when(session.isOpen()).thenReturn(true);
@@ -131,7 +133,8 @@ class OkexWebSocketClientTest {
         CandleBatchWriter batchWriter = Mockito.mock(CandleBatchWriter.class);
         WebSocketStatusService statusService = Mockito.mock(WebSocketStatusService.class);
         SystemMetricsService metricsService = Mockito.mock(SystemMetricsService.class);
-        OkexWebSocketClient client = new OkexWebSocketClient(loader, parser, batchWriter, statusService, metricsService);
+        OkexWebSocketClient client = new OkexWebSocketClient(loader, parser, batchWriter, statusService, metricsService,
+                Mockito.mock(CandleEventDispatcher.class));
 
         TestScheduler scheduler = new TestScheduler();
         ReflectionTestUtils.setField(client, "scheduler", scheduler);
@@ -0,0 +1,14 @@
+package com.supermancell.simulator;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Local stand-in for the OKX v5 market data endpoints (load and soak testing)
+ */
+@SpringBootApplication
+public class OkexSimulatorApplication {
+    public static void main(String[] args) {
+        SpringApplication.run(OkexSimulatorApplication.class, args);
+    }
+}
@@ -0,0 +1,112 @@
+package com.supermancell.simulator.market;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OKX bar (candle interval) such as 1m, 1H, 1D or 1Dutc
+ * 
+ * Minute and hour bars up to 4H are aligned to UTC. 6H and longer bars are aligned
+ * to Hong Kong time (UTC+8) unless the "utc" suffix is present, as on OKX.
+ * Weekly bars start on Monday. Monthly bars are not supported.
+ */
+public final class BarSpec {
+
+    private static final long HK_OFFSET_MILLIS = TimeUnit.HOURS.toMillis(8);
+    /** 1970-01-01 was a Thursday: the first Monday is 4 days after the epoch */
+    private static final long MONDAY_SHIFT_MILLIS = TimeUnit.DAYS.toMillis(4);
+
+    private final String bar;
+    private final long durationMillis;
+    private final long offsetMillis;
+
+    private BarSpec(String bar, long durationMillis, long offsetMillis) {
+        this.bar = bar;
+        this.durationMillis = durationMillis;
+        this.offsetMillis = offsetMillis;
+    }
+
+    /**
+     * @param bar OKX bar, e.g. 1m, 15m, 1H, 4H, 1D, 1Dutc, 1W
+     * @return Parsed bar, or null if the bar is not supported
+     */
+    public static BarSpec parse(String bar) {
+        if (bar == null || bar.length() < 2) {
+            return null;
+        }
+        boolean utc = bar.endsWith("utc");
+        String spec = utc ? bar.substring(0, bar.length() - 3) : bar;
+        if (spec.length() < 2) {
+            return null;
+        }
+
+        int amount;
+        try {
+            amount = Integer.parseInt(spec.substring(0, spec.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (amount <= 0) {
+            return null;
+        }
+
+        long unitMillis;
+        switch (spec.charAt(spec.length() - 1)) {
+            case 'm':
+                if (utc) {
+                    return null;
+                }
+                unitMillis = TimeUnit.MINUTES.toMillis(1);
+                break;
+            case 'H':
+                unitMillis = TimeUnit.HOURS.toMillis(1);
+                break;
+            case 'D':
+                unitMillis = TimeUnit.DAYS.toMillis(1);
+                break;
+            case 'W':
+                unitMillis = TimeUnit.DAYS.toMillis(7);
+                break;
+            default:
+                return null;
+        }
+
+        long duration = amount * unitMillis;
+        long offset = utc || duration < TimeUnit.HOURS.toMillis(6) ? 0 : HK_OFFSET_MILLIS;
+        if (spec.endsWith("W")) {
+            offset -= MONDAY_SHIFT_MILLIS;
+        }
+        return new BarSpec(bar, duration, offset);
+    }
+
+    /**
+     * Open time of the candle containing the given instant
+     */
+    public long openTime(long timestampMillis) {
+        return Math.floorDiv(timestampMillis + offsetMillis, durationMillis) * durationMillis - offsetMillis;
+    }
+
+    public String getBar() {
+        return bar;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return bar.equals(((BarSpec) o).bar);
+    }
+
+    @Override
+    public int hashCode() {
+        return bar.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return bar;
+    }
+}
@@ -0,0 +1,48 @@
+package com.supermancell.simulator.market;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Instant;
+
+/**
+ * Simulated market time
+ * 
+ * Starts at simulator.start-time (epoch millis, 0 = wall clock at startup) and
+ * advances simulator.time-scale times faster than the wall clock, so a soak test
+ * can confirm many 1m candles per real minute.
+ */
+@Component
+public class MarketClock {
+
+    private static final Logger log = LoggerFactory.getLogger(MarketClock.class);
+
+    @Value("${simulator.start-time:0}")
+    private long startTime = 0;
+
+    @Value("${simulator.time-scale:1.0}")
+    private double timeScale = 1.0;
+
+    private long wallStart;
+    private long marketStart;
+
+    @PostConstruct
+    public void init() {
+        if (timeScale <= 0) {
+            throw new IllegalArgumentException("simulator.time-scale must be positive: " + timeScale);
+        }
+        wallStart = System.currentTimeMillis();
+        marketStart = startTime > 0 ? startTime : wallStart;
+        log.info("MarketClock initialized: start={}, timeScale={}", Instant.ofEpochMilli(marketStart), timeScale);
+    }
+
+    /**
+     * Current simulated time in epoch millis
+     */
+    public long now() {
+        return marketStart + (long) ((System.currentTimeMillis() - wallStart) * timeScale);
+    }
+}
@@ -0,0 +1,179 @@
+package com.supermancell.simulator.market;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deterministic candle generator
+ * 
+ * Every candle is a pure function of (seed, symbol, bar, open time, simulated now):
+ * the price follows two slow sine waves per symbol plus per-second noise, so the
+ * WebSocket pushes and the REST history always agree and a run can be reproduced
+ * with the same seed and start time. No state is kept per candle.
+ * 
+ * Gaps: with simulator.gap-probability > 0, a deterministic subset of confirmed
+ * candles is never pushed over the WebSocket (REST still returns them, so gap
+ * detection and REST repair can be exercised).
+ */
+@Component
+public class MarketDataGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(MarketDataGenerator.class);
+
+    private static final long SLOW_CYCLE_MILLIS = TimeUnit.DAYS.toMillis(3);
+    private static final long FAST_CYCLE_MILLIS = TimeUnit.HOURS.toMillis(4);
+    private static final long GAP_SALT = 0x6A09E667F3BCC909L;
+    private static final long WICK_SALT = 0xBB67AE8584CAA73BL;
+    private static final long VOLUME_SALT = 0x3C6EF372FE94F82BL;
+
+    private final MarketClock clock;
+
+    @Value("${simulator.seed:42}")
+    private long seed = 42;
+
+    @Value("${simulator.symbols:BTC-USDT-SWAP,ETH-USDT-SWAP}")
+    private String[] configuredSymbols = {"BTC-USDT-SWAP", "ETH-USDT-SWAP"};
+
+    @Value("${simulator.generated-symbols:0}")
+    private int generatedSymbols = 0;
+
+    @Value("${simulator.volatility:0.002}")
+    private double volatility = 0.002;
+
+    @Value("${simulator.gap-probability:0.0}")
+    private double gapProbability = 0.0;
+
+    private Set<String> symbols = Collections.emptySet();
+
+    public MarketDataGenerator(MarketClock clock) {
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void init() {
+        Set<String> all = new LinkedHashSet<>();
+        for (String symbol : configuredSymbols) {
+            if (!symbol.trim().isEmpty()) {
+                all.add(symbol.trim());
+            }
+        }
+        for (int i = 1; i <= generatedSymbols; i++) {
+            all.add(String.format("SIM%04d-USDT-SWAP", i));
+        }
+        symbols = Collections.unmodifiableSet(all);
+        log.info("MarketDataGenerator initialized: {} symbols, seed={}, volatility={}, gapProbability={}",
+                symbols.size(), seed, volatility, gapProbability);
+    }
+
+    public Set<String> getSymbols() {
+        return symbols;
+    }
+
+    public boolean isKnownSymbol(String symbol) {
+        return symbols.contains(symbol);
+    }
+
+    public long now() {
+        return clock.now();
+    }
+
+    /**
+     * Candle of the given bar opening at openTime, as seen at the current simulated time
+     * 
+     * @return The candle, confirmed if it has closed; null if it has not opened yet
+     */
+    public SimulatedCandle candle(String symbol, BarSpec bar, long openTime) {
+        return candle(symbol, bar, openTime, clock.now());
+    }
+
+    SimulatedCandle candle(String symbol, BarSpec bar, long openTime, long now) {
+        if (openTime > now) {
+            return null;
+        }
+        long closeTime = openTime + bar.getDurationMillis();
+        boolean confirmed = closeTime <= now;
+        long sampleTime = confirmed ? closeTime - 1 : now;
+
+        long symbolKey = symbolKey(symbol);
+        long candleKey = mix(symbolKey ^ mix(bar.getDurationMillis()) ^ mix(openTime));
+
+        double open = price(symbolKey, openTime);
+        double close = price(symbolKey, sampleTime);
+        double elapsedMinutes = (sampleTime - openTime) / 60_000.0 + 1.0;
+        double wick = 2.0 * volatility * Math.sqrt(elapsedMinutes);
+        double high = Math.max(open, close) * (1.0 + wick * unit(candleKey ^ WICK_SALT));
+        double low = Math.min(open, close) * (1.0 - wick * unit(mix(candleKey ^ WICK_SALT)));
+        double volume = (50.0 + 100.0 * unit(candleKey ^ VOLUME_SALT)) * elapsedMinutes;
+
+        return new SimulatedCandle(openTime, open, high, low, close, volume, confirmed);
+    }
+
+    /**
+     * Whether this confirmed candle is dropped from the WebSocket stream
+     */
+    public boolean isGap(String symbol, BarSpec bar, long openTime) {
+        if (gapProbability <= 0) {
+            return false;
+        }
+        long key = mix(symbolKey(symbol) ^ mix(bar.getDurationMillis()) ^ mix(openTime) ^ GAP_SALT);
+        return unit(key) < gapProbability;
+    }
+
+    /**
+     * Candles in REST order (newest first)
+     * 
+     * @param newestOpenTime Open time of the newest candle to return
+     * @param oldestExclusive Candles must open strictly after this time (Long.MIN_VALUE = unbounded)
+     * @param limit Maximum number of candles
+     */
+    public List<SimulatedCandle> history(String symbol, BarSpec bar, long newestOpenTime,
+                                         long oldestExclusive, int limit) {
+        long now = clock.now();
+        List<SimulatedCandle> result = new ArrayList<>(Math.max(0, limit));
+        long openTime = Math.min(bar.openTime(newestOpenTime), bar.openTime(now));
+        while (result.size() < limit && openTime > oldestExclusive) {
+            result.add(candle(symbol, bar, openTime, now));
+            openTime -= bar.getDurationMillis();
+        }
+        return result;
+    }
+
+    private double price(long symbolKey, long timestamp) {
+        double base = 10.0 * Math.pow(5000.0, unit(symbolKey));
+        double phase = 2.0 * Math.PI * unit(mix(symbolKey));
+        double slow = 0.08 * Math.sin(2.0 * Math.PI * timestamp / SLOW_CYCLE_MILLIS + phase);
+        double fast = 0.02 * Math.sin(2.0 * Math.PI * timestamp / FAST_CYCLE_MILLIS + 2.0 * phase);
+        double noise = volatility * (unit(mix(symbolKey ^ mix(Math.floorDiv(timestamp, 1000L)))) - 0.5);
+        return base * (1.0 + slow + fast + noise);
+    }
+
+    private long symbolKey(String symbol) {
+        return mix(seed ^ ((long) symbol.hashCode() << 32 | symbol.length()));
+    }
+
+    /**
+     * SplitMix64 finalizer
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Map a hash to [0, 1)
+     */
+    private static double unit(long hash) {
+        return (hash >>> 11) * 0x1.0p-53;
+    }
+}
@@ -0,0 +1,85 @@
+package com.supermancell.simulator.market;
+
+/**
+ * One generated candle, rendered in the OKX array format
+ * [ts, o, h, l, c, vol, volCcy, volCcyQuote, confirm]
+ */
+public final class SimulatedCandle {
+
+    private final long openTime;
+    private final double open;
+    private final double high;
+    private final double low;
+    private final double close;
+    private final double volume;
+    private final boolean confirmed;
+
+    public SimulatedCandle(long openTime, double open, double high, double low, double close,
+                           double volume, boolean confirmed) {
+        this.openTime = openTime;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+        this.confirmed = confirmed;
+    }
+
+    /**
+     * Append the candle as a JSON array of strings
+     */
+    public void appendJson(StringBuilder out) {
+        out.append("[\"").append(openTime)
+                .append("\",\"").append(price(open))
+                .append("\",\"").append(price(high))
+                .append("\",\"").append(price(low))
+                .append("\",\"").append(price(close))
+                .append("\",\"").append(price(volume))
+                .append("\",\"").append(price(volume))
+                .append("\",\"").append(price(volume * close))
+                .append("\",\"").append(confirmed ? '1' : '0')
+                .append("\"]");
+    }
+
+    /**
+     * OKX array format as strings (REST response rows)
+     */
+    public String[] toArray() {
+        return new String[]{
+                String.valueOf(openTime), price(open), price(high), price(low), price(close),
+                price(volume), price(volume), price(volume * close), confirmed ? "1" : "0"
+        };
+    }
+
+    private static String price(double value) {
+        return String.valueOf(Math.round(value * 100.0) / 100.0);
+    }
+
+    public long getOpenTime() {
+        return openTime;
+    }
+
+    public double getOpen() {
+        return open;
+    }
+
+    public double getHigh() {
+        return high;
+    }
+
+    public double getLow() {
+        return low;
+    }
+
+    public double getClose() {
+        return close;
+    }
+
+    public double getVolume() {
+        return volume;
+    }
+
+    public boolean isConfirmed() {
+        return confirmed;
+    }
+}
@@ -0,0 +1,114 @@
+package com.supermancell.simulator.rest;
+
+import com.supermancell.simulator.market.BarSpec;
+import com.supermancell.simulator.market.MarketDataGenerator;
+import com.supermancell.simulator.market.SimulatedCandle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * OKX v5 market data REST endpoints for candles
+ * 
+ * Same parameters and response shape as the exchange:
+ * {"code":"0","msg":"","data":[[ts,o,h,l,c,vol,volCcy,volCcyQuote,confirm], ...]}, newest first.
+ * - after:  return candles older than this timestamp (pagination)
+ * - before: return candles newer than this timestamp
+ * - limit:  default 100, max 300 (max 100 for history-candles)
+ */
+@RestController
+@RequestMapping("/api/v5/market")
+public class MarketDataController {
+
+    private static final Logger log = LoggerFactory.getLogger(MarketDataController.class);
+
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 300;
+    private static final int MAX_HISTORY_LIMIT = 100;
+
+    private final MarketDataGenerator generator;
+
+    @Value("${simulator.rest.latency-ms:0}")
+    private long latencyMs = 0;
+
+    public MarketDataController(MarketDataGenerator generator) {
+        this.generator = generator;
+    }
+
+    @GetMapping("/candles")
+    public Map<String, Object> getCandles(@RequestParam String instId,
+                                          @RequestParam(defaultValue = "1m") String bar,
+                                          @RequestParam(required = false) Long after,
+                                          @RequestParam(required = false) Long before,
+                                          @RequestParam(required = false) Integer limit) {
+        return candles(instId, bar, after, before, limit, MAX_LIMIT);
+    }
+
+    @GetMapping("/history-candles")
+    public Map<String, Object> getHistoryCandles(@RequestParam String instId,
+                                                 @RequestParam(defaultValue = "1m") String bar,
+                                                 @RequestParam(required = false) Long after,
+                                                 @RequestParam(required = false) Long before,
+                                                 @RequestParam(required = false) Integer limit) {
+        return candles(instId, bar, after, before, limit, MAX_HISTORY_LIMIT);
+    }
+
+    private Map<String, Object> candles(String instId, String bar, Long after, Long before,
+                                        Integer limit, int maxLimit) {
+        simulateLatency();
+
+        BarSpec barSpec = BarSpec.parse(bar);
+        if (barSpec == null) {
+            return error("51000", "Parameter bar error");
+        }
+        if (!generator.isKnownSymbol(instId)) {
+            return error("51001", "Instrument ID does not exist");
+        }
+        int effectiveLimit = limit == null || limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, maxLimit);
+
+        // "after" is exclusive: the newest candle returned opens strictly before it
+        long newest = after != null ? after - 1 : generator.now();
+        long oldestExclusive = before != null ? before : Long.MIN_VALUE;
+
+        List<SimulatedCandle> candles = generator.history(instId, barSpec, newest, oldestExclusive, effectiveLimit);
+        List<String[]> data = new ArrayList<>(candles.size());
+        for (SimulatedCandle candle : candles) {
+            data.add(candle.toArray());
+        }
+        log.debug("Served {} candles for {} {} (after={}, before={}, limit={})",
+                data.size(), instId, bar, after, before, effectiveLimit);
+        return response("0", "", data);
+    }
+
+    private void simulateLatency() {
+        if (latencyMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Map<String, Object> error(String code, String msg) {
+        return response(code, msg, new ArrayList<>());
+    }
+
+    private static Map<String, Object> response(String code, String msg, Object data) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("code", code);
+        body.put("msg", msg);
+        body.put("data", data);
+        return body;
+    }
+}
@@ -0,0 +1,44 @@
+package com.supermancell.simulator.rest;
+
+import com.supermancell.simulator.market.MarketDataGenerator;
+import com.supermancell.simulator.websocket.CandleChannelHandler;
+import com.supermancell.simulator.websocket.CandlePushScheduler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Simulator counters, to compare with what the ingestion side received
+ */
+@RestController
+public class SimulatorStatsController {
+
+    private final MarketDataGenerator generator;
+    private final CandleChannelHandler handler;
+    private final CandlePushScheduler pushScheduler;
+
+    public SimulatorStatsController(MarketDataGenerator generator,
+                                    CandleChannelHandler handler,
+                                    CandlePushScheduler pushScheduler) {
+        this.generator = generator;
+        this.handler = handler;
+        this.pushScheduler = pushScheduler;
+    }
+
+    @GetMapping("/simulator/stats")
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("marketTime", generator.now());
+        stats.put("symbols", generator.getSymbols().size());
+        stats.put("sessions", handler.getSessionCount());
+        stats.put("connections", handler.getConnectionCount());
+        stats.put("framesSent", pushScheduler.getFramesSent());
+        stats.put("confirmedSent", pushScheduler.getConfirmedSent());
+        stats.put("gapsSkipped", pushScheduler.getGapsSkipped());
+        stats.put("sendFailures", pushScheduler.getSendFailures());
+        stats.put("forcedDisconnects", pushScheduler.getForcedDisconnects());
+        return stats;
+    }
+}
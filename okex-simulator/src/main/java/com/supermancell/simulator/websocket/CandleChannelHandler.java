@@ -0,0 +1,151 @@
+package com.supermancell.simulator.websocket;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.supermancell.simulator.market.BarSpec;
+import com.supermancell.simulator.market.MarketDataGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * OKX v5 WebSocket protocol for candle channels
+ * 
+ * Supported messages:
+ * - "ping" text frame, answered with "pong"
+ * - {"op":"subscribe"|"unsubscribe","args":[{"channel":"candle1m","instId":"BTC-USDT-SWAP"}]}
+ *   answered with one {"event":...,"arg":...,"connId":...} per argument, or an
+ *   {"event":"error"} message for unknown channels / instruments
+ * 
+ * Candle data is pushed by CandlePushScheduler.
+ */
+@Component
+public class CandleChannelHandler extends TextWebSocketHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(CandleChannelHandler.class);
+
+    private static final String CANDLE_CHANNEL_PREFIX = "candle";
+
+    private final MarketDataGenerator generator;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, SimulatorSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong connectionCount = new AtomicLong();
+
+    @Value("${simulator.websocket.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs = 10000;
+
+    @Value("${simulator.websocket.buffer-size-limit:16777216}")
+    private int bufferSizeLimit = 16 * 1024 * 1024;
+
+    public CandleChannelHandler(MarketDataGenerator generator) {
+        this.generator = generator;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        // Serialize sends from the push thread and protocol replies; a client that cannot
+        // keep up beyond the buffer limit is disconnected, as the real exchange does
+        WebSocketSession concurrent = new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMs, bufferSizeLimit);
+        String connId = String.format("%08x", session.getId().hashCode());
+        sessions.put(session.getId(), new SimulatorSession(concurrent, connId));
+        connectionCount.incrementAndGet();
+        log.info("Client connected: connId={}, remote={}", connId, session.getRemoteAddress());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        SimulatorSession removed = sessions.remove(session.getId());
+        if (removed != null) {
+            log.info("Client disconnected: connId={}, status={}", removed.getConnId(), status);
+        }
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        SimulatorSession simulatorSession = sessions.get(session.getId());
+        if (simulatorSession == null) {
+            return;
+        }
+        String payload = message.getPayload();
+        if ("ping".equals(payload.trim())) {
+            simulatorSession.getSession().sendMessage(new TextMessage("pong"));
+            return;
+        }
+
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(payload);
+        } catch (IOException e) {
+            sendError(simulatorSession, "60012", "Invalid request: " + payload);
+            return;
+        }
+
+        String op = root.path("op").asText();
+        JsonNode args = root.path("args");
+        if (!("subscribe".equals(op) || "unsubscribe".equals(op)) || !args.isArray() || args.size() == 0) {
+            sendError(simulatorSession, "60012", "Invalid request: " + payload);
+            return;
+        }
+
+        for (JsonNode arg : args) {
+            String channel = arg.path("channel").asText();
+            String instId = arg.path("instId").asText();
+            BarSpec bar = channel.startsWith(CANDLE_CHANNEL_PREFIX)
+                    ? BarSpec.parse(channel.substring(CANDLE_CHANNEL_PREFIX.length()))
+                    : null;
+            if (bar == null || !generator.isKnownSymbol(instId)) {
+                sendError(simulatorSession, "60018", "Wrong URL or channel:" + channel + ",instId:" + instId
+                        + " doesn't exist. Please use the correct URL, channel and parameters referring to API document.");
+                continue;
+            }
+
+            ChannelSubscription subscription = new ChannelSubscription(channel, instId, bar);
+            if ("subscribe".equals(op)) {
+                simulatorSession.subscribe(subscription);
+            } else {
+                simulatorSession.unsubscribe(subscription);
+            }
+
+            ObjectNode event = objectMapper.createObjectNode();
+            event.put("event", op);
+            event.putObject("arg").put("channel", channel).put("instId", instId);
+            event.put("connId", simulatorSession.getConnId());
+            simulatorSession.getSession().sendMessage(new TextMessage(objectMapper.writeValueAsString(event)));
+            log.debug("{} {} for connId={}", op, subscription, simulatorSession.getConnId());
+        }
+    }
+
+    private void sendError(SimulatorSession session, String code, String msg) throws IOException {
+        ObjectNode error = objectMapper.createObjectNode();
+        error.put("event", "error");
+        error.put("code", code);
+        error.put("msg", msg);
+        error.put("connId", session.getConnId());
+        session.getSession().sendMessage(new TextMessage(objectMapper.writeValueAsString(error)));
+    }
+
+    Collection<SimulatorSession> getSessions() {
+        return sessions.values();
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public long getConnectionCount() {
+        return connectionCount.get();
+    }
+}
@@ -0,0 +1,183 @@
+package com.supermancell.simulator.websocket;
+
+import com.supermancell.simulator.market.BarSpec;
+import com.supermancell.simulator.market.MarketDataGenerator;
+import com.supermancell.simulator.market.SimulatedCandle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes candle updates to all subscribed sessions
+ * 
+ * On every tick (simulator.ticks-per-second) each subscription receives the
+ * in-progress candle (confirm=0). When the simulated clock crosses a candle
+ * boundary, the closed candle is pushed once with confirm=1 first, unless it
+ * is a configured gap. With simulator.disconnect-interval-ms > 0 all sessions
+ * are closed periodically to exercise client reconnects.
+ */
+@Component
+public class CandlePushScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(CandlePushScheduler.class);
+
+    /** Upper bound of closed candles confirmed per subscription and tick (high time scales) */
+    private static final int MAX_CONFIRMED_PER_TICK = 100;
+
+    private final CandleChannelHandler handler;
+    private final MarketDataGenerator generator;
+
+    @Value("${simulator.ticks-per-second:2}")
+    private double ticksPerSecond = 2;
+
+    @Value("${simulator.disconnect-interval-ms:0}")
+    private long disconnectIntervalMs = 0;
+
+    private ScheduledExecutorService scheduler;
+
+    private final AtomicLong framesSent = new AtomicLong();
+    private final AtomicLong confirmedSent = new AtomicLong();
+    private final AtomicLong gapsSkipped = new AtomicLong();
+    private final AtomicLong sendFailures = new AtomicLong();
+    private final AtomicLong forcedDisconnects = new AtomicLong();
+
+    public CandlePushScheduler(CandleChannelHandler handler, MarketDataGenerator generator) {
+        this.handler = handler;
+        this.generator = generator;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (ticksPerSecond <= 0) {
+            throw new IllegalArgumentException("simulator.ticks-per-second must be positive: " + ticksPerSecond);
+        }
+        scheduler = Executors.newScheduledThreadPool(1, r -> {
+            Thread t = new Thread(r, "simulator-push");
+            t.setDaemon(true);
+            return t;
+        });
+        long tickMicros = Math.max(1L, (long) (1_000_000L / ticksPerSecond));
+        scheduler.scheduleAtFixedRate(this::safeTick, tickMicros, tickMicros, TimeUnit.MICROSECONDS);
+        if (disconnectIntervalMs > 0) {
+            scheduler.scheduleAtFixedRate(this::disconnectAll, disconnectIntervalMs, disconnectIntervalMs,
+                    TimeUnit.MILLISECONDS);
+        }
+        log.info("CandlePushScheduler started: ticksPerSecond={}, disconnectIntervalMs={}",
+                ticksPerSecond, disconnectIntervalMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void safeTick() {
+        try {
+            tick();
+        } catch (Exception e) {
+            // Never let an exception cancel the periodic task
+            log.error("Candle push tick failed", e);
+        }
+    }
+
+    void tick() {
+        long now = generator.now();
+        StringBuilder frame = new StringBuilder(256);
+        for (SimulatorSession session : handler.getSessions()) {
+            if (!session.getSession().isOpen()) {
+                continue;
+            }
+            for (Map.Entry<ChannelSubscription, Long> entry : session.getLastOpenTimes().entrySet()) {
+                ChannelSubscription subscription = entry.getKey();
+                BarSpec bar = subscription.getBar();
+                long openTime = bar.openTime(now);
+                long lastOpenTime = entry.getValue();
+
+                if (lastOpenTime != Long.MIN_VALUE && lastOpenTime < openTime) {
+                    long from = Math.max(lastOpenTime, openTime - MAX_CONFIRMED_PER_TICK * bar.getDurationMillis());
+                    for (long closed = from; closed < openTime; closed += bar.getDurationMillis()) {
+                        if (generator.isGap(subscription.getInstId(), bar, closed)) {
+                            gapsSkipped.incrementAndGet();
+                            continue;
+                        }
+                        if (send(session, frame, subscription, generator.candle(subscription.getInstId(), bar, closed))) {
+                            confirmedSent.incrementAndGet();
+                        }
+                    }
+                }
+                // Only advance if the entry is still present (not unsubscribed meanwhile)
+                session.getLastOpenTimes().replace(subscription, lastOpenTime, openTime);
+
+                send(session, frame, subscription, generator.candle(subscription.getInstId(), bar, openTime));
+            }
+        }
+    }
+
+    private boolean send(SimulatorSession session, StringBuilder frame,
+                         ChannelSubscription subscription, SimulatedCandle candle) {
+        if (candle == null) {
+            return false;
+        }
+        frame.setLength(0);
+        frame.append("{\"arg\":{\"channel\":\"").append(subscription.getChannel())
+                .append("\",\"instId\":\"").append(subscription.getInstId())
+                .append("\"},\"data\":[");
+        candle.appendJson(frame);
+        frame.append("]}");
+        try {
+            session.getSession().sendMessage(new TextMessage(frame.toString()));
+            framesSent.incrementAndGet();
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            sendFailures.incrementAndGet();
+            log.debug("Failed to push candle to connId={}: {}", session.getConnId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void disconnectAll() {
+        for (SimulatorSession session : handler.getSessions()) {
+            try {
+                session.getSession().close(CloseStatus.SERVICE_RESTARTED);
+                forcedDisconnects.incrementAndGet();
+                log.info("Forced disconnect of connId={}", session.getConnId());
+            } catch (IOException e) {
+                log.warn("Failed to close connId={}", session.getConnId(), e);
+            }
+        }
+    }
+
+    public long getFramesSent() {
+        return framesSent.get();
+    }
+
+    public long getConfirmedSent() {
+        return confirmedSent.get();
+    }
+
+    public long getGapsSkipped() {
+        return gapsSkipped.get();
+    }
+
+    public long getSendFailures() {
+        return sendFailures.get();
+    }
+
+    public long getForcedDisconnects() {
+        return forcedDisconnects.get();
+    }
+}
@@ -0,0 +1,51 @@
+package com.supermancell.simulator.websocket;
+
+import com.supermancell.simulator.market.BarSpec;
+
+import java.util.Objects;
+
+/**
+ * One subscribed candle channel (e.g. candle1m / BTC-USDT-SWAP)
+ */
+final class ChannelSubscription {
+
+    private final String channel;
+    private final String instId;
+    private final BarSpec bar;
+
+    ChannelSubscription(String channel, String instId, BarSpec bar) {
+        this.channel = channel;
+        this.instId = instId;
+        this.bar = bar;
+    }
+
+    String getChannel() {
+        return channel;
+    }
+
+    String getInstId() {
+        return instId;
+    }
+
+    BarSpec getBar() {
+        return bar;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ChannelSubscription that = (ChannelSubscription) o;
+        return channel.equals(that.channel) && instId.equals(that.instId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(channel, instId);
+    }
+
+    @Override
+    public String toString() {
+        return channel + ":" + instId;
+    }
+}
@@ -0,0 +1,47 @@
+package com.supermancell.simulator.websocket;
+
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Connected client and its subscriptions
+ * 
+ * lastOpenTimes remembers, per subscription, the open time of the candle pushed
+ * last, so the push loop knows when a candle has closed and must be confirmed.
+ */
+final class SimulatorSession {
+
+    private final WebSocketSession session;
+    private final String connId;
+    private final Map<ChannelSubscription, Long> lastOpenTimes = new ConcurrentHashMap<>();
+
+    SimulatorSession(WebSocketSession session, String connId) {
+        this.session = session;
+        this.connId = connId;
+    }
+
+    WebSocketSession getSession() {
+        return session;
+    }
+
+    String getConnId() {
+        return connId;
+    }
+
+    /**
+     * @return false if the channel was already subscribed
+     */
+    boolean subscribe(ChannelSubscription subscription) {
+        return lastOpenTimes.putIfAbsent(subscription, Long.MIN_VALUE) == null;
+    }
+
+    void unsubscribe(ChannelSubscription subscription) {
+        lastOpenTimes.remove(subscription);
+    }
+
+    Map<ChannelSubscription, Long> getLastOpenTimes() {
+        return lastOpenTimes;
+    }
+}
@@ -0,0 +1,29 @@
+package com.supermancell.simulator.websocket;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * Exposes the candle channels on the OKX WebSocket paths
+ */
+@Configuration
+@EnableWebSocket
+public class SimulatorWebSocketConfig implements WebSocketConfigurer {
+
+    private final CandleChannelHandler handler;
+
+    @Value("${simulator.websocket.paths:/ws/v5/business,/ws/v5/public}")
+    private String[] paths = {"/ws/v5/business", "/ws/v5/public"};
+
+    public SimulatorWebSocketConfig(CandleChannelHandler handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(handler, paths).setAllowedOrigins("*");
+    }
+}
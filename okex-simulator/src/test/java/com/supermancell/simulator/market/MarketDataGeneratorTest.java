@@ -0,0 +1,143 @@
+package com.supermancell.simulator.market;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the deterministic candle generator and OKX bar alignment
+ */
+class MarketDataGeneratorTest {
+
+    private static final long NOW = Instant.parse("2024-01-10T12:34:56Z").toEpochMilli();
+    private static final BarSpec ONE_MINUTE = BarSpec.parse("1m");
+
+    private MarketClock clock;
+    private MarketDataGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        clock = mock(MarketClock.class);
+        when(clock.now()).thenReturn(NOW);
+        generator = newGenerator(42L);
+    }
+
+    private MarketDataGenerator newGenerator(long seed) {
+        MarketDataGenerator g = new MarketDataGenerator(clock);
+        ReflectionTestUtils.setField(g, "seed", seed);
+        ReflectionTestUtils.setField(g, "generatedSymbols", 3);
+        g.init();
+        return g;
+    }
+
+    @Test
+    void testBarSpec_Alignment() {
+        assertEquals(Instant.parse("2024-01-10T12:34:00Z").toEpochMilli(), ONE_MINUTE.openTime(NOW));
+        assertEquals(Instant.parse("2024-01-10T12:30:00Z").toEpochMilli(), BarSpec.parse("15m").openTime(NOW));
+        assertEquals(Instant.parse("2024-01-10T12:00:00Z").toEpochMilli(), BarSpec.parse("4H").openTime(NOW));
+        // 1D opens at 00:00 Hong Kong time (16:00 UTC the day before), 1Dutc at 00:00 UTC
+        assertEquals(Instant.parse("2024-01-09T16:00:00Z").toEpochMilli(), BarSpec.parse("1D").openTime(NOW));
+        assertEquals(Instant.parse("2024-01-10T00:00:00Z").toEpochMilli(), BarSpec.parse("1Dutc").openTime(NOW));
+        // Weeks start on Monday (2024-01-08)
+        assertEquals(Instant.parse("2024-01-07T16:00:00Z").toEpochMilli(), BarSpec.parse("1W").openTime(NOW));
+        assertEquals(Instant.parse("2024-01-08T00:00:00Z").toEpochMilli(), BarSpec.parse("1Wutc").openTime(NOW));
+    }
+
+    @Test
+    void testBarSpec_RejectsUnsupportedBars() {
+        assertNull(BarSpec.parse("1M"));
+        assertNull(BarSpec.parse("0m"));
+        assertNull(BarSpec.parse("xH"));
+        assertNull(BarSpec.parse("1mutc"));
+        assertNull(BarSpec.parse(""));
+    }
+
+    @Test
+    void testSymbols_ConfiguredAndGenerated() {
+        assertTrue(generator.isKnownSymbol("BTC-USDT-SWAP"));
+        assertTrue(generator.isKnownSymbol("SIM0003-USDT-SWAP"));
+        assertFalse(generator.isKnownSymbol("SIM0004-USDT-SWAP"));
+        assertEquals(5, generator.getSymbols().size());
+    }
+
+    @Test
+    void testCandle_DeterministicForSameSeed() {
+        long openTime = ONE_MINUTE.openTime(NOW) - 60_000L;
+        SimulatedCandle a = generator.candle("BTC-USDT-SWAP", ONE_MINUTE, openTime);
+        SimulatedCandle b = newGenerator(42L).candle("BTC-USDT-SWAP", ONE_MINUTE, openTime);
+        SimulatedCandle c = newGenerator(7L).candle("BTC-USDT-SWAP", ONE_MINUTE, openTime);
+
+        assertArrayEquals(a.toArray(), b.toArray());
+        assertNotEquals(a.getClose(), c.getClose());
+    }
+
+    @Test
+    void testCandle_ConfirmedOnlyAfterClose() {
+        long openTime = ONE_MINUTE.openTime(NOW);
+        SimulatedCandle inProgress = generator.candle("ETH-USDT-SWAP", ONE_MINUTE, openTime);
+        assertFalse(inProgress.isConfirmed());
+        assertEquals("0", inProgress.toArray()[8]);
+
+        when(clock.now()).thenReturn(openTime + 60_000L);
+        SimulatedCandle closed = generator.candle("ETH-USDT-SWAP", ONE_MINUTE, openTime);
+        assertTrue(closed.isConfirmed());
+        assertEquals(inProgress.getOpen(), closed.getOpen());
+
+        assertNull(generator.candle("ETH-USDT-SWAP", ONE_MINUTE, openTime + 120_000L));
+    }
+
+    @Test
+    void testCandle_ConsistentOhlc() {
+        List<SimulatedCandle> candles = generator.history("SIM0001-USDT-SWAP", ONE_MINUTE, NOW, Long.MIN_VALUE, 300);
+        for (SimulatedCandle candle : candles) {
+            assertTrue(candle.getHigh() >= Math.max(candle.getOpen(), candle.getClose()));
+            assertTrue(candle.getLow() <= Math.min(candle.getOpen(), candle.getClose()));
+            assertTrue(candle.getLow() > 0);
+            assertTrue(candle.getVolume() > 0);
+        }
+    }
+
+    @Test
+    void testHistory_NewestFirstWithinBounds() {
+        long current = ONE_MINUTE.openTime(NOW);
+        List<SimulatedCandle> latest = generator.history("BTC-USDT-SWAP", ONE_MINUTE, NOW, Long.MIN_VALUE, 5);
+        assertEquals(5, latest.size());
+        assertEquals(current, latest.get(0).getOpenTime());
+        assertFalse(latest.get(0).isConfirmed());
+        assertEquals(current - 4 * 60_000L, latest.get(4).getOpenTime());
+
+        // Page older than the current candle, bounded by "before"
+        List<SimulatedCandle> page = generator.history("BTC-USDT-SWAP", ONE_MINUTE, current - 1,
+                current - 3 * 60_000L, 100);
+        assertEquals(2, page.size());
+        assertEquals(current - 60_000L, page.get(0).getOpenTime());
+        assertTrue(page.get(0).isConfirmed());
+
+        // Never beyond the simulated now
+        assertEquals(current, generator.history("BTC-USDT-SWAP", ONE_MINUTE, NOW + 3_600_000L,
+                Long.MIN_VALUE, 1).get(0).getOpenTime());
+    }
+
+    @Test
+    void testIsGap_FollowsProbability() {
+        assertFalse(generator.isGap("BTC-USDT-SWAP", ONE_MINUTE, 0L));
+
+        ReflectionTestUtils.setField(generator, "gapProbability", 0.1);
+        int gaps = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (generator.isGap("BTC-USDT-SWAP", ONE_MINUTE, i * 60_000L)) {
+                gaps++;
+            }
+        }
+        assertTrue(gaps > 800 && gaps < 1200, "gaps=" + gaps);
+        assertEquals(generator.isGap("BTC-USDT-SWAP", ONE_MINUTE, 600_000L),
+                generator.isGap("BTC-USDT-SWAP", ONE_MINUTE, 600_000L));
+    }
+}